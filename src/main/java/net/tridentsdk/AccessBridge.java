@@ -16,25 +16,28 @@
  */
 package net.tridentsdk;
 
-import com.google.common.collect.Maps;
+import com.google.common.base.Preconditions;
 import net.tridentsdk.concurrent.HeldValueLatch;
 import net.tridentsdk.util.TridentLogger;
 
-import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Allows the implementation and the API to communicate and pass values over the bridge
  *
+ * <p>Each identifier has a single {@link Slot} which never changes once created, so callers can keep the slot in a
+ * {@code static final} field and read the instance from it directly. Once an instance has been sent, obtaining it
+ * is a single volatile read, without locking or waiting.</p>
+ *
  * @author The TridentSDK Team
  */
 @ThreadSafe
 public final class AccessBridge {
     private static final AccessBridge BRIDGE = new AccessBridge();
 
-    @GuardedBy("instances")
-    private final Map<Class<?>, HeldValueLatch> instances = Maps.newHashMap();
+    private final ConcurrentMap<Class<?>, Slot<?>> slots = new ConcurrentHashMap<>();
 
     private AccessBridge() {
     }
@@ -48,6 +51,23 @@ public final class AccessBridge {
         return BRIDGE;
     }
 
+    /**
+     * Obtains the slot which holds the instance sent with the identifier
+     *
+     * <p>The same slot is returned for every call with the same identifier, whether or not the instance has been
+     * sent yet.</p>
+     *
+     * @param c   the identifier for the instance
+     * @param <T> the type for the object
+     * @return the slot of the identifier
+     */
+    public <T> Slot<T> slot(Class<T> c) {
+        Slot<?> slot = slots.get(c);
+        if (slot == null)
+            slot = slots.computeIfAbsent(c, k -> new Slot<>(k));
+        return (Slot<T>) slot;
+    }
+
     /**
      * Sends an instance of an object over the bridge
      *
@@ -55,16 +75,8 @@ public final class AccessBridge {
      * @param impl the instance to send
      */
     public void send(Class<?> id, Object impl) {
-        HeldValueLatch latch;
-        synchronized (instances) {
-            latch = instances.get(id);
-            if (latch == null) {
-                latch = HeldValueLatch.create();
-                instances.put(id, latch);
-            }
-        }
-
-        latch.countDown(impl);
+        Preconditions.checkNotNull(impl, "Cannot send a null instance");
+        ((Slot<Object>) slot(id)).latch.countDown(impl);
     }
 
     /**
@@ -103,25 +115,69 @@ public final class AccessBridge {
     /**
      * Obtains the instance sent of the bridge, blocking if it has not been sent yet
      *
+     * <p>Code which demands the same instance often should keep its {@link #slot(Class) slot} instead.</p>
+     *
      * @param c the identifier for the sent instance
      * @param <T> the type for the object
      * @return the instance of the object sent over the bridge with the provided identifier
      */
     public <T> T demand(Class<T> c) {
-        HeldValueLatch latch;
-        synchronized (instances) {
-            latch = instances.get(c);
-            if (latch == null) {
-                latch = HeldValueLatch.create();
-                instances.put(c, latch);
+        return slot(c).get();
+    }
+
+    /**
+     * Holds the instance sent over the bridge with a single identifier
+     *
+     * @param <T> the type of the instance
+     * @author The TridentSDK Team
+     */
+    @ThreadSafe
+    public static final class Slot<T> {
+        private final Class<?> id;
+        private final HeldValueLatch<T> latch = HeldValueLatch.create();
+
+        private Slot(Class<?> id) {
+            this.id = id;
+        }
+
+        /**
+         * Obtains the instance, blocking if it has not been sent yet
+         *
+         * <p>If the thread is interrupted while waiting, its interrupt status is kept and {@code null} is
+         * returned.</p>
+         *
+         * @return the instance held by the slot
+         */
+        public T get() {
+            T value = latch.get();
+            if (value != null)
+                return value;
+
+            try {
+                return latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                TridentLogger.error(new IllegalStateException("Interrupted while waiting for " + id.getName(), e));
+                return null;
             }
         }
 
-        try {
-            return (T) latch.await();
-        } catch (InterruptedException e) {
-            TridentLogger.error(e);
-            return null;
+        /**
+         * Obtains the instance without waiting for it to be sent
+         *
+         * @return the instance held by the slot, or {@code null} if it has not been sent
+         */
+        public T getNow() {
+            return latch.get();
+        }
+
+        /**
+         * Checks if an instance has been sent
+         *
+         * @return {@code true} if the slot holds an instance
+         */
+        public boolean isPresent() {
+            return latch.hasValue();
         }
     }
-}
\ No newline at end of file
+}
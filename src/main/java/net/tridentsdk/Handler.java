@@ -16,10 +16,12 @@
  */
 package net.tridentsdk;
 
+import net.tridentsdk.entity.EntityTable;
 import net.tridentsdk.event.EventHandler;
 import net.tridentsdk.plugin.TridentPluginHandler;
 import net.tridentsdk.plugin.channel.ChannelHandler;
 import net.tridentsdk.plugin.cmd.CommandHandler;
+import net.tridentsdk.profiler.TickProfiler;
 import net.tridentsdk.service.ChatHandler;
 import net.tridentsdk.service.TransactionHandler;
 import net.tridentsdk.window.WindowHandler;
@@ -30,7 +32,12 @@ import net.tridentsdk.window.WindowHandler;
  * @author The TridentSDK Team
  */
 public final class Handler {
-    private static final AccessBridge BRIDGE = AccessBridge.open();
+    private static final AccessBridge.Slot<ChannelHandler> CHANNEL_HANDLER =
+            AccessBridge.open().slot(ChannelHandler.class);
+    private static final AccessBridge.Slot<WindowHandler> WINDOW_HANDLER =
+            AccessBridge.open().slot(WindowHandler.class);
+    private static final TickProfiler PROFILER = new TickProfiler();
+    private static final EntityTable ENTITY_TABLE = new EntityTable();
 
     private static final EventHandler EVENT_HANDLER = EventHandler.create();
     private static final TridentPluginHandler PLUGIN_HANDLER = new TridentPluginHandler();
@@ -86,13 +93,31 @@ public final class Handler {
         return TRANSACTION_HANDLER;
     }
 
+    /**
+     * Obtains the table which entity handles are resolved through
+     *
+     * @return the entity table
+     */
+    public static EntityTable forEntities() {
+        return ENTITY_TABLE;
+    }
+
+    /**
+     * Obtains the profiler which the server's ticks are measured by
+     *
+     * @return the tick profiler
+     */
+    public static TickProfiler forProfiling() {
+        return PROFILER;
+    }
+
     /**
      * Obtains the static instance of the channel handler
      *
      * @return the channel handler instance
      */
     public static ChannelHandler forChannels() {
-        return BRIDGE.demand(ChannelHandler.class);
+        return CHANNEL_HANDLER.get();
     }
 
     /**
@@ -101,6 +126,6 @@ public final class Handler {
      * @return the window handler
      */
     public static WindowHandler forWindows() {
-        return BRIDGE.demand(WindowHandler.class);
+        return WINDOW_HANDLER.get();
     }
 }
@@ -17,10 +17,11 @@
 
 package net.tridentsdk;
 
-import com.google.common.base.Objects;
 import com.google.common.base.Preconditions;
 import net.tridentsdk.base.Block;
 import net.tridentsdk.docs.PossiblyThreadSafe;
+import net.tridentsdk.util.BlockPos;
+import net.tridentsdk.util.Coordinates;
 import net.tridentsdk.util.Vector;
 import net.tridentsdk.world.Chunk;
 import net.tridentsdk.world.World;
@@ -28,10 +29,13 @@ import net.tridentsdk.world.World;
 /**
  * Represents a point on the coordinate grid of the world
  *
+ * <p>For math performed many times per tick, prefer {@link net.tridentsdk.util.Vec3d}, which operates on positions
+ * directly through {@link Coordinates}.</p>
+ *
  * @author The TridentSDK Team
  */
 @PossiblyThreadSafe
-public class Position implements Cloneable {
+public class Position implements Coordinates, Cloneable {
     private volatile double x;
     private volatile double y;
     private volatile double z;
@@ -91,6 +95,7 @@ public class Position implements Cloneable {
      *
      * @return the x value of this location
      */
+    @Override
     public double x() {
         return this.x;
     }
@@ -109,6 +114,7 @@ public class Position implements Cloneable {
      *
      * @return the y value of this location
      */
+    @Override
     public double y() {
         return this.y;
     }
@@ -127,6 +133,7 @@ public class Position implements Cloneable {
      *
      * @return the z value of this location
      */
+    @Override
     public double z() {
         return this.z;
     }
@@ -202,16 +209,30 @@ public class Position implements Cloneable {
         this.pitch = pitch;
     }
 
+    /**
+     * Sets the x, y, and z of this location to the given coordinates, leaving the world, yaw and pitch unchanged
+     *
+     * @param coordinates the coordinates to copy
+     * @return this location
+     */
+    public Position set(Coordinates coordinates) {
+        this.setX(coordinates.x());
+        this.setY(coordinates.y());
+        this.setZ(coordinates.z());
+
+        return this;
+    }
+
     /**
      * Adds the x, y, and z from the vector to the coordinates of this location
      *
      * @param vector the vector containing the relative data
      * @return the relative location
      */
-    public Position add(Vector vector) {
-        this.setX(vector.x());
-        this.setY(vector.y());
-        this.setZ(vector.z());
+    public Position add(Coordinates vector) {
+        this.setX(this.x() + vector.x());
+        this.setY(this.y() + vector.y());
+        this.setZ(this.z() + vector.z());
 
         return this;
     }
@@ -227,6 +248,15 @@ public class Position implements Cloneable {
                 vector.z() + this.z(), this.yaw(), this.pitch());
     }
 
+    /**
+     * The position of the block containing this location, packed into a {@code long}
+     *
+     * @return the packed block position, as encoded by {@link net.tridentsdk.util.BlockPos#pack(int, int, int)}
+     */
+    public long blockPos() {
+        return BlockPos.pack(this);
+    }
+
     /**
      * Acquires the tile at this location
      *
@@ -303,6 +333,12 @@ public class Position implements Cloneable {
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(world, x, y, z, pitch, yaw);
+        int result = world == null ? 0 : world.hashCode();
+        result = 31 * result + Double.hashCode(x);
+        result = 31 * result + Double.hashCode(y);
+        result = 31 * result + Double.hashCode(z);
+        result = 31 * result + Float.hashCode(pitch);
+        result = 31 * result + Float.hashCode(yaw);
+        return result;
     }
 }
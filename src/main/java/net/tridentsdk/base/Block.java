@@ -18,6 +18,7 @@
 package net.tridentsdk.base;
 
 import net.tridentsdk.Position;
+import net.tridentsdk.util.BlockPos;
 import net.tridentsdk.util.Vector;
 
 /**
@@ -47,6 +48,17 @@ public interface Block {
      */
     Position location();
 
+    /**
+     * Returns the position of the Block packed into a {@code long}
+     *
+     * <p>Implementations should override this to avoid creating the location.</p>
+     *
+     * @return the position of the Block, packed by {@link BlockPos#pack(int, int, int)}
+     */
+    default long blockPos() {
+        return BlockPos.pack(location());
+    }
+
     /**
      * Gets the tile data
      *
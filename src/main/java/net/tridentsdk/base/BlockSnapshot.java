@@ -19,6 +19,7 @@ package net.tridentsdk.base;
 
 import net.tridentsdk.Position;
 import net.tridentsdk.docs.InternalUseOnly;
+import net.tridentsdk.util.BlockPos;
 
 import javax.annotation.concurrent.Immutable;
 
@@ -32,11 +33,13 @@ import javax.annotation.concurrent.Immutable;
 @Immutable
 public final class BlockSnapshot {
     private final Position location;
+    private final long blockPos;
     private final Substance material;
     private final byte data;
 
     private BlockSnapshot(Position location, Substance material, byte data) {
         this.location = location;
+        this.blockPos = BlockPos.pack(location);
         this.material = material;
         this.data = data;
     }
@@ -71,6 +74,15 @@ public final class BlockSnapshot {
         return location;
     }
 
+    /**
+     * The position of the snapshotted block, packed into a {@code long}
+     *
+     * @return the packed position, as encoded by {@link BlockPos#pack(int, int, int)}
+     */
+    public long blockPos() {
+        return blockPos;
+    }
+
     public Substance type() {
         return material;
     }
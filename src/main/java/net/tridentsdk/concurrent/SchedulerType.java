@@ -51,5 +51,15 @@ public enum SchedulerType {
     /**
      * Synchronously runs the task repeatedly, until stopped.
      */
-    SYNC_REPEAT
+    SYNC_REPEAT,
+
+    /**
+     * Runs the task the next tick on the thread which owns the region containing a position
+     */
+    REGION_RUN,
+
+    /**
+     * Asynchronously runs the task the next tick on its own virtual thread, for tasks which block on I/O
+     */
+    ASYNC_VIRTUAL
 }
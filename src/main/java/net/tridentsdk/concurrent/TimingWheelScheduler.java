@@ -0,0 +1,620 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.concurrent;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import net.tridentsdk.Position;
+import net.tridentsdk.factory.TaskFactory;
+import net.tridentsdk.plugin.TridentPlugin;
+import net.tridentsdk.profiler.TickProfiler;
+import net.tridentsdk.util.Long2ObjectMap;
+import net.tridentsdk.util.TridentLogger;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link TaskFactory} which stores scheduled tasks in a hierarchical timing wheel
+ *
+ * <p>The wheel has 5 levels of 64 slots. The first level holds the tasks due in the next 64 ticks, one slot per
+ * tick; each following level covers 64 times the span of the level below it. When the lower levels have been
+ * turned through, the matching slot of the level above is moved down. Scheduling and cancelling a task takes
+ * constant time regardless of how many tasks are scheduled, and a tick only visits the tasks which are due in
+ * it.</p>
+ *
+ * <p>Tasks which are due in the same tick and repeat with the same interval are kept together in a single group.
+ * The group is moved through the wheel as one entry, so thousands of identical cooldown tasks cost about the same
+ * to reschedule as one. A task leaves its group when it is cancelled, or when its interval is changed.</p>
+ *
+ * <p>Synchronous tasks are run by the thread which calls {@link #tick()}, asynchronous tasks are run by the given
+ * executor, {@link #asyncVirtual(TridentPlugin, TridentRunnable) virtual tasks} each run on a new virtual thread,
+ * and {@link #runAt(TridentPlugin, Position, TridentRunnable) region tasks} are sent to the region which
+ * contains their position.</p>
+ *
+ * <p>The time spent running each task is attributed to its plugin by the {@link TickProfiler} given to the
+ * scheduler.</p>
+ *
+ * @author The TridentSDK Team
+ */
+@ThreadSafe
+public class TimingWheelScheduler implements TaskFactory {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 5;
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private final Executor async;
+    private final Executor virtual;
+    private final TickProfiler profiler;
+
+    private final Lock lock = new ReentrantLock();
+    @GuardedBy("lock")
+    private final Group[][] wheel = new Group[LEVELS][SLOTS];
+    // Groups by the tick they are due in, groups due in the same tick with different periods are chained
+    @GuardedBy("lock")
+    private final Long2ObjectMap<Group> groups = new Long2ObjectMap<>();
+    @GuardedBy("lock")
+    private Group spare;
+    @GuardedBy("lock")
+    private long now;
+    @GuardedBy("lock")
+    private int size;
+
+    // Only accessed by the ticking thread
+    private final List<Task> expired = Lists.newArrayList();
+
+    /**
+     * Creates a new scheduler
+     *
+     * @param async the executor which runs asynchronous tasks
+     */
+    public TimingWheelScheduler(Executor async) {
+        this(async, VirtualThreads.executor("Scheduler Virtual"));
+    }
+
+    /**
+     * Creates a new scheduler
+     *
+     * @param async   the executor which runs asynchronous tasks
+     * @param virtual the executor which runs {@link SchedulerType#ASYNC_VIRTUAL} tasks
+     */
+    public TimingWheelScheduler(Executor async, Executor virtual) {
+        this(async, virtual, new TickProfiler());
+    }
+
+    /**
+     * Creates a new scheduler
+     *
+     * @param async    the executor which runs asynchronous tasks
+     * @param virtual  the executor which runs {@link SchedulerType#ASYNC_VIRTUAL} tasks
+     * @param profiler the profiler which the time spent running each task is attributed to
+     */
+    public TimingWheelScheduler(Executor async, Executor virtual, TickProfiler profiler) {
+        Preconditions.checkNotNull(async, "Executor cannot be null");
+        Preconditions.checkNotNull(virtual, "Virtual executor cannot be null");
+        Preconditions.checkNotNull(profiler, "Profiler cannot be null");
+        this.async = async;
+        this.virtual = virtual;
+        this.profiler = profiler;
+    }
+
+    /**
+     * The profiler which the time spent running each task is attributed to
+     *
+     * @return the profiler of this scheduler
+     */
+    public TickProfiler profiler() {
+        return profiler;
+    }
+
+    @Override
+    public ScheduledTask asyncRun(TridentPlugin plugin, TridentRunnable runnable) {
+        return schedule(plugin, runnable, SchedulerType.ASYNC_RUN, null, 1, 0);
+    }
+
+    @Override
+    public ScheduledTask asyncVirtual(TridentPlugin plugin, TridentRunnable runnable) {
+        return schedule(plugin, runnable, SchedulerType.ASYNC_VIRTUAL, null, 1, 0);
+    }
+
+    @Override
+    public ScheduledTask syncRun(TridentPlugin plugin, TridentRunnable runnable) {
+        return schedule(plugin, runnable, SchedulerType.SYNC_RUN, null, 1, 0);
+    }
+
+    @Override
+    public ScheduledTask asyncLater(TridentPlugin plugin, TridentRunnable runnable, long delay) {
+        return schedule(plugin, runnable, SchedulerType.ASYNC_LATER, null, delay, delay);
+    }
+
+    @Override
+    public ScheduledTask syncLater(TridentPlugin plugin, TridentRunnable runnable, long delay) {
+        return schedule(plugin, runnable, SchedulerType.SYNC_LATER, null, delay, delay);
+    }
+
+    @Override
+    public ScheduledTask asyncRepeat(TridentPlugin plugin, TridentRunnable runnable, long delay,
+            long initialInterval) {
+        Preconditions.checkArgument(initialInterval > 0, "Interval must be positive");
+        return schedule(plugin, runnable, SchedulerType.ASYNC_REPEAT, null, delay, initialInterval);
+    }
+
+    @Override
+    public ScheduledTask syncRepeat(TridentPlugin plugin, TridentRunnable runnable, long delay,
+            long initialInterval) {
+        Preconditions.checkArgument(initialInterval > 0, "Interval must be positive");
+        return schedule(plugin, runnable, SchedulerType.SYNC_REPEAT, null, delay, initialInterval);
+    }
+
+    @Override
+    public ScheduledTask runAt(TridentPlugin plugin, Position position, TridentRunnable runnable) {
+        Preconditions.checkNotNull(position, "Position cannot be null");
+        return schedule(plugin, runnable, SchedulerType.REGION_RUN, position, 1, 0);
+    }
+
+    /**
+     * The amount of tasks which are waiting to run
+     *
+     * @return the amount of scheduled tasks
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The amount of times {@link #tick()} has been called
+     *
+     * @return the current tick
+     */
+    public long currentTick() {
+        lock.lock();
+        try {
+            return now;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cancels every task scheduled by the plugin, such as when it is disabled
+     *
+     * <p>Unlike cancelling a single task, this visits every scheduled task.</p>
+     *
+     * @param plugin the plugin
+     * @return the amount of tasks which were cancelled
+     */
+    public int cancelAll(TridentPlugin plugin) {
+        List<Task> owned = Lists.newArrayList();
+        lock.lock();
+        try {
+            for (Group[] level : wheel) {
+                for (Group group : level) {
+                    for (; group != null; group = group.next) {
+                        for (int i = 0; i < group.size; i++) {
+                            if (group.tasks[i].owner == plugin)
+                                owned.add(group.tasks[i]);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        owned.forEach(Task::cancel);
+        return owned.size();
+    }
+
+    /**
+     * Advances the wheel by a tick and runs the tasks which are due
+     *
+     * <p>This is called once each tick by the server, and must not be called by more than one thread at a
+     * time.</p>
+     */
+    public void tick() {
+        lock.lock();
+        try {
+            long tick = ++now;
+            for (int level = 1; level < LEVELS; level++) {
+                if ((tick & ((1L << (SLOT_BITS * level)) - 1)) != 0)
+                    break;
+                cascade(level, (int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+            }
+
+            int slot = (int) tick & SLOT_MASK;
+            Group group = wheel[0][slot];
+            wheel[0][slot] = null;
+            groups.remove(tick);
+            while (group != null) {
+                Group next = group.next;
+                group.prev = group.next = group.sibling = null;
+                expire(group, tick);
+                group = next;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        for (int i = 0; i < expired.size(); i++) {
+            expired.get(i).dispatch();
+        }
+        expired.clear();
+    }
+
+    private ScheduledTask schedule(TridentPlugin plugin, TridentRunnable runnable, SchedulerType type,
+            Position position, long delay, long interval) {
+        Preconditions.checkNotNull(plugin, "Plugin cannot be null");
+        Preconditions.checkNotNull(runnable, "Runnable cannot be null");
+        Preconditions.checkArgument(delay >= 0, "Delay cannot be negative");
+
+        Task task = new Task(plugin, runnable, type, position, interval);
+        runnable.markSchedule(task);
+
+        lock.lock();
+        try {
+            add(task, now + Math.max(1, delay), task.repeating ? interval : 0);
+            size++;
+        } finally {
+            lock.unlock();
+        }
+
+        return task;
+    }
+
+    @GuardedBy("lock")
+    private void add(Task task, long deadline, long period) {
+        Group first = groups.get(deadline);
+        Group group = first;
+        while (group != null && group.period != period)
+            group = group.sibling;
+
+        if (group == null) {
+            group = obtain(deadline, period);
+            group.sibling = first;
+            groups.put(deadline, group);
+            link(group);
+        }
+
+        group.add(task);
+    }
+
+    @GuardedBy("lock")
+    private void remove(Task task) {
+        Group group = task.group;
+        group.remove(task);
+        size--;
+        if (group.size > 0)
+            return;
+
+        unlink(group);
+        Group first = groups.get(group.deadline);
+        if (first == group) {
+            if (group.sibling == null) {
+                groups.remove(group.deadline);
+            } else {
+                groups.put(group.deadline, group.sibling);
+            }
+        } else {
+            while (first.sibling != group)
+                first = first.sibling;
+            first.sibling = group.sibling;
+        }
+        recycle(group);
+    }
+
+    @GuardedBy("lock")
+    private void expire(Group group, long tick) {
+        for (int i = 0; i < group.size; i++) {
+            Task task = group.tasks[i];
+            task.lastRun = tick;
+            expired.add(task);
+        }
+
+        if (group.period == 0) {
+            for (int i = 0; i < group.size; i++) {
+                group.tasks[i].group = null;
+            }
+            size -= group.size;
+            recycle(group);
+            return;
+        }
+
+        // Tasks whose interval changed before their first run leave the group, the rest move on together
+        for (int i = group.size - 1; i >= 0; i--) {
+            Task task = group.tasks[i];
+            long interval = task.interval;
+            if (interval != group.period) {
+                group.remove(task);
+                add(task, tick + interval, interval);
+            }
+        }
+
+        if (group.size == 0) {
+            recycle(group);
+            return;
+        }
+
+        long deadline = tick + group.period;
+        Group first = groups.get(deadline);
+        for (Group existing = first; existing != null; existing = existing.sibling) {
+            if (existing.period == group.period) {
+                for (int i = 0; i < group.size; i++) {
+                    existing.add(group.tasks[i]);
+                }
+                recycle(group);
+                return;
+            }
+        }
+
+        group.deadline = deadline;
+        group.sibling = first;
+        groups.put(deadline, group);
+        link(group);
+    }
+
+    @GuardedBy("lock")
+    private void cascade(int level, int slot) {
+        Group group = wheel[level][slot];
+        wheel[level][slot] = null;
+        while (group != null) {
+            Group next = group.next;
+            group.prev = group.next = null;
+            link(group);
+            group = next;
+        }
+    }
+
+    @GuardedBy("lock")
+    private void link(Group group) {
+        long delta = group.deadline - now;
+        long target = group.deadline;
+        if (delta >= SPAN) {
+            // Beyond the top level, so placed as far out as possible and moved down again later
+            delta = SPAN - 1;
+            target = now + delta;
+        }
+
+        int level = 0;
+        while (delta >= 1L << (SLOT_BITS * (level + 1)))
+            level++;
+        int slot = (int) (target >>> (SLOT_BITS * level)) & SLOT_MASK;
+
+        Group head = wheel[level][slot];
+        group.level = level;
+        group.slot = slot;
+        group.prev = null;
+        group.next = head;
+        if (head != null)
+            head.prev = group;
+        wheel[level][slot] = group;
+    }
+
+    @GuardedBy("lock")
+    private void unlink(Group group) {
+        if (group.prev == null) {
+            wheel[group.level][group.slot] = group.next;
+        } else {
+            group.prev.next = group.next;
+        }
+        if (group.next != null)
+            group.next.prev = group.prev;
+        group.prev = group.next = null;
+    }
+
+    @GuardedBy("lock")
+    private Group obtain(long deadline, long period) {
+        Group group = spare;
+        if (group == null) {
+            group = new Group();
+        } else {
+            spare = group.next;
+            group.next = null;
+        }
+
+        group.deadline = deadline;
+        group.period = period;
+        return group;
+    }
+
+    @GuardedBy("lock")
+    private void recycle(Group group) {
+        Arrays.fill(group.tasks, 0, group.size, null);
+        group.size = 0;
+        group.sibling = group.prev = null;
+        group.next = spare;
+        spare = group;
+    }
+
+    // Tasks due in the same tick with the same period
+    private static final class Group {
+        private long deadline;
+        private long period;
+        private Task[] tasks = new Task[4];
+        private int size;
+
+        private int level;
+        private int slot;
+        private Group prev;
+        private Group next;
+        private Group sibling;
+
+        void add(Task task) {
+            if (size == tasks.length)
+                tasks = Arrays.copyOf(tasks, size << 1);
+            task.group = this;
+            task.index = size;
+            tasks[size++] = task;
+        }
+
+        void remove(Task task) {
+            int index = task.index;
+            Task last = tasks[--size];
+            tasks[index] = last;
+            last.index = index;
+            tasks[size] = null;
+            task.group = null;
+        }
+    }
+
+    private final class Task implements ScheduledTask {
+        private final TridentPlugin owner;
+        private final TridentRunnable runnable;
+        private final SchedulerType type;
+        private final Position position;
+        private final boolean repeating;
+        private volatile long interval;
+        private volatile boolean cancelled;
+
+        @GuardedBy("lock")
+        private Group group;
+        @GuardedBy("lock")
+        private int index;
+        @GuardedBy("lock")
+        private long lastRun;
+
+        Task(TridentPlugin owner, TridentRunnable runnable, SchedulerType type, Position position, long interval) {
+            this.owner = owner;
+            this.runnable = runnable;
+            this.type = type;
+            this.position = position;
+            this.repeating = type == SchedulerType.ASYNC_REPEAT || type == SchedulerType.SYNC_REPEAT;
+            this.interval = interval;
+        }
+
+        @Override
+        public long interval() {
+            return interval;
+        }
+
+        @Override
+        public void setInterval(long interval) {
+            Preconditions.checkArgument(repeating ? interval > 0 : interval >= 0, "Invalid interval " + interval);
+            lock.lock();
+            try {
+                this.interval = interval;
+                if (group == null)
+                    return;
+
+                if (repeating) {
+                    // Counted from the last run, if the task has not run yet the interval applies after it does
+                    if (lastRun > 0) {
+                        remove(this);
+                        add(this, Math.max(now + 1, lastRun + interval), interval);
+                        size++;
+                    }
+                } else if (type == SchedulerType.SYNC_LATER || type == SchedulerType.ASYNC_LATER) {
+                    remove(this);
+                    add(this, now + Math.max(1, interval), 0);
+                    size++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public SchedulerType type() {
+            return type;
+        }
+
+        @Override
+        public TridentRunnable runnable() {
+            return runnable;
+        }
+
+        @Override
+        public TridentPlugin owner() {
+            return owner;
+        }
+
+        @Override
+        public void cancel() {
+            lock.lock();
+            try {
+                cancelled = true;
+                if (group != null)
+                    remove(this);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void run() {
+            runnable.run();
+        }
+
+        private void dispatch() {
+            if (cancelled)
+                return;
+
+            switch (type) {
+                case ASYNC_RUN:
+                case ASYNC_LATER:
+                case ASYNC_REPEAT:
+                case ASYNC_VIRTUAL:
+                    runnable.beforeRun();
+                    (type == SchedulerType.ASYNC_VIRTUAL ? virtual : async).execute(() -> {
+                        TickProfiler.Section section = profiler.enter(owner, runnable);
+                        try {
+                            runnable.run();
+                            runnable.afterAsyncRun();
+                        } catch (Exception e) {
+                            TridentLogger.error(e);
+                        } finally {
+                            section.close();
+                        }
+                    });
+                    break;
+                case REGION_RUN:
+                    position.world().regions().regionAt(position).send(this::runSync);
+                    break;
+                default:
+                    runSync();
+            }
+        }
+
+        private void runSync() {
+            if (cancelled)
+                return;
+
+            TickProfiler.Section section = profiler.enter(owner, runnable);
+            try {
+                runnable.beforeRun();
+                runnable.run();
+                runnable.afterSyncRun();
+            } catch (Exception e) {
+                TridentLogger.error(e);
+            } finally {
+                section.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.concurrent;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates virtual threads when the running Java version supports them, and platform threads otherwise
+ *
+ * <p>Virtual threads are available from Java 21. The SDK is compiled for Java 8, so they are found at runtime
+ * instead of being referenced directly. On older versions, the methods of this class fall back to platform threads,
+ * so code using them runs unchanged, only without the reduced cost of blocking.</p>
+ *
+ * <p>A virtual thread which blocks while holding a monitor, that is inside a {@code synchronized} block, pins the
+ * platform thread carrying it, so the SDK uses {@link java.util.concurrent.locks.Lock locks} instead on paths that
+ * asynchronous tasks commonly take. Pinning which remains can be found by running the server with
+ * {@code -Djdk.tracePinnedThreads=full}, or by recording the {@code jdk.VirtualThreadPinned} flight recorder
+ * event.</p>
+ *
+ * @author The TridentSDK Team
+ */
+@ThreadSafe
+public final class VirtualThreads {
+    // Thread.ofVirtual()
+    private static final MethodHandle OF_VIRTUAL;
+    // Thread.Builder.name(String, long)
+    private static final MethodHandle NAME;
+    // Thread.Builder.factory()
+    private static final MethodHandle FACTORY;
+    // Executors.newThreadPerTaskExecutor(ThreadFactory)
+    private static final MethodHandle PER_TASK;
+    // Thread.isVirtual()
+    private static final MethodHandle IS_VIRTUAL;
+
+    static {
+        MethodHandle ofVirtual = null;
+        MethodHandle name = null;
+        MethodHandle factory = null;
+        MethodHandle perTask = null;
+        MethodHandle isVirtual = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            Class<?> ofVirtualBuilder = Class.forName("java.lang.Thread$Builder$OfVirtual");
+
+            ofVirtual = lookup.findStatic(Thread.class, "ofVirtual", MethodType.methodType(ofVirtualBuilder));
+            name = lookup.findVirtual(builder, "name", MethodType.methodType(builder, String.class, long.class));
+            factory = lookup.findVirtual(builder, "factory", MethodType.methodType(ThreadFactory.class));
+            perTask = lookup.findStatic(Executors.class, "newThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class, ThreadFactory.class));
+            isVirtual = lookup.findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        } catch (ReflectiveOperationException e) {
+            // Before Java 21
+            ofVirtual = name = factory = perTask = isVirtual = null;
+        }
+
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+        PER_TASK = perTask;
+        IS_VIRTUAL = isVirtual;
+    }
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Checks if the running Java version supports virtual threads
+     *
+     * @return {@code true} if threads created by this class are virtual
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Checks if the thread is a virtual thread
+     *
+     * @param thread the thread to check
+     * @return {@code true} if the thread is virtual
+     */
+    public static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null)
+            return false;
+
+        try {
+            return (boolean) IS_VIRTUAL.invoke(thread);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    /**
+     * Creates a thread factory which creates virtual threads, or daemon platform threads if they are not supported
+     *
+     * @param name the name of the threads, which is followed by their number
+     * @return the thread factory
+     */
+    public static ThreadFactory factory(String name) {
+        Preconditions.checkNotNull(name, "Name cannot be null");
+        if (OF_VIRTUAL != null) {
+            try {
+                Object builder = NAME.invoke(OF_VIRTUAL.invoke(), name + " #", 1L);
+                return (ThreadFactory) FACTORY.invoke(builder);
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + " #" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Creates an executor which runs each task on a new virtual thread
+     *
+     * <p>If virtual threads are not supported, tasks are run by a cached pool of platform threads instead, which
+     * creates a thread for each task that is run while the other threads are busy.</p>
+     *
+     * @param name the name of the threads, which is followed by their number
+     * @return the executor
+     */
+    public static ExecutorService executor(String name) {
+        ThreadFactory factory = factory(name);
+        if (PER_TASK != null) {
+            try {
+                return (ExecutorService) PER_TASK.invoke(factory);
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+
+        return Executors.newCachedThreadPool(factory);
+    }
+}
@@ -0,0 +1,603 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.concurrent;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import net.tridentsdk.factory.ExecutorFactory;
+import net.tridentsdk.util.TridentLogger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * An {@link ExecutorFactory} in which each worker has its own queue of tasks, and idle workers steal tasks from the
+ * queues of busy workers
+ *
+ * <p>The pool starts with a fixed amount of core workers which never expire. When a task is executed and every
+ * worker is busy with a backlog of tasks, an expiring worker is added, up to {@link #maxScale()} workers in total.
+ * An expiring worker which has been idle for {@link #expireIntervalMillis()} dies.</p>
+ *
+ * <p>Each worker has 2 queues. Tasks given to {@link #execute(Runnable)} are placed in the shared deque of a worker,
+ * which the worker takes from the front of and idle workers steal from the back of. Tasks added to a worker through
+ * {@link TaskExecutor#addTask(Runnable)} are placed in its private queue, and are never stolen, so they run in the
+ * order they were added. {@link #nextWorker()} or {@link #workerFor(Object)} therefore provide ordered execution of
+ * the tasks relating to a key, such as a player or a chunk, without locking.</p>
+ *
+ * @author The TridentSDK Team
+ */
+@ThreadSafe
+public class WorkStealingExecutor implements ExecutorFactory {
+    // The backlog a worker must have before an extra worker is added
+    private static final int PRESSURE = 4;
+
+    private final String name;
+    private final int core;
+    private volatile int maxScale = Integer.MAX_VALUE;
+    private volatile long expireIntervalMillis = 60_000;
+    private volatile boolean mustEmptyBeforeExpire = true;
+    private volatile boolean shutdown;
+
+    // Copied on write, guarded by this
+    private volatile Worker[] workers = new Worker[0];
+    // Replaced when a core worker is stopped, guarded by this
+    private final AtomicReferenceArray<Worker> cores;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger created = new AtomicInteger();
+    private final AtomicInteger idle = new AtomicInteger();
+
+    private final LongAdder steals = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder retiredBusyNanos = new LongAdder();
+    private final LongAdder retiredAliveNanos = new LongAdder();
+
+    /**
+     * Creates a new pool and starts its core workers
+     *
+     * @param threads the amount of core workers, which never expire
+     * @param name    the name which worker threads are named after
+     */
+    public WorkStealingExecutor(int threads, String name) {
+        Preconditions.checkArgument(threads > 0, "Must have at least 1 thread");
+        Preconditions.checkNotNull(name, "Name cannot be null");
+        this.name = name;
+        this.core = threads;
+        this.cores = new AtomicReferenceArray<>(threads);
+
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(false);
+            cores.set(i, worker);
+            add(worker);
+            worker.start();
+        }
+    }
+
+    @Override
+    public int maxScale() {
+        return maxScale;
+    }
+
+    @Override
+    public void setMaxScale(int maxScale) {
+        Preconditions.checkArgument(maxScale >= core, "Max scale cannot be below the core size");
+        this.maxScale = maxScale;
+    }
+
+    @Override
+    public long expireIntervalMillis() {
+        return expireIntervalMillis;
+    }
+
+    @Override
+    public void setExpireIntervalMillis(long expireIntervalMillis) {
+        Preconditions.checkArgument(expireIntervalMillis > 0, "Interval must be positive");
+        this.expireIntervalMillis = expireIntervalMillis;
+    }
+
+    @Override
+    public boolean mustEmptyBeforeExpire() {
+        return mustEmptyBeforeExpire;
+    }
+
+    @Override
+    public void setMustEmptyBeforeExpire(boolean mustEmptyBeforeExpire) {
+        this.mustEmptyBeforeExpire = mustEmptyBeforeExpire;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Preconditions.checkNotNull(command, "Task cannot be null");
+        Preconditions.checkState(!shutdown, "Executor has been shut down");
+
+        // Tasks submitted by a worker stay on that worker, where their data is likely to be cached
+        Thread thread = Thread.currentThread();
+        Worker target = thread instanceof WorkerThread && ((WorkerThread) thread).pool() == this ?
+                ((WorkerThread) thread).worker : pick();
+
+        if (target.depth.get() >= PRESSURE && idle.get() == 0 && workers.length < maxScale) {
+            Worker worker = spawn();
+            if (worker != null)
+                target = worker;
+        }
+
+        target.push(command);
+    }
+
+    @Override
+    public TaskExecutor nextWorker() {
+        Worker[] workers = this.workers;
+        return workers[Math.floorMod(next.getAndIncrement(), workers.length)];
+    }
+
+    /**
+     * Obtains the core worker which the key is assigned to
+     *
+     * <p>The same key is always assigned to the same worker, and core workers never expire, so tasks added to the
+     * returned worker for a key run in the order they were added. If a core worker is stopped with
+     * {@link TaskExecutor#interrupt()}, its keys are assigned to a new worker which replaces it, and the tasks still
+     * queued on the stopped worker are moved to the new worker in the order they were added.</p>
+     *
+     * @param key the key
+     * @return the worker of the key
+     */
+    public TaskExecutor workerFor(Object key) {
+        int hash = key.hashCode();
+        return cores.get(Math.floorMod(hash ^ (hash >>> 16), cores.length()));
+    }
+
+    @Override
+    public TaskExecutor scaledThread() {
+        Worker[] workers = this.workers;
+        Worker least = workers[0];
+        for (Worker worker : workers) {
+            if (worker.parked.get() && worker.depth.get() == 0)
+                return worker;
+            if (worker.depth.get() < least.depth.get())
+                least = worker;
+        }
+
+        Worker worker = spawn();
+        return worker == null ? least : worker;
+    }
+
+    @Override
+    public List<TaskExecutor> threadList() {
+        return ImmutableList.copyOf(workers);
+    }
+
+    @Nonnull
+    @Override
+    public <V> Future<V> submit(Callable<V> callable) {
+        FutureTask<V> task = new FutureTask<>(callable);
+        execute(task);
+        return task;
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        for (Worker worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * The amount of tasks waiting to be run by all workers
+     *
+     * @return the total queue depth
+     */
+    public int queueDepth() {
+        int depth = 0;
+        for (Worker worker : workers) {
+            depth += worker.depth.get();
+        }
+        return depth;
+    }
+
+    /**
+     * The amount of tasks which were run by a worker other than the one they were queued on
+     *
+     * @return the steal count
+     */
+    public long steals() {
+        return steals.sum();
+    }
+
+    /**
+     * The amount of tasks which have been run
+     *
+     * @return the completed task count
+     */
+    public long completed() {
+        return completed.sum();
+    }
+
+    /**
+     * The amount of workers which are alive, including expiring workers
+     *
+     * @return the amount of workers
+     */
+    public int size() {
+        return workers.length;
+    }
+
+    /**
+     * The fraction of time which workers have spent running tasks since they were started
+     *
+     * @return the utilisation, from {@code 0} to {@code 1}
+     */
+    public double utilisation() {
+        long now = System.nanoTime();
+        long busy = retiredBusyNanos.sum();
+        long alive = retiredAliveNanos.sum();
+        for (Worker worker : workers) {
+            busy += worker.busyNanos;
+            alive += now - worker.born;
+        }
+
+        return alive == 0 ? 0 : Math.min(1, (double) busy / alive);
+    }
+
+    private Worker pick() {
+        Worker[] workers = this.workers;
+        int length = workers.length;
+        if (length == 1)
+            return workers[0];
+
+        // Least loaded of 2 random workers
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Worker a = workers[random.nextInt(length)];
+        Worker b = workers[random.nextInt(length)];
+        return a.depth.get() <= b.depth.get() ? a : b;
+    }
+
+    private Worker spawn() {
+        synchronized (this) {
+            if (shutdown || workers.length >= maxScale)
+                return null;
+            Worker worker = new Worker(true);
+            add(worker);
+            worker.start();
+            return worker;
+        }
+    }
+
+    private synchronized void add(Worker worker) {
+        Worker[] workers = Arrays.copyOf(this.workers, this.workers.length + 1);
+        workers[workers.length - 1] = worker;
+        this.workers = workers;
+    }
+
+    private synchronized void remove(Worker worker) {
+        Worker[] workers = this.workers;
+        for (int i = 0; i < workers.length; i++) {
+            if (workers[i] == worker) {
+                Worker[] copy = new Worker[workers.length - 1];
+                System.arraycopy(workers, 0, copy, 0, i);
+                System.arraycopy(workers, i + 1, copy, i, copy.length - i);
+                this.workers = copy;
+                return;
+            }
+        }
+    }
+
+    private void signal() {
+        if (idle.get() == 0)
+            return;
+        for (Worker worker : workers) {
+            if (worker.unpark())
+                return;
+        }
+    }
+
+    private Runnable steal(Worker thief) {
+        Worker[] workers = this.workers;
+        int length = workers.length;
+        int start = ThreadLocalRandom.current().nextInt(length);
+        for (int i = 0; i < length; i++) {
+            Worker victim = workers[(start + i) % length];
+            if (victim == thief)
+                continue;
+
+            Runnable task = victim.shared.pollLast();
+            if (task != null) {
+                victim.depth.decrementAndGet();
+                steals.increment();
+                return task;
+            }
+        }
+
+        return null;
+    }
+
+    private boolean stealable() {
+        for (Worker worker : workers) {
+            if (!worker.shared.isEmpty())
+                return true;
+        }
+        return false;
+    }
+
+    private final class WorkerThread extends Thread {
+        private final Worker worker;
+
+        WorkerThread(Worker worker, String name) {
+            super(name);
+            this.worker = worker;
+            setDaemon(true);
+        }
+
+        WorkStealingExecutor pool() {
+            return WorkStealingExecutor.this;
+        }
+
+        @Override
+        public void run() {
+            worker.loop();
+        }
+    }
+
+    private final class Worker implements TaskExecutor {
+        private static final int RUNNING = 0;
+        private static final int RETIRED = 1;
+        private static final int STOPPED = 2;
+
+        private final boolean expires;
+        private final ConcurrentLinkedDeque<Runnable> shared = new ConcurrentLinkedDeque<>();
+        private final Queue<Runnable> owned = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+
+        private volatile Thread thread;
+        // Cleared by whichever of the worker or a waking thread gets to it first, so idle counts workers not yet woken
+        private final AtomicBoolean parked = new AtomicBoolean();
+        private volatile long busyNanos;
+        private volatile long born;
+
+        Worker(boolean expires) {
+            this.expires = expires;
+        }
+
+        void start() {
+            Thread thread = new WorkerThread(this, name + " #" + created.incrementAndGet());
+            this.born = System.nanoTime();
+            this.busyNanos = 0;
+            this.thread = thread;
+            thread.start();
+        }
+
+        void push(Runnable task) {
+            shared.addLast(task);
+            depth.incrementAndGet();
+
+            // Picked just before the worker was stopped, so the task is given to another worker
+            if (state.get() == STOPPED) {
+                if (shared.removeLastOccurrence(task)) {
+                    depth.decrementAndGet();
+                    execute(task);
+                }
+                return;
+            }
+
+            wake();
+        }
+
+        @Override
+        public void addTask(Runnable task) {
+            Preconditions.checkNotNull(task, "Task cannot be null");
+            owned.add(task);
+            depth.incrementAndGet();
+
+            // Checked after adding, so a task is either rejected here or added before the worker stopped
+            if (state.get() == STOPPED && owned.remove(task)) {
+                depth.decrementAndGet();
+                throw new IllegalStateException("Worker " + this + " has been stopped");
+            }
+
+            wake();
+        }
+
+        private void wake() {
+            if (state.get() == RETIRED) {
+                // A stored expiring worker was given a task after it died
+                synchronized (WorkStealingExecutor.this) {
+                    if (state.compareAndSet(RETIRED, RUNNING)) {
+                        add(this);
+                        start();
+                        return;
+                    }
+                }
+            }
+
+            if (!unpark())
+                signal();
+        }
+
+        boolean unpark() {
+            if (!parked.compareAndSet(true, false))
+                return false;
+
+            idle.decrementAndGet();
+            LockSupport.unpark(thread);
+            return true;
+        }
+
+        @Override
+        public <V> Future<V> submitTask(Callable<V> task) {
+            FutureTask<V> future = new FutureTask<>(task);
+            addTask(future);
+            return future;
+        }
+
+        @Override
+        public void interrupt() {
+            Worker heir = null;
+            synchronized (WorkStealingExecutor.this) {
+                int previous = state.getAndSet(STOPPED);
+                if (previous == STOPPED)
+                    return;
+
+                // A retired worker was already removed, and its time already counted
+                if (previous == RUNNING) {
+                    remove(this);
+                    retireStats();
+                }
+
+                if (!expires && !shutdown) {
+                    for (int i = 0; i < cores.length(); i++) {
+                        if (cores.get(i) == this) {
+                            heir = new Worker(false);
+                            cores.set(i, heir);
+                            add(heir);
+                            heir.start();
+                        }
+                    }
+                }
+            }
+
+            Thread thread = this.thread;
+            if (thread != null)
+                thread.interrupt();
+
+            if (!shutdown)
+                handOver(heir == null ? pick() : heir);
+        }
+
+        // Gives the tasks queued on this stopped worker to the rest of the pool, keeping the order of the owned tasks
+        // by moving all of them to a single worker
+        private void handOver(Worker heir) {
+            for (Runnable task = owned.poll(); task != null; task = owned.poll()) {
+                depth.decrementAndGet();
+                heir.addTask(task);
+            }
+
+            for (Runnable task = shared.pollFirst(); task != null; task = shared.pollFirst()) {
+                depth.decrementAndGet();
+                execute(task);
+            }
+        }
+
+        @Override
+        public Thread asThread() {
+            return thread;
+        }
+
+        void loop() {
+            long lastActive = System.nanoTime();
+            while (state.get() == RUNNING && !shutdown) {
+                Runnable task = owned.poll();
+                if (task == null)
+                    task = shared.pollFirst();
+                if (task != null) {
+                    depth.decrementAndGet();
+                } else {
+                    task = steal(this);
+                }
+
+                if (task != null) {
+                    run(task);
+                    lastActive = System.nanoTime();
+                    continue;
+                }
+
+                idle.incrementAndGet();
+                parked.set(true);
+                try {
+                    // Checked again after publishing that this worker is parked, so a wake up is not missed
+                    if (depth.get() > 0 || stealable())
+                        continue;
+
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(expireIntervalMillis));
+                } finally {
+                    if (parked.compareAndSet(true, false))
+                        idle.decrementAndGet();
+                }
+
+                if (expires && System.nanoTime() - lastActive >= TimeUnit.MILLISECONDS.toNanos(expireIntervalMillis)
+                        && retire())
+                    return;
+            }
+        }
+
+        private void run(Runnable task) {
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } catch (Exception e) {
+                TridentLogger.error(e);
+            } finally {
+                busyNanos += System.nanoTime() - start;
+                completed.increment();
+                if (state.get() == RUNNING && !shutdown)
+                    Thread.interrupted();
+            }
+        }
+
+        private boolean retire() {
+            // Locked so that a task added while retiring cannot restart the worker before it is removed
+            synchronized (WorkStealingExecutor.this) {
+                if (!state.compareAndSet(RUNNING, RETIRED))
+                    return false;
+
+                // Tasks added to the private queue must run in order on this worker, so it stays alive for them
+                if (!owned.isEmpty() || (mustEmptyBeforeExpire && depth.get() > 0)) {
+                    state.set(RUNNING);
+                    return false;
+                }
+
+                remove(this);
+                retireStats();
+            }
+
+            for (Runnable task = shared.pollFirst(); task != null; task = shared.pollFirst()) {
+                depth.decrementAndGet();
+                execute(task);
+            }
+
+            // A task added from now on restarts the worker with a new thread
+            return true;
+        }
+
+        // Called while locked, so a restart cannot reset the times before they are counted
+        private void retireStats() {
+            retiredBusyNanos.add(busyNanos);
+            retiredAliveNanos.add(System.nanoTime() - born);
+        }
+
+        @Override
+        public String toString() {
+            Thread thread = this.thread;
+            return thread == null ? "Worker" : thread.getName();
+        }
+    }
+}
@@ -0,0 +1,337 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.config;
+
+import com.google.common.base.Defaults;
+import com.google.common.base.Preconditions;
+import com.google.common.primitives.Primitives;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import net.tridentsdk.docs.AccessNoDoc;
+import net.tridentsdk.util.TridentLogger;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Binds a config to an interface, so that its values are read by calling the methods of the interface
+ *
+ * <p>Each method of the interface takes no parameters, and reads the value at the path given by its
+ * {@link ConfigValue} annotation. The values of every method are converted and checked against their defaults and
+ * ranges when the config is bound and each time it is {@link JsonConfig#reload() reloaded}, so calling a method only
+ * returns a value which has already been read. Methods which return another interface read the section at their
+ * path in the same way.</p>
+ *
+ * <p>A reload replaces every value of the binding at once, so values read from the binding are never a mix of the
+ * old and new config. Values set through the config after it is bound are not seen until the config is reloaded.
+ * The config does not keep the bound instance alive, so a binding which is no longer used stops being updated.</p>
+ *
+ * <p>Each section is read into a new instance of its interface, so an instance returned by a section method is a
+ * copy of the section as it was when it was read. A section instance kept across a reload keeps returning the old
+ * values, call the section method again on the bound instance to see the reloaded section. An interface cannot
+ * contain itself as a section, directly or through other sections.</p>
+ *
+ * <pre><code>
+ *     public interface Settings {
+ *         &#64;ConfigValue(path = "spawn.radius", def = "16", min = 0)
+ *         int spawnRadius();
+ *
+ *         &#64;ConfigValue(def = "[]")
+ *         List&lt;String&gt; whitelist();
+ *     }
+ *
+ *     Settings settings = Factories.configs().bind(config, Settings.class);
+ *     int radius = settings.spawnRadius();
+ * </code></pre>
+ *
+ * @author The TridentSDK Team
+ */
+@ThreadSafe
+public final class ConfigBinding {
+    private static final ClassValue<Plan> PLANS = new ClassValue<Plan>() {
+        @Override
+        protected Plan computeValue(Class<?> type) {
+            return new Plan(type);
+        }
+    };
+    // The interfaces whose plans are being built by this thread, a nested section which is already here is a cycle
+    private static final ThreadLocal<Set<Class<?>>> BUILDING = ThreadLocal.withInitial(LinkedHashSet::new);
+
+    private ConfigBinding() {
+    }
+
+    /**
+     * Binds the config to the interface
+     *
+     * @param config the config to read values from
+     * @param type   the interface to bind the config to
+     * @param <T>    the type of the interface
+     * @return the bound instance of the interface
+     * @throws IllegalArgumentException if the type is not an interface which can be bound
+     */
+    public static <T> T bind(JsonConfig config, Class<T> type) {
+        Preconditions.checkNotNull(config, "Config cannot be null");
+        Preconditions.checkNotNull(type, "Type cannot be null");
+
+        Plan plan = PLANS.get(type);
+        Binding binding = new Binding(plan);
+        binding.populate(config);
+        config.removeReloadListeners(l -> l instanceof Rebind && ((Rebind) l).binding.get() == null);
+        config.addReloadListener(new Rebind(config, binding));
+        return type.cast(binding.proxy);
+    }
+
+    // Populates a binding when its config is reloaded, holding the binding weakly so that a binding which is no
+    // longer used does not stay alive for as long as the config
+    @AccessNoDoc
+    private static final class Rebind implements Runnable {
+        private final JsonConfig config;
+        private final WeakReference<Binding> binding;
+
+        Rebind(JsonConfig config, Binding binding) {
+            this.config = config;
+            this.binding = new WeakReference<>(binding);
+        }
+
+        @Override
+        public void run() {
+            Binding binding = this.binding.get();
+            if (binding == null) {
+                config.removeReloadListeners(l -> l == this);
+            } else {
+                binding.populate(config);
+            }
+        }
+    }
+
+    // The methods of a bound interface, with the conversion of each method's value
+    @Immutable
+    private static final class Plan {
+        private final Class<?> type;
+        private final Map<Method, Integer> indexes = new HashMap<>();
+        private final Value[] values;
+
+        Plan(Class<?> type) {
+            Preconditions.checkArgument(type.isInterface(), "%s is not an interface", type.getName());
+            this.type = type;
+
+            Set<Class<?>> building = BUILDING.get();
+            if (!building.add(type)) {
+                StringBuilder cycle = new StringBuilder();
+                for (Class<?> section : building) {
+                    if (cycle.length() > 0 || section == type)
+                        cycle.append(section.getName()).append(" -> ");
+                }
+
+                throw new IllegalArgumentException(type.getName() + " contains itself as a section: " +
+                        cycle.append(type.getName()));
+            }
+
+            try {
+                Method[] methods = type.getMethods();
+                this.values = new Value[methods.length];
+                for (int i = 0; i < methods.length; i++) {
+                    Method method = methods[i];
+                    Preconditions.checkArgument(method.getParameterCount() == 0 && !method.isDefault() &&
+                                    !Modifier.isStatic(method.getModifiers()),
+                            "%s.%s cannot be bound, bound methods are abstract and take no parameters",
+                            type.getName(), method.getName());
+
+                    indexes.put(method, i);
+                    values[i] = new Value(method);
+                }
+            } finally {
+                building.remove(type);
+            }
+        }
+
+        Object[] read(JsonObject object) {
+            Object[] read = new Object[values.length];
+            for (int i = 0; i < values.length; i++) {
+                read[i] = values[i].read(object);
+            }
+
+            return read;
+        }
+    }
+
+    @Immutable
+    private static final class Value {
+        private final String[] path;
+        private final String name;
+        private final Class<?> type;
+        private final Type genericType;
+        private final Plan section;
+        private final double min;
+        private final double max;
+        private final Object def;
+
+        Value(Method method) {
+            ConfigValue annotation = method.getAnnotation(ConfigValue.class);
+            String path = annotation == null || annotation.path().isEmpty() ? method.getName() : annotation.path();
+            this.path = path.split("\\.");
+            this.name = method.getDeclaringClass().getSimpleName() + "." + method.getName() + " (" + path + ")";
+            this.type = method.getReturnType();
+            this.genericType = method.getGenericReturnType();
+            this.min = annotation == null ? Double.NEGATIVE_INFINITY : annotation.min();
+            this.max = annotation == null ? Double.POSITIVE_INFINITY : annotation.max();
+
+            boolean nested = type.isInterface() && !Collection.class.isAssignableFrom(type) &&
+                    !Map.class.isAssignableFrom(type) && !Iterable.class.isAssignableFrom(type);
+            this.section = nested ? PLANS.get(type) : null;
+            Preconditions.checkArgument(!nested || annotation == null || annotation.def().equals(ConfigValue.NONE),
+                    "%s is a section, which cannot have a default", name);
+
+            if (nested || annotation == null || annotation.def().equals(ConfigValue.NONE)) {
+                this.def = type.isPrimitive() ? Defaults.defaultValue(type) : null;
+            } else {
+                String def = annotation.def();
+                boolean plain = type.isPrimitive() || Primitives.isWrapperType(type) || type == String.class;
+                try {
+                    this.def = check(convert(plain ? new JsonPrimitive(def) : new JsonParser().parse(def)));
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("Default of " + name + " is not valid: " + e.getMessage(), e);
+                }
+            }
+        }
+
+        Object read(JsonObject object) {
+            JsonElement element = object;
+            for (String tag : path) {
+                element = element.isJsonObject() ? element.getAsJsonObject().get(tag) : null;
+                if (element == null)
+                    break;
+            }
+
+            if (section != null) {
+                JsonObject sub = element != null && element.isJsonObject() ? element.getAsJsonObject() :
+                        new JsonObject();
+                return new Binding(section, section.read(sub)).proxy;
+            }
+
+            if (element == null || element.isJsonNull())
+                return def;
+
+            try {
+                return check(convert(element));
+            } catch (RuntimeException e) {
+                TridentLogger.warn("Config value " + name + " is not valid (" + e.getMessage() + "), using " + def);
+                return def;
+            }
+        }
+
+        private Object convert(JsonElement element) {
+            Class<?> type = Primitives.wrap(this.type);
+            if (type == Integer.class)
+                return element.getAsInt();
+            if (type == Long.class)
+                return element.getAsLong();
+            if (type == Double.class)
+                return element.getAsDouble();
+            if (type == Float.class)
+                return element.getAsFloat();
+            if (type == Short.class)
+                return element.getAsShort();
+            if (type == Byte.class)
+                return element.getAsByte();
+            if (type == Boolean.class)
+                return element.getAsBoolean();
+            if (type == Character.class)
+                return element.getAsCharacter();
+            if (type == String.class)
+                return element.getAsString();
+
+            Object value = GsonFactory.gson().fromJson(element, genericType);
+            if (value == null && this.type.isPrimitive())
+                throw new IllegalStateException("no value");
+            return value;
+        }
+
+        private Object check(Object value) {
+            if (value instanceof Number) {
+                double number = ((Number) value).doubleValue();
+                if (number < min || number > max)
+                    throw new IllegalArgumentException(number + " is not between " + min + " and " + max);
+            }
+
+            return value;
+        }
+    }
+
+    @AccessNoDoc
+    private static final class Binding implements InvocationHandler {
+        private final Plan plan;
+        private final Object proxy;
+        private volatile Object[] values;
+
+        Binding(Plan plan) {
+            this.plan = plan;
+            this.proxy = Proxy.newProxyInstance(plan.type.getClassLoader(), new Class[] { plan.type }, this);
+        }
+
+        Binding(Plan plan, Object[] values) {
+            this(plan);
+            this.values = values;
+        }
+
+        void populate(JsonConfig config) {
+            Object[] values;
+            config.writeLists();
+            config.handleLock.lock();
+            try {
+                values = plan.read(config.jsonHandle == null ? new JsonObject() : config.jsonHandle);
+            } finally {
+                config.handleLock.unlock();
+            }
+
+            this.values = values;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            Integer index = plan.indexes.get(method);
+            if (index != null)
+                return values[index];
+
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "ConfigBinding(" + plan.type.getSimpleName() + ")";
+                default:
+                    throw new UnsupportedOperationException(method.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,423 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.config;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.Maps;
+import com.google.gson.*;
+import com.google.gson.internal.LazilyParsedNumber;
+import net.tridentsdk.docs.AccessNoDoc;
+import net.tridentsdk.util.TridentLogger;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A binary cache of parsed config files, which allows configs to be loaded without parsing their JSON
+ *
+ * <p>Each file is cached with its modification time and size. When a config is loaded and its file has the same time
+ * and size as when it was cached, its values are decoded from the cache; otherwise the file is parsed and the cache
+ * is updated. The cache file is memory mapped when it is opened, and an entry is only decoded when the config it
+ * belongs to is loaded.</p>
+ *
+ * <p>Changes to the cache are written when {@link #flush()} is called, and when the server shuts down. Flushing
+ * copies the entries out of the mapped file before replacing it, and drops the entries of config files which no
+ * longer exist.</p>
+ *
+ * @author The TridentSDK Team
+ */
+@ThreadSafe
+public final class ConfigCache {
+    private static final int MAGIC = 0x54434643; // TCFC
+    private static final int VERSION = 1;
+
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte NUMBER = 3;
+    private static final byte STRING = 4;
+    private static final byte ARRAY = 5;
+    private static final byte OBJECT = 6;
+
+    // Caches which are flushed when the server shuts down, by a single hook for every cache
+    private static final Set<ConfigCache> OPEN = Collections.newSetFromMap(new MapMaker().weakKeys().makeMap());
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (ConfigCache cache : OPEN) {
+                cache.flush();
+            }
+        }, "Trident - Config Cache"));
+    }
+
+    private final Path file;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Lock flushLock = new ReentrantLock();
+    private volatile boolean changed;
+
+    private ConfigCache(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens the cache stored in the file, or an empty cache if the file does not exist or cannot be read
+     *
+     * @param file the file of the cache
+     * @return the opened cache
+     */
+    public static ConfigCache open(Path file) {
+        Preconditions.checkNotNull(file, "Cache file cannot be null");
+        ConfigCache cache = new ConfigCache(file);
+        if (Files.isReadable(file)) {
+            try {
+                cache.map();
+            } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+                // A cache which cannot be read is rebuilt as configs are loaded
+                cache.entries.clear();
+            }
+        }
+
+        OPEN.add(cache);
+        return cache;
+    }
+
+    private void map() throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+            return;
+
+        int count = buffer.getInt();
+        String[] paths = new String[count];
+        long[] times = new long[count];
+        long[] sizes = new long[count];
+        int[] offsets = new int[count];
+        int[] lengths = new int[count];
+        for (int i = 0; i < count; i++) {
+            paths[i] = string(buffer);
+            times[i] = buffer.getLong();
+            sizes[i] = buffer.getLong();
+            offsets[i] = buffer.getInt();
+            lengths[i] = buffer.getInt();
+        }
+
+        int data = buffer.position();
+        for (int i = 0; i < count; i++) {
+            ByteBuffer slice = buffer.duplicate();
+            slice.position(data + offsets[i]);
+            slice.limit(data + offsets[i] + lengths[i]);
+            entries.put(paths[i], new Entry(times[i], sizes[i], slice.slice()));
+        }
+    }
+
+    /**
+     * The file which the cache is stored in
+     *
+     * @return the cache file
+     */
+    public Path file() {
+        return file;
+    }
+
+    /**
+     * The amount of config files in the cache
+     *
+     * @return the amount of cached files
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Loads a config, from the cache if its file has not changed since it was cached
+     *
+     * @param path the path to the config file
+     * @return the loaded config
+     */
+    public JsonConfig load(Path path) {
+        JsonObject object;
+        try {
+            object = read(path);
+        } catch (JsonIOException | JsonSyntaxException | IllegalStateException | IOException e) {
+            TridentLogger.error(e);
+            object = null;
+        }
+
+        return new JsonConfig(path, object);
+    }
+
+    private JsonObject read(Path path) throws IOException {
+        if (!Files.isReadable(path))
+            return new JsonObject();
+
+        String key = path.toAbsolutePath().normalize().toString();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        long time = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.time == time && entry.size == size) {
+            try {
+                return decode(entry.data.duplicate());
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalStateException e) {
+                // Parse the file if the entry is damaged
+            }
+        }
+
+        JsonObject object = JsonConfig.read(path);
+        entries.put(key, new Entry(time, size, ByteBuffer.wrap(encode(object))));
+        changed = true;
+        return object;
+    }
+
+    /**
+     * Writes the cache to its file, if it has changed
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            for (Map.Entry<String, Entry> entry : this.entries.entrySet()) {
+                if (!Files.exists(Paths.get(entry.getKey()))) {
+                    this.entries.remove(entry.getKey(), entry.getValue());
+                    changed = true;
+                }
+            }
+
+            if (!changed)
+                return;
+            changed = false;
+
+            if (this.entries.isEmpty()) {
+                Files.deleteIfExists(file);
+                return;
+            }
+
+            // The cache file cannot be replaced while it is mapped on some platforms, so the entries still in the
+            // mapping are copied to the heap, leaving the mapping to be released once it is collected
+            Map<String, Entry> entries = Maps.newHashMap();
+            for (Map.Entry<String, Entry> entry : this.entries.entrySet()) {
+                Entry value = entry.getValue();
+                if (value.data.isDirect()) {
+                    ByteBuffer data = value.data.duplicate();
+                    byte[] bytes = new byte[data.remaining()];
+                    data.get(bytes);
+                    Entry copied = new Entry(value.time, value.size, ByteBuffer.wrap(bytes));
+                    if (this.entries.replace(entry.getKey(), value, copied))
+                        value = copied;
+                    else
+                        value = this.entries.get(entry.getKey());
+                }
+
+                if (value != null)
+                    entries.put(entry.getKey(), value);
+            }
+
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(VERSION);
+                    out.writeInt(entries.size());
+
+                    int offset = 0;
+                    for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                        byte[] path = entry.getKey().getBytes(Charsets.UTF_8);
+                        Entry value = entry.getValue();
+                        out.writeInt(path.length);
+                        out.write(path);
+                        out.writeLong(value.time);
+                        out.writeLong(value.size);
+                        out.writeInt(offset);
+                        out.writeInt(value.data.remaining());
+                        offset += value.data.remaining();
+                    }
+
+                    for (Entry entry : entries.values()) {
+                        ByteBuffer data = entry.data.duplicate();
+                        byte[] bytes = new byte[data.remaining()];
+                        data.get(bytes);
+                        out.write(bytes);
+                    }
+                }
+
+                try {
+                    Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            TridentLogger.error(e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Format
+
+    private static String string(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, Charsets.UTF_8);
+    }
+
+    // An entry is a table of the strings in the tree, followed by the tree with strings given by their index
+    static byte[] encode(JsonObject object) throws IOException {
+        Map<String, Integer> strings = Maps.newLinkedHashMap();
+        collect(object, strings);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(strings.size());
+        for (String string : strings.keySet()) {
+            byte[] encoded = string.getBytes(Charsets.UTF_8);
+            out.writeInt(encoded.length);
+            out.write(encoded);
+        }
+
+        write(object, strings, out);
+        return bytes.toByteArray();
+    }
+
+    private static void collect(JsonElement element, Map<String, Integer> strings) {
+        if (element.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                strings.putIfAbsent(entry.getKey(), strings.size());
+                collect(entry.getValue(), strings);
+            }
+        } else if (element.isJsonArray()) {
+            for (JsonElement child : element.getAsJsonArray()) {
+                collect(child, strings);
+            }
+        } else if (element.isJsonPrimitive() && !element.getAsJsonPrimitive().isBoolean()) {
+            strings.putIfAbsent(element.getAsString(), strings.size());
+        }
+    }
+
+    private static void write(JsonElement element, Map<String, Integer> strings, DataOutputStream out)
+            throws IOException {
+        if (element.isJsonObject()) {
+            JsonObject object = element.getAsJsonObject();
+            out.writeByte(OBJECT);
+            out.writeInt(object.entrySet().size());
+            for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                out.writeInt(strings.get(entry.getKey()));
+                write(entry.getValue(), strings, out);
+            }
+        } else if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            out.writeByte(ARRAY);
+            out.writeInt(array.size());
+            for (JsonElement child : array) {
+                write(child, strings, out);
+            }
+        } else if (element.isJsonPrimitive()) {
+            JsonPrimitive primitive = element.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                out.writeByte(primitive.getAsBoolean() ? TRUE : FALSE);
+            } else {
+                out.writeByte(primitive.isNumber() ? NUMBER : STRING);
+                out.writeInt(strings.get(primitive.getAsString()));
+            }
+        } else {
+            out.writeByte(NULL);
+        }
+    }
+
+    static JsonObject decode(ByteBuffer buffer) {
+        String[] strings = new String[buffer.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = string(buffer);
+        }
+
+        JsonElement element = read(buffer, strings);
+        if (!element.isJsonObject())
+            throw new IllegalStateException("Cached config is not an object");
+        return element.getAsJsonObject();
+    }
+
+    private static JsonElement read(ByteBuffer buffer, String[] strings) {
+        byte tag = buffer.get();
+        switch (tag) {
+            case NULL:
+                return JsonNull.INSTANCE;
+            case TRUE:
+                return new JsonPrimitive(true);
+            case FALSE:
+                return new JsonPrimitive(false);
+            case NUMBER:
+                return new JsonPrimitive(new LazilyParsedNumber(strings[buffer.getInt()]));
+            case STRING:
+                return new JsonPrimitive(strings[buffer.getInt()]);
+            case ARRAY:
+                JsonArray array = new JsonArray();
+                for (int i = buffer.getInt(); i > 0; i--) {
+                    array.add(read(buffer, strings));
+                }
+                return array;
+            case OBJECT:
+                JsonObject object = new JsonObject();
+                for (int i = buffer.getInt(); i > 0; i--) {
+                    String key = strings[buffer.getInt()];
+                    object.add(key, read(buffer, strings));
+                }
+                return object;
+            default:
+                throw new IllegalStateException("Unknown tag " + tag);
+        }
+    }
+
+    @AccessNoDoc
+    @Immutable
+    private static final class Entry {
+        private final long time;
+        private final long size;
+        // Read through duplicates, so the position of this buffer never changes
+        private final ByteBuffer data;
+
+        Entry(long time, long size, ByteBuffer data) {
+            this.time = time;
+            this.size = size;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.config;
+
+import com.google.gson.JsonElement;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * A value of a {@link JsonConfig} which was changed when the config was reloaded
+ *
+ * <p>Changes are given to the listeners added with
+ * {@link JsonConfig#addChangeListener(String, java.util.function.Consumer)}. A change is made for each value which
+ * was added, removed or replaced; sections which are in both the old and new config are compared value by value
+ * rather than reported as a whole.</p>
+ *
+ * @author The TridentSDK Team
+ */
+@Immutable
+public final class ConfigChange {
+    private final String path;
+    private final JsonElement oldValue;
+    private final JsonElement newValue;
+
+    ConfigChange(String path, JsonElement oldValue, JsonElement newValue) {
+        this.path = path;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    /**
+     * The path to the value which changed, with the tags of nested sections separated by {@code .}
+     *
+     * @return the path of the value
+     */
+    public String path() {
+        return path;
+    }
+
+    /**
+     * The value before the config was reloaded
+     *
+     * @return the old value, or {@code null} if the value was added
+     */
+    @Nullable
+    public JsonElement oldValue() {
+        return oldValue;
+    }
+
+    /**
+     * The value after the config was reloaded
+     *
+     * <p>This is part of the config, and should not be modified.</p>
+     *
+     * @return the new value, or {@code null} if the value was removed
+     */
+    @Nullable
+    public JsonElement newValue() {
+        return newValue;
+    }
+
+    /**
+     * Checks if a listener for the path should be given this change
+     *
+     * @param listened the path which a listener was added for
+     * @return {@code true} if this change is at, inside or contains the path
+     */
+    boolean affects(String listened) {
+        return listened.isEmpty() || within(path, listened) || within(listened, path);
+    }
+
+    private static boolean within(String path, String section) {
+        return path.startsWith(section) && (path.length() == section.length() || path.charAt(section.length()) == '.');
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigChange(" + path + ": " + oldValue + " -> " + newValue + ")";
+    }
+}
@@ -15,56 +15,56 @@
  * limitations under the License.
  */
 
+
 package net.tridentsdk.config;
 
+import com.google.common.base.Preconditions;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import net.tridentsdk.docs.AccessNoDoc;
-import net.tridentsdk.util.TridentLogger;
 
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.List;
-import java.util.ListIterator;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.*;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * A LinkedList [implementation] that also makes changes to the underlying JsonArray object
+ * A list of values in a config, which writes its elements to the underlying JsonArray
+ *
+ * <p>The elements are held in an array which is copied by each change, so reads, iteration and indexed access do
+ * not lock and take constant time. Iterators see the elements as they were when the iterator was created, and do
+ * not support {@link Iterator#remove()}.</p>
+ *
+ * <p>The JSON array is not updated by each change. Instead, the list is marked as changed, and its elements are
+ * converted to JSON when the config is next saved, snapshotted, reloaded or read as JSON, so many changes in a row
+ * convert the elements once.</p>
  *
  * @author The TridentSDK Team
  */
 @ThreadSafe
-public class ConfigList<V> implements List<V> {
-    private static final long serialVersionUID = -7535821700183585211L;
-
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
-    protected final Lock write = lock.writeLock();
-    private final Lock read = lock.readLock();
-    @GuardedBy("lock")
-    private final Node<V> head = new Node<>(null, null, null);
-    @GuardedBy("lock")
-    private final Node<V> tail = head;
+public class ConfigList<V> extends AbstractList<V> implements RandomAccess {
+    private static final Object[] EMPTY = new Object[0];
+
+    private final ConfigSection owner;
+    // The type which the elements were read as, or null if the list is not owned by a section
+    final Class<?> type;
+    protected final Lock write = new ReentrantLock();
     @GuardedBy("write")
     JsonArray jsonHandle;
-    @GuardedBy("lock")
-    private int size = 0;
+    private volatile Object[] elements;
 
     /**
-     * Creates a new linked list for the JSON config serializable
+     * Creates a new list for the JSON config serializable
      *
      * @param handle the array handler for the list
      */
     protected ConfigList(JsonArray handle) {
-        this.jsonHandle = handle;
-        head.next = tail;
+        this(null, null, handle, EMPTY);
     }
 
     /**
-     * Creates a new linked list by transferring elements from an existing collection
+     * Creates a new list by transferring elements from an existing collection
      *
      * @param handle the array handler for the new list
      * @param c      the initializing elements
@@ -74,59 +74,105 @@ public class ConfigList<V> implements List<V> {
         addAll(c);
     }
 
-    private void lockFully() {
-        write.unlock();
-        read.lock();
+    /**
+     * Creates a list of elements which are already in the array
+     *
+     * @param owner    the section which the array is in, or {@code null} to write each change to the array
+     * @param type     the type which the elements were read as
+     * @param handle   the array handler for the list
+     * @param elements the elements of the array
+     */
+    ConfigList(ConfigSection owner, Class<?> type, JsonArray handle, Object[] elements) {
+        this.owner = owner;
+        this.type = type;
+        this.jsonHandle = handle;
+        this.elements = elements;
     }
 
-    private void unlockFully() {
-        read.unlock();
-        write.unlock();
+    /**
+     * Converts an element to the form it is written to the array in
+     *
+     * @param element the element
+     * @return the JSON form of the element
+     */
+    protected JsonElement toJson(V element) {
+        return GsonFactory.gson().toJsonTree(element);
     }
 
-    private void checkElementIndex(int index) {
-        int size = this.size;
-
-        if (index < 0 && index > size)
-            TridentLogger.error(new IndexOutOfBoundsException("Index: " + index + ", Size: " + size));
+    // Must be called after every change, and not while holding the write lock of the owner
+    private void changed() {
+        if (owner == null) {
+            writeJson();
+        } else {
+            owner.listChanged(this);
+        }
     }
 
-    private Node<V> nodeAt(int index) {
-        int idx = 0;
-        Node<V> node = head;
-        while ((node = node.next) != null) {
-            if (idx == index)
-                return node;
-            idx++;
+    /**
+     * Writes the elements of the list to the JSON array
+     */
+    void writeJson() {
+        write.lock();
+        try {
+            Object[] elements = this.elements;
+            JsonArray array = this.jsonHandle;
+            Lock lock = owner == null ? null : owner.root.handleLock;
+            if (lock != null)
+                lock.lock();
+            try {
+                for (int i = array.size() - 1; i >= 0; i--) {
+                    array.remove(i);
+                }
+                for (Object element : elements) {
+                    array.add(toJson((V) element));
+                }
+            } finally {
+                if (lock != null)
+                    lock.unlock();
+            }
+        } finally {
+            write.unlock();
         }
-
-        return null;
     }
 
     @Override
     public V get(int index) {
-        read.lock();
-        try {
-            checkElementIndex(index);
-            return nodeAt(index).value;
-        } finally {
-            read.unlock();
-        }
+        Object[] elements = this.elements;
+        if (index < 0 || index >= elements.length)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + elements.length);
+        return (V) elements[index];
     }
 
     @Override
     public int size() {
-        read.lock();
-        try {
-            return size;
-        } finally {
-            read.unlock();
-        }
+        return elements.length;
     }
 
     @Override
     public boolean isEmpty() {
-        return size() != 0;
+        return elements.length == 0;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        Object[] elements = this.elements;
+        for (int i = 0; i < elements.length; i++) {
+            if (Objects.equals(o, elements[i]))
+                return i;
+        }
+
+        return -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        Object[] elements = this.elements;
+        for (int i = elements.length - 1; i >= 0; i--) {
+            if (Objects.equals(o, elements[i]))
+                return i;
+        }
+
+        return -1;
     }
 
     @Override
@@ -134,173 +180,145 @@ public class ConfigList<V> implements List<V> {
         return indexOf(o) != -1;
     }
 
+    @Override
+    public Object[] toArray() {
+        return elements.clone();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        Object[] elements = this.elements;
+        if (a.length < elements.length)
+            return (T[]) Arrays.copyOf(elements, elements.length, a.getClass());
+
+        System.arraycopy(elements, 0, a, 0, elements.length);
+        if (a.length > elements.length)
+            a[elements.length] = null;
+        return a;
+    }
+
     @Override
     public Iterator<V> iterator() {
-        return new ConfigIterator(0);
+        return new SnapshotIterator<>(elements);
     }
 
     @Override
     public boolean add(V element) {
         write.lock();
         try {
-            tail.next = new Node<>(element, null, tail);
-            size += 1;
-
-            this.jsonHandle.add(GsonFactory.gson().toJsonTree(element));
+            Object[] elements = this.elements;
+            Object[] added = Arrays.copyOf(elements, elements.length + 1);
+            added[elements.length] = element;
+            this.elements = added;
         } finally {
             write.unlock();
         }
 
+        changed();
         return true;
     }
 
     @Override
-    public boolean addAll(Collection<? extends V> coll) {
-        // Locked the entire loop instead of for each individual element
-
+    public void add(int index, V element) {
         write.lock();
         try {
-            for (V element : coll) {
-                tail.next = new Node<>(element, null, tail);
-                size += 1;
-
-                this.jsonHandle.add(GsonFactory.gson().toJsonTree(element));
-            }
+            Object[] elements = this.elements;
+            if (index < 0 || index > elements.length)
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + elements.length);
+
+            Object[] added = new Object[elements.length + 1];
+            System.arraycopy(elements, 0, added, 0, index);
+            added[index] = element;
+            System.arraycopy(elements, index, added, index + 1, elements.length - index);
+            this.elements = added;
         } finally {
             write.unlock();
         }
 
-        return true;
+        changed();
     }
 
-    /* (non-Javadoc)
-     * @see java.util.List#set(int, java.lang.Object)
-     */
     @Override
-    public V set(int index, V element) {
-        V oldValue;
-        Node<V> node;
+    public boolean addAll(Collection<? extends V> coll) {
+        return addAll(size(), coll);
+    }
 
-        read.lock();
-        try {
-            checkElementIndex(index);
-            node = nodeAt(index);
-            oldValue = node.value;
-        } finally {
-            read.unlock();
-        }
+    @Override
+    public boolean addAll(int index, Collection<? extends V> coll) {
+        Object[] adding = coll.toArray();
+        if (adding.length == 0)
+            return false;
 
         write.lock();
         try {
-            this.jsonHandle.set(index, GsonFactory.gson().toJsonTree(element));
-            node.value = element;
+            Object[] elements = this.elements;
+            if (index < 0 || index > elements.length)
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + elements.length);
+
+            Object[] added = new Object[elements.length + adding.length];
+            System.arraycopy(elements, 0, added, 0, index);
+            System.arraycopy(adding, 0, added, index, adding.length);
+            System.arraycopy(elements, index, added, index + adding.length, elements.length - index);
+            this.elements = added;
         } finally {
             write.unlock();
         }
 
-        return oldValue;
+        changed();
+        return true;
     }
 
     @Override
-    public V remove(int index) {
+    public V set(int index, V element) {
+        V old;
         write.lock();
         try {
-            checkElementIndex(index);
-
-            this.jsonHandle.remove(index);
-
-            V value = tail.value;
-            tail.value = null;
-            tail.prev.next = null;
-
-            size -= 1;
-
-            return value;
+            Object[] elements = this.elements;
+            if (index < 0 || index >= elements.length)
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + elements.length);
+
+            Object[] set = elements.clone();
+            old = (V) set[index];
+            set[index] = element;
+            this.elements = set;
         } finally {
             write.unlock();
         }
-    }
-
-    @Override
-    public int indexOf(Object o) {
-        read.lock();
-        try {
-            int idx = 0;
-            Node<V> node = head;
-            while ((node = node.next) != null) {
-                if (node.value == o)
-                    return idx;
-                idx++;
-            }
-        } finally {
-            read.unlock();
-        }
 
-        return -1;
+        changed();
+        return old;
     }
 
     @Override
-    public int lastIndexOf(Object o) {
-        read.lock();
+    public V remove(int index) {
+        V old;
+        write.lock();
         try {
-            int idx = size - 1;
-            Node<V> node = tail;
-            while ((node = node.prev) != null) {
-                if (node.value == o)
-                    return idx;
-                idx--;
-            }
+            Object[] elements = this.elements;
+            if (index < 0 || index >= elements.length)
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + elements.length);
+
+            old = (V) elements[index];
+            Object[] removed = new Object[elements.length - 1];
+            System.arraycopy(elements, 0, removed, 0, index);
+            System.arraycopy(elements, index + 1, removed, index, elements.length - index - 1);
+            this.elements = removed;
         } finally {
-            read.unlock();
+            write.unlock();
         }
 
-        return -1;
-    }
-
-    @Override
-    public ListIterator<V> listIterator() {
-        return new ConfigIterator(0);
-    }
-
-    @Override
-    public ListIterator<V> listIterator(int index) {
-        return null;
+        changed();
+        return old;
     }
 
     @Override
     public boolean remove(Object element) {
-        Node<V> tail = null;
-        int index = -1;
-
-        read.lock();
-        try {
-            int idx = 0;
-            Node<V> node = head;
-            while ((node = node.next) != null) {
-                if (node.value == element) {
-                    tail = node;
-                    index = idx;
-
-                    break;
-                }
-                idx++;
-            }
-        } finally {
-            read.unlock();
-        }
-
-        if (index == -1)
-            return false;
-
         write.lock();
         try {
-            this.jsonHandle.remove(index);
-
-            tail.value = null;
-            tail.prev.next = null;
-
-            size -= 1;
-
+            int index = indexOf(element);
+            if (index == -1)
+                return false;
+            remove(index);
             return true;
         } finally {
             write.unlock();
@@ -308,208 +326,72 @@ public class ConfigList<V> implements List<V> {
     }
 
     @Override
-    public boolean containsAll(Collection<?> c) {
-        read.lock();
-        try {
-            for (Object o : c) {
-                if (indexOf(o) == -1)
-                    return false;
-            }
-        } finally {
-            read.unlock();
-        }
-
-        return true;
+    public boolean removeAll(Collection<?> coll) {
+        Preconditions.checkNotNull(coll, "Collection cannot be null");
+        return retain(coll, false);
     }
 
-    /* (non-Javadoc)
-     * @see java.util.List#removeAll(java.util.Collection)
-     */
     @Override
-    public boolean removeAll(Collection<?> coll) {
-        lockFully();
-        try {
-            for (Object o : coll) {
-                Node<V> tail = null;
-                int index = -1;
-
-                int idx = 0;
-                Node<V> node = head;
-                while ((node = node.next) != null) {
-                    if (node.value == o) {
-                        tail = node;
-                        index = idx;
-
-                        break;
-                    }
-                    idx++;
-                }
-
-                if (index == -1)
-                    continue;
-
-                this.jsonHandle.remove(index);
-
-                tail.value = null;
-                tail.prev.next = null;
-
-                size -= 1;
+    public boolean retainAll(Collection<?> coll) {
+        Preconditions.checkNotNull(coll, "Collection cannot be null");
+        return retain(coll, true);
+    }
 
-                return true;
+    private boolean retain(Collection<?> coll, boolean keep) {
+        write.lock();
+        try {
+            Object[] elements = this.elements;
+            Object[] retained = new Object[elements.length];
+            int size = 0;
+            for (Object element : elements) {
+                if (coll.contains(element) == keep)
+                    retained[size++] = element;
             }
+
+            if (size == elements.length)
+                return false;
+            this.elements = Arrays.copyOf(retained, size);
         } finally {
-            unlockFully();
+            write.unlock();
         }
 
-        return false;
+        changed();
+        return true;
     }
 
-    /* (non-Javadoc)
-     * @see java.util.List#clear()
-     */
     @Override
     public void clear() {
         write.lock();
         try {
-            Node<V> node = head;
-            while ((node = node.next) != null) {
-                node.value = null;
-                node.prev.next = null;
-
-                size -= 1;
-            }
-
-            this.jsonHandle = new JsonArray();
+            if (elements.length == 0)
+                return;
+            elements = EMPTY;
         } finally {
             write.unlock();
         }
-    }
-
-    /**
-     * Not implemented
-     */
-    @Override
-    public void add(int index, V element) {
-        TridentLogger.error(new UnsupportedOperationException("Cannot invoke on Lists from Config"));
-    }
 
-    /**
-     * Not implemented
-     */
-    @Override
-    public boolean addAll(int arg0, Collection<? extends V> arg1) {
-        TridentLogger.error(new UnsupportedOperationException("Cannot invoke on Lists from Config"));
-        return false;
-    }
-
-    /**
-     * Not implemented
-     */
-    @Override
-    public boolean retainAll(Collection<?> arg0) {
-        TridentLogger.error(new UnsupportedOperationException("Cannot invoke on Lists from Config"));
-        return false;
-    }
-
-    /**
-     * Not implemented
-     */
-    @Override
-    public List<V> subList(int arg0, int arg1) {
-        TridentLogger.error(new UnsupportedOperationException("Cannot invoke on Lists from Config"));
-        return null;
-    }
-
-    /**
-     * Not implemented
-     */
-    @Override
-    public V[] toArray() {
-        TridentLogger.error(new UnsupportedOperationException("Cannot invoke on Lists from Config"));
-        return null;
-    }
-
-    /**
-     * Not implemented
-     */
-    @Override
-    public <T> T[] toArray(T[] arg0) {
-        TridentLogger.error(new UnsupportedOperationException("Cannot invoke on Lists from Config"));
-        return null;
-    }
-
-    @AccessNoDoc
-    private class Node<E> {
-        @GuardedBy("lock")
-        E value;
-        @GuardedBy("lock")
-        Node<E> next;
-        @GuardedBy("lock")
-        Node<E> prev;
-
-        private Node(E value, Node<E> next, Node<E> prev) {
-            this.value = value;
-            this.next = next;
-            this.prev = prev;
-        }
+        changed();
     }
 
     @AccessNoDoc
-    private class ConfigIterator implements ListIterator<V> {
-        private final AtomicInteger current = new AtomicInteger();
+    private static final class SnapshotIterator<V> implements Iterator<V> {
+        private final Object[] elements;
+        private int cursor;
 
-        public ConfigIterator(int index) {
-            current.set(index);
+        SnapshotIterator(Object[] elements) {
+            this.elements = elements;
         }
 
         @Override
         public boolean hasNext() {
-            return (current.get() + 1) <= size();
+            return cursor < elements.length;
         }
 
         @Override
         public V next() {
-            return get(current.incrementAndGet());
-        }
-
-        @Override
-        public boolean hasPrevious() {
-            return current.get() > 0;
-        }
-
-        @Override
-        public V previous() {
-            read.lock();
-            try {
-                return nodeAt(current.get()).prev.value;
-            } finally {
-                read.unlock();
-            }
-        }
-
-        @Override
-        public int nextIndex() {
-            return current.get() + 1;
-        }
-
-        @Override
-        public int previousIndex() {
-            return current.get() - 1;
-        }
-
-        @Override
-        public void remove() {
-            ConfigList.this.remove(current.get());
-        }
-
-        @Override
-        public void set(V v) {
-            ConfigList.this.set(current.get(), v);
-        }
-
-        @Override
-        public void add(V v) {
-            ConfigList.this.add(v);
+            if (cursor >= elements.length)
+                throw new NoSuchElementException();
+            return (V) elements[cursor++];
         }
     }
 }
@@ -0,0 +1,104 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.config;
+
+import net.tridentsdk.docs.AccessNoDoc;
+import net.tridentsdk.util.TridentLogger;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Writes configs saved with JsonConfig#saveAsync() on a single thread
+ *
+ * The first save of a config schedules a write COALESCE_MILLIS later, and the saves made before the write begins
+ * are completed by that same write. The config is removed from the pending saves before its values are written, so a
+ * save made during the write schedules another. Pending saves are written when the JVM shuts down, so the saves made
+ * while plugins are disabled are written together rather than being lost with the daemon thread.
+ */
+@AccessNoDoc
+@ThreadSafe
+final class ConfigSaver {
+    static final long COALESCE_MILLIS = 50;
+    private static final ConfigSaver INSTANCE = new ConfigSaver();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "Trident - Config Saver");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ConcurrentMap<JsonConfig, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+
+    private ConfigSaver() {
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "Trident - Config Flush"));
+    }
+
+    static ConfigSaver instance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Schedules a write of the config, unless one is already waiting
+     *
+     * @param config the config to write
+     * @return the future completed once the config is written
+     */
+    CompletableFuture<Void> save(JsonConfig config) {
+        CompletableFuture<Void> future = pending.get(config);
+        if (future != null)
+            return future;
+
+        CompletableFuture<Void> created = new CompletableFuture<>();
+        future = pending.putIfAbsent(config, created);
+        if (future != null)
+            return future;
+
+        executor.schedule(() -> write(config), COALESCE_MILLIS, TimeUnit.MILLISECONDS);
+        return created;
+    }
+
+    /**
+     * Writes every config which is waiting to be written on the calling thread
+     */
+    void flush() {
+        for (JsonConfig config : pending.keySet()) {
+            write(config);
+        }
+    }
+
+    private void write(JsonConfig config) {
+        CompletableFuture<Void> future = pending.remove(config);
+        if (future == null)
+            return;
+
+        try {
+            config.write();
+            future.complete(null);
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            TridentLogger.error(e);
+        }
+    }
+}
@@ -17,6 +17,7 @@
 
 package net.tridentsdk.config;
 
+import com.google.common.collect.MapMaker;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
@@ -26,8 +27,17 @@ import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Represents a section of the Config file
@@ -36,17 +46,32 @@ import java.util.List;
  */
 @ThreadSafe
 public class ConfigSection {
-    final Object handleLock = new Object();
-    private final Object parentLock = new Object();
+    // Not monitors, so a virtual thread waiting on a config does not pin its carrier thread
+    final Lock handleLock = new ReentrantLock();
+    private final Lock parentLock = new ReentrantLock();
     @GuardedBy("parentLock")
     ConfigSection parent;
     @GuardedBy("handleLock")
     JsonObject jsonHandle;
 
+    // The root section counts the changes made to every section of the config
+    final ConfigSection root;
+    private final AtomicInteger version = new AtomicInteger();
+    private volatile ConfigSnapshot snapshot;
+    // Lists of the config which have changed since their elements were written to the JSON tree, by identity as
+    // lists with equal elements are still different lists
+    private final Lock listLock = new ReentrantLock();
+    @GuardedBy("listLock")
+    private Set<ConfigList<?>> changedLists = Collections.newSetFromMap(new IdentityHashMap<>());
+    // The list which wraps each JSON array of the config, so changes from one list are not overwritten by another
+    @GuardedBy("listLock")
+    private final Map<JsonArray, ConfigList<?>> lists = new MapMaker().weakKeys().weakValues().makeMap();
+
     /**
      * Instantiated by subclasses only
      */
     protected ConfigSection() {
+        this.root = this;
     }
 
     /**
@@ -58,6 +83,7 @@ public class ConfigSection {
     protected ConfigSection(ConfigSection parent, JsonObject obj) {
         this.parent = parent;
         this.jsonHandle = obj;
+        this.root = parent == null ? this : parent.root;
     }
 
     /**
@@ -87,8 +113,11 @@ public class ConfigSection {
      * @return the integer at the tag
      */
     public int getInt(String tag, int def) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             return this.contains(tag) ? this.jsonHandle.get(tag).getAsInt() : def;
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -101,8 +130,11 @@ public class ConfigSection {
      * @return the integer at the tag
      */
     public int getInt(String tag) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             return this.getInt(tag, 0);
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -113,8 +145,12 @@ public class ConfigSection {
      * @param in  the integer value to set the tag
      */
     public void setInt(String tag, int in) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             this.jsonHandle.addProperty(tag, in);
+            this.modified();
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -126,8 +162,11 @@ public class ConfigSection {
      * @return the double at the tag
      */
     public double getDouble(String tag, double def) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             return this.contains(tag) ? this.jsonHandle.get(tag).getAsDouble() : def;
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -140,8 +179,11 @@ public class ConfigSection {
      * @return the double at the tag
      */
     public double getDouble(String tag) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             return this.getDouble(tag, 0.0D);
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -152,8 +194,12 @@ public class ConfigSection {
      * @param d   the double to set to the tag
      */
     public void setDouble(String tag, double d) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             this.jsonHandle.addProperty(tag, d);
+            this.modified();
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -165,8 +211,11 @@ public class ConfigSection {
      * @return the float at the tag
      */
     public float getFloat(String tag, float def) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             return this.contains(tag) ? this.jsonHandle.get(tag).getAsFloat() : def;
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -179,8 +228,11 @@ public class ConfigSection {
      * @return the float at the tag
      */
     public float getFloat(String tag) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             return this.getFloat(tag, 0.0F);
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -191,8 +243,12 @@ public class ConfigSection {
      * @param f   the float to set the tag to
      */
     public void setFloat(String tag, float f) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             this.jsonHandle.addProperty(tag, f);
+            this.modified();
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -204,8 +260,11 @@ public class ConfigSection {
      * @return the character at the tag
      */
     public char getChar(String tag, char def) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             return this.contains(tag) ? this.jsonHandle.get(tag).getAsCharacter() : def;
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -218,8 +277,11 @@ public class ConfigSection {
      * @return the character at the tag
      */
     public char getChar(String tag) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             return this.getChar(tag, '\u0000');
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -230,8 +292,12 @@ public class ConfigSection {
      * @param c   the character to set the tag to
      */
     public void setChar(String tag, char c) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             this.jsonHandle.addProperty(tag, c);
+            this.modified();
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -243,8 +309,11 @@ public class ConfigSection {
      * @return the boolean at the tag
      */
     public boolean getBoolean(String tag, boolean def) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             return this.contains(tag) ? this.jsonHandle.get(tag).getAsBoolean() : def;
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -257,8 +326,11 @@ public class ConfigSection {
      * @return the boolean at the tag
      */
     public boolean getBoolean(String tag) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             return this.getBoolean(tag, false);
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -269,8 +341,12 @@ public class ConfigSection {
      * @param b   the boolean to set to at the tag
      */
     public void setBoolean(String tag, boolean b) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             this.jsonHandle.addProperty(tag, b);
+            this.modified();
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -282,8 +358,11 @@ public class ConfigSection {
      * @return the byte at the tag
      */
     public byte getByte(String tag, byte def) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             return this.contains(tag) ? this.jsonHandle.get(tag).getAsByte() : def;
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -296,8 +375,11 @@ public class ConfigSection {
      * @return the character at the tag
      */
     public byte getByte(String tag) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             return this.getByte(tag, (byte) 0);
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -308,8 +390,12 @@ public class ConfigSection {
      * @param b   the byte to set to at the tag
      */
     public void setByte(String tag, byte b) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             this.jsonHandle.addProperty(tag, b);
+            this.modified();
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -320,14 +406,20 @@ public class ConfigSection {
      * @param def the default value to
      */
     public String getString(String tag, String def) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             return this.contains(tag) ? this.jsonHandle.get(tag).getAsString() : def;
+        } finally {
+            handleLock.unlock();
         }
     }
 
     public String getString(String tag) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             return this.getString(tag, null);
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -338,42 +430,73 @@ public class ConfigSection {
      * @param s   the string to set at the tag
      */
     public void setString(String tag, String s) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             this.jsonHandle.addProperty(tag, s);
+            this.modified();
+        } finally {
+            handleLock.unlock();
         }
     }
 
     /**
      * Gets the list at the tag
      *
+     * <p>The same list is returned each time the tag is read as the same type, until the value at the tag is
+     * replaced. Reading the tag as a different type replaces the list which was returned before.</p>
+     *
      * @param tag  the tag to find the value from
      * @param type the types contained in the list
      * @param <V>  the list type
      * @return the list from the section
      */
     public <V> List<V> getList(String tag, Class<V> type) {
+        this.writeLists();
+
         JsonArray array;
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             array = this.jsonHandle.get(tag).getAsJsonArray();
-        }
-
-        //Handle ConfigSection seperately as it is special
-        if (type.equals(ConfigSection.class)) {
-            List<V> result = new ConfigSectionList<>(this, array);
-            for (JsonElement element : array) {
-                if (element == null)
-                    continue;
-                result.add((V) new ConfigSection(this, element.getAsJsonObject()));
+        } finally {
+            handleLock.unlock();
+        }
+
+        Map<JsonArray, ConfigList<?>> lists = root.lists;
+        root.listLock.lock();
+        try {
+            ConfigList<?> cached = lists.get(array);
+            if (cached != null && cached.type == type)
+                return (List<V>) cached;
+
+            ConfigList<V> list;
+            Object[] elements = new Object[array.size()];
+            int size = 0;
+            handleLock.lock();
+            try {
+                //Handle ConfigSection seperately as it is special
+                if (type.equals(ConfigSection.class)) {
+                    for (JsonElement element : array) {
+                        if (element == null)
+                            continue;
+                        elements[size++] = new ConfigSection(this, element.getAsJsonObject());
+                    }
+                    list = new ConfigSectionList<>(this, array, Arrays.copyOf(elements, size));
+                } else {
+                    for (JsonElement element : array) {
+                        if (element == null)
+                            continue;
+                        elements[size++] = GsonFactory.gson().fromJson(element, type);
+                    }
+                    list = new ConfigList<>(this, type, array, Arrays.copyOf(elements, size));
+                }
+            } finally {
+                handleLock.unlock();
             }
-            return result;
-        } else {
-            List<V> result = new ConfigList<>(array);
-            for (JsonElement element : array) {
-                if (element == null)
-                    continue;
-                result.add(GsonFactory.gson().fromJson(element, type));
-            }
-            return result;
+
+            lists.put(array, list);
+            return list;
+        } finally {
+            root.listLock.unlock();
         }
     }
 
@@ -386,8 +509,12 @@ public class ConfigSection {
      * @return the list added to the section
      */
     public <V> List<V> addList(String tag, Class<V> type) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             this.jsonHandle.add(tag, new JsonArray());
+            this.modified();
+        } finally {
+            handleLock.unlock();
         }
 
         return this.getList(tag, type);
@@ -401,8 +528,11 @@ public class ConfigSection {
      * @return the BigInteger value at the tag
      */
     public BigInteger getBigInteger(String tag, BigInteger def) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             return this.contains(tag) ? this.jsonHandle.get(tag).getAsBigInteger() : def;
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -415,8 +545,11 @@ public class ConfigSection {
      * @return the BigInteger at the tag
      */
     public BigInteger getBigInteger(String tag) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             return this.getBigInteger(tag, null);
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -427,8 +560,11 @@ public class ConfigSection {
      * @param bi the BigInteger ot set the tag to
      */
     public void setBigInteger(String s, BigInteger bi) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             this.setString(s, bi.toString());
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -440,8 +576,11 @@ public class ConfigSection {
      * @return the value at the tag
      */
     public BigDecimal getBigDecimal(String tag, BigDecimal def) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             return this.contains(tag) ? this.jsonHandle.get(tag).getAsBigDecimal() : def;
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -454,8 +593,11 @@ public class ConfigSection {
      * @return the value of the tag
      */
     public BigDecimal getBigDecimal(String tag) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             return this.getBigDecimal(tag, null);
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -466,8 +608,11 @@ public class ConfigSection {
      * @param bd  the BigDecimal to set the tag to
      */
     public void setBigDecimal(String tag, BigDecimal bd) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             this.setString(tag, bd.toPlainString());
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -480,8 +625,12 @@ public class ConfigSection {
      * @return the value
      */
     public <V> V getObject(String tag, Class<V> clazz) {
-        synchronized (handleLock) {
+        this.writeLists();
+        handleLock.lock();
+        try {
             return this.contains(tag) ? GsonFactory.gson().fromJson(this.jsonHandle.get(tag), clazz) : null;
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -492,8 +641,12 @@ public class ConfigSection {
      * @param object the value to set the tag to
      */
     public void setObject(String tag, Object object) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             this.jsonHandle.add(tag, GsonFactory.gson().toJsonTree(object));
+            this.modified();
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -503,8 +656,12 @@ public class ConfigSection {
      * @param tag the tag to remove
      */
     public void remove(String tag) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             this.jsonHandle.remove(tag);
+            this.modified();
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -515,8 +672,11 @@ public class ConfigSection {
      * @return {@code true} if the tag is in the section, {@code false} if not
      */
     public boolean contains(String tag) {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             return this.jsonHandle.has(tag);
+        } finally {
+            handleLock.unlock();
         }
     }
 
@@ -526,8 +686,84 @@ public class ConfigSection {
      * @return the JSON version of the section
      */
     public JsonObject asJsonObject() {
-        synchronized (handleLock) {
+        handleLock.lock();
+        try {
             return this.jsonHandle;
+        } finally {
+            handleLock.unlock();
+        }
+    }
+
+    /**
+     * Obtains an immutable copy of the values in this section, which can be read without locking
+     *
+     * <p>The snapshot is only copied again once the config has been changed, so this method can be called each time
+     * values are read. Changes made directly to the object from {@link #asJsonObject()} are seen once the config is
+     * next changed through a section, or reloaded.</p>
+     *
+     * @return the snapshot of the current values in the section
+     */
+    public ConfigSnapshot snapshot() {
+        writeLists();
+        ConfigSnapshot snapshot = this.snapshot;
+        int version = root.version.get();
+        if (snapshot != null && snapshot.version() == version)
+            return snapshot;
+
+        handleLock.lock();
+        try {
+            // A change made while copying increments the version again, so it is copied by the next call
+            snapshot = ConfigSnapshot.of(jsonHandle, version);
+        } finally {
+            handleLock.unlock();
+        }
+
+        this.snapshot = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * Marks the config as changed, so that the next snapshot of any of its sections is copied again
+     */
+    void modified() {
+        root.version.incrementAndGet();
+    }
+
+    /**
+     * Marks a list of the config as changed, so that its elements are written to the JSON tree before the tree is
+     * next read as a whole
+     *
+     * @param list the list which changed
+     */
+    void listChanged(ConfigList<?> list) {
+        root.listLock.lock();
+        try {
+            root.changedLists.add(list);
+        } finally {
+            root.listLock.unlock();
+        }
+        modified();
+    }
+
+    /**
+     * Writes the elements of every changed list of the config to the JSON tree
+     *
+     * <p>Must not be called while holding the handle lock of a section.</p>
+     */
+    void writeLists() {
+        Set<ConfigList<?>> changed;
+        root.listLock.lock();
+        try {
+            changed = root.changedLists;
+            if (changed.isEmpty())
+                return;
+            root.changedLists = Collections.newSetFromMap(new IdentityHashMap<>());
+        } finally {
+            root.listLock.unlock();
+        }
+
+        for (ConfigList<?> list : changed) {
+            list.writeJson();
         }
     }
 
@@ -537,8 +773,11 @@ public class ConfigSection {
      * @return the parent root section
      */
     public JsonConfig rootSection() {
-        synchronized (parentLock) {
+        parentLock.lock();
+        try {
             return this.parent.rootSection();
+        } finally {
+            parentLock.unlock();
         }
     }
 
@@ -548,8 +787,11 @@ public class ConfigSection {
      * @return the parent of the section
      */
     public ConfigSection parentSection() {
-        synchronized (parentLock) {
+        parentLock.lock();
+        try {
             return this.parent;
+        } finally {
+            parentLock.unlock();
         }
     }
 
@@ -566,6 +808,7 @@ public class ConfigSection {
             return new ConfigSection(this, this.jsonHandle.get(tag).getAsJsonObject());
         } else {
             this.jsonHandle.add(tag, new JsonObject());
+            this.modified();
             return new ConfigSection(this, this.jsonHandle.get(tag).getAsJsonObject());
         }
     }
@@ -574,8 +817,27 @@ public class ConfigSection {
      * Saves the parent data
      */
     public void save() {
-        synchronized (parentLock) {
+        parentLock.lock();
+        try {
             this.parent.save();
+        } finally {
+            parentLock.unlock();
+        }
+    }
+
+    /**
+     * Saves the parent data on another thread
+     *
+     * <p>Saves made within a short time of each other are written to the file once.</p>
+     *
+     * @return the future completed once the data is written
+     */
+    public CompletableFuture<Void> saveAsync() {
+        parentLock.lock();
+        try {
+            return this.parent.saveAsync();
+        } finally {
+            parentLock.unlock();
         }
     }
 }
\ No newline at end of file
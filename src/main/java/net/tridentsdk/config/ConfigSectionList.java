@@ -18,10 +18,9 @@
 package net.tridentsdk.config;
 
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 
 import javax.annotation.concurrent.ThreadSafe;
-import java.util.Collection;
-import java.util.concurrent.locks.Lock;
 
 /**
  * Section of the config dedicated to storing values from a collection
@@ -32,8 +31,6 @@ import java.util.concurrent.locks.Lock;
 public class ConfigSectionList<V> extends ConfigList<V> {
     private final ConfigSection parent;
 
-    private final Lock lock = super.write;
-
     /**
      * Creates a new section list in the config
      *
@@ -45,114 +42,21 @@ public class ConfigSectionList<V> extends ConfigList<V> {
         this.parent = parent;
     }
 
-    @Override
-    public boolean add(V element) {
-        boolean changed = super.add(element);
-
-        if (changed) {
-            lock.lock();
-            try {
-                this.jsonHandle.add(((ConfigSection) element).asJsonObject());
-            } finally {
-                lock.unlock();
-            }
-        }
-
-        return changed;
-    }
-
-    @Override
-    public boolean addAll(Collection<? extends V> coll) {
-        boolean changed = super.addAll(coll);
-
-        if (changed) {
-            lock.lock();
-            try {
-                for (V element : coll) {
-                    this.jsonHandle.add(((ConfigSection) element).asJsonObject());
-                }
-            } finally {
-                lock.unlock();
-            }
-        }
-
-        return changed;
-    }
-
-    /* (non-Javadoc)
-     * @see java.util.ArrayList#set(int, java.lang.Object)
-     */
-    @Override
-    public V set(int index, V element) {
-        lock.lock();
-        try {
-            this.jsonHandle.set(index, ((ConfigSection) element).asJsonObject());
-            return super.set(index, element);
-        } finally {
-            lock.unlock();
-        }
-    }
-
-    @Override
-    public V remove(int index) {
-        lock.lock();
-        try {
-            this.jsonHandle.remove(index);
-            return super.remove(index);
-        } finally {
-            lock.unlock();
-        }
-    }
-
-    @Override
-    public boolean remove(Object element) {
-        boolean success = super.remove(element);
-
-        if (success) {
-            lock.lock();
-            try {
-                this.jsonHandle.remove(((ConfigSection) element).asJsonObject());
-            } finally {
-                lock.unlock();
-            }
-        }
-
-        return success;
-    }
-
-    /* (non-Javadoc)
-     * @see java.util.ArrayList#removeAll(java.util.Collection)
+    /**
+     * Creates a section list of sections which are already in the array
+     *
+     * @param parent   the section which the array is in
+     * @param handle   the array handler
+     * @param elements the sections of the array
      */
-    @Override
-    public boolean removeAll(Collection<?> coll) {
-        boolean changed = super.removeAll(coll);
-
-        if (changed) {
-            for (Object o : coll) {
-                lock.lock();
-                try {
-                    this.jsonHandle.remove(((ConfigSection) o).asJsonObject());
-                } finally {
-                    lock.unlock();
-                }
-            }
-        }
-
-        return changed;
+    ConfigSectionList(ConfigSection parent, JsonArray handle, Object[] elements) {
+        super(parent, ConfigSection.class, handle, elements);
+        this.parent = parent;
     }
 
-    /* (non-Javadoc)
-     * @see java.util.ArrayList#clear()
-     */
     @Override
-    public void clear() {
-        lock.lock();
-        try {
-            super.clear();
-            this.jsonHandle = new JsonArray();
-        } finally {
-            lock.unlock();
-        }
+    protected JsonElement toJson(V element) {
+        return ((ConfigSection) element).asJsonObject();
     }
 
     protected ConfigSection parent() {
@@ -0,0 +1,454 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.config;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable copy of the values in a {@link ConfigSection}, obtained by {@link ConfigSection#snapshot()}
+ *
+ * <p>Values are found by their path from the section which the snapshot was taken of, with the tags of nested
+ * sections separated by {@code .}, such as {@code "spawn.protection.radius"}. Every value is converted to each type
+ * it can be read as when the snapshot is taken, so reading a value does not lock, parse or allocate. This makes
+ * snapshots suitable for reading config values in event handlers and other code that runs often.</p>
+ *
+ * <p>A snapshot does not change once it is taken. Call {@link ConfigSection#snapshot()} again to obtain the current
+ * values; if the section has not been changed since the last snapshot, the same snapshot is returned without being
+ * copied again.</p>
+ *
+ * @author The TridentSDK Team
+ */
+@Immutable
+public final class ConfigSnapshot {
+    private static final int NUMBER = 1;
+    private static final int BOOLEAN = 2;
+    private static final int TEXT = 4;
+    private static final int SECTION = 8;
+    private static final int LIST = 16;
+
+    private final int version;
+
+    // Open addressed table from path to entry index, a slot holds the entry index plus one so zero is free
+    private final int[] table;
+    private final int mask;
+
+    // Entries
+    private final String[] paths;
+    private final int[] hashes;
+    private final byte[] kinds;
+    private final long[] longs;
+    private final double[] doubles;
+    private final Object[] objects;
+    private final int size;
+
+    private ConfigSnapshot(Builder builder, int version) {
+        this.version = version;
+        this.size = builder.size;
+        this.paths = Arrays.copyOf(builder.paths, size);
+        this.hashes = Arrays.copyOf(builder.hashes, size);
+        this.kinds = Arrays.copyOf(builder.kinds, size);
+        this.longs = Arrays.copyOf(builder.longs, size);
+        this.doubles = Arrays.copyOf(builder.doubles, size);
+        this.objects = Arrays.copyOf(builder.objects, size);
+
+        int capacity = Integer.highestOneBit(Math.max(size, 2) * 2 - 1) << 1;
+        this.table = new int[capacity];
+        this.mask = capacity - 1;
+        for (int entry = 0; entry < size; entry++) {
+            int i = spread(hashes[entry]) & mask;
+            while (table[i] != 0)
+                i = (i + 1) & mask;
+            table[i] = entry + 1;
+        }
+    }
+
+    /**
+     * Copies the values of a JSON object into a new snapshot
+     *
+     * @param object  the object to copy
+     * @param version the modification count of the config when the object was copied
+     * @return the new snapshot
+     */
+    static ConfigSnapshot of(JsonObject object, int version) {
+        Builder builder = new Builder();
+        builder.add("", object);
+        return new ConfigSnapshot(builder, version);
+    }
+
+    int version() {
+        return version;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private int indexOf(String path) {
+        int hash = path.hashCode();
+        int i = spread(hash) & mask;
+        int entry;
+        while ((entry = table[i]) != 0) {
+            entry--;
+            if (hashes[entry] == hash && paths[entry].equals(path))
+                return entry;
+            i = (i + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    private int kind(String path, int kind) {
+        int entry = indexOf(path);
+        return entry != -1 && (kinds[entry] & kind) != 0 ? entry : -1;
+    }
+
+    /**
+     * The amount of values in the snapshot, including nested sections and the values in them
+     *
+     * @return the amount of paths in the snapshot
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if there is a value at the path
+     *
+     * @param path the path to the value
+     * @return {@code true} if the path has a value, even if it is {@code null}
+     */
+    public boolean contains(String path) {
+        return indexOf(path) != -1;
+    }
+
+    /**
+     * Checks if there is a section at the path
+     *
+     * @param path the path to the section
+     * @return {@code true} if the path is a section
+     */
+    public boolean isSection(String path) {
+        return kind(path, SECTION) != -1;
+    }
+
+    /**
+     * Gets an integer at the path, or the fallback if there is no number at the path
+     *
+     * @param path the path to the value
+     * @param def  the default value
+     * @return the integer at the path
+     */
+    public int getInt(String path, int def) {
+        int entry = kind(path, NUMBER);
+        return entry == -1 ? def : (int) longs[entry];
+    }
+
+    /**
+     * Gets an integer at the path, or {@code 0} if there is no number at the path
+     *
+     * @param path the path to the value
+     * @return the integer at the path
+     */
+    public int getInt(String path) {
+        return getInt(path, 0);
+    }
+
+    /**
+     * Gets a long at the path, or the fallback if there is no number at the path
+     *
+     * @param path the path to the value
+     * @param def  the default value
+     * @return the long at the path
+     */
+    public long getLong(String path, long def) {
+        int entry = kind(path, NUMBER);
+        return entry == -1 ? def : longs[entry];
+    }
+
+    /**
+     * Gets a long at the path, or {@code 0} if there is no number at the path
+     *
+     * @param path the path to the value
+     * @return the long at the path
+     */
+    public long getLong(String path) {
+        return getLong(path, 0L);
+    }
+
+    /**
+     * Gets a double at the path, or the fallback if there is no number at the path
+     *
+     * @param path the path to the value
+     * @param def  the default value
+     * @return the double at the path
+     */
+    public double getDouble(String path, double def) {
+        int entry = kind(path, NUMBER);
+        return entry == -1 ? def : doubles[entry];
+    }
+
+    /**
+     * Gets a double at the path, or {@code 0.0D} if there is no number at the path
+     *
+     * @param path the path to the value
+     * @return the double at the path
+     */
+    public double getDouble(String path) {
+        return getDouble(path, 0.0D);
+    }
+
+    /**
+     * Gets a float at the path, or the fallback if there is no number at the path
+     *
+     * @param path the path to the value
+     * @param def  the default value
+     * @return the float at the path
+     */
+    public float getFloat(String path, float def) {
+        int entry = kind(path, NUMBER);
+        return entry == -1 ? def : (float) doubles[entry];
+    }
+
+    /**
+     * Gets a float at the path, or {@code 0.0F} if there is no number at the path
+     *
+     * @param path the path to the value
+     * @return the float at the path
+     */
+    public float getFloat(String path) {
+        return getFloat(path, 0.0F);
+    }
+
+    /**
+     * Gets a byte at the path, or the fallback if there is no number at the path
+     *
+     * @param path the path to the value
+     * @param def  the default value
+     * @return the byte at the path
+     */
+    public byte getByte(String path, byte def) {
+        int entry = kind(path, NUMBER);
+        return entry == -1 ? def : (byte) longs[entry];
+    }
+
+    /**
+     * Gets a byte at the path, or {@code (byte) 0} if there is no number at the path
+     *
+     * @param path the path to the value
+     * @return the byte at the path
+     */
+    public byte getByte(String path) {
+        return getByte(path, (byte) 0);
+    }
+
+    /**
+     * Gets a boolean at the path, or the fallback if there is no boolean at the path
+     *
+     * <p>Strings are read as booleans in the same way as {@link ConfigSection#getBoolean(String)}.</p>
+     *
+     * @param path the path to the value
+     * @param def  the default value
+     * @return the boolean at the path
+     */
+    public boolean getBoolean(String path, boolean def) {
+        int entry = kind(path, BOOLEAN);
+        return entry == -1 ? def : longs[entry] != 0;
+    }
+
+    /**
+     * Gets a boolean at the path, or {@code false} if there is no boolean at the path
+     *
+     * @param path the path to the value
+     * @return the boolean at the path
+     */
+    public boolean getBoolean(String path) {
+        return getBoolean(path, false);
+    }
+
+    /**
+     * Gets a character at the path, or the fallback if there is no text at the path
+     *
+     * @param path the path to the value
+     * @param def  the default value
+     * @return the first character of the text at the path
+     */
+    public char getChar(String path, char def) {
+        int entry = kind(path, TEXT);
+        if (entry == -1)
+            return def;
+        String text = (String) objects[entry];
+        return text.isEmpty() ? def : text.charAt(0);
+    }
+
+    /**
+     * Gets a character at the path, or {@code \u0000} if there is no text at the path
+     *
+     * @param path the path to the value
+     * @return the first character of the text at the path
+     */
+    public char getChar(String path) {
+        return getChar(path, '\u0000');
+    }
+
+    /**
+     * Gets a string at the path, or the fallback if there is no text at the path
+     *
+     * <p>Numbers and booleans are given in the form they are written in the config.</p>
+     *
+     * @param path the path to the value
+     * @param def  the default value
+     * @return the string at the path
+     */
+    public String getString(String path, String def) {
+        int entry = kind(path, TEXT);
+        return entry == -1 ? def : (String) objects[entry];
+    }
+
+    /**
+     * Gets a string at the path, or {@code null} if there is no text at the path
+     *
+     * @param path the path to the value
+     * @return the string at the path
+     */
+    public String getString(String path) {
+        return getString(path, null);
+    }
+
+    /**
+     * Gets the list at the path, with each element in the form of {@link #getString(String)}
+     *
+     * <p>Elements which are sections or lists are given as their JSON text.</p>
+     *
+     * @param path the path to the list
+     * @return the immutable list at the path, or an empty list if there is no list at the path
+     */
+    public List<String> getStringList(String path) {
+        int entry = kind(path, LIST);
+        return entry == -1 ? ImmutableList.of() : (List<String>) objects[entry];
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigSnapshot(size=" + size + ")";
+    }
+
+    private static final class Builder {
+        private String[] paths = new String[16];
+        private int[] hashes = new int[16];
+        private byte[] kinds = new byte[16];
+        private long[] longs = new long[16];
+        private double[] doubles = new double[16];
+        private Object[] objects = new Object[16];
+        private int size;
+
+        void add(String prefix, JsonObject object) {
+            for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                String path = prefix + entry.getKey();
+                JsonElement element = entry.getValue();
+
+                int index = entry(path);
+                if (element.isJsonObject()) {
+                    kinds[index] = SECTION;
+                    add(path + '.', element.getAsJsonObject());
+                } else if (element.isJsonArray()) {
+                    kinds[index] = LIST;
+                    objects[index] = list(element.getAsJsonArray());
+                } else if (element.isJsonPrimitive()) {
+                    primitive(index, element.getAsJsonPrimitive());
+                }
+            }
+        }
+
+        private int entry(String path) {
+            int index = size++;
+            if (index == paths.length) {
+                int length = index << 1;
+                paths = Arrays.copyOf(paths, length);
+                hashes = Arrays.copyOf(hashes, length);
+                kinds = Arrays.copyOf(kinds, length);
+                longs = Arrays.copyOf(longs, length);
+                doubles = Arrays.copyOf(doubles, length);
+                objects = Arrays.copyOf(objects, length);
+            }
+
+            paths[index] = path;
+            hashes[index] = path.hashCode();
+            return index;
+        }
+
+        private void primitive(int index, JsonPrimitive primitive) {
+            String text = primitive.getAsString();
+            objects[index] = text;
+
+            if (primitive.isBoolean()) {
+                kinds[index] = BOOLEAN | TEXT;
+                longs[index] = primitive.getAsBoolean() ? 1 : 0;
+                return;
+            }
+
+            if (primitive.isNumber()) {
+                kinds[index] = NUMBER | TEXT;
+                longs[index] = primitive.getAsLong();
+                doubles[index] = primitive.getAsDouble();
+                return;
+            }
+
+            // Strings are read as booleans and numbers where the section getters would accept them
+            kinds[index] = TEXT;
+            if ("true".equalsIgnoreCase(text) || "false".equalsIgnoreCase(text)) {
+                kinds[index] |= BOOLEAN;
+                longs[index] = Boolean.parseBoolean(text) ? 1 : 0;
+                return;
+            }
+
+            try {
+                double number = Double.parseDouble(text);
+                doubles[index] = number;
+                longs[index] = (long) number;
+                kinds[index] |= NUMBER;
+                // Integers which a double cannot hold exactly
+                longs[index] = Long.parseLong(text);
+            } catch (NumberFormatException ignored) {
+            }
+        }
+
+        private static List<String> list(JsonArray array) {
+            ImmutableList.Builder<String> builder = ImmutableList.builder();
+            for (int i = 0; i < array.size(); i++) {
+                JsonElement element = array.get(i);
+                if (element.isJsonPrimitive()) {
+                    builder.add(element.getAsString());
+                } else if (!element.isJsonNull()) {
+                    builder.add(element.toString());
+                }
+            }
+
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.config;
+
+import java.lang.annotation.*;
+
+/**
+ * Describes how a method of an interface bound by {@link ConfigBinding} reads its value from the config
+ *
+ * <p>Methods without this annotation read the value at the tag of the method name, with no default value.</p>
+ *
+ * @author The TridentSDK Team
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ConfigValue {
+    /**
+     * Marks that no default value is given
+     */
+    String NONE = "\u0000";
+
+    /**
+     * The path to the value, with the tags of nested sections separated by {@code .}
+     *
+     * <p>Leave empty to use the name of the method.</p>
+     *
+     * @return the path of the value
+     */
+    String path() default "";
+
+    /**
+     * The value used when the path is missing from the config, or its value is not valid
+     *
+     * <p>Numbers, booleans and strings are written as they are, and other types are written as JSON. If no default
+     * is given, the default is {@code 0}, {@code false} or {@code null} depending on the type.</p>
+     *
+     * @return the default value
+     */
+    String def() default NONE;
+
+    /**
+     * The smallest number which is valid for the value
+     *
+     * @return the minimum value
+     */
+    double min() default Double.NEGATIVE_INFINITY;
+
+    /**
+     * The largest number which is valid for the value
+     *
+     * @return the maximum value
+     */
+    double max() default Double.POSITIVE_INFINITY;
+}
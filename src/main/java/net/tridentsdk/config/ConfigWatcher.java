@@ -0,0 +1,220 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.config;
+
+import com.google.common.collect.Maps;
+import net.tridentsdk.docs.AccessNoDoc;
+import net.tridentsdk.util.TridentLogger;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Watches the files of every watched JsonConfig on a single thread
+ *
+ * Each directory containing a watched config is registered once with the WatchService. When a config file is
+ * modified, its reload is scheduled DEBOUNCE_MILLIS later, and postponed again by every further event in that time,
+ * so an editor writing a file in several steps causes a single reload. Reloads run on the watcher thread.
+ *
+ * Saving a config also changes its file. The reload is skipped if the file still has the modification time and size
+ * it was given by the last save of the config, so a save does not revert changes made to the config after it.
+ */
+@AccessNoDoc
+@ThreadSafe
+final class ConfigWatcher implements Runnable {
+    static final long DEBOUNCE_MILLIS = 250;
+    private static final ConfigWatcher INSTANCE = new ConfigWatcher();
+
+    private final Lock lock = new ReentrantLock();
+    @GuardedBy("lock")
+    private WatchService service;
+    @GuardedBy("lock")
+    private final Map<Path, WatchKey> keys = Maps.newHashMap();
+
+    // Watched configs by the absolute path of their file
+    private final ConcurrentMap<Path, Set<JsonConfig>> configs = new ConcurrentHashMap<>();
+    // Configs waiting to be reloaded, by the nano time they are reloaded at
+    private final ConcurrentMap<JsonConfig, Long> pending = new ConcurrentHashMap<>();
+
+    private ConfigWatcher() {
+    }
+
+    static ConfigWatcher instance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts watching the file of the config
+     *
+     * @param config the config to watch
+     * @throws IOException if the directory of the config could not be watched
+     */
+    void watch(JsonConfig config) throws IOException {
+        Path file = config.path().toAbsolutePath().normalize();
+        Path directory = file.getParent();
+
+        lock.lock();
+        try {
+            if (service == null) {
+                service = FileSystems.getDefault().newWatchService();
+                Thread thread = new Thread(this, "Trident - Config Watcher");
+                thread.setDaemon(true);
+                thread.start();
+            }
+
+            if (!keys.containsKey(directory)) {
+                keys.put(directory, directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY));
+            }
+
+            configs.computeIfAbsent(file, k -> ConcurrentHashMap.newKeySet()).add(config);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops watching the file of the config
+     *
+     * @param config the config to stop watching
+     */
+    void unwatch(JsonConfig config) {
+        Path file = config.path().toAbsolutePath().normalize();
+        Path directory = file.getParent();
+
+        lock.lock();
+        try {
+            Set<JsonConfig> watching = configs.get(file);
+            if (watching == null || !watching.remove(config))
+                return;
+            pending.remove(config);
+
+            if (watching.isEmpty())
+                configs.remove(file);
+            for (Path path : configs.keySet()) {
+                if (path.getParent().equals(directory))
+                    return;
+            }
+
+            WatchKey key = keys.remove(directory);
+            if (key != null)
+                key.cancel();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks if the config is being watched
+     *
+     * @param config the config
+     * @return {@code true} if changes to the file of the config reload it
+     */
+    boolean isWatched(JsonConfig config) {
+        Set<JsonConfig> watching = configs.get(config.path().toAbsolutePath().normalize());
+        return watching != null && watching.contains(config);
+    }
+
+    @Override
+    public void run() {
+        WatchService service;
+        lock.lock();
+        try {
+            service = this.service;
+        } finally {
+            lock.unlock();
+        }
+
+        while (true) {
+            try {
+                long next = nextReload();
+                WatchKey key = next == Long.MAX_VALUE ? service.take() :
+                        service.poll(Math.max(0, next - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (key != null) {
+                    Path directory = (Path) key.watchable();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            schedule(directory, null);
+                        } else {
+                            schedule(directory, directory.resolve((Path) event.context()));
+                        }
+                    }
+                    key.reset();
+                }
+
+                reloadDue();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            } catch (RuntimeException e) {
+                TridentLogger.error(e);
+            }
+        }
+    }
+
+    private void schedule(Path directory, Path file) {
+        long at = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DEBOUNCE_MILLIS);
+        for (Map.Entry<Path, Set<JsonConfig>> entry : configs.entrySet()) {
+            Path path = entry.getKey();
+            if (file == null ? path.getParent().equals(directory) : path.equals(file)) {
+                for (JsonConfig config : entry.getValue()) {
+                    pending.put(config, at);
+                }
+            }
+        }
+    }
+
+    private long nextReload() {
+        long next = Long.MAX_VALUE;
+        for (long at : pending.values()) {
+            next = Math.min(next, at);
+        }
+        return next;
+    }
+
+    private void reloadDue() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<JsonConfig, Long>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<JsonConfig, Long> entry = iterator.next();
+            if (entry.getValue() - now > 0)
+                continue;
+
+            iterator.remove();
+            JsonConfig config = entry.getKey();
+            if (config.isWrittenFile())
+                continue;
+
+            try {
+                config.reload();
+            } catch (RuntimeException e) {
+                TridentLogger.error(e);
+            }
+        }
+    }
+}
@@ -18,27 +18,67 @@
 package net.tridentsdk.config;
 
 import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonIOException;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonWriter;
 import net.tridentsdk.util.TridentLogger;
 
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 import java.io.File;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Represents the root ConfigSection of a Configuration file Controls all IO actions of the file
  *
+ * <p>A config can be {@link #watch() watched}, which reloads it shortly after its file is changed. Listeners added
+ * with {@link #addChangeListener(String, Consumer)} are told about each value which is changed by a reload, whether
+ * the reload is automatic or manual.</p>
+ *
+ * <p>Saving writes the config to a temporary file which then replaces the config file, so the file is never left
+ * partly written. {@link #saveAsync()} writes the config on another thread, and saves made shortly after each other
+ * are written together.</p>
+ *
  * @author The TridentSDK Team
  */
 @ThreadSafe
 public class JsonConfig extends ConfigSection {
     private final Path path;
+    private final List<Runnable> reloadListeners = new CopyOnWriteArrayList<>();
+    private final List<ChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    // Held while writing the file, so the last write has the latest values
+    private final Lock saveLock = new ReentrantLock();
+    // The modification time and size of the file as it was last written by this config, so the watcher does not
+    // reload the config because it was saved
+    @GuardedBy("saveLock")
+    private FileTime writtenTime;
+    @GuardedBy("saveLock")
+    private long writtenSize;
 
     /**
      * Creates a new JSON configuration file from NIO path
@@ -50,6 +90,18 @@ public class JsonConfig extends ConfigSection {
         this.reload();
     }
 
+    /**
+     * Creates a JSON configuration from a file which has already been read
+     *
+     * @param path   the NIO path for file directory
+     * @param object the values read from the file, or {@code null} if it could not be read
+     */
+    JsonConfig(Path path, JsonObject object) {
+        this.path = path;
+        if (object != null)
+            this.apply(object);
+    }
+
     /**
      * Creates a new JSON configuration file using the file that may or may not exist
      *
@@ -71,19 +123,106 @@ public class JsonConfig extends ConfigSection {
 
     @Override
     public void save() {
-        JsonObject object;
-        synchronized (handleLock) {
-            object = jsonHandle;
-        }
-
         try {
-            Files.write(this.path, GsonFactory.gson().toJson(object).getBytes(Charsets.UTF_8),
-                    StandardOpenOption.TRUNCATE_EXISTING);
+            write();
         } catch (IOException ex) {
             TridentLogger.error(ex);
         }
     }
 
+    @Override
+    public CompletableFuture<Void> saveAsync() {
+        return ConfigSaver.instance().save(this);
+    }
+
+    /**
+     * Writes every config waiting to be saved by {@link #saveAsync()} on the calling thread
+     *
+     * <p>This happens automatically when the server shuts down.</p>
+     */
+    public static void flushSaves() {
+        ConfigSaver.instance().flush();
+    }
+
+    void write() throws IOException {
+        writeLists();
+        saveLock.lock();
+        try {
+            Path directory = path.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+
+            try {
+                copyAttributes(path, temp);
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE);
+                     JsonWriter writer = new JsonWriter(Channels.newWriter(channel, Charsets.UTF_8.newEncoder(), -1))) {
+                    writer.setIndent("  ");
+                    handleLock.lock();
+                    try {
+                        GsonFactory.gson().toJson(jsonHandle, writer);
+                    } finally {
+                        handleLock.unlock();
+                    }
+
+                    writer.flush();
+                    channel.force(false);
+                }
+
+                try {
+                    Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+                }
+
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                writtenTime = attributes.lastModifiedTime();
+                writtenSize = attributes.size();
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } finally {
+            saveLock.unlock();
+        }
+    }
+
+    // Temporary files are only readable by their owner, so the permissions of the config file are given to the
+    // file which replaces it
+    private static void copyAttributes(Path from, Path to) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(from, PosixFileAttributeView.class);
+        if (view == null || !Files.exists(from))
+            return;
+
+        PosixFileAttributes attributes = view.readAttributes();
+        PosixFileAttributeView target = Files.getFileAttributeView(to, PosixFileAttributeView.class);
+        try {
+            target.setGroup(attributes.group());
+            target.setOwner(attributes.owner());
+        } catch (IOException ignored) {
+            // Only privileged users can give files away, the file is then owned by this process
+        }
+        target.setPermissions(attributes.permissions());
+    }
+
+    /**
+     * Checks if the file is as it was last saved by this config, and so does not need to be reloaded
+     *
+     * @return {@code true} if the file has not been changed since this config last wrote it
+     */
+    boolean isWrittenFile() {
+        saveLock.lock();
+        try {
+            if (writtenTime == null)
+                return false;
+
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return writtenTime.equals(attributes.lastModifiedTime()) && writtenSize == attributes.size();
+        } catch (IOException e) {
+            return false;
+        } finally {
+            saveLock.unlock();
+        }
+    }
+
     @Override
     public JsonConfig rootSection() {
         return this;
@@ -96,18 +235,174 @@ public class JsonConfig extends ConfigSection {
 
     /**
      * Reloads the configuration
+     *
+     * <p>Sections which are the same in the file as in the config are kept, so sections obtained before the reload
+     * remain part of the config if they did not change. If the file cannot be parsed, the config is not changed.</p>
      */
     public void reload() {
-        JsonObject object = null;
+        JsonObject object;
         try {
-            object = Files.isReadable(this.path) ? new JsonParser().parse(
-                    Files.newBufferedReader(this.path, Charsets.UTF_8)).getAsJsonObject() : new JsonObject();
-        } catch (JsonIOException | JsonSyntaxException | IOException e) {
+            object = read(this.path);
+        } catch (JsonIOException | JsonSyntaxException | IllegalStateException | IOException e) {
             TridentLogger.error(e);
+            return;
         }
 
-        synchronized (handleLock) {
-            jsonHandle = object;
+        apply(object);
+    }
+
+    /**
+     * Parses a config file
+     *
+     * @param path the path of the file
+     * @return the root object of the file, or an empty object if the file cannot be read
+     * @throws IOException if the file could not be read
+     */
+    static JsonObject read(Path path) throws IOException {
+        if (!Files.isReadable(path))
+            return new JsonObject();
+
+        try (Reader reader = Files.newBufferedReader(path, Charsets.UTF_8)) {
+            return new JsonParser().parse(reader).getAsJsonObject();
+        }
+    }
+
+    // Replaces the values of the config, and notifies the listeners of what changed
+    private void apply(JsonObject object) {
+        List<ConfigChange> changes;
+        writeLists();
+        handleLock.lock();
+        try {
+            if (jsonHandle == null) {
+                changes = Collections.emptyList();
+                jsonHandle = object;
+                modified();
+            } else {
+                changes = Lists.newArrayList();
+                diff("", jsonHandle, object, changes);
+                // The tree is kept if the file is the same, but reload listeners still run, as values set since
+                // they last read the config may have been saved to the file
+                if (!changes.isEmpty()) {
+                    jsonHandle = object;
+                    modified();
+                }
+            }
+        } finally {
+            handleLock.unlock();
+        }
+
+        for (Runnable listener : reloadListeners) {
+            listener.run();
+        }
+
+        for (ConfigChange change : changes) {
+            for (ChangeListener listener : changeListeners) {
+                if (change.affects(listener.path))
+                    listener.listener.accept(change);
+            }
+        }
+    }
+
+    // Finds the changed values, and puts the unchanged sections of the old tree into the new tree
+    private static void diff(String prefix, JsonObject old, JsonObject now, List<ConfigChange> changes) {
+        for (Map.Entry<String, JsonElement> entry : old.entrySet()) {
+            if (!now.has(entry.getKey()))
+                changes.add(new ConfigChange(prefix + entry.getKey(), entry.getValue(), null));
+        }
+
+        for (Map.Entry<String, JsonElement> entry : now.entrySet()) {
+            String path = prefix + entry.getKey();
+            JsonElement oldValue = old.get(entry.getKey());
+            JsonElement newValue = entry.getValue();
+
+            if (oldValue == null) {
+                changes.add(new ConfigChange(path, null, newValue));
+            } else if (oldValue.isJsonObject() && newValue.isJsonObject()) {
+                int count = changes.size();
+                diff(path + '.', oldValue.getAsJsonObject(), newValue.getAsJsonObject(), changes);
+                if (changes.size() == count)
+                    entry.setValue(oldValue);
+            } else if (!oldValue.equals(newValue)) {
+                changes.add(new ConfigChange(path, oldValue, newValue));
+            }
+        }
+    }
+
+    /**
+     * Starts reloading the config each time its file is changed
+     *
+     * <p>Reloads happen on a thread shared by every watched config, a short time after the file stops changing, so
+     * change listeners are called on that thread.</p>
+     */
+    public void watch() {
+        try {
+            ConfigWatcher.instance().watch(this);
+        } catch (IOException e) {
+            TridentLogger.error(e);
+        }
+    }
+
+    /**
+     * Stops reloading the config when its file is changed
+     */
+    public void unwatch() {
+        ConfigWatcher.instance().unwatch(this);
+    }
+
+    /**
+     * Checks if the config is reloaded when its file is changed
+     *
+     * @return {@code true} if the config is watched
+     */
+    public boolean isWatched() {
+        return ConfigWatcher.instance().isWatched(this);
+    }
+
+    /**
+     * Adds a listener which is given the changes made by reloads to the value at the path, or inside it
+     *
+     * @param path     the path to the value or section, with tags separated by {@code .}, or an empty string for
+     *                 every change
+     * @param listener the listener to give changes to
+     */
+    public void addChangeListener(String path, Consumer<ConfigChange> listener) {
+        changeListeners.add(new ChangeListener(path, listener));
+    }
+
+    /**
+     * Removes a listener from every path it was added for
+     *
+     * @param listener the listener to remove
+     */
+    public void removeChangeListener(Consumer<ConfigChange> listener) {
+        changeListeners.removeIf(l -> l.listener == listener);
+    }
+
+    /**
+     * Adds a task which is run each time the config is reloaded, after the new values are in place
+     *
+     * @param listener the task to run
+     */
+    void addReloadListener(Runnable listener) {
+        reloadListeners.add(listener);
+    }
+
+    /**
+     * Removes the reload tasks which match the filter
+     *
+     * @param filter the filter of the tasks to remove
+     */
+    void removeReloadListeners(Predicate<? super Runnable> filter) {
+        reloadListeners.removeIf(filter);
+    }
+
+    private static final class ChangeListener {
+        private final String path;
+        private final Consumer<ConfigChange> listener;
+
+        ChangeListener(String path, Consumer<ConfigChange> listener) {
+            this.path = path;
+            this.listener = listener;
         }
     }
 }
@@ -96,6 +96,7 @@ public interface Entity {
      *
      * @param radius the spherical radius to look for entities around
      * @return the collection of entities within the radius around the entity
+     * @see net.tridentsdk.world.EntityIndex#entitiesInRadius(Position, double, EntityType, java.util.List)
      */
     Set<Entity> withinRange(double radius);
 
@@ -0,0 +1,123 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.entity;
+
+import net.tridentsdk.Handler;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Refers to an entity with a single {@code long}, without holding a reference to the entity
+ *
+ * <p>A handle packs the slot of the entity in the server's {@link EntityTable} into its highest 32 bits, and the
+ * generation of that slot into its lowest 32 bits. The generation changes when the entity is removed, so a handle
+ * {@link #resolve(long) resolves} to {@code null} from then on, even once the slot is reused by another entity.
+ * Handles never need to be cleaned up, and can be stored in primitive collections such as
+ * {@link net.tridentsdk.util.LongOpenHashSet} or as the keys of a {@link net.tridentsdk.util.Long2ObjectMap}.</p>
+ *
+ * <p>This is cheaper than a {@link net.tridentsdk.util.WeakEntity} when many entities are stored, as it creates no
+ * objects and adds no work to the garbage collector.</p>
+ *
+ * <pre><code>
+ *     private final Long2ObjectMap&lt;Integer&gt; scores = new Long2ObjectMap&lt;&gt;();
+ *
+ *     scores.put(EntityHandle.of(player), 10);
+ *     ...
+ *     Player player = EntityHandle.resolve(handle);
+ *     if (player != null) {
+ *         ...
+ *     }
+ * </code></pre>
+ *
+ * @author The TridentSDK Team
+ */
+@ThreadSafe
+public final class EntityHandle {
+    /**
+     * A handle which never refers to an entity
+     */
+    public static final long NONE = 0L;
+
+    private EntityHandle() {
+    }
+
+    /**
+     * Packs a slot and generation into a handle
+     *
+     * @param slot       the slot of the entity in its table
+     * @param generation the generation of the slot, which is never {@code 0}
+     * @return the handle
+     */
+    public static long pack(int slot, int generation) {
+        return ((long) slot << 32) | (generation & 0xFFFFFFFFL);
+    }
+
+    /**
+     * The slot of the entity which the handle refers to
+     *
+     * @param handle the handle
+     * @return the slot in the entity table
+     */
+    public static int slot(long handle) {
+        return (int) (handle >>> 32);
+    }
+
+    /**
+     * The generation of the slot which the handle was created in
+     *
+     * @param handle the handle
+     * @return the generation of the slot
+     */
+    public static int generation(long handle) {
+        return (int) handle;
+    }
+
+    /**
+     * Obtains the handle of an entity in the server's entity table
+     *
+     * @param entity the entity to obtain the handle of
+     * @return the handle of the entity, or {@link #NONE} if the entity has been removed
+     */
+    public static long of(Entity entity) {
+        return Handler.forEntities().handleOf(entity);
+    }
+
+    /**
+     * Finds the entity which the handle refers to in the server's entity table
+     *
+     * @param handle the handle of the entity
+     * @param <T>    the type of the entity
+     * @return the entity, or {@code null} if it has been removed
+     */
+    @Nullable
+    public static <T extends Entity> T resolve(long handle) {
+        return (T) Handler.forEntities().resolve(handle);
+    }
+
+    /**
+     * Checks if the entity which the handle refers to is still in the server
+     *
+     * @param handle the handle of the entity
+     * @return {@code true} if the handle resolves to an entity
+     */
+    public static boolean isValid(long handle) {
+        return Handler.forEntities().resolve(handle) != null;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.entity;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The table of living entities which {@link EntityHandle entity handles} are resolved through
+ *
+ * <p>Each registered entity occupies a slot in an array, and its handle is the slot index together with the
+ * generation of the slot. Resolving a handle reads the slot and compares the generation, without locking. Removing
+ * an entity advances the generation of its slot before the slot is reused, so the handles of removed entities
+ * resolve to {@code null}.</p>
+ *
+ * <p>The server registers each entity when it is spawned, and unregisters it when it is removed. The server's table
+ * is obtained with {@link net.tridentsdk.Handler#forEntities()}.</p>
+ *
+ * @author The TridentSDK Team
+ */
+@ThreadSafe
+public class EntityTable {
+    private final Lock lock = new ReentrantLock();
+    // Replaced, never modified in place, when the table grows
+    private volatile AtomicReferenceArray<Slot> slots = new AtomicReferenceArray<>(64);
+    // Handles by entity id, used to find the handle of an entity
+    private final ConcurrentMap<Integer, Long> handles = new ConcurrentHashMap<>();
+
+    @GuardedBy("lock")
+    private int[] generations = new int[64];
+    @GuardedBy("lock")
+    private int[] free = new int[16];
+    @GuardedBy("lock")
+    private int freeCount;
+    @GuardedBy("lock")
+    private int used;
+    @GuardedBy("lock")
+    private int size;
+
+    /**
+     * Creates a new, empty entity table
+     */
+    public EntityTable() {
+    }
+
+    /**
+     * Adds an entity to the table
+     *
+     * <p>Registering an entity which is already registered returns its existing handle.</p>
+     *
+     * @param entity the entity to add
+     * @return the handle of the entity
+     */
+    public long register(Entity entity) {
+        Preconditions.checkNotNull(entity, "Entity cannot be null");
+        lock.lock();
+        try {
+            Long existing = handles.get(entity.entityId());
+            if (existing != null) {
+                if (resolve(existing) == entity)
+                    return existing;
+                // The id belonged to an entity which was not unregistered
+                release(existing);
+            }
+
+            int slot = freeCount > 0 ? free[--freeCount] : used++;
+            AtomicReferenceArray<Slot> slots = this.slots;
+            if (slot == slots.length()) {
+                AtomicReferenceArray<Slot> grown = new AtomicReferenceArray<>(slot << 1);
+                for (int i = 0; i < slot; i++) {
+                    grown.set(i, slots.get(i));
+                }
+                this.slots = slots = grown;
+                generations = Arrays.copyOf(generations, slot << 1);
+            }
+
+            if (generations[slot] == 0)
+                generations[slot] = 1;
+            int generation = generations[slot];
+            slots.set(slot, new Slot(entity, generation));
+
+            long handle = EntityHandle.pack(slot, generation);
+            handles.put(entity.entityId(), handle);
+            size++;
+            return handle;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes an entity from the table, after which its handles no longer resolve
+     *
+     * @param entity the entity to remove
+     * @return {@code true} if the entity was registered
+     */
+    public boolean unregister(Entity entity) {
+        lock.lock();
+        try {
+            Long handle = handles.get(entity.entityId());
+            if (handle == null || resolve(handle) != entity)
+                return false;
+
+            handles.remove(entity.entityId());
+            release(handle);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @GuardedBy("lock")
+    private void release(long handle) {
+        int slot = EntityHandle.slot(handle);
+        slots.set(slot, null);
+        // Generation 0 is never used, so no handle can be EntityHandle.NONE
+        int generation = generations[slot] + 1;
+        generations[slot] = generation == 0 ? 1 : generation;
+
+        if (freeCount == free.length)
+            free = Arrays.copyOf(free, freeCount << 1);
+        free[freeCount++] = slot;
+        size--;
+    }
+
+    /**
+     * Obtains the handle of an entity
+     *
+     * @param entity the entity
+     * @return the handle of the entity, or {@link EntityHandle#NONE} if it is not registered
+     */
+    public long handleOf(Entity entity) {
+        Long handle = handles.get(entity.entityId());
+        return handle != null && resolve(handle) == entity ? handle : EntityHandle.NONE;
+    }
+
+    /**
+     * Finds the entity which a handle refers to
+     *
+     * @param handle the handle of the entity
+     * @return the entity, or {@code null} if it has been unregistered
+     */
+    @Nullable
+    public Entity resolve(long handle) {
+        int slot = EntityHandle.slot(handle);
+        AtomicReferenceArray<Slot> slots = this.slots;
+        if (slot < 0 || slot >= slots.length())
+            return null;
+
+        Slot entry = slots.get(slot);
+        return entry != null && entry.generation == EntityHandle.generation(handle) ? entry.entity : null;
+    }
+
+    /**
+     * The amount of entities in the table
+     *
+     * @return the registered entity count
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Immutable
+    private static final class Slot {
+        private final Entity entity;
+        private final int generation;
+
+        Slot(Entity entity, int generation) {
+            this.entity = entity;
+            this.generation = generation;
+        }
+    }
+}
@@ -156,11 +156,18 @@ public interface LivingEntity extends Entity, ProjectileLauncher {
 
     /**
      * Gets the path that this entity is currently following
+     *
+     * @return the path of the entity, or {@link Path#EMPTY} if it is not following one
      */
     Path path();
 
     /**
      * Sets a path for this entity to follow, should only be used in an AiHandler
+     *
+     * <p>Paths are usually found with {@link net.tridentsdk.entity.living.ai.Pathfinder#find(
+     * net.tridentsdk.Position, net.tridentsdk.Position)}.</p>
+     *
+     * @param path the path to follow
      */
     void setPath(Path path);
 }
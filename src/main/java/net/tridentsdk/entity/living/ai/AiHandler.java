@@ -49,4 +49,18 @@ public interface AiHandler {
      * @param type the type of entity to request the AI for
      */
     AiModule nativeAIFor(EntityType type);
-}
\ No newline at end of file
+
+    /**
+     * Returns the pathfinder which searches for paths for entities on the server
+     *
+     * @return the server pathfinder
+     */
+    Pathfinder pathfinder();
+
+    /**
+     * Returns the scheduler which decides when entities on the server think
+     *
+     * @return the server AI scheduler
+     */
+    AiScheduler scheduler();
+}
@@ -30,6 +30,8 @@ import net.tridentsdk.entity.LivingEntity;
  * AI can rest and the path will be followed by the entity. By not setting a path and returning a value other
  * than 0, the entity can effectively be made to "sleep," where it will not move at all.</p>
  *
+ * <p>Thinks are run by the {@link AiScheduler}, which may delay a think by a few ticks when the server is busy.</p>
+ *
  * @author The TridentSDK Team
  */
 public interface AiModule {
@@ -38,7 +40,8 @@ public interface AiModule {
      *
      * @param entity the handle that allows this handler to interact with the entity
      * @return an integer representing the number of ticks that this entity may not have to think for
-     * i.e. if a path was submitted, this entity may not have to think for a few ticks
+     * i.e. if a path was submitted, this entity may not have to think for a few ticks. {@code 0} or less thinks
+     * again in the next tick
      */
     int think(LivingEntity entity);
 }
\ No newline at end of file
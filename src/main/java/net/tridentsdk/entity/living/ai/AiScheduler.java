@@ -0,0 +1,324 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.entity.living.ai;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import net.tridentsdk.entity.Entity;
+import net.tridentsdk.entity.LivingEntity;
+import net.tridentsdk.entity.types.EntityType;
+import net.tridentsdk.util.TridentLogger;
+import net.tridentsdk.world.World;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Decides which entities think in each tick
+ *
+ * <p>The value returned by {@link AiModule#think(LivingEntity)} is the amount of ticks until the entity thinks
+ * again; {@code 0} or less thinks again in the next tick. Scheduled entities are kept in a timing wheel, so a tick
+ * only visits the entities which are due to think in it.</p>
+ *
+ * <p>Thinks are spread out to avoid spikes: a newly scheduled entity, or one which rests for several ticks, is
+ * placed in the least crowded tick within a small window after the tick it asked for.</p>
+ *
+ * <p>Each tick has a time budget. Due entities near a player think first; once the budget is spent, the remaining
+ * entities are pushed back to the next tick, so entities far from players are the first to think less often. Far
+ * entities which have been pushed back many times in a row think before the other far entities.</p>
+ *
+ * <p>Entities may be scheduled and unscheduled from any thread, but {@link #tick()} must only be called by one
+ * thread at a time.</p>
+ *
+ * @author The TridentSDK Team
+ */
+@ThreadSafe
+public class AiScheduler {
+    private static final int WHEEL_SIZE = 256;
+    private static final int MASK = WHEEL_SIZE - 1;
+    private static final int SPREAD_WINDOW = 8;
+    private static final int NEW_WINDOW = 20;
+    private static final int MAX_DEFERRALS = 10;
+    private static final int IDLE_TICKS = 20;
+
+    private final long budgetNanos;
+    private final double nearRadius;
+
+    private final ConcurrentMap<LivingEntity, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> added = new ConcurrentLinkedQueue<>();
+    private final Map<EntityType, ThinkMetrics> metrics;
+
+    // Only accessed by the ticking thread
+    private final Entry[] wheel = new Entry[WHEEL_SIZE];
+    private final int[] load = new int[WHEEL_SIZE];
+    private final List<Entity> players = Lists.newArrayListWithCapacity(1);
+    private Entry[] due = new Entry[64];
+    private long now;
+
+    /**
+     * Creates a new scheduler
+     *
+     * @param budgetMillis the time which entities may spend thinking in each tick
+     * @param nearRadius   the distance from a player within which an entity thinks before others
+     */
+    public AiScheduler(double budgetMillis, double nearRadius) {
+        Preconditions.checkArgument(budgetMillis > 0, "Budget must be positive");
+        Preconditions.checkArgument(nearRadius >= 0, "Radius cannot be negative");
+        this.budgetNanos = (long) (budgetMillis * 1_000_000);
+        this.nearRadius = nearRadius;
+
+        EnumMap<EntityType, ThinkMetrics> metrics = new EnumMap<>(EntityType.class);
+        for (EntityType type : EntityType.values()) {
+            metrics.put(type, new ThinkMetrics(type));
+        }
+        this.metrics = Collections.unmodifiableMap(metrics);
+    }
+
+    /**
+     * Starts scheduling thinks for the entity
+     *
+     * <p>The entity thinks for the first time within the next 20 ticks.</p>
+     *
+     * @param entity the entity to schedule
+     * @return {@code false} if the entity was already scheduled
+     */
+    public boolean schedule(LivingEntity entity) {
+        Preconditions.checkNotNull(entity, "Entity cannot be null");
+        Entry entry = new Entry(entity);
+        if (entries.putIfAbsent(entity, entry) != null)
+            return false;
+
+        added.add(entry);
+        return true;
+    }
+
+    /**
+     * Stops scheduling thinks for the entity, such as when it is removed from the world
+     *
+     * @param entity the entity to unschedule
+     * @return {@code false} if the entity was not scheduled
+     */
+    public boolean unschedule(LivingEntity entity) {
+        Entry entry = entries.remove(entity);
+        if (entry == null)
+            return false;
+
+        entry.cancelled = true;
+        return true;
+    }
+
+    /**
+     * The amount of entities which are scheduled
+     *
+     * @return the amount of scheduled entities
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * The think time measurements for entities of the type
+     *
+     * @param type the entity type
+     * @return the metrics of the type
+     */
+    public ThinkMetrics metrics(EntityType type) {
+        return metrics.get(type);
+    }
+
+    /**
+     * The think time measurements of every entity type
+     *
+     * @return the metrics of all entity types
+     */
+    public Map<EntityType, ThinkMetrics> metrics() {
+        return metrics;
+    }
+
+    /**
+     * Runs the thinks which are due in this tick, until the time budget is spent
+     *
+     * <p>This is called once each tick by the server.</p>
+     *
+     * @return the amount of entities which thought
+     */
+    public int tick() {
+        long start = System.nanoTime();
+        long tick = ++now;
+
+        for (Entry entry = added.poll(); entry != null; entry = added.poll()) {
+            if (!entry.cancelled)
+                insert(entry, 1, NEW_WINDOW);
+        }
+
+        int count = collect(tick);
+        order(count);
+
+        int thought = 0;
+        for (int i = 0; i < count; i++) {
+            Entry entry = due[i];
+            due[i] = null;
+
+            if (thought > 0 && System.nanoTime() - start >= budgetNanos) {
+                // Out of time, try again next tick
+                entry.deferrals++;
+                metrics.get(entry.type).defer();
+                insert(entry, 1, 0);
+                continue;
+            }
+
+            think(entry);
+            thought++;
+        }
+
+        return thought;
+    }
+
+    private void think(Entry entry) {
+        LivingEntity entity = entry.entity;
+        if (entity.isDead()) {
+            entries.remove(entity, entry);
+            return;
+        }
+
+        int rest = IDLE_TICKS;
+        AiModule module = entity.aiModule();
+        if (module != null) {
+            long begin = System.nanoTime();
+            try {
+                rest = module.think(entity);
+            } catch (Exception e) {
+                TridentLogger.error(e);
+            }
+            metrics.get(entry.type).record(System.nanoTime() - begin);
+        }
+
+        entry.deferrals = 0;
+        entry.near = isNearPlayer(entity);
+        rest = Math.max(1, rest);
+        insert(entry, rest, Math.min(rest >> 2, SPREAD_WINDOW));
+    }
+
+    private boolean isNearPlayer(LivingEntity entity) {
+        World world = entity.world();
+        if (world == null)
+            return false;
+
+        players.clear();
+        boolean near = world.entityIndex().nearest(entity.position(), nearRadius, 1, EntityType.PLAYER, players) > 0;
+        players.clear();
+        return near;
+    }
+
+    // Removes the entries due in this tick from the wheel, returning the amount placed in the due array
+    private int collect(long tick) {
+        int slot = (int) (tick & MASK);
+        int count = 0;
+        Entry previous = null;
+        Entry entry = wheel[slot];
+        while (entry != null) {
+            Entry next = entry.next;
+            if (entry.cancelled || entry.due <= tick) {
+                if (previous == null) {
+                    wheel[slot] = next;
+                } else {
+                    previous.next = next;
+                }
+                entry.next = null;
+                load[slot]--;
+
+                if (!entry.cancelled) {
+                    if (count == due.length)
+                        due = Arrays.copyOf(due, count << 1);
+                    due[count++] = entry;
+                }
+            } else {
+                // Due in a later turn of the wheel
+                previous = entry;
+            }
+            entry = next;
+        }
+
+        return count;
+    }
+
+    // Orders the due array as near entries, then far entries which have waited too long, then the other far entries
+    private void order(int count) {
+        int front = 0;
+        for (int i = 0; i < count; i++) {
+            if (due[i].near)
+                swap(i, front++);
+        }
+
+        for (int i = front; i < count; i++) {
+            if (due[i].deferrals >= MAX_DEFERRALS)
+                swap(i, front++);
+        }
+    }
+
+    private void swap(int i, int j) {
+        Entry entry = due[i];
+        due[i] = due[j];
+        due[j] = entry;
+    }
+
+    // Places the entry in the least crowded slot from the delay up to the window after it
+    private void insert(Entry entry, int delay, int window) {
+        long target = now + delay;
+        int offset = 0;
+        int least = load[(int) (target & MASK)];
+        for (int i = 1; i <= window && least > 0; i++) {
+            int slotLoad = load[(int) ((target + i) & MASK)];
+            if (slotLoad < least) {
+                offset = i;
+                least = slotLoad;
+            }
+        }
+
+        entry.due = target + offset;
+        int slot = (int) (entry.due & MASK);
+        entry.next = wheel[slot];
+        wheel[slot] = entry;
+        load[slot]++;
+    }
+
+    private static final class Entry {
+        private final LivingEntity entity;
+        private final EntityType type;
+        private volatile boolean cancelled;
+
+        // Only accessed by the ticking thread
+        private Entry next;
+        private long due;
+        private int deferrals;
+        private boolean near = true;
+
+        Entry(LivingEntity entity) {
+            this.entity = entity;
+            this.type = entity.type();
+        }
+    }
+}
@@ -17,11 +17,218 @@
 
 package net.tridentsdk.entity.living.ai;
 
+import com.google.common.base.Preconditions;
+import net.tridentsdk.util.BlockPos;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.Arrays;
+
 /**
  * A path that entities may follow
  *
+ * <p>A path is the sequence of blocks, packed by {@link BlockPos#pack(int, int, int)}, which an entity stands in
+ * while it walks from the start to the destination. Paths are immutable, so the same path can be followed by many
+ * entities at once; the entity keeps track of how far along the path it is.</p>
+ *
+ * <p>Paths are usually found by the {@link Pathfinder}, but can also be constructed by an {@link AiModule} with
+ * {@link #of(long...)}.</p>
+ *
  * @author The TridentSDK Team
  */
-public class Path {
-    // TODO
+@Immutable
+public final class Path {
+    /**
+     * A path which does not contain any blocks
+     */
+    public static final Path EMPTY = new Path(new long[0], 0, 0, false);
+
+    private final long[] nodes;
+    private final int offset;
+    private final int length;
+    private final boolean complete;
+
+    private Path(long[] nodes, int offset, int length, boolean complete) {
+        this.nodes = nodes;
+        this.offset = offset;
+        this.length = length;
+        this.complete = complete;
+    }
+
+    /**
+     * Creates a complete path through the given blocks, in order
+     *
+     * @param nodes the packed positions of the blocks in the path
+     * @return the new path
+     */
+    public static Path of(long... nodes) {
+        Preconditions.checkNotNull(nodes, "Nodes cannot be null");
+        return new Path(nodes.clone(), 0, nodes.length, true);
+    }
+
+    // The array is owned by the path after it is passed in
+    static Path wrap(long[] nodes, boolean complete) {
+        return new Path(nodes, 0, nodes.length, complete);
+    }
+
+    /**
+     * The amount of blocks in the path
+     *
+     * @return the length of the path
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Checks if the path does not contain any blocks
+     *
+     * @return {@code true} if the path is empty
+     */
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * Checks if the path reaches the destination it was searched for
+     *
+     * <p>A path which is not complete leads to the closest block to the destination that could be found.</p>
+     *
+     * @return {@code true} if the last block of the path is the destination
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Obtains a block in the path
+     *
+     * @param index the index of the block, from {@code 0} at the start of the path
+     * @return the packed position of the block
+     * @throws IndexOutOfBoundsException if the index is not in the path
+     */
+    public long node(int index) {
+        if (index < 0 || index >= length)
+            throw new IndexOutOfBoundsException("Index " + index + " is not in a path of length " + length);
+        return nodes[offset + index];
+    }
+
+    /**
+     * The x coordinate of a block in the path
+     *
+     * @param index the index of the block
+     * @return the x coordinate
+     */
+    public int x(int index) {
+        return BlockPos.unpackX(node(index));
+    }
+
+    /**
+     * The y coordinate of a block in the path
+     *
+     * @param index the index of the block
+     * @return the y coordinate
+     */
+    public int y(int index) {
+        return BlockPos.unpackY(node(index));
+    }
+
+    /**
+     * The z coordinate of a block in the path
+     *
+     * @param index the index of the block
+     * @return the z coordinate
+     */
+    public int z(int index) {
+        return BlockPos.unpackZ(node(index));
+    }
+
+    /**
+     * The first block of the path
+     *
+     * @return the packed position of the start
+     * @throws IndexOutOfBoundsException if the path is empty
+     */
+    public long start() {
+        return node(0);
+    }
+
+    /**
+     * The last block of the path
+     *
+     * @return the packed position of the end of the path
+     * @throws IndexOutOfBoundsException if the path is empty
+     */
+    public long destination() {
+        return node(length - 1);
+    }
+
+    /**
+     * Finds the index of a block in the path
+     *
+     * @param node the packed position of the block
+     * @return the index of the block, or {@code -1} if it is not in the path
+     */
+    public int indexOf(long node) {
+        for (int i = 0; i < length; i++) {
+            if (nodes[offset + i] == node)
+                return i;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Obtains the remainder of this path starting at the given index
+     *
+     * <p>The returned path shares the blocks of this path rather than copying them.</p>
+     *
+     * @param index the index of the block which the returned path starts at
+     * @return the path from the given block to the destination
+     * @throws IndexOutOfBoundsException if the index is not in the path
+     */
+    public Path from(int index) {
+        if (index < 0 || index > length)
+            throw new IndexOutOfBoundsException("Index " + index + " is not in a path of length " + length);
+        if (index == 0)
+            return this;
+        return new Path(nodes, offset + index, length - index, complete);
+    }
+
+    /**
+     * Copies the blocks of this path into a new array
+     *
+     * @return the packed positions of the blocks in the path
+     */
+    public long[] toArray() {
+        return Arrays.copyOfRange(nodes, offset, offset + length);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Path))
+            return false;
+        Path other = (Path) obj;
+        if (other.length != length || other.complete != complete)
+            return false;
+        for (int i = 0; i < length; i++) {
+            if (nodes[offset + i] != other.nodes[other.offset + i])
+                return false;
+        }
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = complete ? 1 : 0;
+        for (int i = 0; i < length; i++) {
+            result = 31 * result + Long.hashCode(nodes[offset + i]);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "Path(length=" + length + ", complete=" + complete + ")";
+    }
 }
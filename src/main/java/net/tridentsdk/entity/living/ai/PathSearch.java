@@ -0,0 +1,348 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.entity.living.ai;
+
+import net.tridentsdk.docs.AccessNoDoc;
+import net.tridentsdk.util.BlockPos;
+import net.tridentsdk.util.Long2ObjectMap;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.Arrays;
+
+/*
+ * A* search over the walkable blocks of a world
+ *
+ * Nodes live in parallel primitive arrays which are kept between searches, so a search only allocates when it
+ * visits more nodes than any previous search on the same instance. The open set is a binary heap of node indices
+ * ordered by estimated total cost, with each node remembering its heap slot so a cheaper route can be applied in
+ * place. Node keys are packed block positions, mapped to node indices with an open addressed table.
+ */
+@AccessNoDoc
+@NotThreadSafe
+final class PathSearch {
+    private static final int CLOSED = -1;
+    private static final float DIAGONAL = 1.4142135F;
+    private static final float STEP_UP = 0.5F;
+    private static final int MAX_FALL = 3;
+    private static final int[] DX = { 1, -1, 0, 0, 1, 1, -1, -1 };
+    private static final int[] DZ = { 0, 0, 1, -1, 1, -1, 1, -1 };
+
+    // Node pool
+    private long[] keys = new long[256];
+    private int[] parents = new int[256];
+    private float[] costs = new float[256];
+    private float[] estimates = new float[256];
+    private int[] heapSlots = new int[256];
+    private int nodes;
+
+    // Open set
+    private int[] heap = new int[256];
+    private int heapSize;
+
+    // Packed position to node index table, a slot holds the node index plus one so zero is free
+    private long[] tableKeys = new long[512];
+    private int[] tableNodes = new int[512];
+
+    // Sections already fetched by this search, which avoids locking the cache for every block
+    private final Long2ObjectMap<long[]> sections = new Long2ObjectMap<>();
+    private WalkabilityCache cache;
+    private long lastSectionKey;
+    private long[] lastSection;
+
+    private int goalX;
+    private int goalY;
+    private int goalZ;
+
+    /**
+     * Searches for a path between the blocks
+     *
+     * @param cache    the walkability of the world
+     * @param start    the packed block position to start from
+     * @param goal     the packed block position to reach
+     * @param maxNodes the most nodes to expand before giving up on reaching the goal
+     * @return the path to the goal, or to the closest reachable block if the goal could not be reached
+     */
+    Path search(WalkabilityCache cache, long start, long goal, int maxNodes) {
+        reset(cache);
+        goalX = BlockPos.unpackX(goal);
+        goalY = BlockPos.unpackY(goal);
+        goalZ = BlockPos.unpackZ(goal);
+
+        try {
+            int first = node(start);
+            costs[first] = 0;
+            estimates[first] = heuristic(start);
+            push(first);
+
+            int best = first;
+            float bestDistance = estimates[first];
+            int expanded = 0;
+
+            while (heapSize > 0) {
+                int current = pop();
+                long key = keys[current];
+                if (key == goal)
+                    return build(current, true);
+
+                float distance = estimates[current] - costs[current];
+                if (distance < bestDistance) {
+                    best = current;
+                    bestDistance = distance;
+                }
+
+                if (++expanded > maxNodes)
+                    break;
+                expand(current, key);
+            }
+
+            return best == first ? Path.EMPTY : build(best, false);
+        } finally {
+            this.cache = null;
+            this.lastSection = null;
+            this.sections.clear();
+        }
+    }
+
+    private void reset(WalkabilityCache cache) {
+        this.cache = cache;
+        this.lastSection = null;
+        this.nodes = 0;
+        this.heapSize = 0;
+        Arrays.fill(tableNodes, 0);
+    }
+
+    private void expand(int current, long key) {
+        int x = BlockPos.unpackX(key);
+        int y = BlockPos.unpackY(key);
+        int z = BlockPos.unpackZ(key);
+        boolean headroom = !solid(x, y + 2, z);
+
+        for (int i = 0; i < DX.length; i++) {
+            int nx = x + DX[i];
+            int nz = z + DZ[i];
+            boolean diagonal = i >= 4;
+
+            // Diagonal moves must not cut the corners of solid blocks
+            if (diagonal && (!passable(x + DX[i], y, z) || !passable(x, y, z + DZ[i])))
+                continue;
+
+            float cost = diagonal ? DIAGONAL : 1;
+            int ny;
+            if (passable(nx, y, nz)) {
+                ny = y;
+                // Walk straight, or fall down to the first block which can be stood on
+                while (!solid(nx, ny - 1, nz)) {
+                    if (y - ny == MAX_FALL) {
+                        ny = Integer.MIN_VALUE;
+                        break;
+                    }
+                    ny--;
+                }
+
+                if (ny == Integer.MIN_VALUE)
+                    continue;
+            } else if (!diagonal && headroom && passable(nx, y + 1, nz)) {
+                ny = y + 1;
+                cost += STEP_UP;
+            } else {
+                continue;
+            }
+
+            relax(current, BlockPos.pack(nx, ny, nz), costs[current] + cost);
+        }
+    }
+
+    private void relax(int parent, long key, float cost) {
+        int neighbor = node(key);
+        int slot = heapSlots[neighbor];
+        if (slot == CLOSED || cost >= costs[neighbor])
+            return;
+
+        costs[neighbor] = cost;
+        estimates[neighbor] = cost + heuristic(key);
+        parents[neighbor] = parent;
+
+        if (slot == Integer.MAX_VALUE) {
+            push(neighbor);
+        } else {
+            siftUp(slot);
+        }
+    }
+
+    private Path build(int last, boolean complete) {
+        int length = 0;
+        for (int n = last; n != -1; n = parents[n]) {
+            length++;
+        }
+
+        long[] path = new long[length];
+        for (int n = last; n != -1; n = parents[n]) {
+            path[--length] = keys[n];
+        }
+
+        return Path.wrap(path, complete);
+    }
+
+    // Never more than the cost of reaching the goal, closed nodes are not reopened so an overestimate would return
+    // a longer path. A single step of cost 1 can fall MAX_FALL blocks while moving across, so the height difference
+    // costs at least dy / MAX_FALL and is already covered by the horizontal steps wherever that is longer
+    private float heuristic(long key) {
+        int dx = Math.abs(BlockPos.unpackX(key) - goalX);
+        int dz = Math.abs(BlockPos.unpackZ(key) - goalZ);
+        int dy = Math.abs(BlockPos.unpackY(key) - goalY);
+        int min = Math.min(dx, dz);
+        return Math.max((Math.max(dx, dz) - min) + DIAGONAL * min, (float) dy / MAX_FALL);
+    }
+
+    private boolean passable(int x, int y, int z) {
+        return !solid(x, y, z) && !solid(x, y + 1, z);
+    }
+
+    private boolean solid(int x, int y, int z) {
+        if (y < 0)
+            return true;
+        if (y >= 256)
+            return false;
+
+        long key = WalkabilityCache.sectionKey(x, y, z);
+        long[] section = lastSection;
+        if (section == null || key != lastSectionKey) {
+            section = sections.get(key);
+            if (section == null) {
+                section = cache.section(key);
+                sections.put(key, section);
+            }
+            lastSection = section;
+            lastSectionKey = key;
+        }
+
+        return WalkabilityCache.isSolid(section, x, y, z);
+    }
+
+    // Node pool
+
+    private int node(long key) {
+        int mask = tableKeys.length - 1;
+        int i = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (tableNodes[i] != 0) {
+            if (tableKeys[i] == key)
+                return tableNodes[i] - 1;
+            i = (i + 1) & mask;
+        }
+
+        int node = nodes++;
+        if (node == keys.length)
+            grow();
+        keys[node] = key;
+        parents[node] = -1;
+        costs[node] = Float.POSITIVE_INFINITY;
+        heapSlots[node] = Integer.MAX_VALUE;
+
+        tableKeys[i] = key;
+        tableNodes[i] = node + 1;
+        if (nodes << 1 > tableKeys.length)
+            rehash();
+        return node;
+    }
+
+    private void grow() {
+        int length = keys.length << 1;
+        keys = Arrays.copyOf(keys, length);
+        parents = Arrays.copyOf(parents, length);
+        costs = Arrays.copyOf(costs, length);
+        estimates = Arrays.copyOf(estimates, length);
+        heapSlots = Arrays.copyOf(heapSlots, length);
+        heap = Arrays.copyOf(heap, length);
+    }
+
+    private void rehash() {
+        int length = tableKeys.length << 1;
+        tableKeys = new long[length];
+        tableNodes = new int[length];
+        int mask = length - 1;
+
+        for (int node = 0; node < nodes; node++) {
+            int i = Long.hashCode(keys[node] * 0x9E3779B97F4A7C15L) & mask;
+            while (tableNodes[i] != 0)
+                i = (i + 1) & mask;
+            tableKeys[i] = keys[node];
+            tableNodes[i] = node + 1;
+        }
+    }
+
+    // Binary heap
+
+    private void push(int node) {
+        heap[heapSize] = node;
+        heapSlots[node] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    private int pop() {
+        int top = heap[0];
+        heapSlots[top] = CLOSED;
+
+        int last = heap[--heapSize];
+        if (heapSize > 0) {
+            heap[0] = last;
+            heapSlots[last] = 0;
+            siftDown(0);
+        }
+
+        return top;
+    }
+
+    private void siftUp(int slot) {
+        int node = heap[slot];
+        float estimate = estimates[node];
+        while (slot > 0) {
+            int parentSlot = (slot - 1) >>> 1;
+            int parent = heap[parentSlot];
+            if (estimates[parent] <= estimate)
+                break;
+
+            heap[slot] = parent;
+            heapSlots[parent] = slot;
+            slot = parentSlot;
+        }
+
+        heap[slot] = node;
+        heapSlots[node] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int node = heap[slot];
+        float estimate = estimates[node];
+        int half = heapSize >>> 1;
+        while (slot < half) {
+            int child = (slot << 1) + 1;
+            int right = child + 1;
+            if (right < heapSize && estimates[heap[right]] < estimates[heap[child]])
+                child = right;
+            if (estimate <= estimates[heap[child]])
+                break;
+
+            heap[slot] = heap[child];
+            heapSlots[heap[slot]] = slot;
+            slot = child;
+        }
+
+        heap[slot] = node;
+        heapSlots[node] = slot;
+    }
+}
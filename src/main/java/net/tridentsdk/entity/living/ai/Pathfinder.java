@@ -0,0 +1,358 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.entity.living.ai;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import net.tridentsdk.Position;
+import net.tridentsdk.util.Long2ObjectMap;
+import net.tridentsdk.util.LongOpenHashSet;
+import net.tridentsdk.world.World;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Finds paths for entities to walk along
+ *
+ * <p>Path requests are queued and searched off the tick thread by the executor. At most {@code searchesPerTick}
+ * searches are started each time {@link #tick()} is called, so a burst of requests is spread over several ticks
+ * instead of stalling the server.</p>
+ *
+ * <p>Requests for the same start and goal which are made while a search is in progress share the result of that
+ * search. Complete paths are remembered for a number of ticks, so an entity standing anywhere along a path that was
+ * recently found to the same goal receives the remainder of that path without searching.</p>
+ *
+ * <p>Searches use A* over the {@link WalkabilityCache} of the world. Entities may walk in 8 directions, step up 1
+ * block and fall up to 3 blocks. A search expands at most {@code maxNodes} blocks; if the goal was not reached by
+ * then, the path leads to the closest block to the goal that was found and is not
+ * {@link Path#isComplete() complete}.</p>
+ *
+ * @author The TridentSDK Team
+ */
+@ThreadSafe
+public class Pathfinder {
+    private static final ThreadLocal<PathSearch> SEARCH = new ThreadLocal<PathSearch>() {
+        @Override
+        protected PathSearch initialValue() {
+            return new PathSearch();
+        }
+    };
+
+    private final Executor executor;
+    private final int searchesPerTick;
+    private final int maxNodes;
+    private final long cacheTicks;
+
+    private final ConcurrentMap<World, WalkabilityCache> worlds = new ConcurrentHashMap<>();
+    private final Queue<Request> pending = new ConcurrentLinkedQueue<>();
+    private final ConcurrentMap<Request, CompletableFuture<Path>> searching = new ConcurrentHashMap<>();
+    // Keyed by the goal only, as a request with the goal as its start
+    private final ConcurrentMap<Request, Found> found = new ConcurrentHashMap<>();
+    // The found paths which pass through each section of each world, so a block change only discards the paths
+    // which it could affect
+    private final Lock crossingLock = new ReentrantLock();
+    @GuardedBy("crossingLock")
+    private final Map<World, Long2ObjectMap<Set<Found>>> crossing = Maps.newHashMap();
+    private volatile long ticks;
+
+    /**
+     * Creates a new pathfinder
+     *
+     * @param executor        the executor which runs the searches
+     * @param searchesPerTick the most searches to start in each tick
+     * @param maxNodes        the most blocks a single search may expand
+     * @param cacheTicks      the amount of ticks which a found path is reused for, {@code 0} to disable reuse
+     */
+    public Pathfinder(Executor executor, int searchesPerTick, int maxNodes, long cacheTicks) {
+        Preconditions.checkNotNull(executor, "Executor cannot be null");
+        Preconditions.checkArgument(searchesPerTick > 0, "Must allow at least 1 search each tick");
+        Preconditions.checkArgument(maxNodes > 0, "Must allow at least 1 node to be expanded");
+        Preconditions.checkArgument(cacheTicks >= 0, "Cannot cache paths for negative ticks");
+
+        this.executor = executor;
+        this.searchesPerTick = searchesPerTick;
+        this.maxNodes = maxNodes;
+        this.cacheTicks = cacheTicks;
+    }
+
+    /**
+     * Requests a path between the positions
+     *
+     * @param from the position to start at, usually the location of an entity
+     * @param to   the position to walk to
+     * @return the future which is completed with the path once it has been found
+     */
+    public CompletableFuture<Path> find(Position from, Position to) {
+        Preconditions.checkNotNull(from, "Start cannot be null");
+        Preconditions.checkNotNull(to, "Destination cannot be null");
+        Preconditions.checkArgument(from.world() == to.world(), "Cannot find a path between worlds");
+        return find(from.world(), from.blockPos(), to.blockPos());
+    }
+
+    /**
+     * Requests a path between the blocks
+     *
+     * @param world the world to search in
+     * @param start the packed position of the block to start at
+     * @param goal  the packed position of the block to walk to
+     * @return the future which is completed with the path once it has been found
+     */
+    public CompletableFuture<Path> find(World world, long start, long goal) {
+        Preconditions.checkNotNull(world, "World cannot be null");
+
+        Found recent = found.get(new Request(world, goal, goal));
+        if (recent != null && recent.expires > ticks) {
+            int index = recent.path.indexOf(start);
+            if (index >= 0)
+                return CompletableFuture.completedFuture(recent.path.from(index));
+        }
+
+        Request request = new Request(world, start, goal);
+        CompletableFuture<Path> future = new CompletableFuture<>();
+        CompletableFuture<Path> existing = searching.putIfAbsent(request, future);
+        if (existing != null)
+            return existing;
+
+        pending.add(request);
+        return future;
+    }
+
+    /**
+     * Starts the queued searches, up to the limit for each tick, and discards paths which have expired
+     *
+     * <p>This is called once each tick by the server.</p>
+     */
+    public void tick() {
+        long now = ++ticks;
+
+        for (int i = 0; i < searchesPerTick; i++) {
+            Request request = pending.poll();
+            if (request == null)
+                break;
+            try {
+                executor.execute(() -> search(request));
+            } catch (RejectedExecutionException e) {
+                CompletableFuture<Path> future = searching.remove(request);
+                if (future != null)
+                    future.completeExceptionally(e);
+            }
+        }
+
+        for (Found recent : found.values()) {
+            if (recent.expires <= now)
+                forget(recent);
+        }
+    }
+
+    /**
+     * The amount of searches which have been requested but not yet started
+     *
+     * @return the amount of queued searches
+     */
+    public int queued() {
+        return pending.size();
+    }
+
+    /**
+     * Obtains the walkability cache used to search the world
+     *
+     * @param world the world
+     * @return the cache of the world
+     */
+    public WalkabilityCache walkability(World world) {
+        Preconditions.checkNotNull(world, "World cannot be null");
+        return worlds.computeIfAbsent(world, WalkabilityCache::new);
+    }
+
+    /**
+     * Notifies the pathfinder that a block has changed, so searches do not use its old state
+     *
+     * <p>Paths which were found before the change and pass by the section of the block are no longer reused.</p>
+     *
+     * @param world the world containing the block
+     * @param x     the x coordinate of the block
+     * @param y     the y coordinate of the block
+     * @param z     the z coordinate of the block
+     */
+    public void invalidate(World world, int x, int y, int z) {
+        WalkabilityCache cache = worlds.get(world);
+        if (cache != null)
+            cache.invalidate(x, y, z);
+
+        crossingLock.lock();
+        try {
+            Long2ObjectMap<Set<Found>> sections = crossing.get(world);
+            Set<Found> affected = sections == null ? null : sections.get(WalkabilityCache.sectionKey(x, y, z));
+            if (affected == null)
+                return;
+
+            for (Found recent : affected.toArray(new Found[affected.size()])) {
+                forget(recent);
+            }
+        } finally {
+            crossingLock.unlock();
+        }
+    }
+
+    /**
+     * Forgets all cached state of the world, such as when it is unloaded
+     *
+     * @param world the world to forget
+     */
+    public void clear(World world) {
+        worlds.remove(world);
+        crossingLock.lock();
+        try {
+            crossing.remove(world);
+            found.keySet().removeIf(request -> request.world == world);
+        } finally {
+            crossingLock.unlock();
+        }
+    }
+
+    private void search(Request request) {
+        CompletableFuture<Path> future = searching.get(request);
+        try {
+            Path path = SEARCH.get().search(walkability(request.world), request.start, request.goal, maxNodes);
+            if (path.isComplete() && cacheTicks > 0)
+                remember(new Found(new Request(request.world, request.goal, request.goal), path, ticks + cacheTicks));
+
+            searching.remove(request);
+            future.complete(path);
+        } catch (Throwable t) {
+            searching.remove(request);
+            future.completeExceptionally(t);
+        }
+    }
+
+    private void remember(Found recent) {
+        crossingLock.lock();
+        try {
+            Found replaced = found.put(recent.key, recent);
+            if (replaced != null)
+                unindex(replaced);
+
+            Long2ObjectMap<Set<Found>> sections = crossing.computeIfAbsent(recent.key.world,
+                    w -> new Long2ObjectMap<>());
+            for (long section : recent.sections) {
+                Set<Found> paths = sections.get(section);
+                if (paths == null) {
+                    paths = Sets.newIdentityHashSet();
+                    sections.put(section, paths);
+                }
+                paths.add(recent);
+            }
+        } finally {
+            crossingLock.unlock();
+        }
+    }
+
+    private void forget(Found recent) {
+        crossingLock.lock();
+        try {
+            if (found.remove(recent.key, recent))
+                unindex(recent);
+        } finally {
+            crossingLock.unlock();
+        }
+    }
+
+    @GuardedBy("crossingLock")
+    private void unindex(Found recent) {
+        Long2ObjectMap<Set<Found>> sections = crossing.get(recent.key.world);
+        if (sections == null)
+            return;
+
+        for (long section : recent.sections) {
+            Set<Found> paths = sections.get(section);
+            if (paths != null && paths.remove(recent) && paths.isEmpty())
+                sections.remove(section);
+        }
+        if (sections.isEmpty())
+            crossing.remove(recent.key.world);
+    }
+
+    private static final class Request {
+        private final World world;
+        private final long start;
+        private final long goal;
+
+        Request(World world, long start, long goal) {
+            this.world = world;
+            this.start = start;
+            this.goal = goal;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Request))
+                return false;
+            Request other = (Request) obj;
+            return other.world == world && other.start == start && other.goal == goal;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(world);
+            result = 31 * result + Long.hashCode(start);
+            return 31 * result + Long.hashCode(goal);
+        }
+    }
+
+    private static final class Found {
+        private final Request key;
+        private final Path path;
+        private final long expires;
+        // The sections of every block whose change could block the path, which are the blocks around each node
+        private final long[] sections;
+
+        Found(Request key, Path path, long expires) {
+            this.key = key;
+            this.path = path;
+            this.expires = expires;
+
+            LongOpenHashSet sections = new LongOpenHashSet();
+            for (int i = 0; i < path.length(); i++) {
+                int x = path.x(i);
+                int y = path.y(i);
+                int z = path.z(i);
+                for (int dx = -1; dx <= 1; dx++) {
+                    for (int dz = -1; dz <= 1; dz++) {
+                        for (int dy = -1; dy <= 2; dy++) {
+                            sections.add(WalkabilityCache.sectionKey(x + dx, y + dy, z + dz));
+                        }
+                    }
+                }
+            }
+            this.sections = sections.toArray();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.entity.living.ai;
+
+import net.tridentsdk.entity.types.EntityType;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The time spent by the {@link AiScheduler} thinking for entities of a single type
+ *
+ * @author The TridentSDK Team
+ */
+@ThreadSafe
+public class ThinkMetrics {
+    private final EntityType type;
+    private final LongAdder thinks = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder deferrals = new LongAdder();
+    private volatile long maxNanos;
+
+    ThinkMetrics(EntityType type) {
+        this.type = type;
+    }
+
+    void record(long elapsed) {
+        thinks.increment();
+        nanos.add(elapsed);
+        // Only written by the ticking thread
+        if (elapsed > maxNanos)
+            maxNanos = elapsed;
+    }
+
+    void defer() {
+        deferrals.increment();
+    }
+
+    /**
+     * The type of entity which these metrics measure
+     *
+     * @return the entity type
+     */
+    public EntityType type() {
+        return type;
+    }
+
+    /**
+     * The amount of times an entity of this type has thought
+     *
+     * @return the amount of thinks
+     */
+    public long thinks() {
+        return thinks.sum();
+    }
+
+    /**
+     * The total time spent thinking for entities of this type
+     *
+     * @param unit the unit to convert the time into
+     * @return the total think time
+     */
+    public long totalTime(TimeUnit unit) {
+        return unit.convert(nanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The average time spent on a single think, in nanoseconds
+     *
+     * @return the average think time, or {@code 0} if no entity has thought
+     */
+    public double averageNanos() {
+        long count = thinks.sum();
+        return count == 0 ? 0 : (double) nanos.sum() / count;
+    }
+
+    /**
+     * The longest time spent on a single think, in nanoseconds
+     *
+     * @return the longest think time
+     */
+    public long maxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * The amount of times a think was pushed back to the next tick because the tick ran out of time
+     *
+     * @return the amount of deferred thinks
+     */
+    public long deferrals() {
+        return deferrals.sum();
+    }
+
+    /**
+     * Clears the measurements
+     */
+    public void reset() {
+        thinks.reset();
+        nanos.reset();
+        deferrals.reset();
+        maxNanos = 0;
+    }
+
+    @Override
+    public String toString() {
+        return type + "(thinks=" + thinks() + ", average=" + (long) averageNanos() + "ns, max=" + maxNanos +
+                "ns, deferrals=" + deferrals() + ")";
+    }
+}
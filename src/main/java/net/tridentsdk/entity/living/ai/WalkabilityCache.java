@@ -0,0 +1,263 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.entity.living.ai;
+
+import com.google.common.base.Preconditions;
+import net.tridentsdk.base.Block;
+import net.tridentsdk.util.BlockPos;
+import net.tridentsdk.util.Long2ObjectMap;
+import net.tridentsdk.world.Chunk;
+import net.tridentsdk.world.World;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A cached view of which blocks of a world are solid, used to decide where entities can walk
+ *
+ * <p>The solidity of each 16x16x16 chunk section is read from the world once, when a path search first needs it,
+ * and stored as a 4096 bit mask. The server invalidates the section of a block when the block changes.</p>
+ *
+ * <p>A block can be walked in if it and the block above it are not solid, and the block below it is solid. Blocks
+ * in chunks which are not loaded are treated as solid, and so cannot be walked through.</p>
+ *
+ * @author The TridentSDK Team
+ */
+@ThreadSafe
+public class WalkabilityCache {
+    private static final int WORLD_HEIGHT = 256;
+    private static final long[] UNLOADED = new long[64];
+
+    static {
+        Arrays.fill(UNLOADED, -1L);
+    }
+
+    private final World world;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock read = lock.readLock();
+    private final Lock write = lock.writeLock();
+    @GuardedBy("lock")
+    private final Long2ObjectMap<long[]> sections = new Long2ObjectMap<>();
+    // Sections being read from the world, so an invalidation during the read stops its result from being cached
+    @GuardedBy("lock")
+    private final Long2ObjectMap<Load> loads = new Long2ObjectMap<>();
+
+    /**
+     * Creates a new, empty cache over the world
+     *
+     * @param world the world to read blocks from
+     */
+    public WalkabilityCache(World world) {
+        Preconditions.checkNotNull(world, "World cannot be null");
+        this.world = world;
+    }
+
+    /**
+     * The key of the section containing the block
+     *
+     * @param x the x coordinate of the block
+     * @param y the y coordinate of the block
+     * @param z the z coordinate of the block
+     * @return the section key
+     */
+    static long sectionKey(int x, int y, int z) {
+        return BlockPos.pack(x >> 4, y >> 4, z >> 4);
+    }
+
+    /**
+     * The world which this cache reads from
+     *
+     * @return the world of the cache
+     */
+    public World world() {
+        return world;
+    }
+
+    /**
+     * Checks if the block is solid
+     *
+     * @param x the x coordinate of the block
+     * @param y the y coordinate of the block
+     * @param z the z coordinate of the block
+     * @return {@code true} if entities cannot move through the block
+     */
+    public boolean isSolid(int x, int y, int z) {
+        if (y < 0)
+            return true;
+        if (y >= WORLD_HEIGHT)
+            return false;
+        return isSolid(section(sectionKey(x, y, z)), x, y, z);
+    }
+
+    static boolean isSolid(long[] mask, int x, int y, int z) {
+        int index = ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+        return (mask[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Checks if an entity can stand in the block
+     *
+     * @param x the x coordinate of the block
+     * @param y the y coordinate of the block
+     * @param z the z coordinate of the block
+     * @return {@code true} if the block and the block above are not solid, and the block below is
+     */
+    public boolean isWalkable(int x, int y, int z) {
+        return !isSolid(x, y, z) && !isSolid(x, y + 1, z) && isSolid(x, y - 1, z);
+    }
+
+    /**
+     * Discards the cached section which contains the block, such as when the block has changed
+     *
+     * @param x the x coordinate of the block
+     * @param y the y coordinate of the block
+     * @param z the z coordinate of the block
+     */
+    public void invalidate(int x, int y, int z) {
+        long key = sectionKey(x, y, z);
+        write.lock();
+        try {
+            sections.remove(key);
+            Load load = loads.get(key);
+            if (load != null)
+                load.version++;
+        } finally {
+            write.unlock();
+        }
+    }
+
+    /**
+     * Discards every cached section
+     */
+    public void invalidateAll() {
+        write.lock();
+        try {
+            sections.clear();
+            for (int slot = loads.nextSlot(0); slot != -1; slot = loads.nextSlot(slot + 1)) {
+                loads.valueAt(slot).version++;
+            }
+        } finally {
+            write.unlock();
+        }
+    }
+
+    /**
+     * Obtains the solidity mask of a section, reading it from the world if it is not cached
+     *
+     * <p>The returned mask is never modified after it is returned.</p>
+     *
+     * @param key the section key
+     * @return the mask of solid blocks in the section
+     */
+    long[] section(long key) {
+        read.lock();
+        try {
+            long[] mask = sections.get(key);
+            if (mask != null)
+                return mask;
+        } finally {
+            read.unlock();
+        }
+
+        Load load;
+        int version;
+        write.lock();
+        try {
+            long[] mask = sections.get(key);
+            if (mask != null)
+                return mask;
+
+            load = loads.get(key);
+            if (load == null) {
+                load = new Load();
+                loads.put(key, load);
+            }
+            load.readers++;
+            version = load.version;
+        } finally {
+            write.unlock();
+        }
+
+        // The section is read outside of the lock, and read again if it was invalidated in the meantime
+        while (true) {
+            long[] mask;
+            try {
+                mask = load(BlockPos.unpackX(key), BlockPos.unpackY(key), BlockPos.unpackZ(key));
+            } catch (RuntimeException | Error e) {
+                write.lock();
+                try {
+                    release(key, load);
+                } finally {
+                    write.unlock();
+                }
+                throw e;
+            }
+
+            write.lock();
+            try {
+                if (load.version == version) {
+                    release(key, load);
+                    if (mask == null)
+                        return UNLOADED;
+
+                    sections.put(key, mask);
+                    return mask;
+                }
+
+                version = load.version;
+            } finally {
+                write.unlock();
+            }
+        }
+    }
+
+    @GuardedBy("lock")
+    private void release(long key, Load load) {
+        if (--load.readers == 0)
+            loads.remove(key);
+    }
+
+    @Nullable
+    private long[] load(int sectionX, int sectionY, int sectionZ) {
+        Chunk chunk = world.chunkAt(sectionX, sectionZ, false);
+        if (chunk == null)
+            return null;
+
+        long[] mask = new long[64];
+        int baseY = sectionY << 4;
+        for (int index = 0; index < 4096; index++) {
+            Block block = chunk.blockAt(index & 15, baseY + (index >>> 8), (index >>> 4) & 15);
+            if (block != null && block.substance().isSolid())
+                mask[index >>> 6] |= 1L << index;
+        }
+
+        return mask;
+    }
+
+    // The invalidations of a section which is being read, counted while any thread is reading it
+    private static final class Load {
+        private int version;
+        private int readers;
+    }
+}
@@ -25,6 +25,7 @@ import net.tridentsdk.Trident;
 import net.tridentsdk.docs.InternalUseOnly;
 import net.tridentsdk.plugin.TridentPlugin;
 import net.tridentsdk.plugin.annotation.IgnoreRegistration;
+import net.tridentsdk.profiler.TickProfiler;
 import net.tridentsdk.util.TridentLogger;
 
 import javax.annotation.concurrent.ThreadSafe;
@@ -140,8 +141,14 @@ public class EventHandler {
         final CountDownLatch latch = new CountDownLatch(1);
 
         Handler.forPlugins().executor().addTask(() -> {
+            TickProfiler profiler = Handler.forProfiling();
             for (EventReflector listener : listeners) {
-                listener.reflect(event);
+                TickProfiler.Section section = profiler.enter(listener.plugin(), listener.instance());
+                try {
+                    listener.reflect(event);
+                } finally {
+                    section.close();
+                }
             }
 
             latch.countDown();
@@ -17,6 +17,9 @@
 
 package net.tridentsdk.factory;
 
+import net.tridentsdk.util.Long2ObjectMap;
+import net.tridentsdk.util.LongOpenHashSet;
+
 import javax.annotation.concurrent.ThreadSafe;
 import java.util.Collections;
 import java.util.Set;
@@ -44,4 +47,27 @@ public class CollectFactory {
     public <E> Set<E> createSet() {
         return Collections.newSetFromMap(this.<E, Boolean>createMap());
     }
+
+    /**
+     * Creates a set of primitive {@code long} values, such as packed block positions
+     *
+     * <p>The returned set is not thread-safe</p>
+     *
+     * @return a new primitive long set
+     */
+    public LongOpenHashSet createLongSet() {
+        return new LongOpenHashSet();
+    }
+
+    /**
+     * Creates a map which is keyed by primitive {@code long} values, such as packed block positions
+     *
+     * <p>The returned map is not thread-safe</p>
+     *
+     * @param <V> the value type
+     * @return a new primitive long keyed map
+     */
+    public <V> Long2ObjectMap<V> createLongMap() {
+        return new Long2ObjectMap<>();
+    }
 }
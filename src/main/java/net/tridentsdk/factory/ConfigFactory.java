@@ -18,22 +18,51 @@
 package net.tridentsdk.factory;
 
 import com.google.gson.JsonObject;
+import net.tridentsdk.Trident;
+import net.tridentsdk.config.ConfigBinding;
+import net.tridentsdk.config.ConfigCache;
 import net.tridentsdk.config.ConfigSection;
 import net.tridentsdk.config.JsonConfig;
 import net.tridentsdk.docs.AccessNoDoc;
 
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 import java.io.File;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Handles the server configuration and provides configuration facilities
  *
+ * <p>Configurations created by this factory are loaded through the {@link #cache() config cache}, so configurations
+ * whose files have not changed since the last start are loaded without parsing their JSON.</p>
+ *
  * @author The TridentSDK Team
  */
 @ThreadSafe
 public class ConfigFactory {
+    private final Lock cacheLock = new ReentrantLock();
+    @GuardedBy("cacheLock")
+    private ConfigCache cache;
+
+    /**
+     * Obtains the cache which configurations are loaded through, opening it if it has not been opened
+     *
+     * @return the config cache
+     */
+    public ConfigCache cache() {
+        cacheLock.lock();
+        try {
+            if (cache == null)
+                cache = ConfigCache.open(Trident.fileContainer().resolve("config.cache"));
+            return cache;
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+
     /**
      * Creates a new configuration from a path specified by a string
      *
@@ -41,7 +70,7 @@ public class ConfigFactory {
      * @return the configuration that was created at the path
      */
     public JsonConfig createConfig(String path) {
-        return new JsonConfig(Paths.get(path));
+        return cache().load(Paths.get(path));
     }
 
     /**
@@ -51,7 +80,7 @@ public class ConfigFactory {
      * @return the configuration that was converted
      */
     public JsonConfig createConfig(File file) {
-        return new JsonConfig(file);
+        return cache().load(file.toPath());
     }
 
     /**
@@ -61,7 +90,19 @@ public class ConfigFactory {
      * @return the configuration that was converted
      */
     public JsonConfig createConfig(Path path) {
-        return new JsonConfig(path);
+        return cache().load(path);
+    }
+
+    /**
+     * Binds a configuration to an interface, whose methods return the values of the configuration
+     *
+     * @param config the configuration to bind
+     * @param type   the interface to bind to, see {@link net.tridentsdk.config.ConfigBinding}
+     * @param <T>    the type of the interface
+     * @return the bound interface, which is updated when the configuration is reloaded
+     */
+    public <T> T bind(JsonConfig config, Class<T> type) {
+        return ConfigBinding.bind(config, type);
     }
 
     /**
@@ -32,6 +32,9 @@ import javax.annotation.concurrent.ThreadSafe;
 public final class Factories {
     private static final ConfigFactory configFactory = new ConfigFactory();
     private static final ReflectFactory reflectionFactory = new ReflectFactory();
+    // Kept in constants so that the slots are not looked up on each access
+    private static final AccessBridge.Slot<TaskFactory> TASKS = AccessBridge.open().slot(TaskFactory.class);
+    private static final AccessBridge.Slot<ThreadFactory> THREADS = AccessBridge.open().slot(ThreadFactory.class);
 
     private Factories() {
     }
@@ -42,7 +45,7 @@ public final class Factories {
      * @return the task factory
      */
     public static TaskFactory tasks() {
-        return AccessBridge.open().demand(TaskFactory.class);
+        return TASKS.get();
     }
 
     /**
@@ -51,7 +54,7 @@ public final class Factories {
      * @return the threads factory
      */
     public static ThreadFactory threads() {
-        return AccessBridge.open().demand(ThreadFactory.class);
+        return THREADS.get();
     }
 
     /**
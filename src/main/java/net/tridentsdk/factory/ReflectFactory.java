@@ -17,8 +17,6 @@
 
 package net.tridentsdk.factory;
 
-import com.esotericsoftware.reflectasm.ConstructorAccess;
-import com.esotericsoftware.reflectasm.MethodAccess;
 import net.tridentsdk.reflect.FastClass;
 import net.tridentsdk.reflect.FastConstructor;
 import net.tridentsdk.reflect.FastField;
@@ -34,7 +32,7 @@ import javax.annotation.concurrent.ThreadSafe;
 @ThreadSafe
 public class ReflectFactory {
     /**
-     * Acquires a class wrapper. Note this method is extremely slow.
+     * Acquires a class wrapper, which is cached for as long as the class is loaded
      *
      * @param cls the default class to wrap
      * @return the wrapped class
@@ -44,7 +42,7 @@ public class ReflectFactory {
     }
 
     /**
-     * Acquires a class wrapper. Note this method is extremely slow.
+     * Acquires a class wrapper, which is cached for as long as the class is loaded
      *
      * @param o the instance representing the class you need
      * @return the wrapped class
@@ -61,8 +59,7 @@ public class ReflectFactory {
      * @return the wrapped field
      */
     public FastField field(Object o, String name) {
-        FastClass fastClass = FastClass.get(o.getClass());
-        return fastClass.fieldBy(name);
+        return FastClass.get(o.getClass()).fieldBy(name);
     }
 
     /**
@@ -85,7 +82,7 @@ public class ReflectFactory {
      * @return the wrapped method
      */
     public FastMethod method(Object o, String name) {
-        return new FastMethod(o, MethodAccess.get(o.getClass()), name);
+        return FastClass.get(o.getClass()).methodBy(o, name);
     }
 
     /**
@@ -96,7 +93,7 @@ public class ReflectFactory {
      * @return the wrapped {@code static} method
      */
     public FastMethod method(Class<?> cls, String name) {
-        return new FastMethod(null, MethodAccess.get(cls), name);
+        return FastClass.get(cls).methodBy(null, name);
     }
 
     /**
@@ -108,6 +105,6 @@ public class ReflectFactory {
      * @return the wrapped default class constructor
      */
     public FastConstructor constructor(Class<?> cls) {
-        return new FastConstructor(ConstructorAccess.get(cls));
+        return FastClass.get(cls).constructor();
     }
 }
@@ -17,6 +17,7 @@
 
 package net.tridentsdk.factory;
 
+import net.tridentsdk.Position;
 import net.tridentsdk.concurrent.ScheduledTask;
 import net.tridentsdk.concurrent.TridentRunnable;
 import net.tridentsdk.plugin.TridentPlugin;
@@ -46,6 +47,20 @@ public interface TaskFactory {
      */
     public ScheduledTask asyncRun(TridentPlugin plugin, TridentRunnable runnable);
 
+    /**
+     * Asynchronously run a task after the next tick on its own virtual thread
+     *
+     * <p>This is meant for tasks which spend most of their time blocked, such as on database queries or file
+     * I/O. The task does not occupy a pooled thread while it is blocked. If the Java version does not support
+     * virtual threads, the task is run on a platform thread instead.</p>
+     *
+     * @param plugin   the plugin which the task is registered to
+     * @param runnable the runnable to perform the task
+     * @return the task which was wrapped by the scheduler
+     * @see net.tridentsdk.concurrent.VirtualThreads
+     */
+    public ScheduledTask asyncVirtual(TridentPlugin plugin, TridentRunnable runnable);
+
     /**
      * Synchronously run a task after the next tick
      *
@@ -96,4 +111,19 @@ public interface TaskFactory {
      * @return the task which was wrapped by the scheduler
      */
     public ScheduledTask syncRepeat(TridentPlugin plugin, TridentRunnable runnable, long delay, long initialInterval);
+
+    /**
+     * Runs a task on the thread which owns the region containing the position
+     *
+     * <p>The task may safely modify the blocks and entities in the region of the position. If the current thread
+     * owns the region, the task is run at the start of the next tick of the region, like any other task sent to
+     * it.</p>
+     *
+     * @param plugin   the plugin which the task is registered to
+     * @param position the position which the task acts on
+     * @param runnable the runnable to perform the task
+     * @return the task which was wrapped by the scheduler
+     * @see net.tridentsdk.world.RegionScheduler
+     */
+    public ScheduledTask runAt(TridentPlugin plugin, Position position, TridentRunnable runnable);
 }
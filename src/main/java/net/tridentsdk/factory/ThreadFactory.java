@@ -17,7 +17,10 @@
 
 package net.tridentsdk.factory;
 
+import net.tridentsdk.concurrent.VirtualThreads;
+
 import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Creates threads and managers for those threads
@@ -41,4 +44,18 @@ public interface ThreadFactory {
      * @return the execution factory
      */
     ExecutorFactory executor(int threads, String name);
+
+    /**
+     * A new executor which runs each task on its own virtual thread, suited to tasks which block on I/O
+     *
+     * <p>Thousands of tasks may block at once without each occupying a platform thread. If the Java version does
+     * not support virtual threads, a cached pool of platform threads is used instead.</p>
+     *
+     * @param name the names appended to the end of the thread name
+     * @return the virtual thread executor
+     * @see VirtualThreads
+     */
+    default ExecutorService virtualExecutor(String name) {
+        return VirtualThreads.executor(name);
+    }
 }
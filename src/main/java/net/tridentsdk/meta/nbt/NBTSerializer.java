@@ -19,6 +19,7 @@ package net.tridentsdk.meta.nbt;
 
 import net.tridentsdk.reflect.FastClass;
 import net.tridentsdk.reflect.FastField;
+import net.tridentsdk.reflect.ReflectBackend;
 import net.tridentsdk.util.TridentLogger;
 
 import java.lang.reflect.Field;
@@ -27,13 +28,17 @@ import java.util.ArrayList;
 import java.util.List;
 
 public final class NBTSerializer {
+    // Serialized fields are usually not public, which only method handles can access
+    private static FastClass fastClass(Class<?> cls) {
+        return FastClass.get(cls, ReflectBackend.METHOD_HANDLES);
+    }
 
     public static <T> T deserialize(Class<T> clzz, CompoundTag tag) {
         if (!(NBTSerializable.class.isAssignableFrom(clzz))) {
             TridentLogger.error(new IllegalArgumentException("Provided object is not serializable!"));
         }
 
-        FastClass cls = FastClass.get(clzz);
+        FastClass cls = fastClass(clzz);
         T instance = cls.constructor().newInstance();
 
         return deserialize(instance, tag);
@@ -44,7 +49,7 @@ public final class NBTSerializer {
             TridentLogger.error(new IllegalArgumentException("Provided object is not serializable!"));
         }
 
-        FastClass cls = FastClass.get(instance.getClass());
+        FastClass cls = fastClass(instance.getClass());
 
         for (FastField field : cls.fields()) {
             Field f = field.toField();
@@ -146,7 +151,7 @@ public final class NBTSerializer {
     }
 
     public static CompoundTag serialize(NBTSerializable serializable, String name) {
-        FastClass cls = FastClass.get(serializable.getClass());
+        FastClass cls = fastClass(serializable.getClass());
         CompoundTagBuilder<NBTBuilder> builder = NBTBuilder.newBase(name);
 
         for (FastField field : cls.fields()) {
@@ -0,0 +1,289 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.plugin;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.io.ByteStreams;
+import net.tridentsdk.docs.AccessNoDoc;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/*
+ * The class hierarchy of a plugin jar, read from the headers of its class files without loading them
+ *
+ * Each class file is read up to its attributes, giving the class name, access flags, superclass, interfaces and
+ * runtime visible annotations. Whether a class extends a type is found by walking the headers, and only loads
+ * classes which are not in the jar, such as the server's own types, from the parent class loader.
+ */
+@AccessNoDoc
+@NotThreadSafe
+final class ClassIndex {
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ABSTRACT = 0x0400;
+
+    private final Map<String, Header> headers = Maps.newLinkedHashMap();
+    private final ClassLoader parent;
+    private final Map<Class<?>, Map<String, Boolean>> subtypes = Maps.newHashMap();
+
+    private ClassIndex(ClassLoader parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Reads the headers of every class in the jar
+     *
+     * @param jar    the jar to index
+     * @param parent the class loader which types outside of the jar are loaded from
+     * @return the index of the jar
+     * @throws IOException if the jar or a class file in it could not be read
+     */
+    static ClassIndex of(JarFile jar, ClassLoader parent) throws IOException {
+        ClassIndex index = new ClassIndex(parent);
+        Enumeration<JarEntry> entries = jar.entries();
+        while (entries.hasMoreElements()) {
+            JarEntry entry = entries.nextElement();
+            if (entry.isDirectory() || !entry.getName().endsWith(".class"))
+                continue;
+
+            try (InputStream in = jar.getInputStream(entry)) {
+                Header header = Header.read(ByteStreams.toByteArray(in));
+                index.headers.put(header.name, header);
+            }
+        }
+
+        return index;
+    }
+
+    /**
+     * The headers of the classes in the jar
+     *
+     * @return every indexed class
+     */
+    Collection<Header> headers() {
+        return headers.values();
+    }
+
+    /**
+     * Checks if a class is, extends or implements the given type
+     *
+     * @param name the binary name of the class
+     * @param type the type
+     * @return {@code true} if instances of the class are instances of the type
+     */
+    boolean isSubtype(String name, Class<?> type) {
+        if (name == null)
+            return false;
+        if (name.equals(type.getName()))
+            return true;
+
+        Map<String, Boolean> known = subtypes.computeIfAbsent(type, k -> Maps.newHashMap());
+        Boolean result = known.get(name);
+        if (result != null)
+            return result;
+
+        Header header = headers.get(name);
+        if (header == null) {
+            try {
+                result = type.isAssignableFrom(Class.forName(name, false, parent));
+            } catch (ClassNotFoundException | LinkageError e) {
+                result = false;
+            }
+        } else {
+            result = isSubtype(header.superName, type);
+            for (int i = 0; !result && i < header.interfaces.size(); i++) {
+                result = isSubtype(header.interfaces.get(i), type);
+            }
+        }
+
+        known.put(name, result);
+        return result;
+    }
+
+    /**
+     * The header of a class file
+     */
+    static final class Header {
+        final String name;
+        final int access;
+        final String superName;
+        final List<String> interfaces;
+        final Set<String> annotations;
+
+        private Header(String name, int access, String superName, List<String> interfaces, Set<String> annotations) {
+            this.name = name;
+            this.access = access;
+            this.superName = superName;
+            this.interfaces = interfaces;
+            this.annotations = annotations;
+        }
+
+        /**
+         * Checks if the class can be instantiated
+         *
+         * @return {@code true} if the class is not abstract or an interface
+         */
+        boolean isConcrete() {
+            return (access & (ACC_ABSTRACT | ACC_INTERFACE)) == 0;
+        }
+
+        /**
+         * Checks if the class is annotated with the annotation, if the annotation is retained at runtime
+         *
+         * @param annotation the annotation type
+         * @return {@code true} if the class is annotated
+         */
+        boolean isAnnotated(Class<?> annotation) {
+            return annotations.contains(annotation.getName());
+        }
+
+        static Header read(byte[] bytes) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (in.readInt() != 0xCAFEBABE)
+                throw new IOException("Not a class file");
+            in.readUnsignedShort(); // minor version
+            in.readUnsignedShort(); // major version
+
+            // Only UTF8 and class entries are kept
+            int count = in.readUnsignedShort();
+            String[] utf8 = new String[count];
+            int[] classes = new int[count];
+            for (int i = 1; i < count; i++) {
+                int tag = in.readUnsignedByte();
+                switch (tag) {
+                    case 1: // Utf8
+                        utf8[i] = in.readUTF();
+                        break;
+                    case 7: // Class
+                        classes[i] = in.readUnsignedShort();
+                        break;
+                    case 8: // String
+                    case 16: // MethodType
+                    case 19: // Module
+                    case 20: // Package
+                        in.readUnsignedShort();
+                        break;
+                    case 15: // MethodHandle
+                        in.readUnsignedByte();
+                        in.readUnsignedShort();
+                        break;
+                    case 3: // Integer
+                    case 4: // Float
+                    case 9: // Fieldref
+                    case 10: // Methodref
+                    case 11: // InterfaceMethodref
+                    case 12: // NameAndType
+                    case 17: // Dynamic
+                    case 18: // InvokeDynamic
+                        in.readInt();
+                        break;
+                    case 5: // Long
+                    case 6: // Double
+                        in.readLong();
+                        i++;
+                        break;
+                    default:
+                        throw new IOException("Unknown constant pool tag " + tag);
+                }
+            }
+
+            int access = in.readUnsignedShort();
+            String name = className(utf8, classes, in.readUnsignedShort());
+            String superName = className(utf8, classes, in.readUnsignedShort());
+            ImmutableList.Builder<String> interfaces = ImmutableList.builder();
+            for (int i = in.readUnsignedShort(); i > 0; i--) {
+                interfaces.add(className(utf8, classes, in.readUnsignedShort()));
+            }
+
+            skipMembers(in); // fields
+            skipMembers(in); // methods
+
+            ImmutableSet.Builder<String> annotations = ImmutableSet.builder();
+            for (int i = in.readUnsignedShort(); i > 0; i--) {
+                String attribute = utf8[in.readUnsignedShort()];
+                int length = in.readInt();
+                if (!"RuntimeVisibleAnnotations".equals(attribute)) {
+                    in.skipBytes(length);
+                    continue;
+                }
+
+                for (int j = in.readUnsignedShort(); j > 0; j--) {
+                    String descriptor = utf8[in.readUnsignedShort()];
+                    annotations.add(descriptor.substring(1, descriptor.length() - 1).replace('/', '.'));
+                    skipPairs(in);
+                }
+            }
+
+            return new Header(name, access, superName, interfaces.build(), annotations.build());
+        }
+
+        private static String className(String[] utf8, int[] classes, int index) {
+            return index == 0 ? null : utf8[classes[index]].replace('/', '.');
+        }
+
+        private static void skipMembers(DataInputStream in) throws IOException {
+            for (int i = in.readUnsignedShort(); i > 0; i--) {
+                in.skipBytes(6); // access, name, descriptor
+                for (int j = in.readUnsignedShort(); j > 0; j--) {
+                    in.skipBytes(2);
+                    in.skipBytes(in.readInt());
+                }
+            }
+        }
+
+        private static void skipPairs(DataInputStream in) throws IOException {
+            for (int i = in.readUnsignedShort(); i > 0; i--) {
+                in.skipBytes(2); // name
+                skipValue(in);
+            }
+        }
+
+        private static void skipValue(DataInputStream in) throws IOException {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 'e':
+                    in.skipBytes(4);
+                    break;
+                case '@':
+                    in.skipBytes(2);
+                    skipPairs(in);
+                    break;
+                case '[':
+                    for (int i = in.readUnsignedShort(); i > 0; i--) {
+                        skipValue(in);
+                    }
+                    break;
+                default:
+                    in.skipBytes(2);
+            }
+        }
+    }
+}
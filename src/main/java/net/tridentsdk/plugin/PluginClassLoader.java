@@ -51,6 +51,15 @@ public class PluginClassLoader extends URLClassLoader {
         return super.defineClass(name, source, 0, source.length);
     }
 
+    // Classes which were not registered when the plugin was scanned are loaded here when they are first used, and
+    // must still be unloaded along with the plugin
+    @Override
+    protected Class<?> findClass(String name) throws ClassNotFoundException {
+        Class<?> cls = super.findClass(name);
+        putClass(cls);
+        return cls;
+    }
+
     void putClass(Class<?> cls) {
         locallyLoaded.put(cls.getName(), cls);
     }
@@ -0,0 +1,138 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.plugin;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import net.tridentsdk.docs.AccessNoDoc;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * The dependency graph of plugins which are loaded together
+ *
+ * Plugins are ordered so that each plugin comes after the plugins it depends on. Plugins which depend on a plugin
+ * that is not loaded, or which depend on themselves through other plugins, are rejected along with every plugin
+ * that depends on them.
+ */
+@AccessNoDoc
+@Immutable
+final class PluginGraph {
+    private final List<String> order;
+    private final Map<String, List<String>> dependencies;
+    private final Map<String, String> rejected;
+
+    /**
+     * Orders the plugins by their dependencies
+     *
+     * @param dependencies the names of the plugins being loaded, with the names of the plugins each depends on
+     * @param loaded       the names of plugins which are already loaded, which can be depended on
+     */
+    PluginGraph(Map<String, List<String>> dependencies, Set<String> loaded) {
+        Map<String, String> rejected = Maps.newLinkedHashMap();
+        Map<String, List<String>> dependents = Maps.newHashMap();
+        Map<String, Integer> waiting = Maps.newHashMap();
+        Map<String, List<String>> pending = Maps.newLinkedHashMap();
+
+        for (Map.Entry<String, List<String>> entry : dependencies.entrySet()) {
+            String name = entry.getKey();
+            List<String> waitingOn = Lists.newArrayList();
+            for (String dependency : entry.getValue()) {
+                if (dependencies.containsKey(dependency)) {
+                    waitingOn.add(dependency);
+                } else if (!loaded.contains(dependency)) {
+                    rejected.put(name, "depends on " + dependency + ", which is not loaded");
+                }
+            }
+
+            pending.put(name, waitingOn);
+        }
+
+        for (Map.Entry<String, List<String>> entry : pending.entrySet()) {
+            waiting.put(entry.getKey(), entry.getValue().size());
+            for (String dependency : entry.getValue()) {
+                dependents.computeIfAbsent(dependency, k -> Lists.newArrayList()).add(entry.getKey());
+            }
+        }
+
+        // Kahn's algorithm, dependents of rejected plugins are rejected instead of being ordered
+        List<String> order = Lists.newArrayList();
+        Deque<String> ready = new ArrayDeque<>();
+        for (Map.Entry<String, Integer> entry : waiting.entrySet()) {
+            if (entry.getValue() == 0)
+                ready.add(entry.getKey());
+        }
+
+        while (!ready.isEmpty()) {
+            String name = ready.poll();
+            if (!rejected.containsKey(name))
+                order.add(name);
+
+            for (String dependent : dependents.getOrDefault(name, Collections.emptyList())) {
+                if (rejected.containsKey(name) && !rejected.containsKey(dependent))
+                    rejected.put(dependent, "depends on " + name + ", which could not be loaded");
+                if (waiting.merge(dependent, -1, Integer::sum) == 0)
+                    ready.add(dependent);
+            }
+        }
+
+        for (Map.Entry<String, Integer> entry : waiting.entrySet()) {
+            if (entry.getValue() > 0 && !rejected.containsKey(entry.getKey()))
+                rejected.put(entry.getKey(), "has a circular dependency");
+        }
+
+        this.order = Collections.unmodifiableList(order);
+        this.dependencies = Collections.unmodifiableMap(pending);
+        this.rejected = Collections.unmodifiableMap(rejected);
+    }
+
+    /**
+     * The plugins which can be loaded, each after the plugins it depends on
+     *
+     * @return the load order
+     */
+    List<String> order() {
+        return order;
+    }
+
+    /**
+     * The plugins being loaded which a plugin depends on
+     *
+     * @param name the name of the plugin
+     * @return the names of the dependencies which are being loaded with the plugin
+     */
+    List<String> dependenciesOf(String name) {
+        return dependencies.getOrDefault(name, Collections.emptyList());
+    }
+
+    /**
+     * The plugins which cannot be loaded
+     *
+     * @return the names of the rejected plugins, with the reason each was rejected
+     */
+    Map<String, String> rejected() {
+        return rejected;
+    }
+}
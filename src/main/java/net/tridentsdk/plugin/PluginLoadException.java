@@ -25,7 +25,7 @@ package net.tridentsdk.plugin;
 public class PluginLoadException extends RuntimeException {
     private static final long serialVersionUID = 644578736382376769L;
 
-    public PluginLoadException(Exception ex) {
+    public PluginLoadException(Throwable ex) {
         super(ex);
     }
 
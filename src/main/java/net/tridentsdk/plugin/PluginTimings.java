@@ -0,0 +1,125 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.plugin;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time taken by each phase of loading a plugin
+ *
+ * <p>Timings are recorded by {@link TridentPluginHandler#loadAll(java.util.Collection)}, and can be obtained with
+ * {@link TridentPluginHandler#timings()}.</p>
+ *
+ * @author The TridentSDK Team
+ */
+@Immutable
+public final class PluginTimings {
+    private final String plugin;
+    private final long scan;
+    private final long wait;
+    private final long construct;
+    private final long register;
+    private final long enable;
+
+    PluginTimings(String plugin, long scan, long wait, long construct, long register, long enable) {
+        this.plugin = plugin;
+        this.scan = scan;
+        this.wait = wait;
+        this.construct = construct;
+        this.register = register;
+        this.enable = enable;
+    }
+
+    /**
+     * The name of the plugin
+     *
+     * @return the plugin name
+     */
+    public String plugin() {
+        return plugin;
+    }
+
+    /**
+     * The time taken to open the plugin jar and load its classes
+     *
+     * @param unit the unit to give the time in
+     * @return the time spent scanning
+     */
+    public long scan(TimeUnit unit) {
+        return unit.convert(scan, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The time between the plugin being scanned and its dependencies being enabled
+     *
+     * @param unit the unit to give the time in
+     * @return the time spent waiting for dependencies
+     */
+    public long waiting(TimeUnit unit) {
+        return unit.convert(wait, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The time taken to construct the plugin and call {@link TridentPlugin#onLoad()}
+     *
+     * @param unit the unit to give the time in
+     * @return the time spent constructing
+     */
+    public long construct(TimeUnit unit) {
+        return unit.convert(construct, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The time taken to register the listeners and commands of the plugin
+     *
+     * @param unit the unit to give the time in
+     * @return the time spent registering
+     */
+    public long register(TimeUnit unit) {
+        return unit.convert(register, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The time taken by {@link TridentPlugin#onEnable()}
+     *
+     * @param unit the unit to give the time in
+     * @return the time spent enabling
+     */
+    public long enable(TimeUnit unit) {
+        return unit.convert(enable, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The time taken by every phase, not including the time spent waiting for dependencies
+     *
+     * @param unit the unit to give the time in
+     * @return the total load time
+     */
+    public long total(TimeUnit unit) {
+        return unit.convert(scan + construct + register + enable, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return plugin + " in " + total(TimeUnit.MILLISECONDS) + "ms (scan " + scan(TimeUnit.MILLISECONDS) +
+                "ms, construct " + construct(TimeUnit.MILLISECONDS) + "ms, register " +
+                register(TimeUnit.MILLISECONDS) + "ms, enable " + enable(TimeUnit.MILLISECONDS) + "ms)";
+    }
+}
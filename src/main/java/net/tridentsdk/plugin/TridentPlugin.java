@@ -25,6 +25,7 @@ import net.tridentsdk.concurrent.HeldValueLatch;
 import net.tridentsdk.concurrent.TaskExecutor;
 import net.tridentsdk.config.JsonConfig;
 import net.tridentsdk.event.Listener;
+import net.tridentsdk.factory.Factories;
 import net.tridentsdk.plugin.annotation.PluginDescription;
 import net.tridentsdk.plugin.cmd.Command;
 import net.tridentsdk.util.TridentLogger;
@@ -65,7 +66,7 @@ public class TridentPlugin {
         this.pluginFile = pluginFile;
         this.description = description;
         this.configDirectory = new File("plugins" + File.separator + description.name() + File.separator);
-        this.defaultConfig = new JsonConfig(new File(this.configDirectory, "config.json"));
+        this.defaultConfig = Factories.configs().createConfig(new File(this.configDirectory, "config.json"));
         this.classLoader = loader;
     }
 
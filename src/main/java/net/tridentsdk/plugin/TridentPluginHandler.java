@@ -18,9 +18,12 @@
 package net.tridentsdk.plugin;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import net.tridentsdk.Handler;
 import net.tridentsdk.Trident;
 import net.tridentsdk.concurrent.TaskExecutor;
+import net.tridentsdk.docs.AccessNoDoc;
 import net.tridentsdk.docs.InternalUseOnly;
 import net.tridentsdk.event.Listener;
 import net.tridentsdk.factory.Factories;
@@ -34,10 +37,14 @@ import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Enumeration;
 import java.util.List;
-import java.util.jar.JarEntry;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.jar.JarFile;
 
 /**
@@ -52,7 +59,8 @@ import java.util.jar.JarFile;
  */
 public class TridentPluginHandler {
     private static final TaskExecutor EXECUTOR = Factories.threads().executor(1, "Plugins").scaledThread();
-    private final List<TridentPlugin> plugins = Lists.newArrayList();
+    private final List<TridentPlugin> plugins = new CopyOnWriteArrayList<>();
+    private final Map<String, PluginTimings> timings = new ConcurrentHashMap<>();
 
     /**
      * Do not instantiate this without being Trident
@@ -69,89 +77,228 @@ public class TridentPluginHandler {
 
     @InternalUseOnly
     public void load(final File pluginFile) {
-        EXECUTOR.addTask(new Runnable() {
-            @Override
-            public void run() {
-                TridentPlugin plugin = null;
-                JarFile jarFile = null;
+        EXECUTOR.addTask(() -> {
+            Candidate candidate = scan(pluginFile);
+            if (candidate != null)
+                enable(candidate);
+        });
+    }
+
+    /**
+     * Loads the plugins together, returning once every plugin is enabled or has failed to load
+     *
+     * <p>The jars of the plugins are scanned in parallel. Each plugin is then enabled once the plugins named by its
+     * {@link PluginDescription#dependencies()} are enabled, so plugins which do not depend on each other are enabled
+     * in parallel. Plugins which depend on a plugin that is not loaded, or that failed to load, are not loaded.</p>
+     *
+     * @param pluginFiles the jars of the plugins to load
+     */
+    @InternalUseOnly
+    public void loadAll(Collection<File> pluginFiles) {
+        long start = System.nanoTime();
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+            Thread thread = new Thread(r, "Trident - Plugin Loader " + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<CompletableFuture<Candidate>> scans = Lists.newArrayList();
+            for (File file : pluginFiles) {
+                scans.add(CompletableFuture.supplyAsync(() -> scan(file), pool));
+            }
+
+            Set<String> loaded = Sets.newHashSet();
+            for (TridentPlugin plugin : plugins) {
+                loaded.add(plugin.description().name());
+            }
+
+            Map<String, Candidate> candidates = Maps.newLinkedHashMap();
+            Map<String, List<String>> dependencies = Maps.newLinkedHashMap();
+            for (CompletableFuture<Candidate> scan : scans) {
+                Candidate candidate;
                 try {
-                    // load all classes
-                    jarFile = new JarFile(pluginFile);
-                    PluginClassLoader loader = new PluginClassLoader(pluginFile, getClass().getClassLoader());
-                    Class<? extends TridentPlugin> pluginClass = null;
-
-                    Enumeration<JarEntry> entries = jarFile.entries();
-                    while (entries.hasMoreElements()) {
-                        JarEntry entry = entries.nextElement();
-
-                        if(entry.isDirectory() || !entry.getName().endsWith(".class")) {
-                            continue;
-                        }
-
-                        String name = entry.getName().replace(".class", "").replace('/', '.');
-                        Class<?> loadedClass = loader.loadClass(name);
-
-                        loader.putClass(loadedClass);
-
-                        if(TridentPlugin.class.isAssignableFrom(loadedClass)) {
-                            if(pluginClass != null)
-                                TridentLogger.error(new PluginLoadException("Plugin has more than one main class!"));
-
-                            pluginClass = loadedClass.asSubclass(TridentPlugin.class);
-                        }
-                    }
-
-                    // start initiating the plugin class and registering commands and listeners
-                    if (pluginClass == null) {
-                        TridentLogger.error(new PluginLoadException("Plugin does not have a main class"));
-                        loader.unloadClasses();
-                        loader = null; // help gc
-                        return;
-                    }
-
-                    PluginDescription description = pluginClass.getAnnotation(PluginDescription.class);
-
-                    if (description == null) {
-                        TridentLogger.error(new PluginLoadException("PluginDescription annotation does not exist!"));
-                        loader.unloadClasses();
-                        loader = null; // help gc
-                        return;
-                    }
-
-                    TridentLogger.log("Loading " + description.name() + " version " + description.version());
-
-                    Constructor<? extends TridentPlugin> defaultConstructor = pluginClass.getSuperclass()
-                            .asSubclass(TridentPlugin.class)
-                            .getDeclaredConstructor(File.class, PluginDescription.class, PluginClassLoader.class);
-                    defaultConstructor.setAccessible(true);
-                    plugin = defaultConstructor.newInstance(pluginFile, description, loader);
-
-                    plugins.add(plugin);
-
-                    plugin.startup();
-                    plugin.onLoad();
-
-                    for (Class<?> cls : loader.locallyLoaded.values()) {
-                        register(plugin, cls, EXECUTOR);
-                    }
-
-                    plugin.onEnable();
-                    TridentLogger.success("Loaded " + description.name() + " version " + description.version());
-                } catch (IOException | NoSuchMethodException | IllegalAccessException | InvocationTargetException
-                        | InstantiationException | ClassNotFoundException ex) { // UNLOAD PLYGIN
-                    TridentLogger.error(new PluginLoadException(ex));
-                    if (plugin != null)
-                        disable(plugin);
-                } finally {
-                    if (jarFile != null)
-                        try {
-                            jarFile.close();
-                        } catch (IOException e) {
-                            TridentLogger.error(e);
-                        }
+                    candidate = scan.join();
+                } catch (CompletionException e) {
+                    // A jar which cannot be scanned is skipped, the rest of the batch still loads
+                    TridentLogger.error(new PluginLoadException(e.getCause()));
+                    continue;
                 }
+
+                if (candidate == null)
+                    continue;
+
+                String name = candidate.description.name();
+                if (loaded.contains(name) || candidates.containsKey(name)) {
+                    TridentLogger.error(new PluginLoadException("A plugin named " + name + " is already loaded"));
+                    candidate.loader.unloadClasses();
+                    continue;
+                }
+
+                candidates.put(name, candidate);
+                dependencies.put(name, Arrays.asList(candidate.description.dependencies()));
             }
-        });
+
+            PluginGraph graph = new PluginGraph(dependencies, loaded);
+            for (Map.Entry<String, String> entry : graph.rejected().entrySet()) {
+                TridentLogger.error(new PluginLoadException("Plugin " + entry.getKey() + " " + entry.getValue()));
+                candidates.get(entry.getKey()).loader.unloadClasses();
+            }
+
+            Map<String, CompletableFuture<TridentPlugin>> enabling = Maps.newLinkedHashMap();
+            for (String name : graph.order()) {
+                Candidate candidate = candidates.get(name);
+                List<CompletableFuture<TridentPlugin>> required = Lists.newArrayList();
+                for (String dependency : graph.dependenciesOf(name)) {
+                    required.add(enabling.get(dependency));
+                }
+
+                // handle rather than thenApply, a dependency which completed exceptionally must unload its
+                // dependents the same way as one which completed with null
+                enabling.put(name, CompletableFuture.allOf(required.toArray(new CompletableFuture[required.size()]))
+                        .handleAsync((v, failure) -> {
+                            boolean failed = failure != null;
+                            for (CompletableFuture<TridentPlugin> dependency : required) {
+                                if (failed || dependency.join() == null) {
+                                    TridentLogger.error(new PluginLoadException(
+                                            "Plugin " + name + " depends on a plugin which could not be loaded"));
+                                    candidate.loader.unloadClasses();
+                                    return null;
+                                }
+                            }
+
+                            return enable(candidate);
+                        }, pool));
+            }
+
+            int count = 0;
+            for (Map.Entry<String, CompletableFuture<TridentPlugin>> entry : enabling.entrySet()) {
+                try {
+                    if (entry.getValue().join() != null)
+                        count++;
+                } catch (CompletionException e) {
+                    TridentLogger.error(new PluginLoadException("Plugin " + entry.getKey() + " failed to load"));
+                    TridentLogger.error(e.getCause());
+                }
+            }
+
+            TridentLogger.success("Loaded " + count + " plugins in " +
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Opens the plugin jar, finding its main class, listeners and commands from the class file headers. Only those
+    // classes are loaded here, the rest of the jar is loaded by the class loader when the plugin first uses it
+    private Candidate scan(File pluginFile) {
+        long start = System.nanoTime();
+        JarFile jarFile = null;
+        PluginClassLoader loader = null;
+        try {
+            jarFile = new JarFile(pluginFile);
+            loader = new PluginClassLoader(pluginFile, getClass().getClassLoader());
+            ClassIndex index = ClassIndex.of(jarFile, getClass().getClassLoader());
+            Class<? extends TridentPlugin> pluginClass = null;
+            List<Class<?>> classes = Lists.newArrayList();
+
+            for (ClassIndex.Header header : index.headers()) {
+                if (index.isSubtype(header.name, TridentPlugin.class)) {
+                    if(pluginClass != null)
+                        TridentLogger.error(new PluginLoadException("Plugin has more than one main class!"));
+
+                    Class<?> loadedClass = loader.loadClass(header.name);
+                    loader.putClass(loadedClass);
+                    classes.add(loadedClass);
+                    pluginClass = loadedClass.asSubclass(TridentPlugin.class);
+                } else if (header.isConcrete() && !header.isAnnotated(IgnoreRegistration.class) &&
+                        (index.isSubtype(header.name, Listener.class) || index.isSubtype(header.name, Command.class))) {
+                    Class<?> loadedClass = loader.loadClass(header.name);
+                    loader.putClass(loadedClass);
+                    classes.add(loadedClass);
+                }
+            }
+
+            // start initiating the plugin class and registering commands and listeners
+            if (pluginClass == null) {
+                TridentLogger.error(new PluginLoadException("Plugin does not have a main class"));
+                loader.unloadClasses();
+                loader = null; // help gc
+                return null;
+            }
+
+            PluginDescription description = pluginClass.getAnnotation(PluginDescription.class);
+
+            if (description == null) {
+                TridentLogger.error(new PluginLoadException("PluginDescription annotation does not exist!"));
+                loader.unloadClasses();
+                loader = null; // help gc
+                return null;
+            }
+
+            return new Candidate(pluginFile, loader, pluginClass, description, classes, System.nanoTime() - start);
+        } catch (IOException | ClassNotFoundException ex) {
+            TridentLogger.error(new PluginLoadException(ex));
+            return null;
+        } catch (RuntimeException | LinkageError ex) {
+            // Malformed class headers or classes which fail to link only reject this jar
+            TridentLogger.error(new PluginLoadException(ex));
+            if (loader != null)
+                loader.unloadClasses();
+            return null;
+        } finally {
+            if (jarFile != null)
+                try {
+                    jarFile.close();
+                } catch (IOException e) {
+                    TridentLogger.error(e);
+                }
+        }
+    }
+
+    // Constructs, registers and enables a scanned plugin
+    private TridentPlugin enable(Candidate candidate) {
+        PluginDescription description = candidate.description;
+        PluginClassLoader loader = candidate.loader;
+        TridentPlugin plugin = null;
+        try {
+            long start = System.nanoTime();
+            TridentLogger.log("Loading " + description.name() + " version " + description.version());
+
+            Constructor<? extends TridentPlugin> defaultConstructor = candidate.pluginClass.getSuperclass()
+                    .asSubclass(TridentPlugin.class)
+                    .getDeclaredConstructor(File.class, PluginDescription.class, PluginClassLoader.class);
+            defaultConstructor.setAccessible(true);
+            plugin = defaultConstructor.newInstance(candidate.file, description, loader);
+
+            plugins.add(plugin);
+
+            plugin.startup();
+            plugin.onLoad();
+            long constructed = System.nanoTime();
+
+            for (Class<?> cls : candidate.classes) {
+                register(plugin, cls, EXECUTOR);
+            }
+            long registered = System.nanoTime();
+
+            plugin.onEnable();
+            long enabled = System.nanoTime();
+
+            PluginTimings timings = new PluginTimings(description.name(), candidate.scanTime,
+                    start - candidate.scannedAt, constructed - start, registered - constructed, enabled - registered);
+            this.timings.put(description.name(), timings);
+            TridentLogger.success("Loaded " + description.name() + " version " + description.version() + " in " +
+                    timings.total(TimeUnit.MILLISECONDS) + "ms");
+            return plugin;
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException
+                | InstantiationException | RuntimeException | LinkageError ex) { // UNLOAD PLYGIN
+            TridentLogger.error(new PluginLoadException(ex));
+            if (plugin != null)
+                disable(plugin);
+            return null;
+        }
     }
 
     private void register(TridentPlugin plugin, Class<?> cls, TaskExecutor executor) throws InstantiationException {
@@ -214,7 +361,37 @@ public class TridentPluginHandler {
         return Collections.unmodifiableList(this.plugins);
     }
 
+    /**
+     * Obtains the time taken by each phase of loading the plugins which are loaded
+     *
+     * @return the timings of each plugin, by plugin name
+     */
+    public Map<String, PluginTimings> timings() {
+        return Collections.unmodifiableMap(this.timings);
+    }
+
     public TaskExecutor executor() {
         return EXECUTOR;
     }
+
+    @AccessNoDoc
+    private static final class Candidate {
+        private final File file;
+        private final PluginClassLoader loader;
+        private final Class<? extends TridentPlugin> pluginClass;
+        private final PluginDescription description;
+        private final List<Class<?>> classes;
+        private final long scanTime;
+        private final long scannedAt = System.nanoTime();
+
+        Candidate(File file, PluginClassLoader loader, Class<? extends TridentPlugin> pluginClass,
+                  PluginDescription description, List<Class<?>> classes, long scanTime) {
+            this.file = file;
+            this.loader = loader;
+            this.pluginClass = pluginClass;
+            this.description = description;
+            this.classes = classes;
+            this.scanTime = scanTime;
+        }
+    }
 }
\ No newline at end of file
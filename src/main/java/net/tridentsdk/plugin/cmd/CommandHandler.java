@@ -26,10 +26,12 @@ import net.tridentsdk.factory.Factories;
 import net.tridentsdk.plugin.PluginLoadException;
 import net.tridentsdk.plugin.TridentPlugin;
 import net.tridentsdk.plugin.annotation.CommandDescription;
+import net.tridentsdk.profiler.TickProfiler;
 import net.tridentsdk.util.TridentLogger;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 /**
@@ -44,7 +46,7 @@ import java.util.stream.Collectors;
  */
 public class CommandHandler {
     // TODO: Make this a dictionary tree for fast lookup
-    private static final Map<String, CommandData> COMMANDS = Factories.collect().createMap();
+    private static final ConcurrentMap<String, CommandData> COMMANDS = Factories.collect().createMap();
 
     /**
      * Do not instantiate
@@ -76,8 +78,14 @@ public class CommandHandler {
 
         if (!cmdData.isEmpty()) {
             Handler.forPlugins().executor().addTask(() -> {
+                TickProfiler profiler = Handler.forProfiling();
                 for (CommandData data : cmdData) {
-                    handleCommand(data.command(), issuer, args, contents);
+                    TickProfiler.Section section = profiler.enter(data.plugin(), data.command());
+                    try {
+                        handleCommand(data.command(), issuer, args, contents);
+                    } finally {
+                        section.close();
+                    }
                 }
             });
         } else {
@@ -133,20 +141,27 @@ public class CommandHandler {
         }
 
         String lowerCase = name.toLowerCase();
-        CommandData data = COMMANDS.get(lowerCase);
         CommandData newData = new CommandData(name, priority, aliases, permission, command, plugin);
+        CommandData[] overridden = new CommandData[1];
 
-        if (data != null) {
-            if (COMMANDS.get(lowerCase).priority() > priority) {
+        // Atomic, as plugins may register the same command at once
+        COMMANDS.compute(lowerCase, (key, data) -> {
+            if (data == null)
+                return newData;
+
+            if (data.priority() > priority) {
                 // put the new, more important cmd in place and notify the old cmd that it has been overridden
-                COMMANDS.put(lowerCase, newData).command().notifyOverriden();
-            } else {
-                // don't register this cmd and notify it has been overridden
-                command.notifyOverriden();
+                overridden[0] = data;
+                return newData;
             }
-        } else {
-            COMMANDS.put(name, newData);
-        }
+
+            // don't register this cmd and notify it has been overridden
+            overridden[0] = newData;
+            return data;
+        });
+
+        if (overridden[0] != null)
+            overridden[0].command().notifyOverriden();
 
         // TODO: return something meaningful
         return 0;
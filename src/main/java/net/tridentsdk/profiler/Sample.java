@@ -0,0 +1,83 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.profiler;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time and memory used by the code attributed to a plugin or source
+ *
+ * @author The TridentSDK Team
+ */
+@Immutable
+public final class Sample {
+    private final long calls;
+    private final long nanos;
+    private final long bytes;
+
+    Sample(long calls, long nanos, long bytes) {
+        this.calls = calls;
+        this.nanos = nanos;
+        this.bytes = bytes;
+    }
+
+    /**
+     * The amount of times that the code was run
+     *
+     * @return the amount of calls
+     */
+    public long calls() {
+        return calls;
+    }
+
+    /**
+     * The wall time spent running the code, not including time spent in other profiled code that it called
+     *
+     * @return the time, in nanoseconds
+     */
+    public long nanos() {
+        return nanos;
+    }
+
+    /**
+     * The wall time spent running the code
+     *
+     * @return the time, in milliseconds
+     */
+    public double millis() {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * The memory allocated by the thread while running the code
+     *
+     * <p>This is {@code 0} if the JVM cannot measure the memory allocated by a thread.</p>
+     *
+     * @return the allocated memory, in bytes
+     */
+    public long bytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "Sample(calls=" + calls + ", nanos=" + nanos + ", bytes=" + bytes + ")";
+    }
+}
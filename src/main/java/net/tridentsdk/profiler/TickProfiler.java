@@ -0,0 +1,601 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.profiler;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import net.tridentsdk.plugin.TridentPlugin;
+import net.tridentsdk.plugin.annotation.PluginDescription;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Finds out what each server tick spent its time and memory on
+ *
+ * <p>The server marks the start and end of each tick with {@link #beginTick()} and {@link #endTick()}, and wraps
+ * the code it runs on behalf of plugins, such as scheduled tasks, event listeners and commands, in a
+ * {@link #enter(TridentPlugin, Object) section}. The wall time and the memory allocated by the thread in each
+ * section are attributed to its plugin, and to the class of its source. Time spent in a section which is inside
+ * another section is only attributed to the inner one.</p>
+ *
+ * <p>While a tick is running, a sampler thread periodically records the stack of the ticking thread. The stacks
+ * can be written in the collapsed format read by flame graph tools with {@link #dumpCollapsed(Appendable)}, and
+ * the stacks sampled during a tick which takes longer than the {@link #slowTickMillis() slow tick threshold} are
+ * kept in its {@link TickRecord} and passed to the {@link #onSlowTick(Consumer) slow tick handler}.</p>
+ *
+ * <p>The profiler is disabled when it is created. While disabled, entering a section only reads a volatile field,
+ * and no sampler thread is running.</p>
+ *
+ * <p>Allocated memory is measured with {@code com.sun.management.ThreadMXBean}, and is {@code 0} on JVMs which do
+ * not support it.</p>
+ *
+ * <p>The server's profiler is obtained with {@link net.tridentsdk.Handler#forProfiling()}.</p>
+ *
+ * @author The TridentSDK Team
+ */
+@ThreadSafe
+public class TickProfiler {
+    /**
+     * The name that code which does not belong to a plugin is attributed to
+     */
+    public static final String SERVER = "[server]";
+
+    private static final Section NONE = new Section(null);
+    private static final int MAX_STACKS = 8192;
+    private static final boolean ALLOCATIONS;
+
+    static {
+        boolean allocations;
+        try {
+            allocations = Allocations.enable();
+        } catch (LinkageError e) {
+            // The JVM does not provide com.sun.management
+            allocations = false;
+        }
+        ALLOCATIONS = allocations;
+    }
+
+    private final ThreadLocal<Frames> frames = ThreadLocal.withInitial(Frames::new);
+    private final ConcurrentMap<String, Counter> plugins = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> sources = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> stacks = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled;
+    private volatile long slowTickNanos = TimeUnit.MILLISECONDS.toNanos(50);
+    private volatile long sampleMillis = 2;
+    private volatile Consumer<TickRecord> slowTickHandler;
+    private volatile Window window = new Window();
+
+    // Set by the ticking thread, read by the sampler
+    private volatile Thread tickThread;
+    private volatile boolean ticking;
+    // Only accessed by the ticking thread
+    private long tickStart;
+    private long tickBytes;
+
+    private final Lock lock = new ReentrantLock();
+    @GuardedBy("lock")
+    private final TickRecord[] history;
+    @GuardedBy("lock")
+    private long ticks;
+    @GuardedBy("lock")
+    private Thread sampler;
+
+    /**
+     * Creates a disabled profiler which remembers the last 100 ticks
+     */
+    public TickProfiler() {
+        this(100);
+    }
+
+    /**
+     * Creates a disabled profiler
+     *
+     * @param history the amount of ticks to remember
+     */
+    public TickProfiler(int history) {
+        Preconditions.checkArgument(history > 0, "History must be positive");
+        this.history = new TickRecord[history];
+    }
+
+    /**
+     * Checks if the allocated memory of threads can be measured by this JVM
+     *
+     * @return {@code true} if allocations are measured
+     */
+    public static boolean measuresAllocations() {
+        return ALLOCATIONS;
+    }
+
+    /**
+     * Starts profiling, and starts the sampler thread
+     */
+    public void enable() {
+        lock.lock();
+        try {
+            if (enabled)
+                return;
+            enabled = true;
+            sampler = new Thread(this::sample, "Trident - Tick Profiler");
+            sampler.setDaemon(true);
+            sampler.start();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops profiling, and stops the sampler thread
+     *
+     * <p>The recorded ticks and samples are kept until the profiler is {@link #reset()}.</p>
+     */
+    public void disable() {
+        lock.lock();
+        try {
+            if (!enabled)
+                return;
+            enabled = false;
+            ticking = false;
+            sampler.interrupt();
+            sampler = null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks if the profiler is running
+     *
+     * @return {@code true} if the profiler is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The time after which a tick is considered slow
+     *
+     * @return the threshold, in milliseconds
+     */
+    public long slowTickMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowTickNanos);
+    }
+
+    /**
+     * Sets the time after which a tick is considered slow, which is 50 milliseconds by default
+     *
+     * @param millis the threshold, in milliseconds
+     */
+    public void setSlowTickMillis(long millis) {
+        Preconditions.checkArgument(millis >= 0, "Threshold cannot be negative");
+        this.slowTickNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * The time between samples of the ticking thread's stack
+     *
+     * @return the interval, in milliseconds
+     */
+    public long sampleMillis() {
+        return sampleMillis;
+    }
+
+    /**
+     * Sets the time between samples of the ticking thread's stack, which is 2 milliseconds by default
+     *
+     * @param millis the interval, in milliseconds
+     */
+    public void setSampleMillis(long millis) {
+        Preconditions.checkArgument(millis > 0, "Interval must be positive");
+        this.sampleMillis = millis;
+    }
+
+    /**
+     * Sets the handler which is passed the record of each slow tick, such as to dump its stacks to a file
+     *
+     * <p>The handler is run by the ticking thread at the end of the slow tick.</p>
+     *
+     * @param handler the handler, or {@code null} to remove it
+     */
+    public void onSlowTick(@Nullable Consumer<TickRecord> handler) {
+        this.slowTickHandler = handler;
+    }
+
+    /**
+     * Marks the start of a tick, called by the ticking thread
+     */
+    public void beginTick() {
+        if (!enabled)
+            return;
+
+        tickThread = Thread.currentThread();
+        tickBytes = allocated();
+        tickStart = System.nanoTime();
+        ticking = true;
+    }
+
+    /**
+     * Marks the end of a tick, called by the ticking thread
+     *
+     * @return the record of the tick, or {@code null} if the profiler was not enabled for the whole tick
+     */
+    @Nullable
+    public TickRecord endTick() {
+        if (tickStart == 0)
+            return null;
+        if (!enabled) {
+            tickStart = 0;
+            return null;
+        }
+
+        long nanos = System.nanoTime() - tickStart;
+        long bytes = allocated() - tickBytes;
+        tickStart = 0;
+        ticking = false;
+
+        // Sections still running on other threads finish in the old window, and are left out of the record
+        Window done = window;
+        window = new Window();
+
+        boolean slow = nanos > slowTickNanos;
+        Map<String, Long> sampled = done.stacks();
+        for (Map.Entry<String, Long> entry : sampled.entrySet()) {
+            LongAdder count = stacks.get(entry.getKey());
+            if (count == null) {
+                if (stacks.size() >= MAX_STACKS)
+                    continue;
+                count = stacks.computeIfAbsent(entry.getKey(), k -> new LongAdder());
+            }
+            count.add(entry.getValue());
+        }
+
+        TickRecord record;
+        lock.lock();
+        try {
+            record = new TickRecord(++ticks, nanos, bytes, slow, snapshot(done.plugins), snapshot(done.sources),
+                    slow ? sampled : Collections.emptyMap());
+            history[(int) ((ticks - 1) % history.length)] = record;
+        } finally {
+            lock.unlock();
+        }
+
+        Consumer<TickRecord> handler = slowTickHandler;
+        if (slow && handler != null)
+            handler.accept(record);
+        return record;
+    }
+
+    /**
+     * Starts a section of code run on behalf of a plugin
+     *
+     * <p>The section must be closed by the same thread, and sections must be closed in the reverse order that they
+     * were entered:
+     * <pre><code>
+     *     TickProfiler.Section section = profiler.enter(plugin, listener);
+     *     try {
+     *         // Run the listener
+     *     } finally {
+     *         section.close();
+     *     }
+     * </code></pre></p>
+     *
+     * @param plugin the plugin which the code belongs to, or {@code null} if it belongs to the server
+     * @param source the task, listener, or other object which is being run
+     * @return the section to close once the code has run
+     */
+    public Section enter(@Nullable TridentPlugin plugin, Object source) {
+        if (!enabled)
+            return NONE;
+
+        Section section = frames.get().push();
+        section.plugin = nameOf(plugin);
+        section.source = source.getClass().getName();
+        section.window = window;
+        section.childNanos = 0;
+        section.childBytes = 0;
+        section.startBytes = allocated();
+        section.start = System.nanoTime();
+        return section;
+    }
+
+    /**
+     * The total time and memory used by each plugin since the profiler was last reset, by plugin name
+     *
+     * @return the samples of each plugin
+     */
+    public Map<String, Sample> plugins() {
+        return snapshot(plugins);
+    }
+
+    /**
+     * The total time and memory used by each task, listener and command since the profiler was last reset, by
+     * class name
+     *
+     * @return the samples of each source
+     */
+    public Map<String, Sample> sources() {
+        return snapshot(sources);
+    }
+
+    /**
+     * The records of the most recent ticks, from the oldest to the newest
+     *
+     * @return the recorded ticks
+     */
+    public List<TickRecord> history() {
+        lock.lock();
+        try {
+            int size = (int) Math.min(ticks, history.length);
+            List<TickRecord> records = Lists.newArrayListWithCapacity(size);
+            for (long tick = ticks - size; tick < ticks; tick++) {
+                records.add(history[(int) (tick % history.length)]);
+            }
+            return records;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The record of the most recent tick
+     *
+     * @return the last recorded tick, or {@code null} if no tick has been recorded
+     */
+    @Nullable
+    public TickRecord lastTick() {
+        lock.lock();
+        try {
+            return ticks == 0 ? null : history[(int) ((ticks - 1) % history.length)];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the stacks sampled since the profiler was last reset in the collapsed format read by flame graph
+     * tools
+     *
+     * @param out the output to write to
+     * @throws IOException if the output could not be written to
+     */
+    public void dumpCollapsed(Appendable out) throws IOException {
+        Map<String, Long> counts = Maps.newTreeMap();
+        for (Map.Entry<String, LongAdder> entry : stacks.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().sum());
+        }
+        writeCollapsed(counts, out);
+    }
+
+    /**
+     * Discards the recorded ticks, samples and stacks
+     */
+    public void reset() {
+        plugins.clear();
+        sources.clear();
+        stacks.clear();
+        lock.lock();
+        try {
+            ticks = 0;
+            for (int i = 0; i < history.length; i++) {
+                history[i] = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    static void writeCollapsed(Map<String, Long> stacks, Appendable out) throws IOException {
+        for (Map.Entry<String, Long> entry : stacks.entrySet()) {
+            out.append(entry.getKey()).append(' ').append(String.valueOf(entry.getValue())).append('\n');
+        }
+    }
+
+    private static String nameOf(@Nullable TridentPlugin plugin) {
+        if (plugin == null)
+            return SERVER;
+        PluginDescription description = plugin.description();
+        return description == null ? plugin.getClass().getName() : description.name();
+    }
+
+    private static long allocated() {
+        return ALLOCATIONS ? Allocations.current() : 0;
+    }
+
+    private static Map<String, Sample> snapshot(Map<String, Counter> counters) {
+        ImmutableMap.Builder<String, Sample> builder = ImmutableMap.builder();
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            builder.put(entry.getKey(), entry.getValue().sample());
+        }
+        return builder.build();
+    }
+
+    private void record(Section section, long nanos, long bytes) {
+        plugins.computeIfAbsent(section.plugin, k -> new Counter()).add(nanos, bytes);
+        sources.computeIfAbsent(section.source, k -> new Counter()).add(nanos, bytes);
+        section.window.plugins.computeIfAbsent(section.plugin, k -> new Counter()).add(nanos, bytes);
+        section.window.sources.computeIfAbsent(section.source, k -> new Counter()).add(nanos, bytes);
+    }
+
+    private void sample() {
+        StringBuilder builder = new StringBuilder(1024);
+        while (enabled) {
+            try {
+                Thread.sleep(sampleMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            Thread thread = tickThread;
+            Window current = window;
+            if (!ticking || thread == null)
+                continue;
+
+            StackTraceElement[] trace = thread.getStackTrace();
+            if (trace.length == 0 || !ticking)
+                continue;
+
+            builder.setLength(0);
+            for (int i = trace.length - 1; i >= 0; i--) {
+                builder.append(trace[i].getClassName()).append('.').append(trace[i].getMethodName());
+                if (i > 0)
+                    builder.append(';');
+            }
+            current.sample(builder.toString());
+        }
+    }
+
+    /**
+     * A section of code being profiled, which is reused by its thread once it is closed
+     *
+     * @author The TridentSDK Team
+     */
+    @NotThreadSafe
+    public static final class Section implements AutoCloseable {
+        private final Frames frames;
+        private TickProfiler profiler;
+        private Window window;
+        private String plugin;
+        private String source;
+        private long start;
+        private long startBytes;
+        private long childNanos;
+        private long childBytes;
+
+        private Section(Frames frames) {
+            this.frames = frames;
+        }
+
+        /**
+         * Ends the section, attributing the time and memory used since it was entered
+         */
+        @Override
+        public void close() {
+            if (frames == null || frames.depth == 0 || frames.stack[frames.depth - 1] != this)
+                return;
+
+            long nanos = System.nanoTime() - start;
+            long bytes = allocated() - startBytes;
+            if (--frames.depth > 0) {
+                Section parent = frames.stack[frames.depth - 1];
+                parent.childNanos += nanos;
+                parent.childBytes += bytes;
+            }
+
+            profiler.record(this, nanos - childNanos, bytes - childBytes);
+            window = null;
+        }
+    }
+
+    // The sections entered by a thread, innermost last
+    private final class Frames {
+        private Section[] stack = new Section[8];
+        private int depth;
+
+        Section push() {
+            if (depth == stack.length)
+                stack = Arrays.copyOf(stack, depth << 1);
+            Section section = stack[depth];
+            if (section == null) {
+                section = new Section(this);
+                section.profiler = TickProfiler.this;
+                stack[depth] = section;
+            }
+            depth++;
+            return section;
+        }
+    }
+
+    // The samples and stacks recorded during a single tick
+    private static final class Window {
+        private final ConcurrentMap<String, Counter> plugins = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Counter> sources = new ConcurrentHashMap<>();
+        // Only written by the sampler thread
+        private final ConcurrentMap<String, Long> stacks = new ConcurrentHashMap<>();
+
+        void sample(String stack) {
+            stacks.merge(stack, 1L, Long::sum);
+        }
+
+        Map<String, Long> stacks() {
+            return ImmutableMap.copyOf(stacks);
+        }
+    }
+
+    private static final class Counter {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        void add(long nanos, long bytes) {
+            this.calls.increment();
+            this.nanos.add(nanos);
+            this.bytes.add(bytes);
+        }
+
+        Sample sample() {
+            return new Sample(calls.sum(), nanos.sum(), bytes.sum());
+        }
+    }
+
+    // Kept apart so that the profiler loads on JVMs without com.sun.management
+    private static final class Allocations {
+        private static com.sun.management.ThreadMXBean threads;
+
+        static boolean enable() {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (!(bean instanceof com.sun.management.ThreadMXBean))
+                return false;
+
+            com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) bean;
+            try {
+                if (!sun.isThreadAllocatedMemorySupported())
+                    return false;
+                sun.setThreadAllocatedMemoryEnabled(true);
+            } catch (UnsupportedOperationException e) {
+                return false;
+            }
+
+            threads = sun;
+            return true;
+        }
+
+        static long current() {
+            // Negative for threads which cannot be measured, such as virtual threads
+            return Math.max(0, threads.getThreadAllocatedBytes(Thread.currentThread().getId()));
+        }
+    }
+}
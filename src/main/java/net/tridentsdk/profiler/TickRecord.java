@@ -0,0 +1,142 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.profiler;
+
+import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a single server tick spent its time and memory on, as recorded by the {@link TickProfiler}
+ *
+ * @author The TridentSDK Team
+ */
+@Immutable
+public final class TickRecord {
+    private final long tick;
+    private final long nanos;
+    private final long bytes;
+    private final boolean slow;
+    private final Map<String, Sample> plugins;
+    private final Map<String, Sample> sources;
+    private final Map<String, Long> stacks;
+
+    TickRecord(long tick, long nanos, long bytes, boolean slow, Map<String, Sample> plugins,
+            Map<String, Sample> sources, Map<String, Long> stacks) {
+        this.tick = tick;
+        this.nanos = nanos;
+        this.bytes = bytes;
+        this.slow = slow;
+        this.plugins = plugins;
+        this.sources = sources;
+        this.stacks = stacks;
+    }
+
+    /**
+     * The number of the tick, counted from when the profiler was enabled
+     *
+     * @return the tick number
+     */
+    public long tick() {
+        return tick;
+    }
+
+    /**
+     * The wall time that the tick took
+     *
+     * @return the time, in nanoseconds
+     */
+    public long nanos() {
+        return nanos;
+    }
+
+    /**
+     * The wall time that the tick took
+     *
+     * @return the time, in milliseconds
+     */
+    public double millis() {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * The memory allocated by the ticking thread during the tick
+     *
+     * @return the allocated memory, in bytes, or {@code 0} if it cannot be measured
+     */
+    public long bytes() {
+        return bytes;
+    }
+
+    /**
+     * Checks if the tick took longer than the {@link TickProfiler#slowTickMillis() slow tick threshold}
+     *
+     * @return {@code true} if the tick was slow
+     */
+    public boolean isSlow() {
+        return slow;
+    }
+
+    /**
+     * The time and memory used during the tick by each plugin, by plugin name
+     *
+     * <p>Code run by the server itself is attributed to {@link TickProfiler#SERVER}.</p>
+     *
+     * @return the samples of each plugin
+     */
+    public Map<String, Sample> plugins() {
+        return plugins;
+    }
+
+    /**
+     * The time and memory used during the tick by each task, listener and command, by class name
+     *
+     * @return the samples of each source
+     */
+    public Map<String, Sample> sources() {
+        return sources;
+    }
+
+    /**
+     * The stacks of the ticking thread sampled during the tick, with the amount of times each was seen
+     *
+     * <p>Stacks are only kept for slow ticks, so this is empty if the tick was not slow.</p>
+     *
+     * @return the collapsed stacks, from the outermost frame to the innermost, separated by {@code ;}
+     */
+    public Map<String, Long> stacks() {
+        return stacks;
+    }
+
+    /**
+     * Writes the stacks sampled during the tick in the collapsed format read by flame graph tools
+     *
+     * @param out the output to write to
+     * @throws IOException if the output could not be written to
+     */
+    public void dumpCollapsed(Appendable out) throws IOException {
+        TickProfiler.writeCollapsed(stacks, out);
+    }
+
+    @Override
+    public String toString() {
+        return "TickRecord(tick=" + tick + ", nanos=" + nanos + ", bytes=" + bytes + ", slow=" + slow + ")";
+    }
+}
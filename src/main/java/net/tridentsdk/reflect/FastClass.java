@@ -20,40 +20,86 @@ package net.tridentsdk.reflect;
 import com.esotericsoftware.reflectasm.ConstructorAccess;
 import com.esotericsoftware.reflectasm.FieldAccess;
 import com.esotericsoftware.reflectasm.MethodAccess;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Accessors to the members of a class, does not actually have a ReflectASM equivalent
  *
+ * <p>There is a single FastClass for each class and {@link ReflectBackend backend}, which is kept for as long as
+ * the class is loaded. The accessors are only created when they are first used, and the tables of fields and
+ * methods are only built once, so obtaining a FastClass and its members is cheap after the first time.</p>
+ *
  * @author The TridentSDK Team
  */
+@ThreadSafe
 public class FastClass {
+    // Values are held by the class they were computed for, so unloading a plugin also frees its FastClasses
+    private static final ClassValue<FastClass> ASM_CLASSES = new ClassValue<FastClass>() {
+        @Override
+        protected FastClass computeValue(Class<?> type) {
+            return new FastClass(type, ReflectBackend.ASM);
+        }
+    };
+    private static final ClassValue<FastClass> HANDLE_CLASSES = new ClassValue<FastClass>() {
+        @Override
+        protected FastClass computeValue(Class<?> type) {
+            return new FastClass(type, ReflectBackend.METHOD_HANDLES);
+        }
+    };
+
     private final Class<?> cls;
+    private final ReflectBackend backend;
 
-    private final FieldAccess fieldAccess;
-    private final MethodAccess methodAccess;
-    private final ConstructorAccess constructorAccess;
+    // Generating an accessor twice in a race is harmless, ReflectASM returns the class it already defined
+    private volatile FieldAccess fieldAccess;
+    private volatile MethodAccess methodAccess;
+    private volatile FastConstructor constructor;
 
-    private FastClass(Class<?> cls) {
+    private volatile FastField[] fields;
+    private volatile Map<String, FastField> fieldsByName;
+    private volatile Map<String, int[]> methodsByName;
+    private final ConcurrentMap<String, MethodHandle[]> handlesByName = new ConcurrentHashMap<>();
+
+    private FastClass(Class<?> cls, ReflectBackend backend) {
         this.cls = cls;
-        this.fieldAccess = FieldAccess.get(cls);
-        this.methodAccess = MethodAccess.get(cls);
-        this.constructorAccess = ConstructorAccess.get(cls);
+        this.backend = backend;
     }
 
     /**
-     * Creates a new FastClass from a Java class
+     * Obtains the FastClass of a Java class
      *
      * @param cls the class to use
      * @return the member accessors for the class
      */
     public static FastClass get(Class<?> cls) {
-        return new FastClass(cls);
+        return get(cls, ReflectBackend.current());
     }
 
     /**
-     * Creates a new FastClass from the class object of the object
+     * Obtains the FastClass of a Java class which uses the given backend
+     *
+     * @param cls     the class to use
+     * @param backend the way that the members of the class are accessed
+     * @return the member accessors for the class
+     */
+    public static FastClass get(Class<?> cls, ReflectBackend backend) {
+        return (backend == ReflectBackend.ASM ? ASM_CLASSES : HANDLE_CLASSES).get(cls);
+    }
+
+    /**
+     * Obtains the FastClass of the class of the object
      *
      * @param obj the object's class to use
      * @return the member accessors for the class
@@ -69,17 +115,24 @@ public class FastClass {
      * @return FastField instance
      */
     public FastField fieldBy(String name) {
-        return new FastField(this, this.fieldAccess, name);
+        FastField field = fieldTable().get(name);
+        if (field != null)
+            return field;
+        return backend == ReflectBackend.ASM ? new FastField(this, fieldAccess(), name) :
+                new FastField(this, name, inheritedField(name));
     }
 
     /**
      * Get a method from the class
      *
-     * @param name Name of the method
+     * @param object the instance which the method is invoked on, or {@code null} for {@code static} methods
+     * @param name   Name of the method
      * @return FastMethod instance
      */
     public FastMethod methodBy(Object object, String name) {
-        return new FastMethod(object, this.methodAccess, name);
+        if (backend == ReflectBackend.ASM)
+            return new FastMethod(object, methodAccess(), name, methodTable().get(name));
+        return new FastMethod(object, name, handlesOf(name));
     }
 
     /**
@@ -88,14 +141,19 @@ public class FastClass {
      * @return the fast field representation of field members from the class
      */
     public FastField[] fields() {
-        Field[] fields = this.cls.getDeclaredFields();
-        FastField[] fastFields = new FastField[fields.length];
+        FastField[] fields = this.fields;
+        if (fields == null) {
+            Field[] declared = this.cls.getDeclaredFields();
+            fields = new FastField[declared.length];
+            for (int i = 0; i < declared.length; i += 1) {
+                fields[i] = backend == ReflectBackend.ASM ? new FastField(this, fieldAccess(), declared[i]) :
+                        new FastField(this, declared[i].getName(), declared[i]);
+            }
 
-        for (int i = 0; i < fields.length; i += 1) {
-            fastFields[i] = new FastField(this, this.fieldAccess, fields[i].getName());
+            this.fields = fields;
         }
 
-        return fastFields;
+        return fields.clone();
     }
 
     /**
@@ -104,7 +162,36 @@ public class FastClass {
      * @return the default FastConstructor
      */
     public FastConstructor constructor() {
-        return new FastConstructor(this.constructorAccess);
+        FastConstructor constructor = this.constructor;
+        if (constructor == null) {
+            if (backend == ReflectBackend.ASM) {
+                constructor = new FastConstructor(ConstructorAccess.get(this.cls));
+            } else {
+                MethodHandle handle = null;
+                try {
+                    handle = Handles.constructor(this.cls.getDeclaredConstructor());
+                } catch (NoSuchMethodException ignored) {
+                }
+
+                if (handle == null || Modifier.isAbstract(this.cls.getModifiers()))
+                    throw new IllegalArgumentException(
+                            "Class cannot be created (missing no-arg constructor): " + this.cls.getName());
+                constructor = new FastConstructor(handle);
+            }
+
+            this.constructor = constructor;
+        }
+
+        return constructor;
+    }
+
+    /**
+     * The way that the members of the class are accessed
+     *
+     * @return the backend of this class
+     */
+    public ReflectBackend backend() {
+        return this.backend;
     }
 
     /**
@@ -115,4 +202,105 @@ public class FastClass {
     public Class<?> asClass() {
         return this.cls;
     }
+
+    FieldAccess fieldAccess() {
+        FieldAccess access = this.fieldAccess;
+        if (access == null)
+            this.fieldAccess = access = FieldAccess.get(this.cls);
+        return access;
+    }
+
+    MethodAccess methodAccess() {
+        MethodAccess access = this.methodAccess;
+        if (access == null)
+            this.methodAccess = access = MethodAccess.get(this.cls);
+        return access;
+    }
+
+    private Map<String, FastField> fieldTable() {
+        Map<String, FastField> table = this.fieldsByName;
+        if (table == null) {
+            Map<String, FastField> byName = Maps.newHashMap();
+            for (FastField field : fields()) {
+                byName.put(field.name(), field);
+            }
+
+            this.fieldsByName = table = ImmutableMap.copyOf(byName);
+        }
+
+        return table;
+    }
+
+    @Nullable
+    private Field inheritedField(String name) {
+        for (Class<?> c = this.cls; c != null; c = c.getSuperclass()) {
+            try {
+                return c.getDeclaredField(name);
+            } catch (NoSuchFieldException ignored) {
+            }
+        }
+
+        return null;
+    }
+
+    // The handles of the methods with the name by parameter count, bound when the name is first looked up. Methods
+    // of subclasses hide those of superclasses
+    @Nullable
+    private MethodHandle[] handlesOf(String name) {
+        MethodHandle[] handles = this.handlesByName.get(name);
+        if (handles != null)
+            return handles;
+
+        Map<String, MethodHandle[]> byName = Maps.newHashMap();
+        for (Class<?> c = this.cls; c != null; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                if (method.getName().equals(name))
+                    addHandle(byName, method);
+            }
+        }
+
+        // Default methods of interfaces
+        for (Method method : this.cls.getMethods()) {
+            if (method.getName().equals(name))
+                addHandle(byName, method);
+        }
+
+        handles = byName.get(name);
+        if (handles == null)
+            return null;
+
+        MethodHandle[] raced = this.handlesByName.putIfAbsent(name, handles);
+        return raced == null ? handles : raced;
+    }
+
+    private static void addHandle(Map<String, MethodHandle[]> byName, Method method) {
+        if (method.isBridge() || method.isSynthetic())
+            return;
+
+        int count = method.getParameterCount();
+        MethodHandle[] handles = byName.get(method.getName());
+        if (handles == null || handles.length <= count) {
+            handles = handles == null ? new MethodHandle[count + 1] : Arrays.copyOf(handles, count + 1);
+            byName.put(method.getName(), handles);
+        }
+
+        if (handles[count] == null)
+            handles[count] = Handles.invoker(method);
+    }
+
+    private Map<String, int[]> methodTable() {
+        Map<String, int[]> table = this.methodsByName;
+        if (table == null) {
+            MethodAccess access = methodAccess();
+            Map<String, int[]> byName = Maps.newHashMap();
+            for (String name : access.getMethodNames()) {
+                if (!byName.containsKey(name))
+                    byName.put(name, FastMethod.indexesOf(access, name));
+            }
+
+            this.methodsByName = table = ImmutableMap.copyOf(byName);
+        }
+
+        return table;
+    }
 }
@@ -19,13 +19,16 @@ package net.tridentsdk.reflect;
 
 import com.esotericsoftware.reflectasm.ConstructorAccess;
 
+import java.lang.invoke.MethodHandle;
+
 /**
- * Instance creator using ASM
+ * Instance creator using ASM, or a method handle to the constructor
  *
  * @author The TridentSDK Team
  */
 public class FastConstructor {
     private final ConstructorAccess access;
+    private final MethodHandle handle;
 
     /**
      * Creates a new instance accessor to assemble bytecode for fast class creation
@@ -34,6 +37,13 @@ public class FastConstructor {
      */
     public FastConstructor(ConstructorAccess access) {
         this.access = access;
+        this.handle = null;
+    }
+
+    // The handle is adapted to ()Object
+    FastConstructor(MethodHandle handle) {
+        this.access = null;
+        this.handle = handle;
     }
 
     /**
@@ -43,6 +53,13 @@ public class FastConstructor {
      * @return the instance of T
      */
     public <T> T newInstance() {
-        return (T) this.access.newInstance();
+        if (handle == null)
+            return (T) this.access.newInstance();
+
+        try {
+            return (T) (Object) handle.invokeExact();
+        } catch (Throwable throwable) {
+            throw Handles.rethrow(throwable);
+        }
     }
 }
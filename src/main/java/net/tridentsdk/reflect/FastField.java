@@ -19,37 +19,110 @@ package net.tridentsdk.reflect;
 
 import com.esotericsoftware.reflectasm.FieldAccess;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Field;
 
 /*
  * @NotJavaDoc
- * NOTE: This class only applies to any field which is not private
+ * NOTE: With the ASM backend, this class only applies to any field which is not private
  */
 public class FastField {
     private final FieldAccess access;
     private final String field;
     private final FastClass owner;
+    // -1 if the field cannot be accessed, such as private fields
+    private final int index;
+    private volatile Field reflected;
+
+    // Only used by the method handle backend, null if the field cannot be read or written
+    private final boolean handles;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
 
     public FastField(FastClass owner, FieldAccess access, String field) {
         this.access = access;
         this.field = field;
         this.owner = owner;
+        this.index = indexOf(access, field);
+        this.handles = false;
+        this.getter = null;
+        this.setter = null;
+    }
+
+    FastField(FastClass owner, FieldAccess access, Field field) {
+        this(owner, access, field.getName());
+        this.reflected = field;
+    }
+
+    FastField(FastClass owner, String name, Field field) {
+        this.access = null;
+        this.field = name;
+        this.owner = owner;
+        this.index = -1;
+        this.reflected = field;
+        this.handles = true;
+        this.getter = field == null ? null : Handles.getter(field);
+        this.setter = field == null ? null : Handles.setter(field);
+    }
+
+    private static int indexOf(FieldAccess access, String field) {
+        String[] names = access.getFieldNames();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(field))
+                return i;
+        }
+
+        return -1;
     }
 
     public void set(Object instance, Object value) {
-        this.access.set(instance, this.field, value);
+        if (!handles) {
+            this.access.set(instance, index(), value);
+            return;
+        }
+
+        if (setter == null)
+            throw new IllegalArgumentException("Unable to set field: " + this.field);
+        try {
+            setter.invokeExact(instance, value);
+        } catch (Throwable throwable) {
+            throw Handles.rethrow(throwable);
+        }
     }
 
     public <T> T get(Object instance) {
-        return (T) this.access.get(instance, this.field);
+        if (!handles)
+            return (T) this.access.get(instance, index());
+
+        if (getter == null)
+            throw new IllegalArgumentException("Unable to get field: " + this.field);
+        try {
+            return (T) (Object) getter.invokeExact(instance);
+        } catch (Throwable throwable) {
+            throw Handles.rethrow(throwable);
+        }
+    }
+
+    public String name() {
+        return this.field;
     }
 
     public Field toField() {
+        Field reflected = this.reflected;
+        if (reflected != null)
+            return reflected;
+
         try {
-            return owner.asClass().getDeclaredField(this.field);
+            return this.reflected = owner.asClass().getDeclaredField(this.field);
         } catch (NoSuchFieldException ignored) {
         }
 
         return null;
     }
+
+    private int index() {
+        if (index == -1)
+            throw new IllegalArgumentException("Unable to find non-private field: " + this.field);
+        return index;
+    }
 }
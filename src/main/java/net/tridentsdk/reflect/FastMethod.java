@@ -20,21 +20,73 @@ package net.tridentsdk.reflect;
 import com.esotericsoftware.reflectasm.MethodAccess;
 import net.tridentsdk.docs.InternalUseOnly;
 
+import java.lang.invoke.MethodHandle;
+import java.util.Arrays;
+
 /**
  * Wrapper for the provided ReflectASM method library
  *
+ * <p>The method is found when the wrapper is created, so invoking it does not look up the method by name. If
+ * several methods have the name, the one invoked is chosen by the amount of arguments passed.</p>
+ *
+ * <p>With the {@link ReflectBackend#METHOD_HANDLES method handle backend}, {@code static} and private methods can
+ * also be invoked.</p>
+ *
  * @author The TridentSDK Team
  */
 public class FastMethod {
+    private static final int[] NONE = new int[0];
+    private static final Object[] EMPTY = new Object[0];
+
     private final MethodAccess access;
     private final String name;
     private final Object instance;
+    // The method index by parameter count
+    private final int[] indexes;
+    // Only used by the method handle backend, the handle by parameter count
+    private final MethodHandle[] handles;
 
     @InternalUseOnly
     public FastMethod(Object instance, MethodAccess access, String name) {
+        this(instance, access, name, indexesOf(access, name));
+    }
+
+    FastMethod(Object instance, MethodAccess access, String name, int[] indexes) {
         this.access = access;
         this.name = name;
         this.instance = instance;
+        this.indexes = indexes == null ? NONE : indexes;
+        this.handles = null;
+    }
+
+    FastMethod(Object instance, String name, MethodHandle[] handles) {
+        this.access = null;
+        this.name = name;
+        this.instance = instance;
+        this.indexes = NONE;
+        this.handles = handles == null ? new MethodHandle[0] : handles;
+    }
+
+    // The index of each method with the name by parameter count, or -1 where there is no such method
+    static int[] indexesOf(MethodAccess access, String name) {
+        String[] names = access.getMethodNames();
+        Class[][] parameters = access.getParameterTypes();
+        int[] indexes = NONE;
+        for (int i = names.length - 1; i >= 0; i--) {
+            if (!names[i].equals(name))
+                continue;
+
+            int count = parameters[i].length;
+            if (indexes.length <= count) {
+                int length = indexes.length;
+                indexes = Arrays.copyOf(indexes, count + 1);
+                Arrays.fill(indexes, length, count + 1, -1);
+            }
+            // Iterating backwards leaves the first matching method, as in MethodAccess.getIndex
+            indexes[count] = i;
+        }
+
+        return indexes;
     }
 
     /**
@@ -45,7 +97,11 @@ public class FastMethod {
      * @return the return type of the method, or {@code null} for {@code void} methods
      */
     public Object invoke(Object instance, Object... args) {
-        return this.access.invoke(instance, this.name, args);
+        if (args == null)
+            args = EMPTY;
+        if (handles != null)
+            return invokeHandle(instance, args);
+        return this.access.invoke(instance, index(args.length), args);
     }
 
     /**
@@ -55,7 +111,9 @@ public class FastMethod {
      * @return the return type of the method, or {@code null} for {@code void} methods
      */
     public Object invoke(Object instance) {
-        return this.access.invoke(instance, this.name);
+        if (handles != null)
+            return invokeHandle(instance, EMPTY);
+        return this.access.invoke(instance, index(0));
     }
 
     /**
@@ -66,4 +124,23 @@ public class FastMethod {
     public Object instance() {
         return instance;
     }
+
+    private Object invokeHandle(Object instance, Object[] args) {
+        if (args.length >= handles.length || handles[args.length] == null)
+            throw new IllegalArgumentException(
+                    "Unable to find method: " + name + " with " + args.length + " params.");
+
+        try {
+            return handles[args.length].invokeExact(instance, args);
+        } catch (Throwable throwable) {
+            throw Handles.rethrow(throwable);
+        }
+    }
+
+    private int index(int parameters) {
+        if (parameters >= indexes.length || indexes[parameters] == -1)
+            throw new IllegalArgumentException(
+                    "Unable to find non-private method: " + name + " with " + parameters + " params.");
+        return indexes[parameters];
+    }
 }
@@ -0,0 +1,144 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.reflect;
+
+import net.tridentsdk.docs.AccessNoDoc;
+
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/*
+ * Binds method handles to class members for the METHOD_HANDLES backend
+ *
+ * Every handle is adapted to a generic type, so it can be called with invokeExact without knowing the member:
+ * getters are (Object)Object, setters are (Object, Object)void, methods are (Object, Object[])Object, returning
+ * null if they are void, and constructors are ()Object,
+ * or (Object[])Object when they take parameters. The instance argument is ignored for static members.
+ */
+@AccessNoDoc
+final class Handles {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType INVOKER = MethodType.methodType(Object.class, Object.class, Object[].class);
+    private static final MethodType CONSTRUCTOR = MethodType.methodType(Object.class);
+    private static final MethodType SPREAD_CONSTRUCTOR = MethodType.methodType(Object.class, Object[].class);
+
+    private Handles() {
+    }
+
+    @Nullable
+    static MethodHandle getter(Field field) {
+        if (!accessible(field))
+            return null;
+
+        try {
+            MethodHandle handle = LOOKUP.unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers()))
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            return handle.asType(GETTER);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    static MethodHandle setter(Field field) {
+        if (!accessible(field))
+            return null;
+
+        try {
+            MethodHandle handle = LOOKUP.unreflectSetter(field);
+            if (Modifier.isStatic(field.getModifiers()))
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            return handle.asType(SETTER);
+        } catch (IllegalAccessException e) {
+            // Static final fields, and final fields on some Java versions
+            return null;
+        }
+    }
+
+    @Nullable
+    static MethodHandle invoker(Method method) {
+        if (!accessible(method))
+            return null;
+
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method);
+            if (Modifier.isStatic(method.getModifiers()))
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            return handle.asSpreader(Object[].class, method.getParameterCount()).asType(INVOKER);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    static MethodHandle constructor(Constructor<?> constructor) {
+        if (!accessible(constructor))
+            return null;
+
+        try {
+            return LOOKUP.unreflectConstructor(constructor).asType(CONSTRUCTOR);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    static MethodHandle spreadConstructor(Constructor<?> constructor) {
+        if (!accessible(constructor))
+            return null;
+
+        try {
+            return LOOKUP.unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, constructor.getParameterCount())
+                    .asType(SPREAD_CONSTRUCTOR);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    // Throws the checked exceptions of the member without wrapping them, as the ReflectASM accessors do
+    static RuntimeException rethrow(Throwable throwable) {
+        Handles.<RuntimeException>sneakyThrow(throwable);
+        return null;
+    }
+
+    private static <T extends Throwable> void sneakyThrow(Throwable throwable) throws T {
+        throw (T) throwable;
+    }
+
+    private static boolean accessible(AccessibleObject member) {
+        try {
+            member.setAccessible(true);
+            return true;
+        } catch (RuntimeException e) {
+            // Members of modules which are not open to the SDK
+            return false;
+        }
+    }
+}
@@ -16,29 +16,37 @@
  */
 package net.tridentsdk.reflect;
 
-import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.PeekingIterator;
 import net.tridentsdk.util.TridentLogger;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Injects the target class, or creates a new instance of an injected class
  *
+ * <p>The injectable constructors and fields of a class are found once, when the class is first injected, and
+ * accessed with method handles after that, so creating many objects of the same class is cheap. The producers are
+ * still looked up each time, so binding a producer takes effect immediately.</p>
+ *
  * @author The TridentSDK Team
  * @param <T> the type to inject for
  */
 public final class Injector<T> {
     private static final Map<Class<?>, Producer<?>> injectors = Maps.newConcurrentMap();
+    // Values are held by the class they were computed for, so unloading a plugin also frees its plans
+    private static final ClassValue<Plan> PLANS = new ClassValue<Plan>() {
+        @Override
+        protected Plan computeValue(Class<?> type) {
+            return new Plan(type);
+        }
+    };
 
     private final Class<T> clazz;
 
@@ -99,9 +107,9 @@ public final class Injector<T> {
      * @param clazz the class with static fields to inject
      */
     public static void staticInject(Class<?> clazz) {
-        for (Field field : findFields(clazz)) {
-            if (!Modifier.isStatic(field.getModifiers())) continue;
-            setField(null, field);
+        for (FieldSlot field : PLANS.get(clazz).fields) {
+            if (field.isStatic)
+                field.inject(null);
         }
     }
 
@@ -114,73 +122,30 @@ public final class Injector<T> {
      * @return the new object
      */
     public static <T> T newObject(Class<T> clazz, Object... args) {
-        for (Map.Entry<Constructor, Class<?>[]> entry : findConstructors(clazz).entrySet()) {
-            List<Object> arguments = Lists.newArrayList();
-            Constructor constructor = entry.getKey();
-            Class<?>[] constructorParameters = entry.getValue();
-            PeekingIterator<Object> iterator = Iterators.peekingIterator(Iterators.forArray(args));
-
-            if (!checkArray(args, constructorParameters))
+        Plan plan = PLANS.get(clazz);
+        for (ConstructorSlot constructor : plan.constructors) {
+            if (!checkArray(args, constructor.parameters))
                 continue;
 
-            for (Class<?> c : constructorParameters) {
-                Producer<?> producer = injectors.get(c);
-                Inject inject = (Inject) constructor.getAnnotation(Inject.class);
-
-                if (iterator.hasNext()) {
-                    if (iterator.peek().getClass() == c) {
-                        arguments.add(iterator.next());
-                        continue;
-                    }
-                }
-
-                if (producer == null) {
-                    if (iterator.hasNext()) {
-                        if (iterator.peek().getClass() == c) {
-                            arguments.add(iterator.next());
-                            continue;
-                        }
-                    }
-
-                    TridentLogger.error(new IllegalArgumentException(
-                            "Constructor " + clazz.getName() + "(" +
-                                    Arrays.toString(constructorParameters)
-                                            .replaceAll("class ", "")
-                                            .replaceAll("\\[", "")
-                                            .replaceAll("\\]", "") + ") " +
-                                    "does not provide or registered parameter " + c.getName()));
-                    return null;
-                } else {
-                    if (inject.meta() == Class.class) {
-                        arguments.add(producer.produce());
-                    } else {
-                        arguments.add(producer.produce(inject.meta()));
-                    }
-                }
-            }
-
-            try {
-                T t = (T) constructor.newInstance(arguments.toArray());
-                for (Field field : findFields(clazz)) {
-                    setField(t, field);
-                }
-                return t;
-            } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-                TridentLogger.error(e);
+            Object[] arguments = constructor.arguments(args);
+            if (arguments == null)
                 return null;
-            }
-        }
 
-        try {
-            T t = clazz.newInstance();
-            for (Field field : findFields(clazz)) {
-                setField(t, field);
-            }
+            T t = (T) construct(constructor.handle, constructor.toString(), arguments);
+            if (t != null)
+                plan.injectFields(t);
             return t;
-        } catch (InstantiationException | IllegalAccessException e) {
-            TridentLogger.error(e);
+        }
+
+        if (plan.constructor == null) {
+            TridentLogger.error(new InstantiationException(clazz.getName() + " does not have a no-arg constructor"));
             return null;
         }
+
+        T t = (T) construct(plan.constructor, clazz.getName() + "()", null);
+        if (t != null)
+            plan.injectFields(t);
+        return t;
     }
 
     /**
@@ -189,66 +154,155 @@ public final class Injector<T> {
      * @param instance the instance of the object to inject
      */
     public static void injectAll(Object instance) {
-        for (Field field : findFields(instance.getClass())) {
-            setField(instance, field);
-        }
+        PLANS.get(instance.getClass()).injectFields(instance);
     }
 
-    private static void setField(Object instance, Field field) {
-        field.setAccessible(true);
-
-        Class<?> type = field.getType();
-        Producer<?> producer = injectors.get(type);
-        if (producer == null) {
-            TridentLogger.error(new IllegalArgumentException("Class " +
-                    instance.getClass().getName() + " does not have bound injector for type " + type.getName()));
-            return;
+    private static Object construct(MethodHandle handle, String name, Object[] arguments) {
+        if (handle == null) {
+            TridentLogger.error(new IllegalAccessException("Cannot access constructor " + name));
+            return null;
         }
 
-        Inject inject = field.getAnnotation(Inject.class);
         try {
-            if (inject.meta() == Class.class) {
-                field.set(instance, producer.produce());
-            } else {
-                field.set(instance, producer.produce(inject.meta()));
-            }
-        } catch (IllegalAccessException e) {
-            TridentLogger.error(e);
+            return arguments == null ? handle.invokeExact() : handle.invokeExact(arguments);
+        } catch (Throwable throwable) {
+            TridentLogger.error(throwable);
+            return null;
         }
     }
 
-    private static List<Field> findFields(Class<?> c) {
-        List<Field> fields = Lists.newArrayList();
-        for (Field field : c.getDeclaredFields()) {
-            if (field.getAnnotation(Inject.class) != null)
-                fields.add(field);
+    // The arguments must appear in the parameters in the same order, skipping the parameters which are injected
+    private static boolean checkArray(Object[] args, Class<?>[] params) {
+        int param = 0;
+        for (Object o : args) {
+            while (param < params.length && params[param] != o.getClass())
+                param++;
+            if (param == params.length)
+                return false;
+            param++;
         }
-        return fields;
+
+        return true;
     }
 
-    private static Map<Constructor, Class<?>[]> findConstructors(Class<?> c) {
-        Map<Constructor, Class<?>[]> map = Maps.newHashMap();
-        for (Constructor constructor : c.getDeclaredConstructors()) {
-            if (constructor.getAnnotation(Inject.class) != null)
-                map.put(constructor, constructor.getParameterTypes());
+    // How to construct and inject a class, worked out once when the class is first injected
+    private static final class Plan {
+        private final ConstructorSlot[] constructors;
+        private final MethodHandle constructor;
+        private final FieldSlot[] fields;
+
+        Plan(Class<?> c) {
+            List<ConstructorSlot> constructors = Lists.newArrayList();
+            for (Constructor<?> constructor : c.getDeclaredConstructors()) {
+                Inject inject = constructor.getAnnotation(Inject.class);
+                if (inject != null)
+                    constructors.add(new ConstructorSlot(c, constructor, inject));
+            }
+            this.constructors = constructors.toArray(new ConstructorSlot[constructors.size()]);
+
+            MethodHandle noArgs = null;
+            try {
+                if (!Modifier.isAbstract(c.getModifiers()))
+                    noArgs = Handles.constructor(c.getDeclaredConstructor());
+            } catch (NoSuchMethodException ignored) {
+            }
+            this.constructor = noArgs;
+
+            List<FieldSlot> fields = Lists.newArrayList();
+            for (Field field : c.getDeclaredFields()) {
+                Inject inject = field.getAnnotation(Inject.class);
+                if (inject != null)
+                    fields.add(new FieldSlot(field, inject));
+            }
+            this.fields = fields.toArray(new FieldSlot[fields.size()]);
         }
 
-        for (Constructor constructor : c.getConstructors()) {
-            if (map.containsKey(constructor)) continue;
-            if (constructor.getAnnotation(Inject.class) != null)
-                map.put(constructor, constructor.getParameterTypes());
+        void injectFields(Object instance) {
+            for (FieldSlot field : fields) {
+                field.inject(instance);
+            }
+        }
+    }
+
+    private static final class ConstructorSlot {
+        private final Class<?> owner;
+        private final Class<?>[] parameters;
+        private final Class<?> meta;
+        private final MethodHandle handle;
+
+        ConstructorSlot(Class<?> owner, Constructor<?> constructor, Inject inject) {
+            this.owner = owner;
+            this.parameters = constructor.getParameterTypes();
+            this.meta = inject.meta();
+            this.handle = Handles.spreadConstructor(constructor);
         }
 
-        return map;
+        // The explicit arguments in place, with the other parameters produced, or null if one cannot be produced
+        Object[] arguments(Object[] args) {
+            Object[] arguments = new Object[parameters.length];
+            int next = 0;
+            for (int i = 0; i < parameters.length; i++) {
+                Class<?> c = parameters[i];
+                if (next < args.length && args[next].getClass() == c) {
+                    arguments[i] = args[next++];
+                    continue;
+                }
+
+                Producer<?> producer = injectors.get(c);
+                if (producer == null) {
+                    TridentLogger.error(new IllegalArgumentException("Constructor " + this + " " +
+                            "does not provide or registered parameter " + c.getName()));
+                    return null;
+                }
+
+                arguments[i] = meta == Class.class ? producer.produce() : producer.produce(meta);
+            }
+
+            return arguments;
+        }
+
+        @Override
+        public String toString() {
+            return owner.getName() + "(" + Arrays.toString(parameters)
+                    .replaceAll("class ", "")
+                    .replaceAll("\\[", "")
+                    .replaceAll("\\]", "") + ")";
+        }
     }
 
-    private static boolean checkArray(Object[] args, Class<?>[] params) {
-        Iterator<Class<?>> iterator = Iterators.forArray(params);
-        for (Object o : args) {
-            if (!Iterators.contains(iterator, o.getClass()))
-                return false;
+    private static final class FieldSlot {
+        private final Field field;
+        private final Class<?> type;
+        private final Class<?> meta;
+        private final boolean isStatic;
+        private final MethodHandle setter;
+
+        FieldSlot(Field field, Inject inject) {
+            this.field = field;
+            this.type = field.getType();
+            this.meta = inject.meta();
+            this.isStatic = Modifier.isStatic(field.getModifiers());
+            this.setter = Handles.setter(field);
         }
 
-        return true;
+        void inject(Object instance) {
+            Producer<?> producer = injectors.get(type);
+            if (producer == null) {
+                TridentLogger.error(new IllegalArgumentException("Class " + field.getDeclaringClass().getName() +
+                        " does not have bound injector for type " + type.getName()));
+                return;
+            }
+
+            if (setter == null) {
+                TridentLogger.error(new IllegalAccessException("Cannot set field " + field));
+                return;
+            }
+
+            try {
+                setter.invokeExact(instance, meta == Class.class ? producer.produce() : producer.produce(meta));
+            } catch (Throwable throwable) {
+                TridentLogger.error(throwable);
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.reflect;
+
+/**
+ * The ways that {@link FastField}, {@link FastMethod} and {@link FastConstructor} can access class members
+ *
+ * <p>The backend is chosen when the server starts with the {@code trident.reflect.backend} system property, which
+ * is either {@code handles} or {@code asm}. ReflectASM is used by default; method handles are held in instance fields
+ * rather than constants, so the JIT cannot inline through them the way it inlines the generated ReflectASM
+ * accessors.</p>
+ *
+ * @author The TridentSDK Team
+ */
+public enum ReflectBackend {
+    /**
+     * Generates an accessor class for each class with ReflectASM
+     *
+     * <p>Only members which are not private, and not {@code static}, can be accessed.</p>
+     */
+    ASM,
+    /**
+     * Binds a {@link java.lang.invoke.MethodHandle} to each member when it is first looked up
+     *
+     * <p>Any member which can be made accessible with reflection can be accessed, including private and
+     * {@code static} members, and no classes are generated.</p>
+     */
+    METHOD_HANDLES;
+
+    private static final ReflectBackend CURRENT =
+            "handles".equalsIgnoreCase(System.getProperty("trident.reflect.backend")) ? METHOD_HANDLES : ASM;
+
+    /**
+     * The backend which is used by the server
+     *
+     * @return the current backend
+     */
+    public static ReflectBackend current() {
+        return CURRENT;
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.util;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A mutable integer block position, which can be packed into a single {@code long}
+ *
+ * <p>The packed form places the x coordinate in the highest 26 bits, the y coordinate in the next 12 bits, and the z
+ * coordinate in the lowest 26 bits. This covers every block in a world with the 30,000,000 block border and any y
+ * between -2048 and 2047, and is the form which should be stored and passed around when only the block matters.</p>
+ *
+ * <p>The static methods pack and unpack positions without creating any object. Instances are intended to be reused
+ * through {@link MathScratch} when a position needs to be operated on.</p>
+ *
+ * @author The TridentSDK Team
+ */
+@NotThreadSafe
+public final class BlockPos {
+    private static final int XZ_BITS = 26;
+    private static final int Y_BITS = 12;
+    private static final long XZ_MASK = (1L << XZ_BITS) - 1;
+    private static final long Y_MASK = (1L << Y_BITS) - 1;
+    private static final int X_SHIFT = Y_BITS + XZ_BITS;
+    private static final int Y_SHIFT = XZ_BITS;
+
+    private int x;
+    private int y;
+    private int z;
+
+    /**
+     * Creates a block position at (0, 0, 0)
+     */
+    public BlockPos() {
+    }
+
+    /**
+     * Creates a block position with the given coordinates
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     */
+    public BlockPos(int x, int y, int z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Creates a block position from the packed form
+     *
+     * @param packed the packed block position
+     */
+    public BlockPos(long packed) {
+        set(packed);
+    }
+
+    /**
+     * Packs the block coordinates into a single {@code long}
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return the packed position
+     */
+    public static long pack(int x, int y, int z) {
+        return ((x & XZ_MASK) << X_SHIFT) | ((y & Y_MASK) << Y_SHIFT) | (z & XZ_MASK);
+    }
+
+    /**
+     * Packs the coordinates of the block which contains the given coordinates
+     *
+     * @param coordinates the coordinates inside of the block
+     * @return the packed position
+     */
+    public static long pack(Coordinates coordinates) {
+        return pack((int) Math.floor(coordinates.x()), (int) Math.floor(coordinates.y()),
+                (int) Math.floor(coordinates.z()));
+    }
+
+    /**
+     * Obtains the x coordinate of a packed position
+     *
+     * @param packed the packed position
+     * @return the x coordinate
+     */
+    public static int unpackX(long packed) {
+        return (int) (packed >> X_SHIFT);
+    }
+
+    /**
+     * Obtains the y coordinate of a packed position
+     *
+     * @param packed the packed position
+     * @return the y coordinate
+     */
+    public static int unpackY(long packed) {
+        return (int) (packed << (64 - X_SHIFT) >> (64 - Y_BITS));
+    }
+
+    /**
+     * Obtains the z coordinate of a packed position
+     *
+     * @param packed the packed position
+     * @return the z coordinate
+     */
+    public static int unpackZ(long packed) {
+        return (int) (packed << (64 - XZ_BITS) >> (64 - XZ_BITS));
+    }
+
+    /**
+     * Moves a packed position by the given offsets
+     *
+     * @param packed the packed position
+     * @param dx     the offset along the x axis
+     * @param dy     the offset along the y axis
+     * @param dz     the offset along the z axis
+     * @return the packed offset position
+     */
+    public static long offset(long packed, int dx, int dy, int dz) {
+        return pack(unpackX(packed) + dx, unpackY(packed) + dy, unpackZ(packed) + dz);
+    }
+
+    /**
+     * The x coordinate
+     *
+     * @return the x coordinate
+     */
+    public int x() {
+        return x;
+    }
+
+    /**
+     * The y coordinate
+     *
+     * @return the y coordinate
+     */
+    public int y() {
+        return y;
+    }
+
+    /**
+     * The z coordinate
+     *
+     * @return the z coordinate
+     */
+    public int z() {
+        return z;
+    }
+
+    /**
+     * Sets the coordinates of this position
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return this position
+     */
+    public BlockPos set(int x, int y, int z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * Sets this position from the packed form
+     *
+     * @param packed the packed position
+     * @return this position
+     */
+    public BlockPos set(long packed) {
+        return set(unpackX(packed), unpackY(packed), unpackZ(packed));
+    }
+
+    /**
+     * Sets this position to the block containing the given coordinates
+     *
+     * @param coordinates the coordinates inside of the block
+     * @return this position
+     */
+    public BlockPos set(Coordinates coordinates) {
+        return set((int) Math.floor(coordinates.x()), (int) Math.floor(coordinates.y()),
+                (int) Math.floor(coordinates.z()));
+    }
+
+    /**
+     * Moves this position by the given offsets
+     *
+     * @param dx the offset along the x axis
+     * @param dy the offset along the y axis
+     * @param dz the offset along the z axis
+     * @return this position
+     */
+    public BlockPos offset(int dx, int dy, int dz) {
+        return set(x + dx, y + dy, z + dz);
+    }
+
+    /**
+     * Packs this position into a {@code long}
+     *
+     * @return the packed form of this position
+     */
+    public long asLong() {
+        return pack(x, y, z);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof BlockPos))
+            return false;
+        BlockPos other = (BlockPos) obj;
+        return x == other.x && y == other.y && z == other.z;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(asLong());
+    }
+
+    @Override
+    public String toString() {
+        return "BlockPos(" + x + ", " + y + ", " + z + ")";
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.util;
+
+/**
+ * A read-only view of an x, y, and z coordinate triple
+ *
+ * <p>{@link net.tridentsdk.Position}, {@link Vector} and {@link Vec3d} all implement this, which allows the math
+ * operations on one type to read the coordinates of another without copying them into a new object first.</p>
+ *
+ * <p>Implementations do not promise that the values do not change, only that they cannot be changed through this
+ * view.</p>
+ *
+ * @author The TridentSDK Team
+ */
+public interface Coordinates {
+    /**
+     * The x coordinate
+     *
+     * @return the x value
+     */
+    double x();
+
+    /**
+     * The y coordinate
+     *
+     * @return the y value
+     */
+    double y();
+
+    /**
+     * The z coordinate
+     *
+     * @return the z value
+     */
+    double z();
+}
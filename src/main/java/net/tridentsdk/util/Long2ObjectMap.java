@@ -0,0 +1,282 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.util;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.Arrays;
+
+/**
+ * An open addressed hash map which maps primitive {@code long} keys to objects, without boxing the keys
+ *
+ * <p>This is intended for maps keyed by packed positions, such as those created by {@link BlockPos#pack(int, int,
+ * int)}, where a {@link java.util.HashMap} would allocate a {@link Long} for every lookup and an entry for every
+ * mapping. Every {@code long} value, including {@code 0}, may be used as a key. {@code null} values cannot be
+ * stored.</p>
+ *
+ * <p>Entries are iterated without allocation through the occupied slots of the table:</p>
+ * <pre><code>
+ *     for (int slot = map.nextSlot(0); slot != -1; slot = map.nextSlot(slot + 1)) {
+ *         long key = map.keyAt(slot);
+ *         V value = map.valueAt(slot);
+ *     }
+ * </code></pre>
+ *
+ * <p>Clearing the map keeps its capacity, so a map which is cleared and reused every tick does not allocate once it
+ * has grown to its working size.</p>
+ *
+ * @param <V> the type of value
+ * @author The TridentSDK Team
+ */
+@NotThreadSafe
+public class Long2ObjectMap<V> {
+    private static final float LOAD_FACTOR = 0.5F;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    // The key 0 marks free slots, so its mapping is stored in the slot after the table
+    private boolean hasZero;
+
+    /**
+     * Creates a new, empty map
+     */
+    public Long2ObjectMap() {
+        this(16);
+    }
+
+    /**
+     * Creates a new, empty map which holds the expected amount of mappings before it resizes
+     *
+     * @param expected the expected amount of mappings
+     */
+    public Long2ObjectMap(int expected) {
+        int capacity = LongOpenHashSet.tableSize(expected, LOAD_FACTOR);
+        this.keys = new long[capacity];
+        this.values = new Object[capacity + 1];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * The amount of mappings in this map
+     *
+     * @return the size of the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map has no mappings
+     *
+     * @return {@code true} if the map is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Obtains the value mapped to the key
+     *
+     * @param key the key to find
+     * @return the mapped value, or {@code null} if the key is not mapped
+     */
+    @Nullable
+    public V get(long key) {
+        if (key == 0)
+            return hasZero ? (V) values[keys.length] : null;
+
+        long[] keys = this.keys;
+        for (int i = LongOpenHashSet.mix(key) & mask; ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == key)
+                return (V) values[i];
+            if (k == 0)
+                return null;
+        }
+    }
+
+    /**
+     * Checks if the key is mapped
+     *
+     * @param key the key to find
+     * @return {@code true} if the key has a mapping
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Maps the key to the value
+     *
+     * @param key   the key
+     * @param value the value, which must not be {@code null}
+     * @return the value previously mapped to the key, or {@code null} if there was none
+     */
+    @Nullable
+    public V put(long key, V value) {
+        if (value == null)
+            throw new NullPointerException("Value cannot be null");
+
+        if (key == 0) {
+            V old = hasZero ? (V) values[keys.length] : null;
+            if (!hasZero) {
+                hasZero = true;
+                size++;
+            }
+            values[keys.length] = value;
+            return old;
+        }
+
+        int i = LongOpenHashSet.mix(key) & mask;
+        for (long k = keys[i]; k != 0; k = keys[i]) {
+            if (k == key) {
+                V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        if (++size > (keys.length * LOAD_FACTOR))
+            resize(keys.length << 1);
+        return null;
+    }
+
+    /**
+     * Removes the mapping of the key
+     *
+     * @param key the key to unmap
+     * @return the value which was mapped, or {@code null} if the key was not mapped
+     */
+    @Nullable
+    public V remove(long key) {
+        if (key == 0) {
+            if (!hasZero)
+                return null;
+            V old = (V) values[keys.length];
+            values[keys.length] = null;
+            hasZero = false;
+            size--;
+            return old;
+        }
+
+        long[] keys = this.keys;
+        int i = LongOpenHashSet.mix(key) & mask;
+        while (keys[i] != key) {
+            if (keys[i] == 0)
+                return null;
+            i = (i + 1) & mask;
+        }
+
+        V old = (V) values[i];
+        shiftDown(i);
+        size--;
+        return old;
+    }
+
+    // Backward shift deletion, which keeps probe sequences intact without tombstones
+    private void shiftDown(int gap) {
+        long[] keys = this.keys;
+        for (int j = (gap + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+            int home = LongOpenHashSet.mix(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+
+        keys[gap] = 0;
+        values[gap] = null;
+    }
+
+    /**
+     * Removes every mapping, keeping the capacity of the map
+     */
+    public void clear() {
+        if (size == 0)
+            return;
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        hasZero = false;
+        size = 0;
+    }
+
+    /**
+     * Finds the first occupied slot at or after the given slot
+     *
+     * @param from the slot to start searching from, {@code 0} to find the first slot
+     * @return the occupied slot, or {@code -1} if there are no more mappings
+     */
+    public int nextSlot(int from) {
+        long[] keys = this.keys;
+        for (int i = from; i < keys.length; i++) {
+            if (keys[i] != 0)
+                return i;
+        }
+
+        return (hasZero && from <= keys.length) ? keys.length : -1;
+    }
+
+    /**
+     * Obtains the key in an occupied slot
+     *
+     * @param slot the slot, as returned by {@link #nextSlot(int)}
+     * @return the key in the slot
+     */
+    public long keyAt(int slot) {
+        return slot == keys.length ? 0 : keys[slot];
+    }
+
+    /**
+     * Obtains the value in an occupied slot
+     *
+     * @param slot the slot, as returned by {@link #nextSlot(int)}
+     * @return the value in the slot
+     */
+    public V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity + 1];
+        mask = capacity - 1;
+        values[capacity] = oldValues[oldKeys.length];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key == 0)
+                continue;
+
+            int slot = LongOpenHashSet.mix(key) & mask;
+            while (keys[slot] != 0)
+                slot = (slot + 1) & mask;
+            keys[slot] = key;
+            values[slot] = oldValues[i];
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.util;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * An open addressed hash set of primitive {@code long} values, without boxing
+ *
+ * <p>This is intended for sets of packed positions, such as those created by {@link BlockPos#pack(int, int, int)},
+ * for example the blocks destroyed by an explosion or the blocks queued for a redstone update. Every {@code long}
+ * value, including {@code 0}, may be added.</p>
+ *
+ * <p>Clearing the set keeps its capacity, so a set which is cleared and reused every tick does not allocate once it
+ * has grown to its working size. Iteration through {@link #forEach(LongConsumer)} or the occupied slots does not
+ * allocate either.</p>
+ *
+ * @author The TridentSDK Team
+ */
+@NotThreadSafe
+public class LongOpenHashSet {
+    private static final float LOAD_FACTOR = 0.5F;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+
+    // The value 0 marks free slots, so its membership is held separately
+    private boolean hasZero;
+
+    /**
+     * Creates a new, empty set
+     */
+    public LongOpenHashSet() {
+        this(16);
+    }
+
+    /**
+     * Creates a new, empty set which holds the expected amount of values before it resizes
+     *
+     * @param expected the expected amount of values
+     */
+    public LongOpenHashSet(int expected) {
+        int capacity = tableSize(expected, LOAD_FACTOR);
+        this.keys = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    static int tableSize(int expected, float loadFactor) {
+        int capacity = Integer.highestOneBit(Math.max(2, (int) Math.ceil(expected / loadFactor)) - 1) << 1;
+        return Math.max(capacity, 2);
+    }
+
+    static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * The amount of values in this set
+     *
+     * @return the size of the set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the set has no values
+     *
+     * @return {@code true} if the set is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks if the value is in this set
+     *
+     * @param value the value to find
+     * @return {@code true} if the set contains the value
+     */
+    public boolean contains(long value) {
+        if (value == 0)
+            return hasZero;
+
+        long[] keys = this.keys;
+        for (int i = mix(value) & mask; ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == value)
+                return true;
+            if (k == 0)
+                return false;
+        }
+    }
+
+    /**
+     * Adds the value to this set
+     *
+     * @param value the value to add
+     * @return {@code true} if the value was not already in the set
+     */
+    public boolean add(long value) {
+        if (value == 0) {
+            if (hasZero)
+                return false;
+            hasZero = true;
+            size++;
+            return true;
+        }
+
+        int i = mix(value) & mask;
+        for (long k = keys[i]; k != 0; k = keys[i]) {
+            if (k == value)
+                return false;
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = value;
+        if (++size > (keys.length * LOAD_FACTOR))
+            resize(keys.length << 1);
+        return true;
+    }
+
+    /**
+     * Removes the value from this set
+     *
+     * @param value the value to remove
+     * @return {@code true} if the value was in the set
+     */
+    public boolean remove(long value) {
+        if (value == 0) {
+            if (!hasZero)
+                return false;
+            hasZero = false;
+            size--;
+            return true;
+        }
+
+        long[] keys = this.keys;
+        int i = mix(value) & mask;
+        while (keys[i] != value) {
+            if (keys[i] == 0)
+                return false;
+            i = (i + 1) & mask;
+        }
+
+        // Backward shift deletion, which keeps probe sequences intact without tombstones
+        int gap = i;
+        for (int j = (gap + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+            int home = mix(keys[j]) & mask;
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                gap = j;
+            }
+        }
+
+        keys[gap] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes every value, keeping the capacity of the set
+     */
+    public void clear() {
+        if (size == 0)
+            return;
+        Arrays.fill(keys, 0);
+        hasZero = false;
+        size = 0;
+    }
+
+    /**
+     * Performs the action for every value in this set
+     *
+     * @param action the action to perform
+     */
+    public void forEach(LongConsumer action) {
+        if (hasZero)
+            action.accept(0);
+
+        long[] keys = this.keys;
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0)
+                action.accept(keys[i]);
+        }
+    }
+
+    /**
+     * Finds the first occupied slot at or after the given slot
+     *
+     * @param from the slot to start searching from, {@code 0} to find the first slot
+     * @return the occupied slot, or {@code -1} if there are no more values
+     */
+    public int nextSlot(int from) {
+        long[] keys = this.keys;
+        for (int i = from; i < keys.length; i++) {
+            if (keys[i] != 0)
+                return i;
+        }
+
+        return (hasZero && from <= keys.length) ? keys.length : -1;
+    }
+
+    /**
+     * Obtains the value in an occupied slot
+     *
+     * @param slot the slot, as returned by {@link #nextSlot(int)}
+     * @return the value in the slot
+     */
+    public long valueAt(int slot) {
+        return slot == keys.length ? 0 : keys[slot];
+    }
+
+    /**
+     * Copies the values of this set into a new array
+     *
+     * @return the values in this set
+     */
+    public long[] toArray() {
+        long[] array = new long[size];
+        int index = 0;
+        if (hasZero)
+            array[index++] = 0;
+
+        for (long key : keys) {
+            if (key != 0)
+                array[index++] = key;
+        }
+
+        return array;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        keys = new long[capacity];
+        mask = capacity - 1;
+
+        for (long key : oldKeys) {
+            if (key == 0)
+                continue;
+
+            int slot = mix(key) & mask;
+            while (keys[slot] != 0)
+                slot = (slot + 1) & mask;
+            keys[slot] = key;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.util;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.Arrays;
+
+/**
+ * A per-thread pool of {@link Vec3d} and {@link BlockPos} instances for temporary calculations
+ *
+ * <p>Objects are handed out in order and returned all at once by resetting to a mark, which allows nested callers
+ * to share the same pool without clobbering each other's values. The pool grows to the largest amount of objects in
+ * use at once, after which it never allocates again.</p>
+ *
+ * <pre><code>
+ *     MathScratch scratch = MathScratch.get();
+ *     long mark = scratch.mark();
+ *     try {
+ *         Vec3d direction = scratch.vec().set(target).subtract(origin).normalize();
+ *         ...
+ *     } finally {
+ *         scratch.reset(mark);
+ *     }
+ * </code></pre>
+ *
+ * <p>Objects obtained from the scratch pool must not be stored or passed to another thread, and must not be used
+ * after the pool has been reset to a mark before they were obtained.</p>
+ *
+ * @author The TridentSDK Team
+ */
+@NotThreadSafe
+public final class MathScratch {
+    private static final ThreadLocal<MathScratch> SCRATCH = new ThreadLocal<MathScratch>() {
+        @Override
+        protected MathScratch initialValue() {
+            return new MathScratch();
+        }
+    };
+
+    private Vec3d[] vectors = new Vec3d[8];
+    private BlockPos[] positions = new BlockPos[8];
+    private int vectorCount;
+    private int positionCount;
+
+    private MathScratch() {
+    }
+
+    /**
+     * Obtains the scratch pool for the calling thread
+     *
+     * @return the scratch pool of the current thread
+     */
+    public static MathScratch get() {
+        return SCRATCH.get();
+    }
+
+    /**
+     * Obtains a vector from the pool. The coordinates of the vector are not cleared.
+     *
+     * @return a vector which is not in use
+     */
+    public Vec3d vec() {
+        if (vectorCount == vectors.length)
+            vectors = Arrays.copyOf(vectors, vectorCount << 1);
+
+        Vec3d vec = vectors[vectorCount];
+        if (vec == null) {
+            vec = new Vec3d();
+            vectors[vectorCount] = vec;
+        }
+
+        vectorCount++;
+        return vec;
+    }
+
+    /**
+     * Obtains a block position from the pool. The coordinates of the position are not cleared.
+     *
+     * @return a block position which is not in use
+     */
+    public BlockPos blockPos() {
+        if (positionCount == positions.length)
+            positions = Arrays.copyOf(positions, positionCount << 1);
+
+        BlockPos pos = positions[positionCount];
+        if (pos == null) {
+            pos = new BlockPos();
+            positions[positionCount] = pos;
+        }
+
+        positionCount++;
+        return pos;
+    }
+
+    /**
+     * Marks the amount of objects currently in use, to be passed to {@link #reset(long)} once the caller is done
+     *
+     * @return the mark
+     */
+    public long mark() {
+        return ((long) vectorCount << 32) | positionCount;
+    }
+
+    /**
+     * Returns every object obtained since the mark was taken to the pool
+     *
+     * @param mark the mark obtained from {@link #mark()}
+     */
+    public void reset(long mark) {
+        vectorCount = (int) (mark >>> 32);
+        positionCount = (int) mark;
+    }
+}
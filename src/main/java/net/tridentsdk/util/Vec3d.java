@@ -0,0 +1,375 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.util;
+
+import net.tridentsdk.Position;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A mutable three dimensional vector of doubles, designed for math which is performed many times per tick
+ *
+ * <p>Unlike {@link Position}, the fields of this class are not {@code volatile}, and every operation modifies this
+ * vector in place and returns it, so chained operations do not create new objects. Operations accept any
+ * {@link Coordinates}, so a {@link Position} or {@link Vector} can be used as an operand directly.</p>
+ *
+ * <p>Short lived vectors should be obtained from {@link MathScratch} rather than created for every calculation.
+ * Use {@link #view()} to hand out a vector to code which should not modify it.</p>
+ *
+ * @author The TridentSDK Team
+ */
+@NotThreadSafe
+public final class Vec3d implements Coordinates {
+    private double x;
+    private double y;
+    private double z;
+
+    private Coordinates view;
+
+    /**
+     * Creates a vector at (0, 0, 0)
+     */
+    public Vec3d() {
+    }
+
+    /**
+     * Creates a vector with the given coordinates
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     */
+    public Vec3d(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Creates a vector which copies the given coordinates
+     *
+     * @param coordinates the coordinates to copy
+     */
+    public Vec3d(Coordinates coordinates) {
+        this(coordinates.x(), coordinates.y(), coordinates.z());
+    }
+
+    @Override
+    public double x() {
+        return x;
+    }
+
+    @Override
+    public double y() {
+        return y;
+    }
+
+    @Override
+    public double z() {
+        return z;
+    }
+
+    /**
+     * Sets the coordinates of this vector
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @return this vector
+     */
+    public Vec3d set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * Copies the given coordinates into this vector
+     *
+     * @param coordinates the coordinates to copy
+     * @return this vector
+     */
+    public Vec3d set(Coordinates coordinates) {
+        return set(coordinates.x(), coordinates.y(), coordinates.z());
+    }
+
+    /**
+     * Adds the values to the coordinates of this vector
+     *
+     * @param x the x value to add
+     * @param y the y value to add
+     * @param z the z value to add
+     * @return this vector
+     */
+    public Vec3d add(double x, double y, double z) {
+        this.x += x;
+        this.y += y;
+        this.z += z;
+        return this;
+    }
+
+    /**
+     * Adds the coordinates to the coordinates of this vector
+     *
+     * @param coordinates the coordinates to add
+     * @return this vector
+     */
+    public Vec3d add(Coordinates coordinates) {
+        return add(coordinates.x(), coordinates.y(), coordinates.z());
+    }
+
+    /**
+     * Adds the coordinates, multiplied by the scale, to this vector
+     *
+     * <p>This is the equivalent of moving along a direction by a distance.</p>
+     *
+     * @param coordinates the coordinates to add
+     * @param scale       the amount to multiply the added coordinates by
+     * @return this vector
+     */
+    public Vec3d addScaled(Coordinates coordinates, double scale) {
+        return add(coordinates.x() * scale, coordinates.y() * scale, coordinates.z() * scale);
+    }
+
+    /**
+     * Subtracts the values from the coordinates of this vector
+     *
+     * @param x the x value to subtract
+     * @param y the y value to subtract
+     * @param z the z value to subtract
+     * @return this vector
+     */
+    public Vec3d subtract(double x, double y, double z) {
+        this.x -= x;
+        this.y -= y;
+        this.z -= z;
+        return this;
+    }
+
+    /**
+     * Subtracts the coordinates from the coordinates of this vector
+     *
+     * @param coordinates the coordinates to subtract
+     * @return this vector
+     */
+    public Vec3d subtract(Coordinates coordinates) {
+        return subtract(coordinates.x(), coordinates.y(), coordinates.z());
+    }
+
+    /**
+     * Multiplies every coordinate of this vector by the same amount
+     *
+     * @param scale the amount to multiply by
+     * @return this vector
+     */
+    public Vec3d multiply(double scale) {
+        this.x *= scale;
+        this.y *= scale;
+        this.z *= scale;
+        return this;
+    }
+
+    /**
+     * Multiplies each coordinate of this vector by the respective coordinate given
+     *
+     * @param coordinates the coordinates to multiply by
+     * @return this vector
+     */
+    public Vec3d multiply(Coordinates coordinates) {
+        this.x *= coordinates.x();
+        this.y *= coordinates.y();
+        this.z *= coordinates.z();
+        return this;
+    }
+
+    /**
+     * Sets this vector to the cross product of this vector and the given coordinates
+     *
+     * @param coordinates the right hand side of the cross product
+     * @return this vector
+     */
+    public Vec3d cross(Coordinates coordinates) {
+        double ox = coordinates.x();
+        double oy = coordinates.y();
+        double oz = coordinates.z();
+        return set(y * oz - z * oy, z * ox - x * oz, x * oy - y * ox);
+    }
+
+    /**
+     * Scales this vector to a length of 1 without changing its direction
+     *
+     * <p>A vector of length 0 is left unchanged.</p>
+     *
+     * @return this vector
+     */
+    public Vec3d normalize() {
+        double lengthSquared = lengthSquared();
+        if (lengthSquared == 0)
+            return this;
+        return multiply(1 / Math.sqrt(lengthSquared));
+    }
+
+    /**
+     * The dot product of this vector and the given coordinates
+     *
+     * @param coordinates the other coordinates
+     * @return the dot product
+     */
+    public double dot(Coordinates coordinates) {
+        return x * coordinates.x() + y * coordinates.y() + z * coordinates.z();
+    }
+
+    /**
+     * The squared length of this vector
+     *
+     * @return the length, squared
+     */
+    public double lengthSquared() {
+        return x * x + y * y + z * z;
+    }
+
+    /**
+     * The length of this vector. Prefer {@link #lengthSquared()} for comparisons.
+     *
+     * @return the length
+     */
+    public double length() {
+        return Math.sqrt(lengthSquared());
+    }
+
+    /**
+     * The squared distance between this vector and the given coordinates
+     *
+     * @param coordinates the coordinates to measure to
+     * @return the distance, squared
+     */
+    public double distanceSquared(Coordinates coordinates) {
+        double dx = x - coordinates.x();
+        double dy = y - coordinates.y();
+        double dz = z - coordinates.z();
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * The distance between this vector and the given coordinates. Prefer {@link #distanceSquared(Coordinates)} for
+     * comparisons.
+     *
+     * @param coordinates the coordinates to measure to
+     * @return the distance
+     */
+    public double distance(Coordinates coordinates) {
+        return Math.sqrt(distanceSquared(coordinates));
+    }
+
+    /**
+     * The packed position of the block which contains this vector
+     *
+     * @return the packed block position, as encoded by {@link BlockPos#pack(int, int, int)}
+     */
+    public long blockPos() {
+        return BlockPos.pack((int) Math.floor(x), (int) Math.floor(y), (int) Math.floor(z));
+    }
+
+    /**
+     * Copies the coordinates of this vector into the position, leaving its world, yaw and pitch
+     *
+     * @param position the position to write to
+     * @return the position passed in
+     */
+    public Position writeTo(Position position) {
+        position.setX(x);
+        position.setY(y);
+        position.setZ(z);
+        return position;
+    }
+
+    /**
+     * Copies the coordinates of this vector into the given vector
+     *
+     * @param vector the vector to write to
+     * @return the vector passed in
+     */
+    public Vector writeTo(Vector vector) {
+        vector.setX(x);
+        vector.setY(y);
+        vector.setZ(z);
+        return vector;
+    }
+
+    /**
+     * Obtains a read-only view of this vector
+     *
+     * <p>The view reflects changes made to this vector, but cannot be used to change it. The same view is returned
+     * on every call.</p>
+     *
+     * @return the view of this vector
+     */
+    public Coordinates view() {
+        Coordinates view = this.view;
+        if (view == null) {
+            view = new Coordinates() {
+                @Override
+                public double x() {
+                    return x;
+                }
+
+                @Override
+                public double y() {
+                    return y;
+                }
+
+                @Override
+                public double z() {
+                    return z;
+                }
+
+                @Override
+                public String toString() {
+                    return Vec3d.this.toString();
+                }
+            };
+            this.view = view;
+        }
+
+        return view;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof Vec3d))
+            return false;
+        Vec3d other = (Vec3d) obj;
+        return Double.compare(x, other.x) == 0 && Double.compare(y, other.y) == 0 &&
+                Double.compare(z, other.z) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Double.hashCode(x);
+        result = 31 * result + Double.hashCode(y);
+        result = 31 * result + Double.hashCode(z);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "Vec3d(" + x + ", " + y + ", " + z + ")";
+    }
+}
@@ -17,7 +17,6 @@
 
 package net.tridentsdk.util;
 
-import com.google.common.base.Objects;
 import net.tridentsdk.Position;
 import net.tridentsdk.world.World;
 
@@ -30,7 +29,7 @@ import java.io.Serializable;
  * @author The TridentSDK Team
  */
 @NotThreadSafe
-public class Vector implements Serializable, Cloneable {
+public class Vector implements Coordinates, Serializable, Cloneable {
     private static final long serialVersionUID = -7634050835106851288L;
 
     private double x;
@@ -316,6 +315,7 @@ public class Vector implements Serializable, Cloneable {
      *
      * @return the vector x value
      */
+    @Override
     public double x() {
         return this.x;
     }
@@ -334,6 +334,7 @@ public class Vector implements Serializable, Cloneable {
      *
      * @return the vector y value
      */
+    @Override
     public double y() {
         return this.y;
     }
@@ -352,6 +353,7 @@ public class Vector implements Serializable, Cloneable {
      *
      * @return the vector z value
      */
+    @Override
     public double z() {
         return this.z;
     }
@@ -398,6 +400,9 @@ public class Vector implements Serializable, Cloneable {
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(x, y, z);
+        int result = Double.hashCode(x);
+        result = 31 * result + Double.hashCode(y);
+        result = 31 * result + Double.hashCode(z);
+        return result;
     }
 }
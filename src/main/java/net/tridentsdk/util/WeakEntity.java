@@ -17,7 +17,6 @@
 
 package net.tridentsdk.util;
 
-import com.google.common.collect.Sets;
 import com.google.common.reflect.TypeToken;
 import net.tridentsdk.Position;
 import net.tridentsdk.Trident;
@@ -27,17 +26,16 @@ import net.tridentsdk.entity.traits.EntityProperties;
 import net.tridentsdk.entity.types.EntityType;
 import net.tridentsdk.world.World;
 
-import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.NotThreadSafe;
 import javax.annotation.concurrent.ThreadSafe;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.*;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * A reference to an entity
@@ -75,19 +73,19 @@ import java.util.stream.Collectors;
  * removal
  * listeners.</p>
  *
- * <p>Internally, this class manages a queue of references which, in turn, are polled by a thread called
- * {@code Trident - Reference Handler}. Every call to clear a specific reference also runs the mark/sweep collector,
- * although it is invoked directly rather than using {@link #runMarkSweep()}. The implementation of the collector may
- * be
- * found in the documentation for {@link  #runMarkSweep()}. Entities call
+ * <p>Internally, the references to each entity are kept in a concurrent map by entity id, so creating WeakEntities
+ * for different entities does not contend on a shared lock. Entities call
  * {@link #clearReferencesTo(net.tridentsdk.entity.Entity)} when they are removed to purge old references to that
- * entity
- * after it has finished despawning. This method also runs the mark/sweep collector. This is only implemented as a
- * safeguard behind {@link java.lang.ref.WeakReference}, which is used to store the actual instance of the entity to be
- * weakly referenced. The reference handling thread cleans up the entity after all the references have been cleared, as
- * well as collecting any other obsolete references. This was done because WeakReference may allow the reference to be
- * held longer than it has lived, in the case that the GC does not run, the reference handler will perform the
- * necessary actions to make sure the entity is correctly nulled.</p>
+ * entity after it has finished despawning. This is only implemented as a safeguard behind
+ * {@link java.lang.ref.WeakReference}, which is used to store the actual instance of the entity to be weakly
+ * referenced, because WeakReference may allow the reference to be held longer than it has lived in the case that the
+ * GC does not run. References which are cleared, either by the server or by the GC, are placed in a
+ * {@link java.lang.ref.ReferenceQueue} and removed by a thread called {@code Trident - Reference Handler}, one at a
+ * time. Threads creating WeakEntities also remove a few queued references each, so the queue cannot grow faster than
+ * it is emptied.</p>
+ *
+ * <p>Code which stores a large amount of entities, and can check for removed entities when it reads them, should
+ * store {@link net.tridentsdk.entity.EntityHandle entity handles} instead, which do not need to be cleaned up.</p>
  *
  * <p>Here are examples on the usage of this class.</p>
  *
@@ -212,7 +210,10 @@ public final class WeakEntity<T extends Entity> {
      * @return a WeakEntity which holds the entity until it becomes {@code null}
      */
     public static <T extends Entity> WeakEntity<T> of(T referencedEntity) {
-        WeakEntity<T> weakEntity = new WeakEntity<>(new SafeReference<>(referencedEntity));
+        if (referencedEntity == null)
+            return new WeakEntity<>(new SafeReference<>(null));
+
+        WeakEntity<T> weakEntity = new WeakEntity<>(REFERENCE_QUEUE.reference(referencedEntity));
         REFERENCE_QUEUE.put(weakEntity);
         return weakEntity;
     }
@@ -360,13 +361,12 @@ public final class WeakEntity<T extends Entity> {
     }
 
     /**
-     * Forces the reference handler thread to run the {@code null} or garbage reference collection cycle and reclaim
+     * Removes every {@code null} or garbage reference which is waiting for the reference handler, and reclaims the
      * memory lost by those references
      *
-     * <p>This runs the mark sweeping strategy employed by the reference handler. Previous references are swept from
-     * the session and the thread continues to mark the {@code null} references. They are placed into a collection
-     * until the sweeping completes. When this step does complete, the collection is checked, then the references are
-     * purged from the reference queue.</p>
+     * <p>This is run by the calling thread, and only removes the references which have already been cleared.
+     * References to other entities are not inspected, so the cost depends only on how many references have been
+     * cleared since they were last removed.</p>
      *
      * <p>Unlike Java's default GC implementation, this method is strongly bound. This always succeeds in running the
      * collection cycle.</p>
@@ -473,12 +473,19 @@ public final class WeakEntity<T extends Entity> {
         return getClass().getName() + "{referencedEntity = " + referencedEntity.get() + "}@" + hashCode();
     }
 
-    // Thread-visible version of WeakReference
+    // Thread-visible version of WeakReference, which is queued once its entity is removed or collected
     private static class SafeReference<T> extends WeakReference<T> {
+        private final int entityId;
         private volatile int fence = 0;
 
         public SafeReference(T referent) {
             super(referent);
+            this.entityId = 0;
+        }
+
+        public SafeReference(T referent, int entityId, ReferenceQueue<? super T> queue) {
+            super(referent, queue);
+            this.entityId = entityId;
         }
 
         @Override
@@ -491,23 +498,19 @@ public final class WeakEntity<T extends Entity> {
         public void clear() {
             super.clear();
             fence = 0;
+            // Clearing does not queue the reference, so it is queued here for the reference handler to remove
+            enqueue();
         }
     }
 
-    // Stores references and collects/cleans up null references
+    // Stores the references to each entity by entity id, and removes the references which have been cleared
     private static class CleaningRefCollection implements Runnable {
-        @GuardedBy("lock")
-        private RefEntry[] entries = new RefEntry[16];
-
-        @GuardedBy("lock")
-        private int length;
-
-        // Locking mechanisms
-        private final Lock lock = new ReentrantLock();
-        private final Condition hasNodes = lock.newCondition();
+        // References removed by the threads creating WeakEntities, which bounds the work added to each creation
+        private static final int EXPUNGE_ON_PUT = 8;
 
-        // INVARIANT: MODIFIED THREAD-LOCALLY ONLY
-        private final Set<WeakEntity> marked = Sets.newHashSet();
+        // Updates to the references of an entity lock only the bin of the entity id
+        private final ConcurrentMap<Integer, RefList> lists = new ConcurrentHashMap<>();
+        private final ReferenceQueue<Entity> queue = new ReferenceQueue<>();
 
         private CleaningRefCollection() {
         }
@@ -516,262 +519,83 @@ public final class WeakEntity<T extends Entity> {
             return new CleaningRefCollection();
         }
 
+        public <T extends Entity> SafeReference<T> reference(T entity) {
+            return new SafeReference<>(entity, entity.entityId(), queue);
+        }
+
         public void put(WeakEntity<?> weakEntity) {
-            if (weakEntity.isNull()) return; // Don't bother with trying
-            RefList node = RefList.newNode(weakEntity, get(weakEntity.entity()));
-            add(node.finder(), node);
+            Entity entity = weakEntity.entity();
+            if (entity == null) return; // Don't bother with trying
+
+            SafeReference<?> reference = weakEntity.referencedEntity;
+            RefList list = lists.compute(reference.entityId, (id, existing) -> {
+                // Ids are only reused once the previous entity is gone
+                RefList refs = existing == null || !existing.holds(entity) ? new RefList(entity) : existing;
+                refs.add(reference);
+                return refs;
+            });
+            weakEntity.finder = list.finder();
+
+            expunge(EXPUNGE_ON_PUT);
         }
 
-        // Clears references to the entity, forcing the sweep to run
-        // this leaves the empty node to be collected by the sweeper
+        // Clears references to the entity, they are removed from the collection when they are dequeued
         public void clearReference(Entity entity) {
-            RefList entities = get(entity);
-
-            if (entities == null)
+            RefList list = lists.get(entity.entityId());
+            if (list == null || !list.holds(entity))
                 return;
-            for (WeakEntity<?> e : entities)
-                e.clear();
 
-            // Clear unused reference
-            beginSweep();
+            lists.remove(entity.entityId(), list);
+            list.clear();
         }
 
         public Object finderOf(Entity entity) {
-            RefList node = get(entity);
-            if (node == null)
+            RefList list = lists.get(entity.entityId());
+            if (list == null || !list.holds(entity))
                 return RefList.NULL;
 
-            return node.finder();
+            return list.finder();
         }
 
+        // Removes every reference which has been queued so far
         public void beginSweep() {
-            lock.lock();
-            try {
-                hasNodes.signal();
-            } finally {
-                lock.unlock();
-            }
-        }
-
-        @Override
-        public void run() {
-            while (true) {
-                try {
-                    lock.lockInterruptibly();
-                    while (marked.isEmpty())
-                        hasNodes.await();
-
-                    // Step 1: find nodes
-                    Set<RefEntry> entries = entries();
-
-                    // Step 2: mark
-                    for (RefEntry entry : entries) {
-                        Set<WeakEntity> weakRefs = entry.val().refs();
-
-                        marked.addAll(weakRefs.stream().filter(WeakEntity::isNull).collect(Collectors.toList()));
-                    }
-
-                    // Step 3: sweep
-                    for (RefEntry entry : entries) {
-                        Set<WeakEntity> refs = entry.val().refs();
-                        refs.removeAll(marked);
-
-                        if (refs.isEmpty()) {
-                            remove(entry.val());
-                        }
-                    }
-
-                    // Remove marked entries
-                    marked.clear();
-                } catch (InterruptedException ignored) {
-                    // Run by a daemon thread, doesn't matter if it was interrupted
-                } finally {
-                    lock.unlock();
-                }
-            }
-        }
-
-        // Collection ops
-        private void add(Object key, RefList value) {
-            lock.lock();
-            try {
-                int hash = hash(key);
-                RefEntry toSet = this.search(key, value, hash);
-                toSet.setHash(hash);
-                toSet.setVal(value);
-            } finally {
-                lock.unlock();
-            }
-        }
-
-        private RefList get(Object key) {
-            lock.lock();
-            try {
-                int hash = hash(key);
-                RefEntry node = this.loop(key, this.entries[hash]);
-                if (node == null)
-                    return null;
-                else
-                    return node.val();
-            } finally {
-                lock.unlock();
-            }
+            expunge(Integer.MAX_VALUE);
         }
 
-        private void remove(Object key) {
-            try {
-                RefEntry head = this.entries[hash(key)];
-                if (head == null)
+        // Removes at most the given amount of queued references, without waiting for more to be queued
+        private void expunge(int max) {
+            for (int i = 0; i < max; i++) {
+                Reference<? extends Entity> reference = queue.poll();
+                if (reference == null)
                     return;
-
-                this.remove(key, head);
-            } finally {
-                lock.unlock();
-            }
-        }
-
-        private Set<RefEntry> entries() {
-            Set<RefEntry> set = Sets.newHashSet();
-            for (RefEntry entry : entries) {
-                if (entry == null)
-                    continue;
-                set.add(entry);
-            }
-            return set;
-        }
-
-        private void resize() {
-            lock.lock();
-            try {
-                if (this.length > entries.length - 2) {
-                    int newLen = entries.length * 2;
-
-                    RefEntry[] resize = new RefEntry[newLen];
-                    System.arraycopy(entries, 0, resize, 0, length);
-                    this.entries = resize;
-                }
-            } finally {
-                lock.unlock();
-            }
-        }
-
-        private int hash(Object key) {
-            long h = key.hashCode();
-            h = (h >> 16 ^ h) * 0x33L;
-            h = (h >> 16 ^ h) * 0x33L;
-            h = h >> 16 ^ h;
-
-            return (int) (h & ((long) entries.length - 1));
-        }
-
-        private RefEntry loop(Object key, RefEntry head) {
-            RefEntry tail = head;
-            while (tail != null) {
-                if (tail.key().equals(key))
-                    return tail;
-                tail = tail.next();
+                remove((SafeReference<?>) reference);
             }
-
-            return null;
-        }
-
-        private RefEntry search(Object k, RefList v, int hash) {
-            RefEntry head = this.entries[hash];
-            RefEntry tail = this.loop(k, head);
-            if (tail != null)
-                return tail;
-            else
-                return this.create(k, null, v, hash);
         }
 
-        private RefEntry create(Object k, RefEntry previous, RefList v, int hash) {
-            RefEntry node = new RefEntry(k, v, hash);
-            if (previous == null) {
-                this.entries[hash] = node;
-                this.length++;
-                this.resize();
-                return node;
-            }
+        private void remove(SafeReference<?> reference) {
+            RefList list = lists.get(reference.entityId);
+            if (list == null || !list.remove(reference) || !list.isEmpty())
+                return;
 
-            previous.setNext(node);
-            this.length++;
-            this.resize();
-            return node;
+            // Checked again while the bin is held, as a reference may have been added in the meantime
+            lists.computeIfPresent(reference.entityId, (id, existing) ->
+                    existing == list && existing.isEmpty() ? null : existing);
         }
 
-        private void remove(Object k, RefEntry head) {
-            RefEntry leading = head;
-            RefEntry tail = leading == null ? null : leading.next();
-
-            while (tail != null) {
-                if (tail.key().equals(k)) {
-                    leading.setNext(tail.next());
-                    this.length--;
-                    return;
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    remove((SafeReference<?>) queue.remove());
+                } catch (InterruptedException ignored) {
+                    // Run by a daemon thread, doesn't matter if it was interrupted
                 }
-
-                tail = tail.next();
-                leading = leading.next();
             }
-
-            if (leading != null && leading.key().equals(k))
-                this.entries[leading.hash()] = null;
-
-            this.length--;
-        }
-    }
-
-    private static class RefEntry {
-        private final Object key;
-
-        @GuardedBy("RefList.lock")
-        private RefList list;
-        @GuardedBy("RefList.lock")
-        private int hash;
-        @GuardedBy("RefList.lock")
-        private RefEntry next;
-
-        private RefEntry(Object key, RefList entity, int hash) {
-            this.key = key;
-            this.list = entity;
-            this.hash = hash;
-        }
-
-        public static RefEntry newEntry(Object key, RefList entity, int hash) {
-            return new RefEntry(key, entity, hash);
-        }
-
-        public Object key() {
-            return this.key;
-        }
-
-        public RefList val() {
-            return this.list;
-        }
-
-        public void setVal(RefList list) {
-            this.list = list;
-        }
-
-        public int hash() {
-            return this.hash;
-        }
-
-        public void setHash(int hash) {
-            this.hash = hash;
-        }
-
-        public RefEntry next() {
-            return this.next;
-        }
-
-        public void setNext(RefEntry next) {
-            this.next = next;
         }
     }
 
     // A set of references assigned to a particular entity
-    private static class RefList implements Iterable<WeakEntity> {
+    private static class RefList {
         private static final Entity NULL = new Entity() {
             @Override public void teleport(double x, double y, double z) {}
             @Override public void teleport(Entity entity) {}
@@ -806,66 +630,50 @@ public final class WeakEntity<T extends Entity> {
             }
         };
 
-        @GuardedBy("lock")
-        private final Set<WeakEntity> weakEntities;
+        private final Set<SafeReference<?>> refs = ConcurrentHashMap.newKeySet();
+        // Not queued, so it does not keep the list alive
+        private final SafeReference<Entity> entity;
         private final Object finder;
-        private final Object lock = new Object();
 
-        private RefList(final WeakEntity entity, RefList node) {
-            entity.finder = this.finder = new Object() {
+        private RefList(Entity entity) {
+            this.entity = new SafeReference<>(entity);
+            final SafeReference<Entity> ref = this.entity;
+            this.finder = new Object() {
                 @Override
                 public int hashCode() {
-                    return entity.hashCode();
+                    Object o = ref.get();
+                    return o == null ? 0 : o.hashCode();
                 }
 
                 @Override
                 public boolean equals(Object obj) {
-                    return entity.equals(obj);
+                    Object o = ref.get();
+                    return obj == null ? o == null : obj.equals(o);
                 }
             };
-
-            Set<WeakEntity> original;
-            if (node == null)
-                original = Sets.newHashSet();
-            else
-                original = node.weakEntities;
-
-            if (original == null)
-                original = Sets.newHashSet();
-            original.add(entity);
-
-            weakEntities = original;
         }
 
-        public static RefList newNode(WeakEntity entity, RefList node) {
-            return new RefList(entity, node);
+        public boolean holds(Entity entity) {
+            return this.entity.get() == entity;
         }
 
-        // Removes the references which are empty
-        public void clean() throws InterruptedException {
-            synchronized (lock) {
-                weakEntities.stream().filter(WeakEntity::isNull).forEach(weakEntities::remove);
-            }
+        public void add(SafeReference<?> reference) {
+            refs.add(reference);
         }
 
-        // Removes a specified entity
-        public void clear(WeakEntity entity) {
-            synchronized (lock) {
-                weakEntities.remove(entity);
-            }
+        public boolean remove(SafeReference<?> reference) {
+            return refs.remove(reference);
         }
 
-        public Set<WeakEntity> refs() {
-            synchronized (lock) {
-                return weakEntities;
-            }
+        public boolean isEmpty() {
+            return refs.isEmpty();
         }
 
-        @Override
-        public Iterator<WeakEntity> iterator() {
-            synchronized (lock) {
-                return weakEntities.iterator();
-            }
+        // Clears every reference, the references are queued and removed by the reference handler
+        public void clear() {
+            entity.clear();
+            for (SafeReference<?> ref : refs)
+                ref.clear();
         }
 
         // Used to reference the entity without actually using it
@@ -0,0 +1,514 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.world;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+import net.tridentsdk.Position;
+import net.tridentsdk.entity.Entity;
+import net.tridentsdk.entity.types.EntityType;
+import net.tridentsdk.util.Long2ObjectMap;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A spatial index of the entities in a world, bucketed by the 16x16x16 chunk section each entity occupies
+ *
+ * <p>The index is updated incrementally: the server tracks an entity once it is spawned, moves it when the entity's
+ * position changes, and untracks it once it is removed. Moving an entity within the same section only updates the
+ * stored coordinates.</p>
+ *
+ * <p>Queries only visit the sections which intersect the queried volume, and place their results into a list
+ * provided by the caller. A list which is cleared and reused between queries does not cause any allocation once it
+ * has grown large enough to hold the results.</p>
+ *
+ * <pre><code>
+ *     private final List&lt;Entity&gt; buffer = new ArrayList&lt;&gt;();
+ *
+ *     ...
+ *     buffer.clear();
+ *     world.entityIndex().entitiesInRadius(explosion, 8, null, buffer);
+ *     for (int i = 0; i &lt; buffer.size(); i++) {
+ *         ...
+ *     }
+ * </code></pre>
+ *
+ * @author The TridentSDK Team
+ */
+@ThreadSafe
+public class EntityIndex {
+    private static final int SECTION_SHIFT = 4;
+    private static final ThreadLocal<double[]> DISTANCES = new ThreadLocal<double[]>() {
+        @Override
+        protected double[] initialValue() {
+            return new double[16];
+        }
+    };
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock read = lock.readLock();
+    private final Lock write = lock.writeLock();
+
+    @GuardedBy("lock")
+    private final Long2ObjectMap<Section> sections = new Long2ObjectMap<>();
+    // Queries are never nested, so a single cursor per thread prevents an iterator from being allocated per query
+    private final ThreadLocal<Cursor> cursors = new ThreadLocal<Cursor>() {
+        @Override
+        protected Cursor initialValue() {
+            return new Cursor(sections);
+        }
+    };
+    @GuardedBy("lock")
+    private final Map<Entity, Node> nodes = Maps.newIdentityHashMap();
+
+    /**
+     * Creates a new, empty entity index
+     */
+    public EntityIndex() {
+    }
+
+    /**
+     * Packs the section coordinates into the key which identifies the bucket
+     *
+     * @param sectionX the x coordinate of the section, in block coordinates shifted right by 4
+     * @param sectionY the y coordinate of the section, in block coordinates shifted right by 4
+     * @param sectionZ the z coordinate of the section, in block coordinates shifted right by 4
+     * @return the key of the section
+     */
+    static long sectionKey(int sectionX, int sectionY, int sectionZ) {
+        return ((sectionX & 0x3FFFFFL) << 42) | ((sectionZ & 0x3FFFFFL) << 20) | (sectionY & 0xFFFFFL);
+    }
+
+    private static int section(double coordinate) {
+        return (int) Math.floor(coordinate) >> SECTION_SHIFT;
+    }
+
+    private static double square(double d) {
+        return d * d;
+    }
+
+    /**
+     * Begins tracking the entity at its current position
+     *
+     * <p>Tracking an entity which is already tracked moves it to its current position instead.</p>
+     *
+     * @param entity the entity to track
+     */
+    public void track(Entity entity) {
+        Preconditions.checkNotNull(entity, "Entity cannot be null");
+        Position position = entity.position();
+        move(entity, position.x(), position.y(), position.z());
+    }
+
+    /**
+     * Updates the position of the entity in the index, tracking it if it is not yet tracked
+     *
+     * <p>This should be called by the server whenever the entity moves. If the entity remains in the same section,
+     * only the stored coordinates are changed.</p>
+     *
+     * @param entity the entity which has moved
+     * @param x      the new x coordinate of the entity
+     * @param y      the new y coordinate of the entity
+     * @param z      the new z coordinate of the entity
+     */
+    public void move(Entity entity, double x, double y, double z) {
+        Preconditions.checkNotNull(entity, "Entity cannot be null");
+        long key = sectionKey(section(x), section(y), section(z));
+
+        write.lock();
+        try {
+            Node node = nodes.get(entity);
+            if (node == null) {
+                node = new Node(entity);
+                nodes.put(entity, node);
+            } else if (node.key != key) {
+                detach(node);
+            } else {
+                node.set(x, y, z);
+                return;
+            }
+
+            node.set(x, y, z);
+            node.key = key;
+
+            Section section = sections.get(key);
+            if (section == null) {
+                section = new Section();
+                sections.put(key, section);
+            }
+            section.add(node);
+        } finally {
+            write.unlock();
+        }
+    }
+
+    /**
+     * Stops tracking the entity, such as when it is removed from the world
+     *
+     * @param entity the entity to remove from the index
+     * @return {@code true} if the entity was tracked
+     */
+    public boolean untrack(Entity entity) {
+        write.lock();
+        try {
+            Node node = nodes.remove(entity);
+            if (node == null)
+                return false;
+
+            detach(node);
+            return true;
+        } finally {
+            write.unlock();
+        }
+    }
+
+    @GuardedBy("write")
+    private void detach(Node node) {
+        Section section = sections.get(node.key);
+        section.remove(node);
+        if (section.size == 0)
+            sections.remove(node.key);
+    }
+
+    /**
+     * The amount of entities that are tracked by this index
+     *
+     * @return the tracked entity count
+     */
+    public int size() {
+        read.lock();
+        try {
+            return nodes.size();
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /**
+     * Finds the entities within the spherical radius around the given position
+     *
+     * @param center the center of the sphere
+     * @param radius the radius of the sphere
+     * @param type   the type of entity to find, or {@code null} to find entities of all types
+     * @param result the list which the found entities are appended to
+     * @return the amount of entities that were appended to the list
+     */
+    public int entitiesInRadius(Position center, double radius, @Nullable EntityType type, List<Entity> result) {
+        Preconditions.checkNotNull(center, "Center cannot be null");
+        double cx = center.x();
+        double cy = center.y();
+        double cz = center.z();
+        double radiusSquared = radius * radius;
+
+        read.lock();
+        try {
+            int found = 0;
+            for (Section section : covering(cx - radius, cy - radius, cz - radius,
+                    cx + radius, cy + radius, cz + radius)) {
+                Node[] entries = section.entries;
+                for (int i = 0; i < section.size; i++) {
+                    Node node = entries[i];
+                    if (type != null && node.type != type)
+                        continue;
+                    if (square(node.x - cx) + square(node.y - cy) + square(node.z - cz) > radiusSquared)
+                        continue;
+
+                    result.add(node.entity);
+                    found++;
+                }
+            }
+
+            return found;
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /**
+     * Finds the entities within the axis aligned box between the two corners, inclusive
+     *
+     * @param minX   the lowest x coordinate of the box
+     * @param minY   the lowest y coordinate of the box
+     * @param minZ   the lowest z coordinate of the box
+     * @param maxX   the highest x coordinate of the box
+     * @param maxY   the highest y coordinate of the box
+     * @param maxZ   the highest z coordinate of the box
+     * @param type   the type of entity to find, or {@code null} to find entities of all types
+     * @param result the list which the found entities are appended to
+     * @return the amount of entities that were appended to the list
+     */
+    public int entitiesInBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+            @Nullable EntityType type, List<Entity> result) {
+        read.lock();
+        try {
+            int found = 0;
+            for (Section section : covering(minX, minY, minZ, maxX, maxY, maxZ)) {
+                Node[] entries = section.entries;
+                for (int i = 0; i < section.size; i++) {
+                    Node node = entries[i];
+                    if (type != null && node.type != type)
+                        continue;
+                    if (node.x < minX || node.y < minY || node.z < minZ ||
+                            node.x > maxX || node.y > maxY || node.z > maxZ)
+                        continue;
+
+                    result.add(node.entity);
+                    found++;
+                }
+            }
+
+            return found;
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /**
+     * Finds the closest entities to the given position, up to the specified amount
+     *
+     * <p>The found entities are appended to the list ordered from closest to furthest.</p>
+     *
+     * @param center    the position to measure distance from
+     * @param maxRadius the furthest distance an entity can be from the center to be found
+     * @param count     the maximum amount of entities to find
+     * @param type      the type of entity to find, or {@code null} to find entities of all types
+     * @param result    the list which the found entities are appended to
+     * @return the amount of entities that were appended to the list
+     */
+    public int nearest(Position center, double maxRadius, int count, @Nullable EntityType type,
+            List<Entity> result) {
+        Preconditions.checkNotNull(center, "Center cannot be null");
+        Preconditions.checkArgument(count >= 0, "Count must not be negative");
+        if (count == 0)
+            return 0;
+
+        double cx = center.x();
+        double cy = center.y();
+        double cz = center.z();
+        double radiusSquared = maxRadius * maxRadius;
+
+        double[] distances = DISTANCES.get();
+        if (distances.length < count) {
+            distances = new double[count];
+            DISTANCES.set(distances);
+        }
+
+        int base = result.size();
+        int found = 0;
+
+        read.lock();
+        try {
+            for (Section section : covering(cx - maxRadius, cy - maxRadius, cz - maxRadius,
+                    cx + maxRadius, cy + maxRadius, cz + maxRadius)) {
+                Node[] entries = section.entries;
+                for (int i = 0; i < section.size; i++) {
+                    Node node = entries[i];
+                    if (type != null && node.type != type)
+                        continue;
+
+                    double distance = square(node.x - cx) + square(node.y - cy) + square(node.z - cz);
+                    if (distance > radiusSquared)
+                        continue;
+                    if (found == count && distance >= distances[found - 1])
+                        continue;
+
+                    // Insertion sort into the bounded window, dropping the furthest if full
+                    int slot = found == count ? found - 1 : found++;
+                    while (slot > 0 && distances[slot - 1] > distance) {
+                        distances[slot] = distances[slot - 1];
+                        slot--;
+                    }
+                    distances[slot] = distance;
+
+                    if (result.size() - base == count)
+                        result.remove(result.size() - 1);
+                    result.add(base + slot, node.entity);
+                }
+            }
+
+            return found;
+        } finally {
+            read.unlock();
+        }
+    }
+
+    @GuardedBy("read")
+    private Iterable<Section> covering(double minX, double minY, double minZ,
+            double maxX, double maxY, double maxZ) {
+        int minSectionX = section(minX);
+        int minSectionY = section(minY);
+        int minSectionZ = section(minZ);
+        int maxSectionX = section(maxX);
+        int maxSectionY = section(maxY);
+        int maxSectionZ = section(maxZ);
+
+        long volume = (long) (maxSectionX - minSectionX + 1) * (maxSectionY - minSectionY + 1) *
+                (maxSectionZ - minSectionZ + 1);
+        Cursor cursor = cursors.get();
+        cursor.reset(minSectionX, minSectionY, minSectionZ, maxSectionX, maxSectionY, maxSectionZ,
+                volume > sections.size());
+        return cursor;
+    }
+
+    // Guarded by the lock of the enclosing index
+    private static final class Node {
+        final Entity entity;
+        final EntityType type;
+
+        double x;
+        double y;
+        double z;
+        long key;
+        int slot;
+
+        Node(Entity entity) {
+            this.entity = entity;
+            this.type = entity.type();
+        }
+
+        void set(double x, double y, double z) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+    }
+
+    // Guarded by the lock of the enclosing index
+    private static final class Section {
+        Node[] entries = new Node[4];
+        int size;
+
+        void add(Node node) {
+            if (size == entries.length)
+                entries = Arrays.copyOf(entries, size << 1);
+            node.slot = size;
+            entries[size++] = node;
+        }
+
+        void remove(Node node) {
+            int last = --size;
+            Node moved = entries[last];
+            entries[node.slot] = moved;
+            moved.slot = node.slot;
+            entries[last] = null;
+        }
+    }
+
+    /*
+     * Visits either every section in the covered volume, or every occupied section in the table filtered by the
+     * covered volume, whichever visits fewer sections
+     */
+    private static final class Cursor implements Iterable<Section>, Iterator<Section> {
+        private final Long2ObjectMap<Section> table;
+
+        private int minX, minY, minZ, maxX, maxY, maxZ;
+        private int x, y, z;
+        private int index;
+        private boolean scan;
+        private Section next;
+
+        Cursor(Long2ObjectMap<Section> table) {
+            this.table = table;
+        }
+
+        void reset(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, boolean scan) {
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+            this.x = minX;
+            this.y = minY;
+            this.z = minZ;
+            this.index = 0;
+            this.scan = scan;
+            this.next = null;
+        }
+
+        @Override
+        public Iterator<Section> iterator() {
+            return this;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null)
+                return true;
+
+            if (scan) {
+                for (int slot = table.nextSlot(index); slot != -1; slot = table.nextSlot(slot + 1)) {
+                    if (contains(table.keyAt(slot))) {
+                        index = slot + 1;
+                        next = table.valueAt(slot);
+                        return true;
+                    }
+                }
+
+                index = Integer.MAX_VALUE;
+                return false;
+            }
+
+            while (x <= maxX) {
+                Section section = table.get(sectionKey(x, y, z));
+                if (++z > maxZ) {
+                    z = minZ;
+                    if (++y > maxY) {
+                        y = minY;
+                        x++;
+                    }
+                }
+
+                if (section != null) {
+                    next = section;
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        @Override
+        public Section next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            Section section = next;
+            next = null;
+            return section;
+        }
+
+        private boolean contains(long key) {
+            // Sign extend each packed component back into section coordinates
+            int sectionX = (int) (key >> 42);
+            int sectionZ = (int) (key << 22 >> 42);
+            int sectionY = (int) (key << 44 >> 44);
+            return sectionX >= minX && sectionX <= maxX && sectionY >= minY && sectionY <= maxY &&
+                    sectionZ >= minZ && sectionZ <= maxZ;
+        }
+    }
+}
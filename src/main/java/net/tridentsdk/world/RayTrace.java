@@ -0,0 +1,190 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.world;
+
+import net.tridentsdk.base.Block;
+import net.tridentsdk.base.BlockOrientation;
+import net.tridentsdk.entity.Entity;
+import net.tridentsdk.util.Coordinates;
+import net.tridentsdk.util.Vec3d;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * The result of tracing a ray through a world, which is reused between traces
+ *
+ * <p>A trace resets the result before it begins, so a caller that traces many rays should keep a single instance and
+ * pass it to every trace instead of creating a new one.</p>
+ *
+ * @author The TridentSDK Team
+ * @see RayTracer
+ */
+@NotThreadSafe
+public final class RayTrace {
+    private final Vec3d point = new Vec3d();
+
+    private Type type = Type.MISS;
+    private double distance;
+    private Block block;
+    private long blockPos;
+    private BlockOrientation face;
+    private Entity entity;
+
+    /**
+     * Creates a new result which has not hit anything
+     */
+    public RayTrace() {
+    }
+
+    void reset() {
+        type = Type.MISS;
+        distance = Double.NaN;
+        block = null;
+        blockPos = 0;
+        face = null;
+        entity = null;
+    }
+
+    void hitBlock(Block block, long blockPos, BlockOrientation face, double distance, Coordinates origin,
+            Coordinates direction) {
+        this.type = Type.BLOCK;
+        this.block = block;
+        this.blockPos = blockPos;
+        this.face = face;
+        this.entity = null;
+        setPoint(distance, origin, direction);
+    }
+
+    void hitEntity(Entity entity, double distance, Coordinates origin, Coordinates direction) {
+        this.type = Type.ENTITY;
+        this.entity = entity;
+        this.block = null;
+        this.blockPos = 0;
+        this.face = null;
+        setPoint(distance, origin, direction);
+    }
+
+    private void setPoint(double distance, Coordinates origin, Coordinates direction) {
+        this.distance = distance;
+        this.point.set(origin).addScaled(direction, distance);
+    }
+
+    /**
+     * What the ray has hit
+     *
+     * @return the type of hit
+     */
+    public Type type() {
+        return type;
+    }
+
+    /**
+     * Checks if the ray has hit anything
+     *
+     * @return {@code true} if a block or entity was hit
+     */
+    public boolean isHit() {
+        return type != Type.MISS;
+    }
+
+    /**
+     * The distance from the origin of the ray to the point which was hit
+     *
+     * @return the distance, or {@code NaN} if nothing was hit
+     */
+    public double distance() {
+        return distance;
+    }
+
+    /**
+     * The point where the ray entered the block or entity hit
+     *
+     * <p>The returned view is changed by the next trace which uses this result.</p>
+     *
+     * @return the point which was hit, undefined if nothing was hit
+     */
+    public Coordinates point() {
+        return point.view();
+    }
+
+    /**
+     * The block which was hit
+     *
+     * @return the block hit, or {@code null} if no block was hit
+     */
+    @Nullable
+    public Block block() {
+        return block;
+    }
+
+    /**
+     * The position of the block which was hit
+     *
+     * @return the packed position of the block hit, as encoded by
+     * {@link net.tridentsdk.util.BlockPos#pack(int, int, int)}, undefined if no block was hit
+     */
+    public long blockPos() {
+        return blockPos;
+    }
+
+    /**
+     * The face of the block which the ray has entered through
+     *
+     * @return the face hit, {@link BlockOrientation#SELF} if the ray started inside of the block, or {@code null} if
+     * no block was hit
+     */
+    @Nullable
+    public BlockOrientation face() {
+        return face;
+    }
+
+    /**
+     * The entity which was hit
+     *
+     * @return the entity hit, or {@code null} if no entity was hit
+     */
+    @Nullable
+    public Entity entity() {
+        return entity;
+    }
+
+    @Override
+    public String toString() {
+        return "RayTrace(" + type + ", " + distance + ")";
+    }
+
+    /**
+     * The kinds of objects a ray can hit
+     */
+    public enum Type {
+        /**
+         * The ray has reached its maximum distance without hitting anything
+         */
+        MISS,
+        /**
+         * The ray has hit a block
+         */
+        BLOCK,
+        /**
+         * The ray has hit an entity
+         */
+        ENTITY
+    }
+}
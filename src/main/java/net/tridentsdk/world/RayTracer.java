@@ -0,0 +1,323 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.world;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import net.tridentsdk.base.Block;
+import net.tridentsdk.base.BlockOrientation;
+import net.tridentsdk.entity.Entity;
+import net.tridentsdk.entity.types.EntityType;
+import net.tridentsdk.util.BlockPos;
+import net.tridentsdk.util.Coordinates;
+import net.tridentsdk.util.MathScratch;
+import net.tridentsdk.util.Vec3d;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Traces rays through the blocks and entities of a world
+ *
+ * <p>Blocks are traversed using the voxel traversal algorithm by Amanatides and Woo, which visits every block the ray
+ * passes through exactly once, in order, without stepping by a fixed amount. The chunk being walked through is kept
+ * while the ray stays inside of it, so only crossing into another chunk performs a chunk lookup.</p>
+ *
+ * <p>Entities are tested against the {@link EntityIndex} of the world, using a box around the position of each
+ * entity, in segments along the ray so that only entities close to the ray are tested.</p>
+ *
+ * <p>Results are written to a {@link RayTrace} passed in by the caller, which may be reused between traces.</p>
+ *
+ * @author The TridentSDK Team
+ */
+@ThreadSafe
+public final class RayTracer {
+    /**
+     * The half width of the box used for entity hit tests when no size is given
+     */
+    public static final double DEFAULT_HALF_WIDTH = 0.3;
+    /**
+     * The height of the box used for entity hit tests when no size is given
+     */
+    public static final double DEFAULT_HEIGHT = 1.8;
+
+    private static final int WORLD_HEIGHT = 256;
+    private static final double SEGMENT_LENGTH = 16;
+    private static final ThreadLocal<List<Entity>> CANDIDATES = new ThreadLocal<List<Entity>>() {
+        @Override
+        protected List<Entity> initialValue() {
+            return Lists.newArrayList();
+        }
+    };
+
+    private RayTracer() {
+    }
+
+    /**
+     * Traces the ray through the blocks of the world until the predicate accepts a block
+     *
+     * <p>The block which contains the origin is tested first. Chunks which are not loaded stop the trace.</p>
+     *
+     * @param world       the world to trace through
+     * @param origin      the point where the ray starts
+     * @param direction   the direction of the ray, which does not need to be normalized
+     * @param maxDistance the furthest distance from the origin to trace
+     * @param predicate   tests whether the ray hits a block, such as {@code block -> block.substance().isSolid()}
+     * @param result      the result to write the hit to
+     * @return {@code true} if a block was hit
+     */
+    public static boolean traceBlocks(World world, Coordinates origin, Coordinates direction, double maxDistance,
+            Predicate<Block> predicate, RayTrace result) {
+        Preconditions.checkNotNull(world, "World cannot be null");
+        Preconditions.checkNotNull(predicate, "Predicate cannot be null");
+        result.reset();
+
+        MathScratch scratch = MathScratch.get();
+        long mark = scratch.mark();
+        try {
+            Vec3d dir = scratch.vec().set(direction).normalize();
+            if (dir.lengthSquared() == 0)
+                return false;
+
+            double ox = origin.x();
+            double oy = origin.y();
+            double oz = origin.z();
+            double dx = dir.x();
+            double dy = dir.y();
+            double dz = dir.z();
+
+            int x = (int) Math.floor(ox);
+            int y = (int) Math.floor(oy);
+            int z = (int) Math.floor(oz);
+
+            int stepX = dx > 0 ? 1 : (dx < 0 ? -1 : 0);
+            int stepY = dy > 0 ? 1 : (dy < 0 ? -1 : 0);
+            int stepZ = dz > 0 ? 1 : (dz < 0 ? -1 : 0);
+
+            // Distance along the ray to cross one whole block on each axis
+            double deltaX = stepX == 0 ? Double.POSITIVE_INFINITY : Math.abs(1 / dx);
+            double deltaY = stepY == 0 ? Double.POSITIVE_INFINITY : Math.abs(1 / dy);
+            double deltaZ = stepZ == 0 ? Double.POSITIVE_INFINITY : Math.abs(1 / dz);
+
+            // Distance along the ray to the next block boundary on each axis
+            double nextX = boundary(ox, x, stepX, deltaX);
+            double nextY = boundary(oy, y, stepY, deltaY);
+            double nextZ = boundary(oz, z, stepZ, deltaZ);
+
+            BlockOrientation faceX = stepX > 0 ? BlockOrientation.WEST : BlockOrientation.EAST;
+            BlockOrientation faceY = stepY > 0 ? BlockOrientation.BOTTOM : BlockOrientation.TOP;
+            BlockOrientation faceZ = stepZ > 0 ? BlockOrientation.NORTH : BlockOrientation.SOUTH;
+
+            BlockOrientation face = BlockOrientation.SELF;
+            double distance = 0;
+            Chunk chunk = null;
+
+            while (true) {
+                if (y >= 0 && y < WORLD_HEIGHT) {
+                    int chunkX = x >> 4;
+                    int chunkZ = z >> 4;
+                    if (chunk == null || chunk.x() != chunkX || chunk.z() != chunkZ) {
+                        chunk = world.chunkAt(chunkX, chunkZ, false);
+                        if (chunk == null)
+                            return false;
+                    }
+
+                    Block block = chunk.blockAt(x & 15, y, z & 15);
+                    if (predicate.test(block)) {
+                        result.hitBlock(block, BlockPos.pack(x, y, z), face, distance, origin, dir);
+                        return true;
+                    }
+                } else if ((y < 0 && stepY <= 0) || (y >= WORLD_HEIGHT && stepY >= 0)) {
+                    // The ray is outside of the world and will never enter it
+                    return false;
+                }
+
+                if (nextX < nextY && nextX < nextZ) {
+                    distance = nextX;
+                    nextX += deltaX;
+                    x += stepX;
+                    face = faceX;
+                } else if (nextY < nextZ) {
+                    distance = nextY;
+                    nextY += deltaY;
+                    y += stepY;
+                    face = faceY;
+                } else {
+                    distance = nextZ;
+                    nextZ += deltaZ;
+                    z += stepZ;
+                    face = faceZ;
+                }
+
+                if (distance > maxDistance)
+                    return false;
+            }
+        } finally {
+            scratch.reset(mark);
+        }
+    }
+
+    private static double boundary(double origin, int block, int step, double delta) {
+        if (step > 0)
+            return (block + 1 - origin) * delta;
+        if (step < 0)
+            return (origin - block) * delta;
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Traces the ray against the entities in the index, using a default sized box for each entity
+     *
+     * @param index       the index of the entities to test
+     * @param origin      the point where the ray starts
+     * @param direction   the direction of the ray, which does not need to be normalized
+     * @param maxDistance the furthest distance from the origin to trace
+     * @param type        the type of entity which can be hit, or {@code null} to hit entities of any type
+     * @param result      the result to write the hit to
+     * @return {@code true} if an entity was hit
+     * @see #traceEntities(EntityIndex, Coordinates, Coordinates, double, EntityType, double, double, RayTrace)
+     */
+    public static boolean traceEntities(EntityIndex index, Coordinates origin, Coordinates direction,
+            double maxDistance, @Nullable EntityType type, RayTrace result) {
+        return traceEntities(index, origin, direction, maxDistance, type, DEFAULT_HALF_WIDTH, DEFAULT_HEIGHT,
+                result);
+    }
+
+    /**
+     * Traces the ray against the entities in the index, finding the closest entity hit
+     *
+     * <p>Each entity is tested as the box which extends {@code halfWidth} from its position on the x and z axes, and
+     * {@code height} above its position.</p>
+     *
+     * @param index       the index of the entities to test
+     * @param origin      the point where the ray starts
+     * @param direction   the direction of the ray, which does not need to be normalized
+     * @param maxDistance the furthest distance from the origin to trace
+     * @param type        the type of entity which can be hit, or {@code null} to hit entities of any type
+     * @param halfWidth   the half width of the box of each entity
+     * @param height      the height of the box of each entity
+     * @param result      the result to write the hit to
+     * @return {@code true} if an entity was hit
+     */
+    public static boolean traceEntities(EntityIndex index, Coordinates origin, Coordinates direction,
+            double maxDistance, @Nullable EntityType type, double halfWidth, double height, RayTrace result) {
+        Preconditions.checkNotNull(index, "Index cannot be null");
+        result.reset();
+
+        List<Entity> candidates = CANDIDATES.get();
+        MathScratch scratch = MathScratch.get();
+        long mark = scratch.mark();
+        try {
+            Vec3d dir = scratch.vec().set(direction).normalize();
+            if (dir.lengthSquared() == 0)
+                return false;
+
+            double ox = origin.x();
+            double oy = origin.y();
+            double oz = origin.z();
+            double dx = dir.x();
+            double dy = dir.y();
+            double dz = dir.z();
+
+            Entity closest = null;
+            double closestDistance = maxDistance;
+
+            // A hit in a segment may still be further than the entry point of an entity in the next segment, so
+            // tracing stops once the closest hit is no further than the start of the next segment
+            for (double start = 0; start < maxDistance && (closest == null || closestDistance > start);
+                 start += SEGMENT_LENGTH) {
+                double end = Math.min(start + SEGMENT_LENGTH, maxDistance);
+                double x1 = ox + dx * start;
+                double y1 = oy + dy * start;
+                double z1 = oz + dz * start;
+                double x2 = ox + dx * end;
+                double y2 = oy + dy * end;
+                double z2 = oz + dz * end;
+
+                // Positions are at the feet of the entity, so the box extends downwards by the height
+                candidates.clear();
+                index.entitiesInBox(Math.min(x1, x2) - halfWidth, Math.min(y1, y2) - height,
+                        Math.min(z1, z2) - halfWidth, Math.max(x1, x2) + halfWidth, Math.max(y1, y2),
+                        Math.max(z1, z2) + halfWidth, type, candidates);
+
+                for (int i = 0; i < candidates.size(); i++) {
+                    Entity entity = candidates.get(i);
+                    Coordinates position = entity.position();
+                    double distance = intersect(ox, oy, oz, dx, dy, dz,
+                            position.x() - halfWidth, position.y(), position.z() - halfWidth,
+                            position.x() + halfWidth, position.y() + height, position.z() + halfWidth);
+                    if (distance >= 0 && distance <= closestDistance) {
+                        closest = entity;
+                        closestDistance = distance;
+                    }
+                }
+            }
+
+            if (closest == null)
+                return false;
+
+            result.hitEntity(closest, closestDistance, origin, dir);
+            return true;
+        } finally {
+            candidates.clear();
+            scratch.reset(mark);
+        }
+    }
+
+    // Slab test, returns the distance to where the ray enters the box, or -1 if it does not hit
+    private static double intersect(double ox, double oy, double oz, double dx, double dy, double dz,
+            double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        double near = 0;
+        double far = Double.POSITIVE_INFINITY;
+
+        if (dx == 0) {
+            if (ox < minX || ox > maxX)
+                return -1;
+        } else {
+            double t1 = (minX - ox) / dx;
+            double t2 = (maxX - ox) / dx;
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+        }
+
+        if (dy == 0) {
+            if (oy < minY || oy > maxY)
+                return -1;
+        } else {
+            double t1 = (minY - oy) / dy;
+            double t2 = (maxY - oy) / dy;
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+        }
+
+        if (dz == 0) {
+            if (oz < minZ || oz > maxZ)
+                return -1;
+        } else {
+            double t1 = (minZ - oz) / dz;
+            double t2 = (maxZ - oz) / dz;
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+        }
+
+        return near <= far ? near : -1;
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.world;
+
+import com.google.common.base.Preconditions;
+import net.tridentsdk.util.TridentLogger;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * A square group of chunks which is ticked by a single thread at a time
+ *
+ * <p>While a region is being ticked, the thread ticking it owns the chunks, entities and blocks inside it, and may
+ * modify them without further synchronization. Other threads must not modify the contents of the region directly;
+ * they {@link #execute(Runnable) send} a task to the region instead, which the owning thread runs at the start of
+ * its next tick. Tasks sent during a tick of the world always wait for the next tick, whether or not the receiving
+ * region has already been ticked.</p>
+ *
+ * @author The TridentSDK Team
+ * @see RegionScheduler
+ */
+@ThreadSafe
+public final class Region {
+    private static final ThreadLocal<Region> CURRENT = new ThreadLocal<>();
+
+    private final RegionScheduler scheduler;
+    private final int x;
+    private final int z;
+
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger mail = new AtomicInteger();
+    private volatile Thread owner;
+
+    // Reused by each tick of the region
+    private final TickAction action = new TickAction();
+
+    Region(RegionScheduler scheduler, int x, int z) {
+        this.scheduler = scheduler;
+        this.x = x;
+        this.z = z;
+    }
+
+    /**
+     * Obtains the region which the current thread is ticking
+     *
+     * @return the region owned by the current thread, or {@code null} if it is not ticking a region
+     */
+    @Nullable
+    public static Region current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * The world which the region is in
+     *
+     * @return the world of the region
+     */
+    public World world() {
+        return scheduler.world();
+    }
+
+    /**
+     * The x coordinate of the region, which is the chunk x coordinate shifted right by the region shift
+     *
+     * @return the region x coordinate
+     */
+    public int x() {
+        return x;
+    }
+
+    /**
+     * The z coordinate of the region, which is the chunk z coordinate shifted right by the region shift
+     *
+     * @return the region z coordinate
+     */
+    public int z() {
+        return z;
+    }
+
+    /**
+     * Checks if the chunk is in this region
+     *
+     * @param chunkX the x coordinate of the chunk
+     * @param chunkZ the z coordinate of the chunk
+     * @return {@code true} if the chunk is part of the region
+     */
+    public boolean contains(int chunkX, int chunkZ) {
+        int shift = scheduler.shift();
+        return chunkX >> shift == x && chunkZ >> shift == z;
+    }
+
+    /**
+     * Checks if the current thread owns this region, and so may modify its contents
+     *
+     * @return {@code true} if the region is being ticked by the current thread
+     */
+    public boolean isOwned() {
+        return owner == Thread.currentThread();
+    }
+
+    /**
+     * Runs the task on the thread which owns the region
+     *
+     * <p>If the current thread owns the region, the task is run immediately. Otherwise, it is run at the start of
+     * the next tick of the region.</p>
+     *
+     * @param task the task to run
+     */
+    public void execute(Runnable task) {
+        if (isOwned()) {
+            task.run();
+        } else {
+            send(task);
+        }
+    }
+
+    /**
+     * Queues the task to be run at the start of the next tick of the region, even if the current thread owns it
+     *
+     * @param task the task to run
+     */
+    public void send(Runnable task) {
+        Preconditions.checkNotNull(task, "Task cannot be null");
+        mailbox.add(task);
+        mail.incrementAndGet();
+    }
+
+    /**
+     * The amount of tasks waiting for the next tick of the region
+     *
+     * @return the amount of queued tasks
+     */
+    public int queued() {
+        return mail.get();
+    }
+
+    RecursiveAction prepare(Consumer<Region> ticker) {
+        action.reinitialize();
+        action.ticker = ticker;
+        action.mail = mail.get();
+        return action;
+    }
+
+    private void tick(Consumer<Region> ticker, int count) {
+        Thread thread = Thread.currentThread();
+        Region previous = CURRENT.get();
+        owner = thread;
+        CURRENT.set(this);
+
+        try {
+            // Only the tasks sent before the world tick started are run, tasks sent during it wait for the next one
+            for (int i = 0; i < count; i++) {
+                run(mailbox.poll());
+            }
+            mail.addAndGet(-count);
+
+            try {
+                ticker.accept(this);
+            } catch (Exception e) {
+                TridentLogger.error(e);
+            }
+        } finally {
+            owner = null;
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    private static void run(Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            TridentLogger.error(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Region(" + x + ", " + z + ")";
+    }
+
+    private final class TickAction extends RecursiveAction {
+        private Consumer<Region> ticker;
+        private int mail;
+
+        @Override
+        protected void compute() {
+            tick(ticker, mail);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.world;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import net.tridentsdk.Position;
+import net.tridentsdk.util.BlockPos;
+import net.tridentsdk.util.Long2ObjectMap;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Partitions a world into {@link Region regions} which are ticked in parallel
+ *
+ * <p>Each region is a square of {@code 2^shift} by {@code 2^shift} chunks. During a tick, every region is ticked on
+ * a thread of the fork join pool, and the thread owns the region until its tick is done. Because no two threads
+ * own the same region, the contents of a region are only ever modified by one thread at a time.</p>
+ *
+ * <p>Interactions which cross a region, such as an entity attacking an entity in a neighbouring region or walking
+ * into it, must be sent to the other region with {@link #execute(Position, Runnable)}. The task runs on the thread
+ * which owns the other region, at the start of its next tick. Plugins schedule tasks in a region with
+ * {@link net.tridentsdk.factory.TaskFactory#runAt(net.tridentsdk.plugin.TridentPlugin, Position,
+ * net.tridentsdk.concurrent.TridentRunnable)}.</p>
+ *
+ * @author The TridentSDK Team
+ */
+@ThreadSafe
+public class RegionScheduler {
+    /**
+     * The default region shift, which makes regions 8 by 8 chunks
+     */
+    public static final int DEFAULT_SHIFT = 3;
+
+    private final World world;
+    private final int shift;
+    private final ForkJoinPool pool;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock read = lock.readLock();
+    private final Lock write = lock.writeLock();
+    @GuardedBy("lock")
+    private final Long2ObjectMap<Region> regions = new Long2ObjectMap<>();
+
+    /**
+     * Creates a new scheduler for the world
+     *
+     * @param world the world to partition
+     * @param shift the amount which chunk coordinates are shifted right by to find their region
+     * @param pool  the pool which ticks the regions
+     */
+    public RegionScheduler(World world, int shift, ForkJoinPool pool) {
+        Preconditions.checkNotNull(world, "World cannot be null");
+        Preconditions.checkNotNull(pool, "Pool cannot be null");
+        Preconditions.checkArgument(shift >= 0 && shift <= 16, "Shift must be between 0 and 16");
+        this.world = world;
+        this.shift = shift;
+        this.pool = pool;
+    }
+
+    private static long key(int regionX, int regionZ) {
+        return BlockPos.pack(regionX, 0, regionZ);
+    }
+
+    /**
+     * The world which is partitioned
+     *
+     * @return the world
+     */
+    public World world() {
+        return world;
+    }
+
+    /**
+     * The amount which chunk coordinates are shifted right by to find their region
+     *
+     * @return the region shift
+     */
+    public int shift() {
+        return shift;
+    }
+
+    /**
+     * Obtains the region containing the chunk, creating it if it does not exist
+     *
+     * @param chunkX the x coordinate of the chunk
+     * @param chunkZ the z coordinate of the chunk
+     * @return the region of the chunk
+     */
+    public Region regionAt(int chunkX, int chunkZ) {
+        int regionX = chunkX >> shift;
+        int regionZ = chunkZ >> shift;
+        long key = key(regionX, regionZ);
+
+        read.lock();
+        try {
+            Region region = regions.get(key);
+            if (region != null)
+                return region;
+        } finally {
+            read.unlock();
+        }
+
+        write.lock();
+        try {
+            Region region = regions.get(key);
+            if (region == null) {
+                region = new Region(this, regionX, regionZ);
+                regions.put(key, region);
+            }
+            return region;
+        } finally {
+            write.unlock();
+        }
+    }
+
+    /**
+     * Obtains the region containing the position, creating it if it does not exist
+     *
+     * @param position the position
+     * @return the region of the position
+     */
+    public Region regionAt(Position position) {
+        return regionAt((int) Math.floor(position.x()) >> 4, (int) Math.floor(position.z()) >> 4);
+    }
+
+    /**
+     * Obtains the region containing the chunk, if it exists
+     *
+     * @param chunkX the x coordinate of the chunk
+     * @param chunkZ the z coordinate of the chunk
+     * @return the region of the chunk, or {@code null} if it has not been created
+     */
+    @Nullable
+    public Region regionIfPresent(int chunkX, int chunkZ) {
+        read.lock();
+        try {
+            return regions.get(key(chunkX >> shift, chunkZ >> shift));
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /**
+     * Runs the task on the thread which owns the region containing the position
+     *
+     * @param position the position which the task acts on
+     * @param task     the task to run
+     * @see Region#execute(Runnable)
+     */
+    public void execute(Position position, Runnable task) {
+        regionAt(position).execute(task);
+    }
+
+    /**
+     * Checks if the current thread owns the region containing the position
+     *
+     * @param position the position
+     * @return {@code true} if the current thread may modify the world at the position
+     */
+    public boolean isOwned(Position position) {
+        Region current = Region.current();
+        return current != null && current.isOwned() && current.world() == world &&
+                current.contains((int) Math.floor(position.x()) >> 4, (int) Math.floor(position.z()) >> 4);
+    }
+
+    /**
+     * Discards a region, such as when all of its chunks are unloaded
+     *
+     * <p>Tasks which were sent to the region and have not run are discarded with it.</p>
+     *
+     * @param region the region to discard
+     * @return {@code true} if the region was discarded
+     */
+    public boolean remove(Region region) {
+        write.lock();
+        try {
+            long key = key(region.x(), region.z());
+            if (regions.get(key) != region)
+                return false;
+            regions.remove(key);
+            return true;
+        } finally {
+            write.unlock();
+        }
+    }
+
+    /**
+     * Copies every region into the collection
+     *
+     * @param result the collection to add the regions to
+     * @return the amount of regions added
+     */
+    public int regions(Collection<Region> result) {
+        read.lock();
+        try {
+            for (int slot = regions.nextSlot(0); slot >= 0; slot = regions.nextSlot(slot + 1)) {
+                result.add(regions.valueAt(slot));
+            }
+            return regions.size();
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /**
+     * Ticks every region in parallel, returning once all of them have been ticked
+     *
+     * <p>Each region first runs the tasks which were sent to it before the tick started, then is passed to the
+     * ticker.</p>
+     *
+     * <p>This must not be called by more than one thread at a time.</p>
+     *
+     * @param ticker the action which ticks the contents of a region
+     */
+    public void tick(Consumer<Region> ticker) {
+        Preconditions.checkNotNull(ticker, "Ticker cannot be null");
+
+        List<RecursiveAction> actions = Lists.newArrayList();
+        read.lock();
+        try {
+            for (int slot = regions.nextSlot(0); slot >= 0; slot = regions.nextSlot(slot + 1)) {
+                actions.add(regions.valueAt(slot).prepare(ticker));
+            }
+        } finally {
+            read.unlock();
+        }
+
+        if (actions.isEmpty())
+            return;
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                ForkJoinTask.invokeAll(actions);
+            }
+        });
+    }
+}
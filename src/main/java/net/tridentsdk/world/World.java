@@ -23,8 +23,10 @@ import net.tridentsdk.GameMode;
 import net.tridentsdk.base.Block;
 import net.tridentsdk.entity.Entity;
 import net.tridentsdk.entity.types.EntityType;
+import net.tridentsdk.util.Coordinates;
 
 import java.util.Set;
+import java.util.function.Predicate;
 
 public interface World extends Cloneable {
     /**
@@ -69,6 +71,16 @@ public interface World extends Cloneable {
      */
     Block blockAt(Position location);
 
+    /**
+     * Gets the block at the given packed position
+     *
+     * <p>This avoids creating a {@link Position} when only the block coordinates are known.</p>
+     *
+     * @param position the position of the block, packed by {@link net.tridentsdk.util.BlockPos#pack(int, int, int)}
+     * @return The block at the given position
+     */
+    Block blockAt(long position);
+
     /**
      * Gets the dimension of a world
      *
@@ -202,4 +214,70 @@ public interface World extends Cloneable {
      * @return the entities in the world
      */
     Set<Entity> entities();
+
+    /**
+     * Obtains the spatial index of the entities in this world
+     *
+     * <p>Prefer querying the index over filtering {@link #entities()} when searching for entities near a position.</p>
+     *
+     * @return the entity index of the world
+     */
+    EntityIndex entityIndex();
+
+    /**
+     * Obtains the regions which the world is partitioned into, each of which is ticked by a single thread
+     *
+     * @return the region scheduler of the world
+     */
+    RegionScheduler regions();
+
+    /**
+     * Traces a ray through the blocks of this world, stopping at the first block accepted by the predicate
+     *
+     * @param origin      the point where the ray starts
+     * @param direction   the direction of the ray
+     * @param maxDistance the furthest distance from the origin to trace
+     * @param predicate   tests whether the ray hits a block
+     * @return the result of the trace
+     * @see RayTracer#traceBlocks(World, Coordinates, Coordinates, double, Predicate, RayTrace)
+     */
+    default RayTrace rayTrace(Coordinates origin, Coordinates direction, double maxDistance,
+            Predicate<Block> predicate) {
+        RayTrace result = new RayTrace();
+        RayTracer.traceBlocks(this, origin, direction, maxDistance, predicate, result);
+        return result;
+    }
+
+    /**
+     * Traces a ray through the blocks of this world, stopping at the first block accepted by the predicate, writing
+     * into a result which can be reused between traces
+     *
+     * @param origin      the point where the ray starts
+     * @param direction   the direction of the ray
+     * @param maxDistance the furthest distance from the origin to trace
+     * @param predicate   tests whether the ray hits a block
+     * @param result      the result to write the hit to
+     * @return {@code true} if a block was hit
+     * @see RayTracer#traceBlocks(World, Coordinates, Coordinates, double, Predicate, RayTrace)
+     */
+    default boolean rayTrace(Coordinates origin, Coordinates direction, double maxDistance,
+            Predicate<Block> predicate, RayTrace result) {
+        return RayTracer.traceBlocks(this, origin, direction, maxDistance, predicate, result);
+    }
+
+    /**
+     * Traces a ray against the entities in this world, finding the closest entity hit
+     *
+     * @param origin      the point where the ray starts
+     * @param direction   the direction of the ray
+     * @param maxDistance the furthest distance from the origin to trace
+     * @param type        the type of entity which can be hit, or {@code null} to hit entities of any type
+     * @param result      the result to write the hit to
+     * @return {@code true} if an entity was hit
+     * @see RayTracer#traceEntities(EntityIndex, Coordinates, Coordinates, double, EntityType, RayTrace)
+     */
+    default boolean rayTraceEntities(Coordinates origin, Coordinates direction, double maxDistance,
+            EntityType type, RayTrace result) {
+        return RayTracer.traceEntities(entityIndex(), origin, direction, maxDistance, type, result);
+    }
 }
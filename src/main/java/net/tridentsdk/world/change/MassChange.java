@@ -121,6 +121,17 @@ public interface MassChange {
     public void setBlock(Position coords, Substance substance, byte data)
             throws IllegalArgumentException, IllegalStateException;
 
+    /**
+     * Add a change to make at when this change is committed
+     *
+     * @param position  the position of the block to set, packed by {@link net.tridentsdk.util.BlockPos#pack(int,
+     *                  int, int)}
+     * @param substance the substance to change the block to
+     * @param data      the data value to give the new block
+     * @throws java.lang.IllegalStateException if this change has already been committed
+     */
+    public void setBlock(long position, Substance substance, byte data) throws IllegalStateException;
+
     /**
      * Sends the block changes to the clients and does lighting recalculations
      * <p/>
@@ -0,0 +1,75 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class AccessBridgeTest {
+    private interface Sent {
+    }
+
+    private interface Waited {
+    }
+
+    private static final class Impl implements Sent, Waited {
+    }
+
+    @Test
+    public void testSendDemand() {
+        AccessBridge bridge = AccessBridge.open();
+        AccessBridge.Slot<Sent> slot = bridge.slot(Sent.class);
+        Assert.assertFalse(slot.isPresent());
+        Assert.assertNull(slot.getNow());
+
+        Impl impl = new Impl();
+        bridge.sendImplemented(impl);
+        Assert.assertSame(slot, bridge.slot(Sent.class));
+        Assert.assertTrue(slot.isPresent());
+        Assert.assertSame(impl, slot.get());
+        Assert.assertSame(impl, bridge.demand(Sent.class));
+    }
+
+    @Test
+    public void testDemandWaits() throws Exception {
+        AccessBridge bridge = AccessBridge.open();
+        AtomicReference<Waited> demanded = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        Thread thread = new Thread(() -> {
+            demanded.set(bridge.demand(Waited.class));
+            done.countDown();
+        });
+        thread.start();
+
+        Assert.assertFalse(done.await(50, TimeUnit.MILLISECONDS));
+        Impl impl = new Impl();
+        bridge.send(Waited.class, impl);
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+        Assert.assertSame(impl, demanded.get());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testSendNull() {
+        AccessBridge.open().send(Impl.class, null);
+    }
+}
@@ -30,5 +30,7 @@ public class SchedulerTypeTest {
         Assert.assertEquals(SchedulerType.SYNC_RUN, SchedulerType.SYNC_RUN);
         Assert.assertEquals(SchedulerType.SYNC_LATER, SchedulerType.SYNC_LATER);
         Assert.assertEquals(SchedulerType.SYNC_REPEAT, SchedulerType.SYNC_REPEAT);
+        Assert.assertEquals(SchedulerType.REGION_RUN, SchedulerType.REGION_RUN);
+        Assert.assertEquals(SchedulerType.ASYNC_VIRTUAL, SchedulerType.ASYNC_VIRTUAL);
     }
 }
\ No newline at end of file
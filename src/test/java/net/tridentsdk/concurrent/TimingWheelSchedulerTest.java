@@ -0,0 +1,206 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.concurrent;
+
+import com.google.common.collect.Lists;
+import net.tridentsdk.plugin.TridentPlugin;
+import net.tridentsdk.profiler.TickRecord;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+import org.objenesis.ObjenesisStd;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TimingWheelSchedulerTest {
+    private final TridentPlugin plugin = (TridentPlugin) new ObjenesisStd().newInstance(TridentPlugin.class);
+    private final TimingWheelScheduler scheduler = new TimingWheelScheduler(Runnable::run);
+
+    // Runnable ids are global, and TridentRunnableTest expects them to start from 1
+    @AfterClass
+    public static void resetIds() throws Exception {
+        Field field = TridentRunnable.class.getDeclaredField("currentId");
+        field.setAccessible(true);
+        field.setInt(null, 0);
+    }
+
+    private TridentRunnable record(List<Long> ticks) {
+        return new TridentRunnable() {
+            @Override
+            public void run() {
+                ticks.add(scheduler.currentTick());
+            }
+        };
+    }
+
+    private void tick(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            scheduler.tick();
+        }
+    }
+
+    @Test
+    public void testRunAndLater() {
+        List<Long> ran = Lists.newArrayList();
+        scheduler.syncRun(plugin, record(ran));
+        scheduler.syncLater(plugin, record(ran), 5);
+        scheduler.asyncLater(plugin, record(ran), 100);
+        Assert.assertEquals(3, scheduler.size());
+
+        tick(200);
+        Assert.assertEquals(Lists.newArrayList(1L, 5L, 100L), ran);
+        Assert.assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    public void testLongDelays() {
+        Random random = new Random(42);
+        long[] expected = new long[500];
+        long[] actual = new long[500];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = 1 + random.nextInt(300_000);
+            int index = i;
+            scheduler.syncLater(plugin, new TridentRunnable() {
+                @Override
+                public void run() {
+                    actual[index] = scheduler.currentTick();
+                }
+            }, expected[i]);
+        }
+
+        tick(300_001);
+        Assert.assertArrayEquals(expected, actual);
+        Assert.assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    public void testRepeatCoalesced() {
+        AtomicInteger runs = new AtomicInteger();
+        List<ScheduledTask> tasks = Lists.newArrayList();
+        for (int i = 0; i < 1000; i++) {
+            tasks.add(scheduler.syncRepeat(plugin, new TridentRunnable() {
+                @Override
+                public void run() {
+                    runs.incrementAndGet();
+                }
+            }, 10, 20));
+        }
+
+        tick(10);
+        Assert.assertEquals(1000, runs.get());
+        tick(20);
+        Assert.assertEquals(2000, runs.get());
+
+        for (int i = 0; i < 500; i++) {
+            tasks.get(i).cancel();
+        }
+        Assert.assertEquals(500, scheduler.size());
+        tick(20);
+        Assert.assertEquals(2500, runs.get());
+    }
+
+    @Test
+    public void testSetInterval() {
+        List<Long> ran = Lists.newArrayList();
+        TridentRunnable repeating = record(ran);
+        scheduler.asyncRepeat(plugin, repeating, 0, 10);
+
+        tick(11);
+        repeating.setInterval(3);
+        Assert.assertEquals(3, repeating.interval());
+        tick(10);
+        Assert.assertEquals(Lists.newArrayList(1L, 11L, 14L, 17L, 20L), ran);
+        repeating.cancel();
+
+        List<Long> later = Lists.newArrayList();
+        TridentRunnable delayed = record(later);
+        scheduler.syncLater(plugin, delayed, 100);
+        delayed.setInterval(5);
+        tick(200);
+        Assert.assertEquals(Lists.newArrayList(scheduler.currentTick() - 195), later);
+    }
+
+    @Test
+    public void testCancel() {
+        List<Long> ran = Lists.newArrayList();
+        TridentRunnable runnable = new TridentRunnable() {
+            @Override
+            public void run() {
+                ran.add(scheduler.currentTick());
+                cancel();
+            }
+        };
+        scheduler.syncRepeat(plugin, runnable, 5, 5);
+        scheduler.syncLater(plugin, record(ran), 1000).cancel();
+        Assert.assertEquals(1, scheduler.size());
+
+        tick(100);
+        Assert.assertEquals(Lists.newArrayList(5L), ran);
+        Assert.assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    public void testVirtual() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Thread> threads = Lists.newArrayList();
+        scheduler.asyncVirtual(plugin, new TridentRunnable() {
+            @Override
+            public void run() {
+                threads.add(Thread.currentThread());
+                latch.countDown();
+            }
+        });
+
+        tick(1);
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assert.assertNotSame(Thread.currentThread(), threads.get(0));
+        Assert.assertEquals(VirtualThreads.isSupported(), VirtualThreads.isVirtual(threads.get(0)));
+    }
+
+    @Test
+    public void testCancelAll() {
+        for (int i = 0; i < 10; i++) {
+            scheduler.syncLater(plugin, record(Lists.newArrayList()), i * 1000);
+        }
+
+        Assert.assertEquals(10, scheduler.cancelAll(plugin));
+        Assert.assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    public void testProfiled() {
+        scheduler.profiler().enable();
+        try {
+            TridentRunnable runnable = record(Lists.newArrayList());
+            scheduler.syncRepeat(plugin, runnable, 0, 1);
+            scheduler.profiler().beginTick();
+            tick(3);
+            TickRecord record = scheduler.profiler().endTick();
+
+            Assert.assertEquals(3, record.sources().get(runnable.getClass().getName()).calls());
+            Assert.assertEquals(3, record.plugins().get(TridentPlugin.class.getName()).calls());
+        } finally {
+            scheduler.profiler().disable();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.concurrent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class VirtualThreadsTest {
+    @Test
+    public void testSupport() {
+        String version = System.getProperty("java.specification.version");
+        boolean java21 = !version.startsWith("1.") && Integer.parseInt(version) >= 21;
+        Assert.assertEquals(java21, VirtualThreads.isSupported());
+        Assert.assertFalse(VirtualThreads.isVirtual(Thread.currentThread()));
+    }
+
+    @Test
+    public void testFactory() {
+        Thread thread = VirtualThreads.factory("Test").newThread(() -> {
+        });
+        Assert.assertEquals("Test #1", thread.getName());
+        Assert.assertEquals(VirtualThreads.isSupported(), VirtualThreads.isVirtual(thread));
+    }
+
+    @Test
+    public void testBlockingTasks() throws Exception {
+        ExecutorService executor = VirtualThreads.executor("Test");
+        CountDownLatch started = new CountDownLatch(200);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 200; i++) {
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        // Every task blocks at once without waiting for another to finish
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+        release.countDown();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+}
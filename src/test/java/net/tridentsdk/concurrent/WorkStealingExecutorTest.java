@@ -0,0 +1,207 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.concurrent;
+
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WorkStealingExecutorTest {
+    private WorkStealingExecutor executor;
+
+    @After
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void testExecute() throws Exception {
+        executor = new WorkStealingExecutor(4, "Test");
+        CountDownLatch latch = new CountDownLatch(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            executor.execute(latch::countDown);
+        }
+
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(42, (int) executor.submit(() -> 42).get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, executor.queueDepth());
+    }
+
+    @Test
+    public void testOrderedWorker() throws Exception {
+        executor = new WorkStealingExecutor(4, "Test");
+        List<Integer> order = Lists.newArrayList();
+        TaskExecutor worker = executor.workerFor("key");
+        Assert.assertSame(worker, executor.workerFor("key"));
+
+        for (int i = 0; i < 1000; i++) {
+            int index = i;
+            executor.execute(() -> sleep(0));
+            worker.addTask(() -> order.add(index));
+        }
+
+        worker.submitTask(() -> null).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(1000, order.size());
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(i, (int) order.get(i));
+        }
+    }
+
+    @Test
+    public void testStoppedWorker() throws Exception {
+        executor = new WorkStealingExecutor(2, "Test");
+        TaskExecutor worker = executor.workerFor("key");
+        worker.interrupt();
+
+        try {
+            worker.addTask(() -> { });
+            Assert.fail("Stopped worker accepted a task");
+        } catch (IllegalStateException expected) {
+        }
+
+        // The key is assigned to the worker which replaced the stopped one
+        TaskExecutor replacement = executor.workerFor("key");
+        Assert.assertNotSame(worker, replacement);
+        Assert.assertEquals(2, executor.size());
+        Assert.assertEquals(1, (int) replacement.submitTask(() -> 1).get(10, TimeUnit.SECONDS));
+        Assert.assertTrue(executor.utilisation() <= 1);
+    }
+
+    @Test
+    public void testStoppedWorkerQueue() throws Exception {
+        executor = new WorkStealingExecutor(2, "Test");
+        TaskExecutor worker = executor.workerFor("key");
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        worker.addTask(() -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        List<Integer> order = Lists.newCopyOnWriteArrayList();
+        Future<Integer> first = worker.submitTask(() -> order.add(1) ? 1 : 0);
+        Future<Integer> second = worker.submitTask(() -> order.add(2) ? 2 : 0);
+        Assert.assertTrue(running.await(10, TimeUnit.SECONDS));
+
+        // The tasks queued before the stop run on the replacement worker, in order
+        worker.interrupt();
+        release.countDown();
+        Assert.assertEquals(1, (int) first.get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(2, (int) second.get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Lists.newArrayList(1, 2), order);
+    }
+
+    @Test
+    public void testSteal() throws Exception {
+        executor = new WorkStealingExecutor(4, "Test");
+        executor.setMaxScale(4);
+        CountDownLatch latch = new CountDownLatch(100);
+        executor.execute(() -> {
+            // Queued on this worker, which is busy until they are all done
+            for (int i = 0; i < 100; i++) {
+                executor.execute(() -> {
+                    sleep(1);
+                    latch.countDown();
+                });
+            }
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assert.assertTrue(executor.steals() >= 100);
+    }
+
+    @Test
+    public void testScaleAndExpire() throws Exception {
+        executor = new WorkStealingExecutor(1, "Test");
+        executor.setMaxScale(3);
+        executor.setExpireIntervalMillis(50);
+
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger done = new AtomicInteger();
+        for (int i = 0; i < 40; i++) {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.incrementAndGet();
+            });
+        }
+
+        Assert.assertEquals(3, executor.size());
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ((done.get() < 40 || executor.size() > 1) && System.currentTimeMillis() < deadline) {
+            sleep(10);
+        }
+        Assert.assertEquals(40, done.get());
+        Assert.assertEquals(1, executor.size());
+        Assert.assertTrue(executor.utilisation() > 0);
+    }
+
+    @Test
+    public void testExpiredWorkerRestarts() throws Exception {
+        executor = new WorkStealingExecutor(1, "Test");
+        executor.setExpireIntervalMillis(20);
+
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        TaskExecutor scaled = executor.scaledThread();
+        Assert.assertEquals(2, executor.size());
+        release.countDown();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (executor.size() > 1 && System.currentTimeMillis() < deadline) {
+            sleep(10);
+        }
+        Assert.assertEquals(1, executor.size());
+
+        Assert.assertEquals("ran", scaled.submitTask(() -> "ran").get(10, TimeUnit.SECONDS));
+    }
+}
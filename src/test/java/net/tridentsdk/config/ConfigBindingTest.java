@@ -0,0 +1,176 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.config;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class ConfigBindingTest {
+    public interface Settings {
+        @ConfigValue(path = "spawn.radius", def = "16", min = 0)
+        int spawnRadius();
+
+        @ConfigValue(def = "Trident")
+        String name();
+
+        boolean enabled();
+
+        @ConfigValue(def = "[]")
+        List<String> whitelist();
+
+        Spawn spawn();
+    }
+
+    public interface Spawn {
+        @ConfigValue(def = "0.5")
+        double protection();
+    }
+
+    public interface Invalid {
+        int value(int index);
+    }
+
+    public interface Recursive {
+        Recursive child();
+    }
+
+    public interface Outer {
+        Inner inner();
+    }
+
+    public interface Inner {
+        Outer outer();
+    }
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("binding", ".json");
+        write("{\"spawn\": {\"radius\": 8, \"protection\": 2.5}, \"enabled\": true, \"whitelist\": [\"a\", \"b\"]}");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private void write(String json) throws IOException {
+        Files.write(file, json.getBytes(Charsets.UTF_8));
+    }
+
+    @Test
+    public void testValues() {
+        Settings settings = ConfigBinding.bind(new JsonConfig(file), Settings.class);
+        Assert.assertEquals(8, settings.spawnRadius());
+        Assert.assertEquals("Trident", settings.name());
+        Assert.assertTrue(settings.enabled());
+        Assert.assertEquals(ImmutableList.of("a", "b"), settings.whitelist());
+        Assert.assertEquals(2.5D, settings.spawn().protection(), 0);
+        Assert.assertEquals(settings, settings);
+    }
+
+    @Test
+    public void testDefaults() throws IOException {
+        write("{\"spawn\": {\"radius\": -4}}");
+        Settings settings = ConfigBinding.bind(new JsonConfig(file), Settings.class);
+        Assert.assertEquals(16, settings.spawnRadius());
+        Assert.assertFalse(settings.enabled());
+        Assert.assertEquals(ImmutableList.of(), settings.whitelist());
+        Assert.assertEquals(0.5D, settings.spawn().protection(), 0);
+    }
+
+    @Test
+    public void testReload() throws IOException {
+        JsonConfig config = new JsonConfig(file);
+        Settings settings = ConfigBinding.bind(config, Settings.class);
+        Spawn spawn = settings.spawn();
+
+        write("{\"spawn\": {\"radius\": 32}, \"name\": \"Reloaded\"}");
+        config.reload();
+        Assert.assertEquals(32, settings.spawnRadius());
+        Assert.assertEquals("Reloaded", settings.name());
+        Assert.assertEquals(0.5D, settings.spawn().protection(), 0);
+        // Sections are read once per reload
+        Assert.assertEquals(2.5D, spawn.protection(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalid() {
+        ConfigBinding.bind(new JsonConfig(file), Invalid.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRecursive() {
+        ConfigBinding.bind(new JsonConfig(file), Recursive.class);
+    }
+
+    @Test
+    public void testMutuallyRecursive() {
+        try {
+            ConfigBinding.bind(new JsonConfig(file), Outer.class);
+            Assert.fail("Outer contains itself through Inner");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage(), e.getMessage().contains("Outer -> ") &&
+                    e.getMessage().contains("Inner -> "));
+        }
+
+        // A rejected cycle does not affect the interfaces bound after it
+        Assert.assertEquals(2.5D, ConfigBinding.bind(new JsonConfig(file), Settings.class).spawn().protection(), 0);
+    }
+
+    @Test
+    public void testSavedThenReloaded() {
+        JsonConfig config = new JsonConfig(file);
+        Settings settings = ConfigBinding.bind(config, Settings.class);
+        config.getConfigSection("spawn").setInt("radius", 9);
+        config.save();
+
+        // The file now matches the config, but the binding has not read the new value yet
+        config.reload();
+        Assert.assertEquals(9, settings.spawnRadius());
+    }
+
+    @Test
+    public void testUnused() throws Exception {
+        JsonConfig config = new JsonConfig(file);
+        WeakReference<Settings> settings = new WeakReference<>(ConfigBinding.bind(config, Settings.class));
+
+        // The config does not keep the binding alive
+        for (int i = 0; i < 50 && settings.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull(settings.get());
+
+        Settings bound = ConfigBinding.bind(config, Settings.class);
+        config.reload();
+        Assert.assertEquals(8, bound.spawnRadius());
+    }
+}
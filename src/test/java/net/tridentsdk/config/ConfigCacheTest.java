@@ -0,0 +1,117 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.config;
+
+import com.google.common.base.Charsets;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+public class ConfigCacheTest {
+    private Path directory;
+    private Path file;
+    private Path cacheFile;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("cache");
+        file = directory.resolve("config.json");
+        cacheFile = directory.resolve("config.cache");
+        write("{\"slots\": 20}");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(cacheFile);
+        Files.delete(directory);
+    }
+
+    private void write(String json) throws IOException {
+        Files.write(file, json.getBytes(Charsets.UTF_8));
+    }
+
+    @Test
+    public void testEncode() throws IOException {
+        JsonObject object = new JsonParser().parse("{\"a\": {\"b\": [1, 2.5, \"a\", true, null, {}]}, " +
+                "\"big\": 123456789012345678901234567890, \"text\": \"é\", \"a2\": false}").getAsJsonObject();
+        JsonObject decoded = ConfigCache.decode(ByteBuffer.wrap(ConfigCache.encode(object)));
+        Assert.assertEquals(object, decoded);
+        Assert.assertEquals("123456789012345678901234567890", decoded.get("big").getAsString());
+    }
+
+    @Test
+    public void testCached() throws IOException {
+        ConfigCache cache = ConfigCache.open(cacheFile);
+        Assert.assertEquals(20, cache.load(file).getInt("slots"));
+        cache.flush();
+
+        // Change the file without changing its size or modification time, so only the cache can give 20
+        FileTime time = Files.getLastModifiedTime(file);
+        write("{\"slots\": 40}");
+        Files.setLastModifiedTime(file, time);
+
+        ConfigCache reopened = ConfigCache.open(cacheFile);
+        Assert.assertEquals(1, reopened.size());
+        Assert.assertEquals(20, reopened.load(file).getInt("slots"));
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(time.toMillis() + 10_000));
+        Assert.assertEquals(40, reopened.load(file).getInt("slots"));
+        reopened.flush();
+    }
+
+    @Test
+    public void testDamaged() throws IOException {
+        Files.write(cacheFile, new byte[] { 1, 2, 3 });
+        ConfigCache cache = ConfigCache.open(cacheFile);
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(20, cache.load(file).getInt("slots"));
+        cache.flush();
+        Assert.assertEquals(1, ConfigCache.open(cacheFile).size());
+    }
+
+    @Test
+    public void testPrune() throws IOException {
+        Path other = directory.resolve("other.json");
+        Files.write(other, "{\"slots\": 10}".getBytes(Charsets.UTF_8));
+
+        ConfigCache cache = ConfigCache.open(cacheFile);
+        cache.load(file);
+        cache.load(other);
+        cache.flush();
+        Assert.assertEquals(2, ConfigCache.open(cacheFile).size());
+
+        // The reopened cache still maps the file it replaces
+        ConfigCache reopened = ConfigCache.open(cacheFile);
+        Files.delete(other);
+        reopened.flush();
+        Assert.assertEquals(1, reopened.size());
+        Assert.assertEquals(1, ConfigCache.open(cacheFile).size());
+        Assert.assertEquals(20, ConfigCache.open(cacheFile).load(file).getInt("slots"));
+    }
+}
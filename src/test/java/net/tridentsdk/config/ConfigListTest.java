@@ -0,0 +1,140 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.config;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+
+public class ConfigListTest {
+    private Path file;
+    private JsonConfig config;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("list", ".json");
+        Files.write(file, ("{\"whitelist\": [\"a\", \"b\", \"c\"], \"regions\": [{\"name\": \"spawn\"}]}")
+                .getBytes(Charsets.UTF_8));
+        config = new JsonConfig(file);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testRead() {
+        List<String> list = config.getList("whitelist", String.class);
+        Assert.assertEquals(3, list.size());
+        Assert.assertFalse(list.isEmpty());
+        Assert.assertEquals("b", list.get(1));
+        Assert.assertEquals(2, list.indexOf("c"));
+        Assert.assertTrue(list.contains("a"));
+        Assert.assertEquals(ImmutableList.of("a", "b", "c"), list);
+        Assert.assertEquals(3, config.asJsonObject().get("whitelist").getAsJsonArray().size());
+    }
+
+    @Test
+    public void testModify() {
+        List<String> list = config.getList("whitelist", String.class);
+        list.add("d");
+        list.addAll(ImmutableList.of("e", "f"));
+        list.add(0, "z");
+        list.set(1, "y");
+        list.remove("c");
+        list.remove(list.size() - 1);
+        Assert.assertEquals(ImmutableList.of("z", "y", "b", "d", "e"), list);
+
+        list.removeAll(ImmutableList.of("z", "e"));
+        list.retainAll(ImmutableList.of("y", "d"));
+        Assert.assertEquals(ImmutableList.of("y", "d"), list);
+        Assert.assertEquals(ImmutableList.of("y", "d"), config.snapshot().getStringList("whitelist"));
+
+        config.save();
+        Assert.assertEquals(ImmutableList.of("y", "d"), new JsonConfig(file).getList("whitelist", String.class));
+    }
+
+    @Test
+    public void testEqualLists() {
+        config.addList("admins", String.class);
+        config.addList("mods", String.class);
+        List<String> admins = config.getList("admins", String.class);
+        List<String> mods = config.getList("mods", String.class);
+
+        admins.add("bob");
+        mods.add("bob");
+        config.save();
+
+        JsonConfig read = new JsonConfig(file);
+        Assert.assertEquals(ImmutableList.of("bob"), read.getList("admins", String.class));
+        Assert.assertEquals(ImmutableList.of("bob"), read.getList("mods", String.class));
+    }
+
+    @Test
+    public void testSameArray() {
+        List<String> first = config.getList("whitelist", String.class);
+        List<String> second = config.getList("whitelist", String.class);
+        Assert.assertSame(first, second);
+
+        first.add("d");
+        config.getConfigSection("other").setInt("value", 1);
+        config.getList("whitelist", String.class).add("e");
+        config.save();
+
+        Assert.assertEquals(ImmutableList.of("a", "b", "c", "d", "e"),
+                new JsonConfig(file).getList("whitelist", String.class));
+    }
+
+    @Test
+    public void testIterator() {
+        List<String> list = config.getList("whitelist", String.class);
+        Iterator<String> iterator = list.iterator();
+        list.clear();
+
+        Assert.assertTrue(list.isEmpty());
+        Assert.assertEquals("a", iterator.next());
+        Assert.assertEquals("b", iterator.next());
+        Assert.assertEquals("c", iterator.next());
+        Assert.assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testSections() {
+        List<ConfigSection> regions = config.getList("regions", ConfigSection.class);
+        Assert.assertEquals("spawn", regions.get(0).getString("name"));
+
+        ConfigSection region = ConfigSection.addToList(regions);
+        region.setString("name", "arena");
+        config.save();
+
+        List<ConfigSection> read = new JsonConfig(file).getList("regions", ConfigSection.class);
+        Assert.assertEquals(2, read.size());
+        Assert.assertEquals("arena", read.get(1).getString("name"));
+    }
+}
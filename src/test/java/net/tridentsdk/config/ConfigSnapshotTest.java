@@ -0,0 +1,106 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.config;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class ConfigSnapshotTest {
+    private Path file;
+    private JsonConfig config;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("snapshot", ".json");
+        Files.write(file, ("{\"radius\": 16, \"ratio\": 1.5, \"name\": \"spawn\", \"enabled\": true, " +
+                "\"quoted\": \"42\", \"spawn\": {\"protection\": {\"radius\": 8}}, " +
+                "\"whitelist\": [\"a\", \"b\"], \"empty\": null}").getBytes(Charsets.UTF_8));
+        config = new JsonConfig(file);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testValues() {
+        ConfigSnapshot snapshot = config.snapshot();
+        Assert.assertEquals(16, snapshot.getInt("radius"));
+        Assert.assertEquals(16L, snapshot.getLong("radius"));
+        Assert.assertEquals(1.5D, snapshot.getDouble("ratio"), 0);
+        Assert.assertEquals(1, snapshot.getInt("ratio"));
+        Assert.assertEquals("spawn", snapshot.getString("name"));
+        Assert.assertEquals('s', snapshot.getChar("name"));
+        Assert.assertEquals("16", snapshot.getString("radius"));
+        Assert.assertTrue(snapshot.getBoolean("enabled"));
+        Assert.assertEquals(42, snapshot.getInt("quoted"));
+        Assert.assertEquals(ImmutableList.of("a", "b"), snapshot.getStringList("whitelist"));
+    }
+
+    @Test
+    public void testPaths() {
+        ConfigSnapshot snapshot = config.snapshot();
+        Assert.assertEquals(8, snapshot.getInt("spawn.protection.radius"));
+        Assert.assertTrue(snapshot.isSection("spawn.protection"));
+        Assert.assertFalse(snapshot.isSection("radius"));
+        Assert.assertTrue(snapshot.contains("empty"));
+        Assert.assertEquals(10, snapshot.size());
+
+        ConfigSnapshot section = config.getConfigSection("spawn").snapshot();
+        Assert.assertEquals(8, section.getInt("protection.radius"));
+    }
+
+    @Test
+    public void testDefaults() {
+        ConfigSnapshot snapshot = config.snapshot();
+        Assert.assertEquals(-1, snapshot.getInt("missing", -1));
+        Assert.assertEquals(-1, snapshot.getInt("name", -1));
+        Assert.assertEquals(-1, snapshot.getInt("empty", -1));
+        Assert.assertEquals("fallback", snapshot.getString("missing", "fallback"));
+        Assert.assertTrue(snapshot.getBoolean("name", true));
+        Assert.assertEquals(ImmutableList.of(), snapshot.getStringList("name"));
+    }
+
+    @Test
+    public void testPublish() {
+        ConfigSnapshot snapshot = config.snapshot();
+        Assert.assertSame(snapshot, config.snapshot());
+
+        config.getConfigSection("spawn").getConfigSection("protection").setInt("radius", 4);
+        ConfigSnapshot changed = config.snapshot();
+        Assert.assertNotSame(snapshot, changed);
+        Assert.assertEquals(8, snapshot.getInt("spawn.protection.radius"));
+        Assert.assertEquals(4, changed.getInt("spawn.protection.radius"));
+
+        config.remove("radius");
+        Assert.assertFalse(config.snapshot().contains("radius"));
+
+        config.reload();
+        Assert.assertEquals(16, config.snapshot().getInt("radius"));
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.config;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class JsonConfigTest {
+    private Path directory;
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("config");
+        file = directory.resolve("config.json");
+        write("{\"spawn\": {\"radius\": 8}, \"motd\": {\"text\": \"Hello\"}, \"slots\": 20}");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.delete(directory);
+    }
+
+    private void write(String json) throws IOException {
+        Files.write(file, json.getBytes(Charsets.UTF_8));
+    }
+
+    @Test
+    public void testChanges() throws IOException {
+        JsonConfig config = new JsonConfig(file);
+        List<String> all = Lists.newArrayList();
+        List<String> spawn = Lists.newArrayList();
+        config.addChangeListener("", c -> all.add(c.path()));
+        config.addChangeListener("spawn", c -> spawn.add(c.path() + "=" + c.newValue()));
+
+        write("{\"spawn\": {\"radius\": 16}, \"motd\": {\"text\": \"Hello\"}, \"whitelist\": []}");
+        config.reload();
+
+        Assert.assertEquals(Lists.newArrayList("slots", "spawn.radius", "whitelist"), all);
+        Assert.assertEquals(Lists.newArrayList("spawn.radius=16"), spawn);
+        Assert.assertEquals(16, config.getConfigSection("spawn").getInt("radius"));
+    }
+
+    @Test
+    public void testUnchanged() throws IOException {
+        JsonConfig config = new JsonConfig(file);
+        ConfigSection motd = config.getConfigSection("motd");
+        ConfigSnapshot snapshot = config.snapshot();
+        List<ConfigChange> changes = Lists.newArrayList();
+        config.addChangeListener("", changes::add);
+
+        config.reload();
+        Assert.assertTrue(changes.isEmpty());
+        Assert.assertSame(snapshot, config.snapshot());
+
+        write("{\"spawn\": {\"radius\": 4}, \"motd\": {\"text\": \"Hello\"}, \"slots\": 20}");
+        config.reload();
+        Assert.assertEquals(1, changes.size());
+        // The section did not change, so the old section is kept in the new tree
+        Assert.assertSame(motd.asJsonObject(), config.getConfigSection("motd").asJsonObject());
+    }
+
+    @Test
+    public void testWatch() throws Exception {
+        JsonConfig config = new JsonConfig(file);
+        CountDownLatch latch = new CountDownLatch(1);
+        config.addChangeListener("slots", c -> latch.countDown());
+
+        config.watch();
+        try {
+            Assert.assertTrue(config.isWatched());
+            write("{\"spawn\": {\"radius\": 8}, \"motd\": {\"text\": \"Hello\"}, \"slots\": 40}");
+
+            Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+            Assert.assertEquals(40, config.getInt("slots"));
+        } finally {
+            config.unwatch();
+        }
+
+        Assert.assertFalse(config.isWatched());
+    }
+
+    @Test
+    public void testWatchSave() throws Exception {
+        JsonConfig config = new JsonConfig(file);
+        List<String> changes = Lists.newCopyOnWriteArrayList();
+        CountDownLatch latch = new CountDownLatch(1);
+        config.addChangeListener("", c -> {
+            changes.add(c.path() + "=" + c.newValue());
+            latch.countDown();
+        });
+
+        config.watch();
+        try {
+            config.setInt("slots", 50);
+            config.save();
+            config.setInt("slots", 70);
+
+            // The save does not reload the config, which would revert the value set after it
+            Thread.sleep(ConfigWatcher.DEBOUNCE_MILLIS * 4);
+            Assert.assertEquals(70, config.getInt("slots"));
+
+            write("{\"spawn\": {\"radius\": 8}, \"motd\": {\"text\": \"Hello\"}, \"slots\": 40}");
+            Assert.assertTrue(latch.await(30, TimeUnit.SECONDS));
+            Assert.assertEquals(Lists.newArrayList("slots=40"), changes);
+        } finally {
+            config.unwatch();
+        }
+    }
+
+    @Test
+    public void testSave() {
+        JsonConfig config = new JsonConfig(file);
+        config.setInt("slots", 60);
+        config.getConfigSection("spawn").setString("world", "nether");
+        config.save();
+
+        JsonConfig read = new JsonConfig(file);
+        Assert.assertEquals(60, read.getInt("slots"));
+        Assert.assertEquals("nether", read.getConfigSection("spawn").getString("world"));
+    }
+
+    @Test
+    public void testSavePermissions() throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(file, PosixFileAttributeView.class);
+        Assume.assumeNotNull(view);
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r--r--");
+        view.setPermissions(permissions);
+
+        JsonConfig config = new JsonConfig(file);
+        config.setInt("slots", 30);
+        config.save();
+
+        Assert.assertEquals(permissions, Files.getPosixFilePermissions(file));
+    }
+
+    @Test
+    public void testSaveAsync() throws Exception {
+        JsonConfig config = new JsonConfig(file);
+        config.setInt("slots", 1);
+        CompletableFuture<Void> first = config.saveAsync();
+        config.setInt("slots", 2);
+        CompletableFuture<Void> second = config.getConfigSection("spawn").saveAsync();
+
+        // Both saves are written at once, with the values at the time of writing
+        Assert.assertSame(first, second);
+        first.get(30, TimeUnit.SECONDS);
+        Assert.assertEquals(2, new JsonConfig(file).getInt("slots"));
+    }
+
+    @Test
+    public void testFlush() {
+        JsonConfig config = new JsonConfig(file);
+        config.setInt("slots", 80);
+        CompletableFuture<Void> future = config.saveAsync();
+
+        JsonConfig.flushSaves();
+        Assert.assertTrue(future.isDone());
+        Assert.assertEquals(80, new JsonConfig(file).getInt("slots"));
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.entity;
+
+import net.tridentsdk.util.LongOpenHashSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class EntityTableTest {
+    private static final AtomicInteger IDS = new AtomicInteger();
+
+    private static Entity entity() {
+        return entity(IDS.incrementAndGet());
+    }
+
+    private static Entity entity(int id) {
+        return (Entity) Proxy.newProxyInstance(Entity.class.getClassLoader(), new Class[] { Entity.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "entityId":
+                            return id;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    @Test
+    public void testPack() {
+        long handle = EntityHandle.pack(12345, -7);
+        Assert.assertEquals(12345, EntityHandle.slot(handle));
+        Assert.assertEquals(-7, EntityHandle.generation(handle));
+    }
+
+    @Test
+    public void testResolve() {
+        EntityTable table = new EntityTable();
+        Entity entity = entity();
+        long handle = table.register(entity);
+
+        Assert.assertNotEquals(EntityHandle.NONE, handle);
+        Assert.assertSame(entity, table.resolve(handle));
+        Assert.assertEquals(handle, table.handleOf(entity));
+        Assert.assertEquals(handle, table.register(entity));
+        Assert.assertEquals(1, table.size());
+        Assert.assertNull(table.resolve(EntityHandle.NONE));
+    }
+
+    @Test
+    public void testUnregister() {
+        EntityTable table = new EntityTable();
+        Entity entity = entity();
+        long handle = table.register(entity);
+
+        Assert.assertTrue(table.unregister(entity));
+        Assert.assertFalse(table.unregister(entity));
+        Assert.assertNull(table.resolve(handle));
+        Assert.assertEquals(EntityHandle.NONE, table.handleOf(entity));
+        Assert.assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testReuse() {
+        EntityTable table = new EntityTable();
+        Entity first = entity();
+        long old = table.register(first);
+        table.unregister(first);
+
+        Entity second = entity();
+        long handle = table.register(second);
+        Assert.assertEquals(EntityHandle.slot(old), EntityHandle.slot(handle));
+        Assert.assertNotEquals(EntityHandle.generation(old), EntityHandle.generation(handle));
+        Assert.assertNull(table.resolve(old));
+        Assert.assertSame(second, table.resolve(handle));
+    }
+
+    @Test
+    public void testStaleId() {
+        EntityTable table = new EntityTable();
+        Entity first = entity(-1);
+        long old = table.register(first);
+
+        // An entity with the same id replaces one which was never unregistered
+        Entity second = entity(-1);
+        long handle = table.register(second);
+        Assert.assertNull(table.resolve(old));
+        Assert.assertSame(second, table.resolve(handle));
+        Assert.assertFalse(table.unregister(first));
+        Assert.assertEquals(1, table.size());
+    }
+
+    @Test
+    public void testGrow() {
+        EntityTable table = new EntityTable();
+        Entity[] entities = new Entity[1000];
+        LongOpenHashSet handles = new LongOpenHashSet();
+        for (int i = 0; i < entities.length; i++) {
+            entities[i] = entity();
+            Assert.assertTrue(handles.add(table.register(entities[i])));
+        }
+
+        Assert.assertEquals(entities.length, table.size());
+        for (Entity entity : entities) {
+            long handle = table.handleOf(entity);
+            Assert.assertTrue(handles.contains(handle));
+            Assert.assertSame(entity, table.resolve(handle));
+        }
+    }
+}
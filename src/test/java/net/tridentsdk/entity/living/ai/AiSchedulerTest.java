@@ -0,0 +1,164 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.entity.living.ai;
+
+import net.tridentsdk.Position;
+import net.tridentsdk.entity.Entity;
+import net.tridentsdk.entity.LivingEntity;
+import net.tridentsdk.entity.types.EntityType;
+import net.tridentsdk.world.EntityIndex;
+import net.tridentsdk.world.World;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AiSchedulerTest {
+    private final EntityIndex index = new EntityIndex();
+    private final World world = (World) Proxy.newProxyInstance(World.class.getClassLoader(),
+            new Class[] { World.class }, (proxy, method, args) -> method.getName().equals("entityIndex") ? index : null);
+
+    private static AiModule module(AtomicInteger thinks, int rest, long spinNanos) {
+        return entity -> {
+            thinks.incrementAndGet();
+            long end = System.nanoTime() + spinNanos;
+            while (System.nanoTime() < end) ;
+            return rest;
+        };
+    }
+
+    private LivingEntity entity(EntityType type, double x, AiModule module) {
+        Position position = Position.create(world, x, 64, 0);
+        return (LivingEntity) Proxy.newProxyInstance(LivingEntity.class.getClassLoader(),
+                new Class[] { LivingEntity.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "type":
+                            return type;
+                        case "aiModule":
+                            return module;
+                        case "isDead":
+                            return false;
+                        case "world":
+                            return world;
+                        case "position":
+                            return position;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    @Test
+    public void testRestTicks() {
+        AiScheduler scheduler = new AiScheduler(50, 32);
+        AtomicInteger thinks = new AtomicInteger();
+        scheduler.schedule(entity(EntityType.COW, 0, module(thinks, 5, 0)));
+
+        int ticks = 0;
+        while (thinks.get() == 0) {
+            scheduler.tick();
+            Assert.assertTrue(++ticks <= 20);
+        }
+
+        for (int i = 1; i <= 20; i++) {
+            scheduler.tick();
+            Assert.assertEquals(1 + i / 5, thinks.get());
+        }
+        Assert.assertEquals(5, scheduler.metrics(EntityType.COW).thinks());
+    }
+
+    @Test
+    public void testSpread() {
+        AiScheduler scheduler = new AiScheduler(50, 32);
+        AtomicInteger thinks = new AtomicInteger();
+        AiModule module = module(thinks, 20, 0);
+        for (int i = 0; i < 100; i++) {
+            scheduler.schedule(entity(EntityType.COW, i, module));
+        }
+
+        int most = 0;
+        for (int i = 0; i < 60; i++) {
+            most = Math.max(most, scheduler.tick());
+        }
+
+        Assert.assertTrue(thinks.get() >= 200);
+        Assert.assertTrue("Most thinks in a tick was " + most, most <= 10);
+    }
+
+    @Test
+    public void testBudgetDefersFarFirst() {
+        Entity player = (Entity) Proxy.newProxyInstance(Entity.class.getClassLoader(), new Class[] { Entity.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "type":
+                            return EntityType.PLAYER;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+        index.move(player, 0, 64, 0);
+
+        AiScheduler scheduler = new AiScheduler(0.5, 32);
+        AtomicInteger nearThinks = new AtomicInteger();
+        AtomicInteger farThinks = new AtomicInteger();
+        scheduler.schedule(entity(EntityType.ZOMBIE, 2, module(nearThinks, 1, 1_000_000)));
+        for (int i = 0; i < 4; i++) {
+            scheduler.schedule(entity(EntityType.SKELETON, 500 + i, module(farThinks, 1, 1_000_000)));
+        }
+
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(scheduler.tick() <= 1);
+        }
+
+        // Once the thinks line up in the same tick, only the near entity fits in the budget
+        Assert.assertTrue(nearThinks.get() > 80);
+        Assert.assertTrue(farThinks.get() < 20);
+        Assert.assertTrue(scheduler.metrics(EntityType.SKELETON).deferrals() > 0);
+    }
+
+    @Test
+    public void testUnschedule() {
+        AiScheduler scheduler = new AiScheduler(50, 32);
+        AtomicInteger thinks = new AtomicInteger();
+        LivingEntity entity = entity(EntityType.COW, 0, module(thinks, 1, 0));
+
+        Assert.assertTrue(scheduler.schedule(entity));
+        Assert.assertFalse(scheduler.schedule(entity));
+        for (int i = 0; i < 30; i++) {
+            scheduler.tick();
+        }
+        Assert.assertTrue(thinks.get() > 0);
+
+        Assert.assertTrue(scheduler.unschedule(entity));
+        Assert.assertEquals(0, scheduler.size());
+        int before = thinks.get();
+        for (int i = 0; i < 30; i++) {
+            scheduler.tick();
+        }
+        Assert.assertEquals(before, thinks.get());
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.entity.living.ai;
+
+import net.tridentsdk.base.Block;
+import net.tridentsdk.base.Substance;
+import net.tridentsdk.util.BlockPos;
+import net.tridentsdk.world.Chunk;
+import net.tridentsdk.world.World;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class PathfinderTest {
+    // A stone floor below y = 64, with a wall at x = 5 from z = -4 to 4 which is too tall to climb, a single block
+    // at x = 3 on the other side of the wall which can be stepped onto, and a box enclosing x = 20, z = 20
+    private final World world = proxy(World.class, (proxy, method, args) -> {
+        switch (method.getName()) {
+            case "chunkAt":
+                return chunk((Integer) args[0], (Integer) args[1]);
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                return null;
+        }
+    });
+
+    private final Pathfinder pathfinder = new Pathfinder(Runnable::run, 16, 4096, 100);
+
+    private static <T> T proxy(Class<T> type, java.lang.reflect.InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class[] { type }, handler);
+    }
+
+    private static boolean solid(int x, int y, int z) {
+        if (y < 64)
+            return true;
+        if (x == 5 && z >= -4 && z <= 4 && y < 67)
+            return true;
+        if (x == 3 && z == 10 && y == 64)
+            return true;
+        // A ridge 3 blocks high crossing a short wall, which can only be walked around on the ground
+        if (y < 67 && ((z == 40 && x >= 0 && x <= 8) || (x == 6 && z >= 38 && z <= 42)))
+            return true;
+        return y < 67 && Math.max(Math.abs(x - 20), Math.abs(z - 20)) == 2;
+    }
+
+    private static Chunk chunk(int chunkX, int chunkZ) {
+        return proxy(Chunk.class, (proxy, method, args) -> {
+            if (!method.getName().equals("blockAt"))
+                return null;
+
+            Substance substance = solid((chunkX << 4) + (Integer) args[0], (Integer) args[1],
+                    (chunkZ << 4) + (Integer) args[2]) ? Substance.STONE : Substance.AIR;
+            return proxy(Block.class, (p, m, a) -> m.getName().equals("substance") ? substance : null);
+        });
+    }
+
+    private Path find(long start, long goal) {
+        CompletableFuture<Path> future = pathfinder.find(world, start, goal);
+        pathfinder.tick();
+        Assert.assertTrue(future.isDone());
+        return future.join();
+    }
+
+    private static void assertConnected(Path path) {
+        for (int i = 1; i < path.length(); i++) {
+            Assert.assertTrue(Math.abs(path.x(i) - path.x(i - 1)) <= 1);
+            Assert.assertTrue(Math.abs(path.z(i) - path.z(i - 1)) <= 1);
+            Assert.assertTrue(Math.abs(path.y(i) - path.y(i - 1)) <= 1);
+            Assert.assertFalse(solid(path.x(i), path.y(i), path.z(i)));
+            Assert.assertTrue(solid(path.x(i), path.y(i) - 1, path.z(i)));
+        }
+    }
+
+    @Test
+    public void testStraight() {
+        Path path = find(BlockPos.pack(0, 64, -10), BlockPos.pack(4, 64, -10));
+
+        Assert.assertTrue(path.isComplete());
+        Assert.assertEquals(5, path.length());
+        Assert.assertEquals(BlockPos.pack(0, 64, -10), path.start());
+        Assert.assertEquals(BlockPos.pack(4, 64, -10), path.destination());
+    }
+
+    @Test
+    public void testAroundWall() {
+        long start = BlockPos.pack(0, 64, 0);
+        long goal = BlockPos.pack(10, 64, 0);
+        Path path = find(start, goal);
+
+        Assert.assertTrue(path.isComplete());
+        Assert.assertEquals(start, path.start());
+        Assert.assertEquals(goal, path.destination());
+        assertConnected(path);
+        for (int i = 0; i < path.length(); i++) {
+            Assert.assertTrue(path.x(i) != 5 || Math.abs(path.z(i)) > 4);
+        }
+    }
+
+    @Test
+    public void testStepUp() {
+        Path path = find(BlockPos.pack(1, 64, 10), BlockPos.pack(3, 65, 10));
+
+        Assert.assertTrue(path.isComplete());
+        Assert.assertEquals(3, path.length());
+        assertConnected(path);
+    }
+
+    @Test
+    public void testFallIsCheap() {
+        // Falling off the end of the ridge costs a single step, a search which overestimates the fall prefers the
+        // longer way around the wall
+        Path path = find(BlockPos.pack(0, 67, 40), BlockPos.pack(10, 64, 40));
+
+        Assert.assertTrue(path.isComplete());
+        Assert.assertEquals(11, path.length());
+        for (int i = 0; i < path.length(); i++) {
+            Assert.assertEquals(40, path.z(i));
+        }
+    }
+
+    @Test
+    public void testPartial() {
+        Path path = find(BlockPos.pack(20, 64, 10), BlockPos.pack(20, 64, 20));
+
+        Assert.assertFalse(path.isComplete());
+        Assert.assertEquals(BlockPos.pack(20, 64, 17), path.destination());
+        assertConnected(path);
+    }
+
+    @Test
+    public void testSharedAndCached() {
+        long start = BlockPos.pack(0, 64, -20);
+        long goal = BlockPos.pack(8, 64, -20);
+
+        CompletableFuture<Path> first = pathfinder.find(world, start, goal);
+        Assert.assertSame(first, pathfinder.find(world, start, goal));
+        Assert.assertEquals(1, pathfinder.queued());
+        pathfinder.tick();
+        Assert.assertEquals(0, pathfinder.queued());
+
+        Path path = first.join();
+        CompletableFuture<Path> cached = pathfinder.find(world, path.node(3), goal);
+        Assert.assertTrue(cached.isDone());
+        Assert.assertEquals(path.length() - 3, cached.join().length());
+        Assert.assertEquals(goal, cached.join().destination());
+
+        // Changes away from the path keep it, changes near it discard it
+        pathfinder.invalidate(world, 100, 64, 100);
+        Assert.assertTrue(pathfinder.find(world, path.node(3), goal).isDone());
+        pathfinder.invalidate(world, 4, 64, -20);
+        Assert.assertFalse(pathfinder.find(world, path.node(3), goal).isDone());
+    }
+
+    @Test
+    public void testRejected() {
+        Pathfinder rejecting = new Pathfinder(r -> {
+            throw new RejectedExecutionException();
+        }, 16, 4096, 100);
+        long start = BlockPos.pack(0, 64, -10);
+        long goal = BlockPos.pack(4, 64, -10);
+
+        CompletableFuture<Path> future = rejecting.find(world, start, goal);
+        rejecting.tick();
+        Assert.assertTrue(future.isCompletedExceptionally());
+        Assert.assertNotSame(future, rejecting.find(world, start, goal));
+    }
+
+    @Test
+    public void testInvalidateWhileLoading() {
+        AtomicBoolean placed = new AtomicBoolean();
+        WalkabilityCache[] cache = new WalkabilityCache[1];
+        World changing = proxy(World.class, (proxy, method, args) -> {
+            if (!method.getName().equals("chunkAt"))
+                return null;
+            return proxy(Chunk.class, (p, m, a) -> {
+                if (!m.getName().equals("blockAt"))
+                    return null;
+
+                boolean block = (Integer) a[0] == 0 && (Integer) a[1] == 64 && (Integer) a[2] == 0;
+                Substance substance = block && placed.get() ? Substance.STONE : Substance.AIR;
+                // The block is placed after it was read, while the section is being loaded
+                if (block && placed.compareAndSet(false, true))
+                    cache[0].invalidate(0, 64, 0);
+                return proxy(Block.class, (b, bm, ba) -> bm.getName().equals("substance") ? substance : null);
+            });
+        });
+
+        cache[0] = new WalkabilityCache(changing);
+        Assert.assertTrue(cache[0].isSolid(0, 64, 0));
+    }
+
+    @Test
+    public void testPathOf() {
+        Path path = Path.of(BlockPos.pack(1, 2, 3), BlockPos.pack(1, 2, 4), BlockPos.pack(1, 2, 5));
+
+        Assert.assertEquals(1, path.indexOf(BlockPos.pack(1, 2, 4)));
+        Assert.assertEquals(Path.of(BlockPos.pack(1, 2, 4), BlockPos.pack(1, 2, 5)), path.from(1));
+        Assert.assertEquals(5, path.z(2));
+        Assert.assertTrue(Path.EMPTY.isEmpty());
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.plugin;
+
+import com.google.common.collect.Maps;
+import com.google.common.io.ByteStreams;
+import net.tridentsdk.event.Listener;
+import net.tridentsdk.plugin.annotation.IgnoreRegistration;
+import net.tridentsdk.plugin.cmd.Command;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+
+public class ClassIndexTest {
+    public static class Handlers implements Listener, Serializable {
+        private static final long serialVersionUID = 1L;
+        private static final double RATE = 0.5D;
+        private final long created = System.nanoTime();
+
+        public String describe() {
+            return "Handlers " + created + " " + RATE;
+        }
+    }
+
+    @IgnoreRegistration
+    @Deprecated
+    public static class Ignored extends Handlers {
+    }
+
+    public static abstract class BaseCommand extends Command {
+    }
+
+    public static class Teleport extends BaseCommand {
+    }
+
+    public interface Helper extends Listener {
+    }
+
+    private static byte[] bytes(Class<?> cls) throws IOException {
+        String name = cls.getName().substring(cls.getName().lastIndexOf('.') + 1) + ".class";
+        try (InputStream in = cls.getResourceAsStream(name)) {
+            return ByteStreams.toByteArray(in);
+        }
+    }
+
+    private static ClassIndex index(Class<?>... classes) throws IOException {
+        File file = File.createTempFile("plugin", ".jar");
+        file.deleteOnExit();
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(file))) {
+            for (Class<?> cls : classes) {
+                out.putNextEntry(new JarEntry(cls.getName().replace('.', '/') + ".class"));
+                out.write(bytes(cls));
+                out.closeEntry();
+            }
+        }
+
+        try (JarFile jar = new JarFile(file)) {
+            return ClassIndex.of(jar, ClassIndexTest.class.getClassLoader());
+        }
+    }
+
+    @Test
+    public void testHeader() throws IOException {
+        ClassIndex.Header header = ClassIndex.Header.read(bytes(Handlers.class));
+        Assert.assertEquals(Handlers.class.getName(), header.name);
+        Assert.assertEquals(Object.class.getName(), header.superName);
+        Assert.assertEquals(2, header.interfaces.size());
+        Assert.assertEquals(Listener.class.getName(), header.interfaces.get(0));
+        Assert.assertEquals(Serializable.class.getName(), header.interfaces.get(1));
+        Assert.assertTrue(header.isConcrete());
+        Assert.assertTrue(header.annotations.isEmpty());
+
+        header = ClassIndex.Header.read(bytes(Ignored.class));
+        Assert.assertEquals(Handlers.class.getName(), header.superName);
+        Assert.assertTrue(header.isAnnotated(IgnoreRegistration.class));
+        Assert.assertTrue(header.isAnnotated(Deprecated.class));
+
+        Assert.assertFalse(ClassIndex.Header.read(bytes(BaseCommand.class)).isConcrete());
+        Assert.assertFalse(ClassIndex.Header.read(bytes(Helper.class)).isConcrete());
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotClass() throws IOException {
+        ClassIndex.Header.read(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+    }
+
+    @Test
+    public void testSubtype() throws IOException {
+        ClassIndex index = index(Handlers.class, Ignored.class, BaseCommand.class, Teleport.class, Helper.class);
+        Map<String, ClassIndex.Header> headers = Maps.newHashMap();
+        for (ClassIndex.Header header : index.headers()) {
+            headers.put(header.name, header);
+        }
+        Assert.assertEquals(5, headers.size());
+
+        Assert.assertTrue(index.isSubtype(Handlers.class.getName(), Listener.class));
+        Assert.assertTrue(index.isSubtype(Ignored.class.getName(), Listener.class));
+        Assert.assertTrue(index.isSubtype(Helper.class.getName(), Listener.class));
+        Assert.assertTrue(index.isSubtype(Teleport.class.getName(), Command.class));
+        Assert.assertFalse(index.isSubtype(Teleport.class.getName(), Listener.class));
+        Assert.assertFalse(index.isSubtype(Handlers.class.getName(), Command.class));
+        Assert.assertFalse(index.isSubtype(Handlers.class.getName(), TridentPlugin.class));
+        Assert.assertFalse(index.isSubtype("net.tridentsdk.DoesNotExist", Listener.class));
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.plugin;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class PluginGraphTest {
+    private static PluginGraph graph(Map<String, List<String>> dependencies, String... loaded) {
+        return new PluginGraph(dependencies, ImmutableSet.copyOf(loaded));
+    }
+
+    @Test
+    public void testOrder() {
+        PluginGraph graph = graph(ImmutableMap.of(
+                "Shops", ImmutableList.of("Economy", "Permissions"),
+                "Economy", ImmutableList.of("Permissions"),
+                "Permissions", ImmutableList.of(),
+                "Chat", ImmutableList.of("Core")), "Core");
+
+        List<String> order = graph.order();
+        Assert.assertEquals(4, order.size());
+        Assert.assertTrue(order.indexOf("Permissions") < order.indexOf("Economy"));
+        Assert.assertTrue(order.indexOf("Economy") < order.indexOf("Shops"));
+        Assert.assertTrue(graph.rejected().isEmpty());
+        Assert.assertEquals(ImmutableList.of("Economy", "Permissions"), graph.dependenciesOf("Shops"));
+        // Plugins which are already loaded are not waited on
+        Assert.assertEquals(ImmutableList.of(), graph.dependenciesOf("Chat"));
+    }
+
+    @Test
+    public void testMissing() {
+        PluginGraph graph = graph(ImmutableMap.of(
+                "Shops", ImmutableList.of("Economy"),
+                "Economy", ImmutableList.of("Vault"),
+                "Chat", ImmutableList.of()));
+
+        Assert.assertEquals(ImmutableList.of("Chat"), graph.order());
+        Assert.assertEquals(ImmutableSet.of("Shops", "Economy"), graph.rejected().keySet());
+    }
+
+    @Test
+    public void testCycle() {
+        PluginGraph graph = graph(ImmutableMap.of(
+                "A", ImmutableList.of("B"),
+                "B", ImmutableList.of("A"),
+                "C", ImmutableList.of("A"),
+                "D", ImmutableList.of()));
+
+        Assert.assertEquals(ImmutableList.of("D"), graph.order());
+        Assert.assertEquals(ImmutableSet.of("A", "B", "C"), graph.rejected().keySet());
+    }
+}
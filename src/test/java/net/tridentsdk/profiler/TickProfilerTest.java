@@ -0,0 +1,144 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.profiler;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TickProfilerTest {
+    private final TickProfiler profiler = new TickProfiler(3);
+
+    private static final class Outer {
+    }
+
+    private static final class Inner {
+    }
+
+    @After
+    public void disable() {
+        profiler.disable();
+    }
+
+    private static void slowWork(long millis) {
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        while (System.nanoTime() < end) {
+            Thread.yield();
+        }
+    }
+
+    @Test
+    public void testDisabled() {
+        profiler.beginTick();
+        profiler.enter(null, new Outer()).close();
+        Assert.assertNull(profiler.endTick());
+        Assert.assertTrue(profiler.plugins().isEmpty());
+        Assert.assertNull(profiler.lastTick());
+    }
+
+    @Test
+    public void testNestedSections() {
+        profiler.enable();
+        profiler.beginTick();
+        TickProfiler.Section outer = profiler.enter(null, new Outer());
+        slowWork(5);
+        TickProfiler.Section inner = profiler.enter(null, new Inner());
+        slowWork(20);
+        inner.close();
+        outer.close();
+        TickRecord record = profiler.endTick();
+
+        Assert.assertNotNull(record);
+        Sample outerSample = record.sources().get(Outer.class.getName());
+        Sample innerSample = record.sources().get(Inner.class.getName());
+        Assert.assertTrue(innerSample.nanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+        // The inner section is not counted again in the outer one
+        Assert.assertTrue(outerSample.nanos() < innerSample.nanos());
+        Assert.assertEquals(2, record.plugins().get(TickProfiler.SERVER).calls());
+        Assert.assertEquals(2, profiler.plugins().get(TickProfiler.SERVER).calls());
+    }
+
+    @Test
+    public void testAllocations() {
+        if (!TickProfiler.measuresAllocations())
+            return;
+
+        profiler.enable();
+        profiler.beginTick();
+        TickProfiler.Section section = profiler.enter(null, new Outer());
+        byte[] data = new byte[1 << 20];
+        section.close();
+        TickRecord record = profiler.endTick();
+
+        Assert.assertEquals(1 << 20, data.length);
+        Assert.assertTrue(record.sources().get(Outer.class.getName()).bytes() >= 1 << 20);
+        Assert.assertTrue(record.bytes() >= 1 << 20);
+    }
+
+    @Test
+    public void testHistory() {
+        profiler.enable();
+        for (int i = 0; i < 5; i++) {
+            profiler.beginTick();
+            profiler.endTick();
+        }
+
+        List<TickRecord> history = profiler.history();
+        Assert.assertEquals(3, history.size());
+        Assert.assertEquals(3, history.get(0).tick());
+        Assert.assertEquals(5, history.get(2).tick());
+        Assert.assertSame(history.get(2), profiler.lastTick());
+
+        profiler.reset();
+        Assert.assertTrue(profiler.history().isEmpty());
+    }
+
+    @Test
+    public void testSlowTick() throws IOException {
+        AtomicReference<TickRecord> slow = new AtomicReference<>();
+        profiler.setSlowTickMillis(10);
+        profiler.setSampleMillis(1);
+        profiler.onSlowTick(slow::set);
+        profiler.enable();
+
+        profiler.beginTick();
+        profiler.endTick();
+        Assert.assertNull(slow.get());
+
+        profiler.beginTick();
+        slowWork(100);
+        TickRecord record = profiler.endTick();
+        Assert.assertSame(record, slow.get());
+        Assert.assertTrue(record.isSlow());
+        Assert.assertFalse(record.stacks().isEmpty());
+
+        StringBuilder collapsed = new StringBuilder();
+        record.dumpCollapsed(collapsed);
+        Assert.assertTrue(collapsed.toString().contains("TickProfilerTest.slowWork"));
+
+        StringBuilder total = new StringBuilder();
+        profiler.dumpCollapsed(total);
+        Assert.assertTrue(total.toString().contains("TickProfilerTest.testSlowTick;"));
+    }
+}
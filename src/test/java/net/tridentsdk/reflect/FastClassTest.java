@@ -0,0 +1,130 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.reflect;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+@RunWith(Parameterized.class)
+public class FastClassTest {
+    private final ReflectBackend backend;
+
+    public FastClassTest(ReflectBackend backend) {
+        this.backend = backend;
+    }
+
+    @Parameterized.Parameters
+    public static Collection<Object[]> backends() {
+        return Arrays.asList(new Object[][] { { ReflectBackend.ASM }, { ReflectBackend.METHOD_HANDLES } });
+    }
+
+    private FastClass target() {
+        return FastClass.get(Target.class, backend);
+    }
+
+    public static class Target {
+        public int value;
+        public String name;
+        private int hidden;
+
+        public int add(int a) {
+            return value + a;
+        }
+
+        public int add(int a, int b) {
+            return value + a + b;
+        }
+
+        public String greet() {
+            return "hello " + name;
+        }
+
+        public static String greet(String name) {
+            return "hi " + name;
+        }
+    }
+
+    @Test
+    public void testCached() {
+        FastClass cls = target();
+        Assert.assertSame(cls, FastClass.get(Target.class, backend));
+        Assert.assertSame(FastClass.get(Target.class), FastClass.get(new Target()));
+        Assert.assertSame(cls.fieldBy("value"), cls.fieldBy("value"));
+        Assert.assertEquals(3, cls.fields().length);
+    }
+
+    @Test
+    public void testFields() {
+        Target target = new Target();
+        FastField value = target().fieldBy("value");
+        value.set(target, 5);
+        Assert.assertEquals(5, target.value);
+        Assert.assertEquals(5, (int) value.get(target));
+        Assert.assertEquals("value", value.toField().getName());
+    }
+
+    @Test
+    public void testPrivateField() {
+        Target target = new Target();
+        target.hidden = 7;
+        FastField hidden = target().fieldBy("hidden");
+        if (backend == ReflectBackend.ASM) {
+            try {
+                hidden.get(target);
+                Assert.fail();
+            } catch (IllegalArgumentException expected) {
+            }
+        } else {
+            Assert.assertEquals(7, (int) hidden.get(target));
+        }
+    }
+
+    @Test
+    public void testStaticMethod() {
+        if (backend == ReflectBackend.METHOD_HANDLES)
+            Assert.assertEquals("hi there", target().methodBy(null, "greet").invoke(null, "there"));
+    }
+
+    @Test
+    public void testMethods() {
+        Target target = new Target();
+        target.value = 1;
+        FastMethod add = target().methodBy(target, "add");
+        Assert.assertEquals(3, add.invoke(target, 2));
+        Assert.assertEquals(6, add.invoke(target, 2, 3));
+        target.name = "world";
+        Assert.assertEquals("hello world", target().methodBy(target, "greet").invoke(target));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingOverload() {
+        target().methodBy(null, "add").invoke(new Target(), 1, 2, 3);
+    }
+
+    @Test
+    public void testConstructor() {
+        Target target = target().constructor().newInstance();
+        Assert.assertNotNull(target);
+    }
+}
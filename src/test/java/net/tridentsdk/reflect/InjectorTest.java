@@ -0,0 +1,103 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.reflect;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class InjectorTest {
+    public static class Service {
+        private final String name;
+
+        public Service(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Counter {
+    }
+
+    public static class Target {
+        @Inject
+        private static Service shared;
+
+        @Inject
+        private Service field;
+
+        private final String label;
+        private final Service constructed;
+
+        public Target() {
+            this("default", null);
+        }
+
+        @Inject
+        private Target(String label, Service constructed) {
+            this.label = label;
+            this.constructed = constructed;
+        }
+    }
+
+    @BeforeClass
+    public static void bind() {
+        Injector.inject(Service.class).with(new Producer<Service>() {
+            @Override
+            public Service produce() {
+                return new Service("produced");
+            }
+
+            @Override
+            public Service produce(Class<?> metadata) {
+                return new Service(metadata.getSimpleName());
+            }
+        });
+    }
+
+    @Test
+    public void testConstructor() {
+        Target target = Injector.newObject(Target.class, "explicit");
+        Assert.assertEquals("explicit", target.label);
+        Assert.assertEquals("produced", target.constructed.name);
+        Assert.assertEquals("produced", target.field.name);
+        Assert.assertNotSame(target.field, Injector.newObject(Target.class, "again").field);
+    }
+
+    @Test
+    public void testDefaultConstructor() {
+        Target target = Injector.newObject(Target.class, new Counter());
+        Assert.assertEquals("default", target.label);
+        Assert.assertNull(target.constructed);
+        Assert.assertEquals("produced", target.field.name);
+    }
+
+    @Test
+    public void testInjectAll() {
+        Target target = new Target();
+        Assert.assertNull(target.field);
+        Injector.injectAll(target);
+        Assert.assertEquals("produced", target.field.name);
+    }
+
+    @Test
+    public void testStatic() {
+        Injector.staticInject(Target.class);
+        Assert.assertEquals("produced", Target.shared.name);
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BlockPosTest {
+    @Test
+    public void testPack() {
+        int[][] positions = { { 0, 0, 0 }, { -1, -1, -1 }, { 29999999, 255, -29999999 }, { -33554432, -2048, 33554431 },
+                { 12, 2047, -7 } };
+        for (int[] pos : positions) {
+            long packed = BlockPos.pack(pos[0], pos[1], pos[2]);
+            Assert.assertEquals(pos[0], BlockPos.unpackX(packed));
+            Assert.assertEquals(pos[1], BlockPos.unpackY(packed));
+            Assert.assertEquals(pos[2], BlockPos.unpackZ(packed));
+        }
+    }
+
+    @Test
+    public void testOffset() {
+        long packed = BlockPos.offset(BlockPos.pack(0, 64, 0), -1, 1, -1);
+        Assert.assertEquals(new BlockPos(-1, 65, -1), new BlockPos(packed));
+    }
+
+    @Test
+    public void testFloor() {
+        Assert.assertEquals(BlockPos.pack(-1, 10, 0), BlockPos.pack(new Vec3d(-0.5, 10.9, 0.1)));
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.util;
+
+import com.google.common.collect.Maps;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Random;
+
+public class Long2ObjectMapTest {
+    @Test
+    public void testAgainstHashMap() {
+        Long2ObjectMap<String> map = new Long2ObjectMap<>(4);
+        Map<Long, String> expected = Maps.newHashMap();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 20000; i++) {
+            long key = BlockPos.pack(random.nextInt(16) - 8, random.nextInt(4), random.nextInt(16) - 8);
+            if (random.nextInt(3) != 0) {
+                String value = String.valueOf(i);
+                Assert.assertEquals(expected.put(key, value), map.put(key, value));
+            } else {
+                Assert.assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+
+        Assert.assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, String> entry : expected.entrySet()) {
+            Assert.assertEquals(entry.getValue(), map.get(entry.getKey()));
+        }
+
+        Map<Long, String> iterated = Maps.newHashMap();
+        for (int slot = map.nextSlot(0); slot != -1; slot = map.nextSlot(slot + 1)) {
+            iterated.put(map.keyAt(slot), map.valueAt(slot));
+        }
+        Assert.assertEquals(expected, iterated);
+    }
+
+    @Test
+    public void testZeroKey() {
+        Long2ObjectMap<String> map = new Long2ObjectMap<>();
+        Assert.assertNull(map.put(0, "origin"));
+        Assert.assertEquals("origin", map.get(0));
+        Assert.assertEquals(1, map.size());
+        Assert.assertEquals("origin", map.remove(0));
+        Assert.assertFalse(map.containsKey(0));
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.util;
+
+import com.google.common.collect.Sets;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.Set;
+
+public class LongOpenHashSetTest {
+    @Test
+    public void testAgainstHashSet() {
+        LongOpenHashSet set = new LongOpenHashSet(4);
+        Set<Long> expected = Sets.newHashSet();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20000; i++) {
+            long value = random.nextInt(512) - 256;
+            if (random.nextBoolean()) {
+                Assert.assertEquals(expected.add(value), set.add(value));
+            } else {
+                Assert.assertEquals(expected.remove(value), set.remove(value));
+            }
+        }
+
+        Assert.assertEquals(expected.size(), set.size());
+        for (long value = -256; value < 256; value++) {
+            Assert.assertEquals(expected.contains(value), set.contains(value));
+        }
+
+        Set<Long> iterated = Sets.newHashSet();
+        for (int slot = set.nextSlot(0); slot != -1; slot = set.nextSlot(slot + 1)) {
+            iterated.add(set.valueAt(slot));
+        }
+        Assert.assertEquals(expected, iterated);
+    }
+
+    @Test
+    public void testClear() {
+        LongOpenHashSet set = new LongOpenHashSet();
+        set.add(0);
+        set.add(BlockPos.pack(1, 2, 3));
+        set.clear();
+
+        Assert.assertTrue(set.isEmpty());
+        Assert.assertFalse(set.contains(0));
+        Assert.assertEquals(0, set.toArray().length);
+    }
+}
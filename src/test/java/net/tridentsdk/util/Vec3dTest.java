@@ -0,0 +1,107 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.util;
+
+import net.tridentsdk.Position;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class Vec3dTest {
+    @Test
+    public void testArithmetic() {
+        Vec3d vec = new Vec3d(1, 2, 3).add(new Vector(1, 1, 1)).subtract(1, 0, 0).multiply(2);
+        Assert.assertEquals(new Vec3d(2, 6, 8), vec);
+    }
+
+    @Test
+    public void testCross() {
+        Vec3d vec = new Vec3d(1, 0, 0).cross(new Vec3d(0, 1, 0));
+        Assert.assertEquals(new Vec3d(0, 0, 1), vec);
+    }
+
+    @Test
+    public void testNormalize() {
+        Assert.assertEquals(1, new Vec3d(3, 4, 12).normalize().length(), 1e-9);
+        Assert.assertEquals(new Vec3d(), new Vec3d().normalize());
+    }
+
+    @Test
+    public void testPositionInterop() {
+        Position position = Position.create(null, 1, 2, 3);
+        Vec3d vec = new Vec3d(position).add(position);
+        Assert.assertEquals(new Vec3d(2, 4, 6), vec);
+
+        vec.writeTo(position);
+        Assert.assertEquals(6, position.z(), 0);
+        Assert.assertEquals(0, vec.distanceSquared(position), 0);
+    }
+
+    @Test
+    public void testPositionAdd() {
+        Position position = Position.create(null, 1, 2, 3);
+        position.add(new Vector(1, 1, 1));
+        Assert.assertEquals(Position.create(null, 2, 3, 4), position);
+    }
+
+    @Test
+    public void testView() {
+        Vec3d vec = new Vec3d();
+        Coordinates view = vec.view();
+        vec.set(5, 6, 7);
+        Assert.assertEquals(5, view.x(), 0);
+        Assert.assertSame(view, vec.view());
+    }
+
+    @Test
+    public void testScratch() {
+        MathScratch scratch = MathScratch.get();
+        long mark = scratch.mark();
+        Vec3d first = scratch.vec();
+        long inner = scratch.mark();
+        Vec3d second = scratch.vec();
+        Assert.assertNotSame(first, second);
+
+        scratch.reset(inner);
+        Assert.assertSame(second, scratch.vec());
+        scratch.reset(mark);
+        Assert.assertSame(first, scratch.vec());
+        scratch.reset(mark);
+    }
+
+    @Test
+    public void testScratchLargeMark() {
+        MathScratch scratch = MathScratch.get();
+        long mark = scratch.mark();
+        for (int i = 0; i < 70000; i++) {
+            scratch.blockPos();
+        }
+        Vec3d vec = scratch.vec();
+
+        // Past 65535 positions the counts must not run into each other
+        long inner = scratch.mark();
+        BlockPos pos = scratch.blockPos();
+        Vec3d next = scratch.vec();
+        Assert.assertNotSame(vec, next);
+
+        scratch.reset(inner);
+        Assert.assertSame(pos, scratch.blockPos());
+        Assert.assertSame(next, scratch.vec());
+        scratch.reset(mark);
+    }
+}
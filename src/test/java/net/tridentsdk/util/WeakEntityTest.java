@@ -0,0 +1,113 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.util;
+
+import com.google.common.collect.Maps;
+import net.tridentsdk.entity.Entity;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WeakEntityTest {
+    private static final AtomicInteger IDS = new AtomicInteger(1_000_000);
+
+    private static Entity entity() {
+        int id = IDS.incrementAndGet();
+        return (Entity) Proxy.newProxyInstance(Entity.class.getClassLoader(), new Class[] { Entity.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "entityId":
+                            return id;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "Entity " + id;
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    @Test
+    public void testFinder() {
+        Entity entity = entity();
+        Map<WeakEntity<Entity>, String> map = Maps.newHashMap();
+        WeakEntity<Entity> weak = WeakEntity.of(entity);
+        map.put(weak, "value");
+
+        Assert.assertSame(entity, weak.obtain());
+        Assert.assertEquals("value", map.get(WeakEntity.finderOf(entity)));
+        Assert.assertSame(weak.finder(), WeakEntity.finderOf(entity));
+        Assert.assertNull(map.get(WeakEntity.finderOf(entity())));
+        Assert.assertTrue(WeakEntity.orEmpty(null).isNull());
+    }
+
+    @Test
+    public void testClearReferences() throws Exception {
+        Entity entity = entity();
+        WeakEntity<Entity> first = WeakEntity.of(entity);
+        WeakEntity<Entity> second = WeakEntity.of(entity);
+
+        WeakEntity.clearReferencesTo(entity);
+        Assert.assertTrue(first.isNull());
+        Assert.assertTrue(second.isNull());
+
+        // The entity is no longer registered, so a new finder does not match anything
+        Map<WeakEntity<Entity>, String> map = Maps.newHashMap();
+        WeakEntity<Entity> third = WeakEntity.of(entity);
+        map.put(third, "value");
+        Assert.assertEquals("value", map.get(WeakEntity.finderOf(entity)));
+        WeakEntity.runMarkSweep();
+        Assert.assertSame(entity, third.obtain());
+    }
+
+    @Test
+    public void testConcurrentCreation() throws Exception {
+        Entity[] entities = new Entity[64];
+        for (int i = 0; i < entities.length; i++) {
+            entities[i] = entity();
+        }
+
+        int threads = 4;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    WeakEntity<Entity> weak = WeakEntity.of(entities[i % entities.length]);
+                    if (i % 2 == 0)
+                        weak.clear();
+                }
+                done.countDown();
+            }).start();
+        }
+
+        done.await();
+        WeakEntity.runMarkSweep();
+        for (Entity entity : entities) {
+            Assert.assertSame(entity, WeakEntity.of(entity).obtain());
+            Assert.assertTrue(WeakEntity.finderOf(entity).equals(WeakEntity.of(entity)));
+        }
+    }
+}
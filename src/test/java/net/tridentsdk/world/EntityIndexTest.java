@@ -0,0 +1,117 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.world;
+
+import com.google.common.collect.Lists;
+import net.tridentsdk.Position;
+import net.tridentsdk.entity.Entity;
+import net.tridentsdk.entity.types.EntityType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+public class EntityIndexTest {
+    private final EntityIndex index = new EntityIndex();
+    private final List<Entity> result = Lists.newArrayList();
+
+    private static Entity entity(EntityType type) {
+        return (Entity) Proxy.newProxyInstance(Entity.class.getClassLoader(), new Class[] { Entity.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "type":
+                            return type;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            return null;
+                    }
+                });
+    }
+
+    @Test
+    public void testRadius() {
+        Entity near = entity(EntityType.ZOMBIE);
+        Entity far = entity(EntityType.ZOMBIE);
+        index.move(near, 3, 64, 3);
+        index.move(far, 40, 64, 40);
+
+        Assert.assertEquals(1, index.entitiesInRadius(Position.create(null, 0, 64, 0), 5, null, result));
+        Assert.assertSame(near, result.get(0));
+    }
+
+    @Test
+    public void testTypeFilter() {
+        index.move(entity(EntityType.ZOMBIE), 1, 1, 1);
+        index.move(entity(EntityType.PIG), -1, -1, -1);
+
+        Assert.assertEquals(1, index.entitiesInRadius(Position.create(null, 0, 0, 0), 4, EntityType.PIG, result));
+        Assert.assertEquals(2, index.entitiesInRadius(Position.create(null, 0, 0, 0), 4, null, result));
+    }
+
+    @Test
+    public void testBox() {
+        Entity inside = entity(EntityType.COW);
+        index.move(inside, -20, 10, 15);
+        index.move(entity(EntityType.COW), -20, 30, 15);
+
+        Assert.assertEquals(1, index.entitiesInBox(-32, 0, 0, 0, 16, 16, null, result));
+        Assert.assertSame(inside, result.get(0));
+    }
+
+    @Test
+    public void testMove() {
+        Entity entity = entity(EntityType.BAT);
+        index.move(entity, 0, 0, 0);
+        index.move(entity, 100, 0, 100);
+
+        Assert.assertEquals(1, index.size());
+        Assert.assertEquals(0, index.entitiesInRadius(Position.create(null, 0, 0, 0), 10, null, result));
+        Assert.assertEquals(1, index.entitiesInRadius(Position.create(null, 100, 0, 100), 10, null, result));
+
+        Assert.assertTrue(index.untrack(entity));
+        Assert.assertFalse(index.untrack(entity));
+        Assert.assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testNearest() {
+        Entity first = entity(EntityType.WOLF);
+        Entity second = entity(EntityType.WOLF);
+        Entity third = entity(EntityType.WOLF);
+        index.move(third, 30, 0, 0);
+        index.move(first, 2, 0, 0);
+        index.move(second, -10, 0, 0);
+
+        Assert.assertEquals(2, index.nearest(Position.create(null, 0, 0, 0), 50, 2, null, result));
+        Assert.assertEquals(Lists.newArrayList(first, second), result);
+    }
+
+    @Test
+    public void testWideQuery() {
+        for (int i = 0; i < 32; i++) {
+            index.move(entity(EntityType.SHEEP), i * 1000, 0, 0);
+        }
+
+        Assert.assertEquals(32, index.entitiesInBox(-1, -1, -1, 32000, 1, 1, null, result));
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.tridentsdk.world;
+
+import net.tridentsdk.Position;
+import net.tridentsdk.base.Block;
+import net.tridentsdk.base.BlockOrientation;
+import net.tridentsdk.base.Substance;
+import net.tridentsdk.entity.Entity;
+import net.tridentsdk.entity.types.EntityType;
+import net.tridentsdk.util.BlockPos;
+import net.tridentsdk.util.Vector;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+
+public class RayTracerTest {
+    private static final long SOLID = BlockPos.pack(5, 64, -3);
+
+    private final World world = proxy(World.class, (proxy, method, args) -> {
+        if (method.getName().equals("chunkAt"))
+            return chunk((Integer) args[0], (Integer) args[1]);
+        return null;
+    });
+
+    private static <T> T proxy(Class<T> type, java.lang.reflect.InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class[] { type }, handler);
+    }
+
+    private static Chunk chunk(int chunkX, int chunkZ) {
+        return proxy(Chunk.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "x":
+                    return chunkX;
+                case "z":
+                    return chunkZ;
+                case "blockAt":
+                    long pos = BlockPos.pack((chunkX << 4) + (Integer) args[0], (Integer) args[1],
+                            (chunkZ << 4) + (Integer) args[2]);
+                    Substance substance = pos == SOLID ? Substance.STONE : Substance.AIR;
+                    return proxy(Block.class, (p, m, a) -> m.getName().equals("substance") ? substance : null);
+                default:
+                    return null;
+            }
+        });
+    }
+
+    @Test
+    public void testBlockHit() {
+        RayTrace result = new RayTrace();
+        boolean hit = RayTracer.traceBlocks(world, new Vector(0.5, 64.5, -2.5), new Vector(2, 0, 0), 10,
+                block -> block.substance() == Substance.STONE, result);
+
+        Assert.assertTrue(hit);
+        Assert.assertEquals(RayTrace.Type.BLOCK, result.type());
+        Assert.assertEquals(SOLID, result.blockPos());
+        Assert.assertEquals(BlockOrientation.WEST, result.face());
+        Assert.assertEquals(4.5, result.distance(), 1e-9);
+        Assert.assertEquals(5, result.point().x(), 1e-9);
+    }
+
+    @Test
+    public void testBlockMiss() {
+        RayTrace result = new RayTrace();
+        Assert.assertFalse(RayTracer.traceBlocks(world, new Vector(0.5, 64.5, -2.5), new Vector(2, 0, 0), 4,
+                block -> block.substance() == Substance.STONE, result));
+        Assert.assertFalse(result.isHit());
+    }
+
+    @Test
+    public void testDiagonal() {
+        RayTrace result = new RayTrace();
+        Assert.assertTrue(RayTracer.traceBlocks(world, new Vector(10.5, 69.5, 2.5), new Vector(-1, -1, -1), 20,
+                block -> block.substance() == Substance.STONE, result));
+        Assert.assertEquals(SOLID, result.blockPos());
+    }
+
+    @Test
+    public void testEntityHit() {
+        EntityIndex index = new EntityIndex();
+        Entity near = entity(4, 64, 0.5);
+        Entity far = entity(40, 64, 0.5);
+        index.track(near);
+        index.track(far);
+
+        RayTrace result = new RayTrace();
+        Assert.assertTrue(RayTracer.traceEntities(index, new Vector(0, 65, 0.5), new Vector(1, 0, 0), 50, null,
+                result));
+        Assert.assertSame(near, result.entity());
+        Assert.assertEquals(3.7, result.distance(), 1e-9);
+
+        index.untrack(near);
+        Assert.assertTrue(RayTracer.traceEntities(index, new Vector(0, 65, 0.5), new Vector(1, 0, 0), 50, null,
+                result));
+        Assert.assertSame(far, result.entity());
+    }
+
+    @Test
+    public void testEntitySegmentBoundary() {
+        // Segments are 16 blocks long, the first entity straddles the end of the first segment and the second is
+        // just past it
+        EntityIndex index = new EntityIndex();
+        Entity straddling = entity(16.1, 64, 0.5);
+        Entity past = entity(16.5, 64, 0.5);
+        index.track(past);
+        index.track(straddling);
+
+        RayTrace result = new RayTrace();
+        Assert.assertTrue(RayTracer.traceEntities(index, new Vector(0, 65, 0.5), new Vector(1, 0, 0), 50, null,
+                result));
+        Assert.assertSame(straddling, result.entity());
+        Assert.assertEquals(15.8, result.distance(), 1e-9);
+
+        // Diagonally, with the further entity in the box of the first segment and the nearer one only in the next
+        double step = 16 / Math.sqrt(2);
+        Entity inBox = entity(step + 0.25, 64, step + 0.25);
+        Entity nearer = entity(step + 0.1, 64, step + 0.1);
+        index.untrack(straddling);
+        index.untrack(past);
+        index.track(inBox);
+        index.track(nearer);
+
+        Assert.assertTrue(RayTracer.traceEntities(index, new Vector(0, 65, 0), new Vector(1, 0, 1), 50, null,
+                result));
+        Assert.assertSame(nearer, result.entity());
+    }
+
+    private static Entity entity(double x, double y, double z) {
+        Position position = Position.create(null, x, y, z);
+        return proxy(Entity.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "position":
+                    return position;
+                case "type":
+                    return EntityType.ZOMBIE;
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return null;
+            }
+        });
+    }
+}
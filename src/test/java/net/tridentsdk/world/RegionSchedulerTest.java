@@ -0,0 +1,116 @@
+/*
+ * Trident - A Multithreaded Server Alternative
+ * Copyright 2014 The TridentSDK Team
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.tridentsdk.world;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import net.tridentsdk.Position;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RegionSchedulerTest {
+    private final World world = (World) Proxy.newProxyInstance(World.class.getClassLoader(),
+            new Class[] { World.class }, (proxy, method, args) -> null);
+    private final RegionScheduler scheduler = new RegionScheduler(world, RegionScheduler.DEFAULT_SHIFT,
+            new ForkJoinPool(4));
+
+    @Test
+    public void testPartition() {
+        Region region = scheduler.regionAt(3, -1);
+        Assert.assertSame(region, scheduler.regionAt(7, -8));
+        Assert.assertSame(region, scheduler.regionAt(Position.create(world, 127.5, 64, -0.5)));
+        Assert.assertNotSame(region, scheduler.regionAt(8, -1));
+        Assert.assertEquals(0, region.x());
+        Assert.assertEquals(-1, region.z());
+        Assert.assertTrue(region.contains(0, -8));
+        Assert.assertFalse(region.contains(0, 0));
+        Assert.assertNull(scheduler.regionIfPresent(100, 100));
+    }
+
+    @Test
+    public void testOwnership() {
+        Position position = Position.create(world, 0, 64, 0);
+        Region region = scheduler.regionAt(position);
+        Region other = scheduler.regionAt(100, 100);
+        AtomicInteger ran = new AtomicInteger();
+
+        region.execute(ran::incrementAndGet);
+        Assert.assertEquals(0, ran.get());
+        Assert.assertEquals(1, region.queued());
+        Assert.assertFalse(scheduler.isOwned(position));
+
+        List<Region> ticked = Lists.newCopyOnWriteArrayList();
+        scheduler.tick(r -> {
+            Assert.assertSame(r, Region.current());
+            Assert.assertTrue(r.isOwned());
+            Assert.assertEquals(r == region, scheduler.isOwned(position));
+            if (r == other) {
+                // Sent across regions, so it must wait for the next tick
+                region.execute(ran::incrementAndGet);
+            } else {
+                // Run immediately by the owner
+                r.execute(ran::incrementAndGet);
+            }
+            ticked.add(r);
+        });
+
+        Assert.assertEquals(2, ticked.size());
+        Assert.assertEquals(2, ran.get());
+        Assert.assertEquals(1, region.queued());
+        Assert.assertFalse(region.isOwned());
+        Assert.assertNull(Region.current());
+
+        scheduler.tick(r -> {
+        });
+        Assert.assertEquals(3, ran.get());
+        Assert.assertEquals(0, region.queued());
+    }
+
+    @Test
+    public void testParallel() {
+        for (int i = 0; i < 16; i++) {
+            scheduler.regionAt(i << 3, 0);
+        }
+
+        Set<Thread> threads = Sets.newSetFromMap(new ConcurrentHashMap<>());
+        AtomicInteger owners = new AtomicInteger();
+        scheduler.tick(r -> {
+            threads.add(Thread.currentThread());
+            Assert.assertTrue(owners.incrementAndGet() <= 4);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            owners.decrementAndGet();
+        });
+
+        Assert.assertTrue(threads.size() > 1);
+        List<Region> regions = Lists.newArrayList();
+        Assert.assertEquals(16, scheduler.regions(regions));
+        Assert.assertTrue(scheduler.remove(regions.get(0)));
+        Assert.assertFalse(scheduler.remove(regions.get(0)));
+    }
+}